@@ -13,6 +13,7 @@ import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.RadioMenuItem;
@@ -41,6 +42,8 @@ import logic.instructions.Walk;
 import logic.level.Coord;
 import logic.level.FieldType;
 import logic.GameLogic;
+import logic.solver.CancellationToken;
+import logic.solver.SolverResult;
 
 import java.io.File;
 import java.io.IOException;
@@ -52,8 +55,11 @@ import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Main Controller for the FXMLDocument specifying all the games UI events.
@@ -62,6 +68,11 @@ import java.util.function.Consumer;
  */
 public class FXMLDocumentController implements Initializable {
 
+    /**
+     * Time the level solver is allowed to search for a shorter solution, before the best solution found is shown
+     */
+    private static final long SOLVE_TIME_BUDGET_MILLIS = 10_000;
+
     /**
      * UI Wrapper surrounding all elements
      */
@@ -146,6 +157,24 @@ public class FXMLDocumentController implements Initializable {
     @FXML
     private Button solveBtn;
 
+    /**
+     * Button to cancel the running level solver, only visible while solving
+     */
+    @FXML
+    private Button cancelSolveBtn;
+
+    /**
+     * Container of the progress indicator and the progress label of the level solver, only visible while solving
+     */
+    @FXML
+    private HBox solveProgressContainer;
+
+    /**
+     * Label showing the progress of the level solver
+     */
+    @FXML
+    private Label solveProgressLabel;
+
     /**
      * Button to start the program execution
      */
@@ -220,6 +249,21 @@ public class FXMLDocumentController implements Initializable {
      */
     private JavaFXGUI gui;
 
+    /**
+     * Executor running the level solver off the application thread. It uses a single daemon thread, so that a running
+     * solver does not keep the application alive.
+     */
+    private final ExecutorService solverExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "level-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Token of the running level solver, or null if the level is not being solved
+     */
+    private CancellationToken solveToken;
+
     /**
      * Static UI field containing the instruction controls
      */
@@ -417,7 +461,7 @@ public class FXMLDocumentController implements Initializable {
         // initialize GUI and game
         this.gui = new JavaFXGUI(gameFields, programFields,
                 procedureOneFields, procedureTwoFields, p1, p2, message, this.borderPane, this.levelMenu,
-                this.startBtn, this.rightHalfDisableGroup, this.gameGrid, initialGameSpeed);
+                this.startBtn, this.rightHalfDisableGroup, this.gameGrid, initialGameSpeed, this.solveProgressLabel);
         this.game = new GameLogic(this.gui);
     }
 
@@ -531,22 +575,24 @@ public class FXMLDocumentController implements Initializable {
      */
     private Coord getClickedGridCoord(MouseEvent mouseEvent, GridPane grid) {
         // initialize x and y with default values
-        Coord coord = new Coord(-1, -1);
+        int row = -1;
+        int col = -1;
 
         // get the coordinate at the given mouse position
         for (Node node : grid.getChildren()) {
             if (node instanceof ImageView) {
                 if (node.getBoundsInParent().contains(mouseEvent.getX(), mouseEvent.getY())) {
-                    coord.setRow(GridPane.getRowIndex(node));
-                    coord.setCol(GridPane.getColumnIndex(node));
+                    row = GridPane.getRowIndex(node);
+                    col = GridPane.getColumnIndex(node);
                 }
             }
         }
 
         // no coordinate found
-        if (coord.getRow() == -1 || coord.getCol() == -1) {
+        if (row == -1 || col == -1) {
             return null;
         }
+        Coord coord = Coord.of(row, col);
 
         assert (coord.getRow() >= 0 && coord.getCol() >= 0) : "The click was not convertable into a coordinate";
         return coord;
@@ -678,14 +724,73 @@ public class FXMLDocumentController implements Initializable {
      */
     @FXML
     private void solveLevel() {
-        // disables UI components that should not be clickable after pressing the solveLevel button
-        this.solveBtn.setDisable(true);
+        // a new solve supersedes the running one, so the running solver is cancelled instead of being waited for
+        if (this.solveToken != null) {
+            this.solveToken.cancel();
+        }
+        CancellationToken token = new CancellationToken();
+        this.solveToken = token;
+
+        // disables UI components that should not be clickable while the level is being solved, the solve button stays
+        // clickable to restart the solver and the cancel button is shown
         this.toggleModeBtn.setDisable(true);
         this.borderPane.getCenter().setDisable(true);
         this.levelMenu.setDisable(true);
+        FIELD_CONTROLS.setDisable(true);
+        this.solveProgressLabel.setText("");
+        showSolveProgress(true);
+
+        // the task solves a copy of the level, the result is shown by the application thread
+        Supplier<SolverResult> solveTask = game.createSolveTask(SOLVE_TIME_BUDGET_MILLIS, token);
+        solverExecutor.execute(() -> {
+            SolverResult result = solveTask.get();
+            Platform.runLater(() -> finishSolve(token, result));
+        });
+    }
+
+    /**
+     * Shows the result of a finished level solver, unless a newer solve superseded it.
+     *
+     * @param token  token of the finished solve
+     * @param result result of the finished solve
+     */
+    private void finishSolve(CancellationToken token, SolverResult result) {
+        if (token != this.solveToken) {
+            return;
+        }
+        this.solveToken = null;
+        showSolveProgress(false);
+        FIELD_CONTROLS.setDisable(false);
+
+        // disables UI components that should not be clickable until the solver message was closed
+        this.solveBtn.setDisable(true);
         this.controlsContainer.setDisable(true);
 
-        game.solveLevel();
+        game.applySolverResult(result);
+    }
+
+    /**
+     * Cancels the running level solver. The solver stops searching and the best solution found so far is shown.
+     */
+    @FXML
+    private void cancelSolve() {
+        if (this.solveToken != null) {
+            this.solveToken.cancel();
+            this.cancelSolveBtn.setDisable(true);
+        }
+    }
+
+    /**
+     * Shows or hides the cancel button and the progress of the level solver.
+     *
+     * @param visible true while the level is being solved
+     */
+    private void showSolveProgress(boolean visible) {
+        this.cancelSolveBtn.setDisable(false);
+        this.cancelSolveBtn.setVisible(visible);
+        this.cancelSolveBtn.setManaged(visible);
+        this.solveProgressContainer.setVisible(visible);
+        this.solveProgressContainer.setManaged(visible);
     }
 
     /**
@@ -780,8 +885,9 @@ public class FXMLDocumentController implements Initializable {
             FileChooser fileChooser = getFileChooser(languageBundle.getString("menu.level.load.txt"));
             File selectedFile = fileChooser.showOpenDialog(borderPane.getScene().getWindow());
 
+            // the file is read off the application thread, the level is shown by the application thread afterwards
             if (selectedFile != null) {
-                game.loadLevelFromFile(selectedFile);
+                game.loadLevelFromFileAsync(selectedFile.toPath(), Platform::runLater);
             }
         }
     }
@@ -796,7 +902,7 @@ public class FXMLDocumentController implements Initializable {
             File selectedFile = fileChooser.showSaveDialog(borderPane.getScene().getWindow());
 
             if (selectedFile != null) {
-                game.saveLevelToFile(selectedFile);
+                game.saveLevelToFileAsync(selectedFile.toPath(), Platform::runLater);
             }
         }
     }
@@ -884,6 +990,10 @@ public class FXMLDocumentController implements Initializable {
         if (this.isRunning) {
             this.gui.stopAnimation();
         }
+        if (this.solveToken != null) {
+            this.solveToken.cancel();
+        }
+        this.solverExecutor.shutdown();
         Platform.exit();
     }
 }
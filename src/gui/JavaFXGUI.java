@@ -2,6 +2,7 @@ package gui;
 
 import com.google.gson.JsonParseException;
 import javafx.animation.Animation;
+import javafx.application.Platform;
 import javafx.animation.ParallelTransition;
 import javafx.animation.PauseTransition;
 import javafx.animation.RotateTransition;
@@ -11,6 +12,7 @@ import javafx.animation.TranslateTransition;
 import javafx.event.ActionEvent;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.effect.InnerShadow;
 import javafx.scene.image.Image;
@@ -25,9 +27,11 @@ import logic.conversion.Action;
 import logic.exceptions.InvalidFieldSizeException;
 import logic.exceptions.NoBotRotationException;
 import logic.exceptions.NoFieldException;
+import logic.exceptions.UnsupportedFieldSizeException;
 import logic.instructions.InstructionContainer;
 import logic.level.BotRotation;
 import logic.conversion.ConversionResult;
+import logic.conversion.ExecutionTrace;
 import logic.solver.SolveStatus;
 import logic.exceptions.EmptyFileException;
 import logic.exceptions.InvalidBotRotationException;
@@ -45,6 +49,7 @@ import logic.level.FieldType;
 import logic.GUIConnector;
 
 import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -112,6 +117,11 @@ public class JavaFXGUI implements GUIConnector {
      */
     private final ArrayList<Node> righthalfDisableGroup;
 
+    /**
+     * Label showing the progress of the running level solver
+     */
+    private final Label solveProgressLabel;
+
     /**
      * Reference to the level menu tab at the top of the UI
      */
@@ -202,11 +212,12 @@ public class JavaFXGUI implements GUIConnector {
      * @param rightHalfDisableGroup group of UI elements from the right border pane half
      * @param gameGrid              gridPane of the game field
      * @param speed                 animation speed
+     * @param solveProgressLabel    label showing the progress of the level solver
      */
     public JavaFXGUI(ImageView[][] gameFields, ImageView[][] programFields,
                      ImageView[][] p1Fields, ImageView[][] p2Fields, ImageView p1Control, ImageView p2Control, Message message,
                      BorderPane borderPane, Menu levelMenu, Button startBtn, ArrayList<Node> rightHalfDisableGroup,
-                     GridPane gameGrid, GameSpeed speed) {
+                     GridPane gameGrid, GameSpeed speed, Label solveProgressLabel) {
         this.gameFields = gameFields;
         this.gameGrid = gameGrid;
         this.programFields = programFields;
@@ -223,6 +234,7 @@ public class JavaFXGUI implements GUIConnector {
         this.currentInstructionP1Image = p1Fields[0][0];
         this.currentInstructionP2Image = p2Fields[0][0];
         this.speed = speed;
+        this.solveProgressLabel = solveProgressLabel;
 
         // fill available field images once to reuse them later when the UI changes
         for (FieldType fieldType : FieldType.values()) {
@@ -248,8 +260,9 @@ public class JavaFXGUI implements GUIConnector {
 
     @Override
     public void updateGameField(FieldType[][] gameField) {
-        for (int row = 0; row < this.gameFields.length; row++) {
-            for (int col = 0; col < this.gameFields[row].length; col++) {
+        // levels of another size than the grid are rejected by canShowGameField, so every cell has an image view
+        for (int row = 0; row < gameField.length; row++) {
+            for (int col = 0; col < gameField[row].length; col++) {
                 Coord currCoord = new Coord(row, col);
                 changeFieldType(currCoord, gameField[row][col]);
 
@@ -292,10 +305,10 @@ public class JavaFXGUI implements GUIConnector {
     /**
      * Creates an animation depending on the given action.
      *
-     * @param move move to animate (contains the action, current bot position and current bot rotation)
+     * @param move cursor at the move to animate (contains the action, current bot position and current bot rotation)
      * @return created animation of that action
      */
-    private Animation createAnimationFromAction(Move move, Node player, double moveLength, double speed) {
+    private Animation createAnimationFromAction(ExecutionTrace.Cursor move, Node player, double moveLength, double speed) {
         switch (move.getAction()) {
             case WALK:
                 return createWalkTransition(move.getCurrentBotRotation(), player, moveLength, speed);
@@ -353,10 +366,10 @@ public class JavaFXGUI implements GUIConnector {
     /**
      * Removes the door from the current game field. As a part of the animation this is realized as a PauseTransition.
      *
-     * @param move reference to the current move
+     * @param move cursor at the current move
      * @return door remove animation (PauseTransition)
      */
-    private PauseTransition createRemoveDoorTransition(Move move) {
+    private PauseTransition createRemoveDoorTransition(ExecutionTrace.Cursor move) {
         Coord nextCell = Coord.getNextCoord(move.getCurrentBotPosition(), move.getCurrentBotRotation());
         ImageView cellImage = gameFields[nextCell.getRow()][nextCell.getCol()];
         PauseTransition cellTransition = new PauseTransition(Duration.ONE);
@@ -369,10 +382,10 @@ public class JavaFXGUI implements GUIConnector {
     /**
      * Removes a coin from the current game field. As a part of the animation this is realized as a PauseTransition.
      *
-     * @param move reference to the current move
+     * @param move cursor at the current move
      * @return coin remove animation (PauseTransition)
      */
-    private PauseTransition createRemoveCoinTransition(Move move) {
+    private PauseTransition createRemoveCoinTransition(ExecutionTrace.Cursor move) {
         Coord currPos = move.getCurrentBotPosition();
         ImageView cellImage = gameFields[currPos.getRow()][currPos.getCol()];
         PauseTransition cellTransition = new PauseTransition(Duration.ONE);
@@ -489,9 +502,9 @@ public class JavaFXGUI implements GUIConnector {
 
         // disable the start/stop button if no instructions were entered
         // otherwise you could stop a level that has never even started
-        startBtn.setDisable(conversionResult.getMoves().size() == 1);
+        startBtn.setDisable(conversionResult.size() == 1);
 
-        List<Move> movesCopy = conversionResult.getMoves();
+        ExecutionTrace.Cursor currentMove = conversionResult.cursor();
         SequentialTransition animations = new SequentialTransition();
 
         ImageView gridPlayer = gameFields[playerCoord.getRow()][playerCoord.getCol()];
@@ -511,9 +524,7 @@ public class JavaFXGUI implements GUIConnector {
         List<InstructionContainer> prevInstructionsContainers = new ArrayList<>();
 
         // add animations for every move with the correct blue frame surrounding the current instruction
-        for (int i = 0; i < movesCopy.size() && !movesCopy.get(i).getInstructionContainer().equals(List.of(InstructionContainer.RESULT)); i++) {
-            Move currentMove = movesCopy.get(i);
-
+        while (currentMove.next() && !currentMove.isResult()) {
             // the COLLECT_COIN action does not need an animated blue frame
             if (currentMove.getAction() != Action.COLLECT_COIN) {
                 List<InstructionContainer> container = currentMove.getInstructionContainer();
@@ -570,8 +581,9 @@ public class JavaFXGUI implements GUIConnector {
 
         this.animation = animations;
 
+        Move lastMove = conversionResult.getLastMove();
         if (animations.getChildren().isEmpty()) {
-            showGameResult(movesCopy.get(movesCopy.size() - 1).getAction());
+            showGameResult(lastMove.getAction());
         } else {
             // remove the player image from the grid
             gridPlayer.setImage(AVAILABLE_FIELD_IMAGES.get(FieldType.NORMAL.ordinal()));
@@ -588,12 +600,12 @@ public class JavaFXGUI implements GUIConnector {
                 this.startBtn.setDisable(true);
 
                 // set the player to his right ending location
-                Coord lastBotPosition = conversionResult.getLastMove().getCurrentBotPosition();
-                BotRotation lastBotRotation = conversionResult.getLastMove().getCurrentBotRotation();
+                Coord lastBotPosition = lastMove.getCurrentBotPosition();
+                BotRotation lastBotRotation = lastMove.getCurrentBotRotation();
                 ImageView newGridPlayer = gameFields[lastBotPosition.getRow()][lastBotPosition.getCol()];
                 newGridPlayer.setImage(AVAILABLE_FIELD_IMAGES.get(FieldType.START.ordinal()));
                 newGridPlayer.setRotate(lastBotRotation.getRotation());
-                showGameResult(movesCopy.get(movesCopy.size() - 1).getAction());
+                showGameResult(lastMove.getAction());
             });
         }
     }
@@ -675,7 +687,7 @@ public class JavaFXGUI implements GUIConnector {
                     message.getLanguageBundleString("msg.error.io-exception"),
                     e.getMessage()
             );
-        } else if (e instanceof InvalidFieldSizeException) {
+        } else if (e instanceof InvalidFieldSizeException || e instanceof UnsupportedFieldSizeException) {
             message.openErrorMessageDialog(
                     message.getLanguageBundleString("msg.error.invalid-field-size"),
                     e.getMessage()
@@ -693,6 +705,30 @@ public class JavaFXGUI implements GUIConnector {
         }
     }
 
+    @Override
+    public boolean canShowGameField(int rows, int cols) {
+        // the grid has a fixed size
+        return rows == gameFields.length && cols == gameFields[0].length;
+    }
+
+    @Override
+    public void showLevelSavedMessage() {
+        message.openMessageDialog(
+                message.getLanguageBundleString("msg.level.saved"),
+                MessageType.INFORMATION
+        );
+    }
+
+    @Override
+    public void showLevelSolverProgress(int expandedNodes, int bestLength) {
+        String text = bestLength != -1
+                ? MessageFormat.format(message.getLanguageBundleString("msg.solver.progress"), expandedNodes, bestLength)
+                : MessageFormat.format(message.getLanguageBundleString("msg.solver.progress-no-solution"), expandedNodes);
+
+        // the solver runs on its own thread, the label can only be changed by the application thread
+        Platform.runLater(() -> solveProgressLabel.setText(text));
+    }
+
     @Override
     public void showLevelSolverMessage(SolveStatus solvable) {
         MessageType messageType = MessageType.WARNING;
@@ -717,6 +753,9 @@ public class JavaFXGUI implements GUIConnector {
             case UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES:
                 messageProperty = "msg.solver.unsolvable-can-not-reduce-to-program-and-procedures";
                 break;
+            case UNDECIDED_SEARCH_STOPPED:
+                messageProperty = "msg.solver.undecided-search-stopped";
+                break;
         }
 
         message.openMessageDialog(
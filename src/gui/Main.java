@@ -7,7 +7,12 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
+import logic.solver.LevelSolver;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.ResourceBundle;
@@ -35,6 +40,24 @@ public class Main extends Application {
      */
     private static final ResourceBundle LANGUAGE_BUNDLE = ResourceBundle.getBundle("gui.l18n.language", Locale.GERMAN);
 
+    /**
+     * File of the persistent solution store, within the home directory of the user
+     */
+    private static final Path SOLUTION_STORE_FILE = Paths.get(System.getProperty("user.home"), ".escapebot", "solutions.bin");
+
+    /**
+     * Opens the persistent solution store, so that levels solved in earlier sessions are not searched again.
+     */
+    @Override
+    public void init() {
+        try {
+            Files.createDirectories(SOLUTION_STORE_FILE.getParent());
+            LevelSolver.openSolutionStore(SOLUTION_STORE_FILE);
+        } catch (IOException e) {
+            // the solver still works without the store, it only does not remember its results across sessions
+        }
+    }
+
     @Override
     public void start(Stage primaryStage) throws Exception {
         Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("FXMLDocument.fxml")), LANGUAGE_BUNDLE);
@@ -60,6 +83,14 @@ public class Main extends Application {
         });
     }
 
+    /**
+     * Closes the persistent solution store.
+     */
+    @Override
+    public void stop() throws IOException {
+        LevelSolver.closeSolutionStore();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
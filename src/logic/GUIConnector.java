@@ -62,6 +62,15 @@ public interface GUIConnector {
      */
     void startAnimation(ConversionResult conversionResult, int programLength, int p1Length, int p2Length);
 
+    /**
+     * Checks if the gui is able to show a game field of the given size. Levels of other sizes are not loaded.
+     *
+     * @param rows amount of rows of the game field
+     * @param cols amount of columns of the game field
+     * @return true if every cell of the game field can be shown
+     */
+    boolean canShowGameField(int rows, int cols);
+
     /**
      * Shows an error message to the screen. The specific error message shown is selected by the given exception.
      *
@@ -69,6 +78,11 @@ public interface GUIConnector {
      */
     void showErrorMessage(Exception e);
 
+    /**
+     * Tells the user that the level was saved to a file.
+     */
+    void showLevelSavedMessage();
+
     /**
      * Shows a message with a given message type to the screen.
      *
@@ -77,6 +91,14 @@ public interface GUIConnector {
      */
     void showLevelSolverMessage(SolveStatus solvable);
 
+    /**
+     * Shows the progress of the running level solver. This method is called by the thread running the solver.
+     *
+     * @param expandedNodes amount of states the solver expanded so far
+     * @param bestLength    amount of instructions of the best solution found so far, -1 if there is none yet
+     */
+    void showLevelSolverProgress(int expandedNodes, int bestLength);
+
     /**
      * Specifies the instance that should be used when adding instructions to procedure 1
      *
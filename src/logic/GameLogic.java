@@ -1,17 +1,20 @@
 package logic;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
 import logic.conversion.Action;
 import logic.exceptions.InvalidFieldSizeException;
 import logic.exceptions.NoBotRotationException;
 import logic.exceptions.NoFieldException;
-import logic.instructions.InstructionContainer;
+import logic.exceptions.UnsupportedFieldSizeException;
+import logic.instructions.ContainerStack;
 import logic.instructions.Procedure;
 import logic.level.BotRotation;
+import logic.conversion.CompiledProgram;
 import logic.conversion.ConversionResult;
+import logic.conversion.ConversionSummary;
+import logic.conversion.ExecutionTrace;
 import logic.level.FieldType;
+import logic.solver.CancellationToken;
 import logic.solver.SolveStatus;
 import logic.exceptions.EmptyFileException;
 import logic.exceptions.InvalidBotRotationException;
@@ -22,8 +25,10 @@ import logic.instructions.ProcedureTwo;
 import logic.level.Coord;
 import logic.level.Level;
 import logic.conversion.Move;
-import logic.level.SavedState;
+import logic.level.LevelFileService;
 import logic.solver.LevelSolver;
+import logic.solver.SolverMode;
+import logic.solver.SolverProgressListener;
 import logic.solver.SolverResult;
 
 import java.io.File;
@@ -32,14 +37,19 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Logic of the game "Escape-Bot". In this game the player tries to navigate a robot
- * through a 8x8 grid from a starting position to the exit. The player needs to build a
+ * through a grid (8x8 by default) from a starting position to the exit. The player needs to build a
  * program consisting of max. 12 actions and 2 procedures with max. 8 actions to solve a level.
  * There are several actions to choose from such as moving, turning, jumping and finding the exit.
  * The aim of this game is to build a program that is able to find the exit.
@@ -83,6 +93,11 @@ public class GameLogic {
      */
     private final int INSTRUCTION_COLS = 4;
 
+    /**
+     * Service loading and saving the level files without blocking the gui
+     */
+    private final LevelFileService levelFiles = new LevelFileService();
+
     /**
      * Constructor used by the GUI to initialize a default level when the UI opens.
      *
@@ -346,6 +361,17 @@ public class GameLogic {
      * @return action indicating a recursion or null if there is no recursion
      */
     Action recursionInProcedures() {
+        return recursionInProcedures(procedureOne, procedureTwo);
+    }
+
+    /**
+     * Checks if the given procedures contain any recursion.
+     *
+     * @param procedureOne procedure one
+     * @param procedureTwo procedure two
+     * @return action indicating a recursion or null if there is no recursion
+     */
+    private static Action recursionInProcedures(Procedure procedureOne, Procedure procedureTwo) {
         if (procedureOne.containsInstruction(procedureOne) || procedureTwo.containsInstruction(procedureTwo)) {
             return Action.LOOSE_RECURSION_PROCEDURE_CALLS_ITSELF;
         } else if (procedureOne.containsInstruction(procedureTwo) && procedureTwo.containsInstruction(procedureOne)) {
@@ -363,59 +389,82 @@ public class GameLogic {
      * @return List of actions to send to the GUI
      */
     ConversionResult convertInstructionsToActions() {
+        // work on a level copy to track the current level state
+        return convertInstructionsToActions(level.getLevelCopy(), programInstructions, procedureOne, procedureTwo);
+    }
+
+    /**
+     * Converts the three Instruction lists to a list of actions without a game, e.g. to grade many programs without a
+     * GUI. The program instructions have to reference the given procedures.
+     *
+     * @param levelCopy           level to execute the instructions on, the level is changed by the conversion
+     * @param programInstructions instructions of the program
+     * @param procedureOne        procedure one
+     * @param procedureTwo        procedure two
+     * @return List of actions, ending with the win or loose action
+     */
+    public static ConversionResult convertInstructionsToActions(Level levelCopy, List<Instruction> programInstructions, Procedure procedureOne, Procedure procedureTwo) {
         // check for a recursion error
-        Action recursionError = recursionInProcedures();
+        Action recursionError = recursionInProcedures(procedureOne, procedureTwo);
         if (recursionError != null) {
-            Move move = new Move(level.getCurrentBotPosition(), level.getBotRotation(), recursionError, List.of(InstructionContainer.RESULT));
+            Move move = new Move(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), recursionError, ContainerStack.RESULT);
             return new ConversionResult(List.of(move));
         }
 
-        // work on a level copy to track the current level state
-        Level levelCopy = level.getLevelCopy();
+        ExecutionTrace trace = CompiledProgram.compile(programInstructions).run(levelCopy, ContainerStack.PROGRAM);
 
-        int[] lostCount = new int[]{0};
-        List<Move> moves = programInstructions.stream()
-                .flatMap(instruction -> instruction.convertInstruction(levelCopy, List.of(InstructionContainer.PROGRAM)))
-                .takeWhile(move -> {
-                    // inclusive takeWhile using a lostCount
-                    // this will also take the first value where the predicate does not match
-                    if (move.getInstructionContainer().equals(List.of(InstructionContainer.RESULT))) ++lostCount[0];
-                    return lostCount[0] < 2;
-                })
-                .collect(Collectors.toList());
-
-
-        // Because I am working with streams, where a streamed value does not know what comes before or after it, this
-        // extra part is needed to determine whether there were instructions after the first exit call or not
-        if (moves.size() == 0) {
+        // The interpreter only stops after the second lost move, so this extra part is needed to determine whether
+        // there were instructions after the first exit call or not
+        if (trace.size() == 0) {
             //there are no actions
-            moves.add(new Move(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.LOOSE_NO_ACTIONS, List.of(InstructionContainer.RESULT)));
+            trace.add(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.LOOSE_NO_ACTIONS, ContainerStack.RESULT);
         } else {
             // find the first exit and save its index into i
             boolean exitInThere = false;
             int i = 0;
-            while (!exitInThere && i < moves.size()) {
-                exitInThere = moves.get(i++).getAction() == Action.EXIT;
+            while (!exitInThere && i < trace.size()) {
+                exitInThere = trace.getAction(i++) == Action.EXIT;
             }
 
+            ExecutionTrace.Cursor lastMove = trace.cursor();
+            lastMove.moveTo(trace.size() - 1);
+
             if (exitInThere) {
                 // check if exit was the last called instruction
-                boolean lastExit = (moves.size()) == i;
+                boolean lastExit = (trace.size()) == i;
                 if (!lastExit) {
-                    moves.subList(i - 1, moves.size()).clear();
+                    trace.truncate(i - 1);
 
                     // there were other instructions after the exit
-                    moves.add(new Move(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.LOOSE_INSTRUCTIONS_AFTER_EXIT, List.of(InstructionContainer.RESULT)));
+                    trace.add(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.LOOSE_INSTRUCTIONS_AFTER_EXIT, ContainerStack.RESULT);
                 } else {
                     // last action was exit
-                    moves.add(new Move(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.WIN, List.of(InstructionContainer.RESULT)));
+                    trace.add(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.WIN, ContainerStack.RESULT);
                 }
-            } else if (!moves.get(moves.size() - 1).getInstructionContainer().equals(List.of(InstructionContainer.RESULT))) {
+            } else if (!lastMove.isResult()) {
                 // not ending with exit
-                moves.add(new Move(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.LOOSE_NOT_ENDING_WITH_EXIT, List.of(InstructionContainer.RESULT)));
+                trace.add(levelCopy.getCurrentBotPosition(), levelCopy.getBotRotation(), Action.LOOSE_NOT_ENDING_WITH_EXIT, ContainerStack.RESULT);
             }
         }
-        return new ConversionResult(moves);
+        return new ConversionResult(trace);
+    }
+
+    /**
+     * Fast-forwards the three Instruction lists without creating any moves, e.g. to grade many programs. The summary
+     * ends with the same win or loose action as {@link #convertInstructionsToActions(Level, List, Procedure, Procedure)}.
+     *
+     * @param levelCopy           level to execute the instructions on, the level is changed by the execution
+     * @param programInstructions instructions of the program
+     * @param procedureOne        procedure one
+     * @param procedureTwo        procedure two
+     * @return summary of the conversion
+     */
+    public static ConversionSummary summarizeInstructions(Level levelCopy, List<Instruction> programInstructions, Procedure procedureOne, Procedure procedureTwo) {
+        Action recursionError = recursionInProcedures(procedureOne, procedureTwo);
+        if (recursionError != null) {
+            return ConversionSummary.ofResult(recursionError);
+        }
+        return CompiledProgram.compile(programInstructions).fastForward(levelCopy);
     }
 
     /**
@@ -454,42 +503,76 @@ public class GameLogic {
      * @param fieldType field type to reset all occurrences of
      */
     public void resetAllOccurrencesOfField(FieldType fieldType) {
-        List<Coord> occurrences = this.level.allOccurrencesOfField(fieldType);
-        if (occurrences != null) {
-            for (Coord occurrence : occurrences) {
-                this.level.setGameFieldCell(FieldType.NORMAL, occurrence);
-                gui.resetField(occurrence);
-            }
+        for (Coord occurrence : this.level.allOccurrencesOfField(fieldType)) {
+            this.level.setGameFieldCell(FieldType.NORMAL, occurrence);
+            gui.resetField(occurrence);
         }
     }
 
     /**
-     * Creates an empty level
+     * Creates an empty level with the same size as the current level
      */
     public void newLevel() {
-        Level level = new Level(
-                new FieldType[][]{
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                        {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,}
-                },
-                BotRotation.NORTH);
-        initializeGameField(level);
+        FieldType[][] gameField = new FieldType[this.level.getRows()][this.level.getCols()];
+        for (FieldType[] row : gameField) {
+            Arrays.fill(row, FieldType.NORMAL);
+        }
+        initializeGameField(new Level(gameField, BotRotation.NORTH));
     }
 
     public void solveLevel() {
-        SolverResult solverResult = LevelSolver.solve(level);
+        solveLevel(0, null);
+    }
+
+    /**
+     * Solves the level within a time budget and replaces the program and procedure instructions with the best solution
+     * found. The progress of the solver is shown by the gui while solving.
+     *
+     * @param timeBudgetMillis time the solver is allowed to take in milliseconds, 0 or less for no limit
+     * @param token            token to cancel the solver from another thread, or null
+     */
+    public void solveLevel(long timeBudgetMillis, CancellationToken token) {
+        applySolverResult(createSolveTask(timeBudgetMillis, token).get());
+    }
+
+    /**
+     * Creates a task solving a copy of the current level, so that the task can run on another thread while the level
+     * is still used by the game. The level is solved with {@link SolverMode#PROGRAM_SYNTHESIS}, which also finds
+     * programs for levels whose paths can not be split into program and procedures. The progress of the solver is shown by the gui until the token is cancelled, so a
+     * cancelled solve does not overwrite the progress of a newer one.
+     * <p>
+     * The result of the task is not shown by the task itself, it has to be given to
+     * {@link #applySolverResult(SolverResult)} by the thread that is allowed to change the gui.
+     *
+     * @param timeBudgetMillis time the solver is allowed to take in milliseconds, 0 or less for no limit
+     * @param token            token to cancel the solver from another thread, or null
+     * @return task returning the result of the solver
+     */
+    public Supplier<SolverResult> createSolveTask(long timeBudgetMillis, CancellationToken token) {
+        Level levelCopy = level.getLevelCopy();
+        SolverProgressListener listener = (expandedNodes, bestLength) -> {
+            if (token == null || !token.isCancelled()) {
+                gui.showLevelSolverProgress(expandedNodes, bestLength);
+            }
+        };
+        return () -> LevelSolver.solve(levelCopy, SolverMode.PROGRAM_SYNTHESIS, timeBudgetMillis, token, listener);
+    }
 
+    /**
+     * Replaces the program and procedure instructions with the ones of a solver result, if the level was solvable,
+     * and tells the user about the result.
+     *
+     * @param solverResult result of the solver
+     */
+    public void applySolverResult(SolverResult solverResult) {
         if (solverResult.getSolveStatus() == SolveStatus.SOLVABLE) {
             // replace the current program and procedure 1 & 2 instructions with the ones from the solver result
-            programInstructions = solverResult.getProgramInstructions();
-            procedureOne = solverResult.getP1();
-            procedureTwo = solverResult.getP2();
+            // the procedures of the solver result can not be changed, so the game uses its own copies of them
+            procedureOne = new ProcedureOne();
+            procedureTwo = new ProcedureTwo();
+            procedureOne.addInstructions(useOwnProcedures(solverResult.getP1().getInstructions()));
+            procedureTwo.addInstructions(useOwnProcedures(solverResult.getP2().getInstructions()));
+            programInstructions = useOwnProcedures(solverResult.getProgramInstructions());
             gui.useProcedureOne(procedureOne);
             gui.useProcedureTwo(procedureTwo);
 
@@ -503,6 +586,26 @@ public class GameLogic {
         gui.showLevelSolverMessage(solverResult.getSolveStatus());
     }
 
+    /**
+     * Replaces every procedure reference in the given instructions with the procedures of the game.
+     *
+     * @param instructions instructions to replace the procedure references in
+     * @return new list of instructions referencing procedureOne and procedureTwo
+     */
+    private List<Instruction> useOwnProcedures(List<Instruction> instructions) {
+        List<Instruction> ownInstructions = new ArrayList<>();
+        for (Instruction instruction : instructions) {
+            if (instruction instanceof ProcedureOne) {
+                ownInstructions.add(procedureOne);
+            } else if (instruction instanceof ProcedureTwo) {
+                ownInstructions.add(procedureTwo);
+            } else {
+                ownInstructions.add(instruction);
+            }
+        }
+        return ownInstructions;
+    }
+
     /**
      * Loads a level from a given file.
      * <p>
@@ -525,13 +628,7 @@ public class GameLogic {
      */
     public void loadLevelFromReader(Reader reader) {
         try {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            SavedState newLevel = gson.fromJson(reader, SavedState.class);
-            if (newLevel != null) {
-                initializeGameField(newLevel.getLevel());
-            } else {
-                throw new EmptyFileException();
-            }
+            initializeGameField(LevelFileService.readLevel(reader));
         } catch (JsonParseException | EmptyFileException | InvalidBotRotationException | InvalidFieldTypeException
                 | InvalidFieldSizeException | NoFieldException | NoBotRotationException e) {
             gui.showErrorMessage(e);
@@ -540,13 +637,19 @@ public class GameLogic {
 
 
     /**
-     * Initializes the current level with a given level state.
+     * Initializes the current level with a given level state. A level the gui is not able to show is not loaded, the
+     * gui shows an {@link UnsupportedFieldSizeException} instead.
      * <p>
      * This method is package-private for test purposes ONLY.
      *
      * @param newLevel given level to change the current level to
      */
     void initializeGameField(Level newLevel) {
+        if (!gui.canShowGameField(newLevel.getRows(), newLevel.getCols())) {
+            gui.showErrorMessage(new UnsupportedFieldSizeException(newLevel.getRows(), newLevel.getCols()));
+            return;
+        }
+
         //  change gameField according to the given level data
         this.level.setGameField(newLevel.getGameField());
         this.level.setBotRotation(newLevel.getBotRotation());
@@ -567,13 +670,65 @@ public class GameLogic {
         if (file == null) return;
 
         try (Writer writer = new FileWriter(file)) {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(level.createSavedState(), writer);
+            LevelFileService.writeLevel(level.createSavedState(), writer);
         } catch (IOException e) {
             gui.showErrorMessage(e);
         }
     }
 
+    /**
+     * Loads a level from a given file without blocking the calling thread. The file is read and parsed by the I/O
+     * thread of the {@link LevelFileService}, the loaded level or the error is given to the gui by the given executor.
+     *
+     * @param file        given level file in JSON format
+     * @param guiExecutor executor running tasks on the thread that is allowed to change the gui
+     * @return future completing once the gui was updated
+     */
+    public CompletableFuture<Void> loadLevelFromFileAsync(Path file, Executor guiExecutor) {
+        return levelFiles.readLevelAsync(file).handleAsync((newLevel, error) -> {
+            if (error != null) {
+                gui.showErrorMessage(unwrap(error));
+            } else {
+                initializeGameField(newLevel);
+            }
+            return null;
+        }, guiExecutor);
+    }
+
+    /**
+     * Saves the current level to a given file without blocking the calling thread. The current level is captured
+     * right away, the file is written by the I/O thread of the {@link LevelFileService} and the gui is told about the
+     * result by the given executor.
+     *
+     * @param file        file to save the level to
+     * @param guiExecutor executor running tasks on the thread that is allowed to change the gui
+     * @return future completing once the gui was told about the result
+     */
+    public CompletableFuture<Void> saveLevelToFileAsync(Path file, Executor guiExecutor) {
+        return levelFiles.writeLevelAsync(level.createSavedState(), file).handleAsync((ignore, error) -> {
+            if (error != null) {
+                gui.showErrorMessage(unwrap(error));
+            } else {
+                gui.showLevelSavedMessage();
+            }
+            return null;
+        }, guiExecutor);
+    }
+
+    /**
+     * Returns the exception that caused a future to complete exceptionally.
+     *
+     * @param error error the future completed with
+     * @return exception wrapped by the CompletionException of the future
+     */
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        throw new CompletionException(cause);
+    }
+
     public void reset() {
         this.gui.updateGameField(level.getGameField());
         this.gui.setBotRotation(level.getBotRotation());
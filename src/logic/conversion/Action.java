@@ -83,5 +83,14 @@ public enum Action {
     /**
      * Game result indicating that the player lost, because ProcedureOne and ProcedureTwo call each other
      */
-    LOOSE_RECURSION_PROCEDURES_CALL_EACH_OTHER
+    LOOSE_RECURSION_PROCEDURES_CALL_EACH_OTHER;
+
+    /**
+     * Checks if the action is one of the LOOSE game results.
+     *
+     * @return true if the player lost with this action
+     */
+    public boolean isLost() {
+        return this.name().startsWith("LOOSE");
+    }
 }
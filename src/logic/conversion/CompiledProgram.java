@@ -0,0 +1,688 @@
+package logic.conversion;
+
+import logic.instructions.ContainerStack;
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.InstructionContainer;
+import logic.instructions.Jump;
+import logic.instructions.Procedure;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.BotRotation;
+import logic.level.Coord;
+import logic.level.FieldType;
+import logic.level.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instructions compiled to a flat array of opcodes, which are converted to moves by a single interpreter loop.
+ * <p>
+ * The program comes first in the opcode array, followed by one section for every called procedure. A procedure call
+ * is a CALL opcode with the address of the procedure section and the instruction container of the procedure as
+ * operands, every section ends with a RETURN opcode. A call of an empty procedure is compiled to a single
+ * EMPTY_PROCEDURE opcode.
+ * <p>
+ * The interpreter creates the same moves as the stream based {@link Instruction#convertInstruction} did: the program
+ * and every procedure call only stop after their second lost move, which is not part of the result anymore. The
+ * instruction that is currently executed inside a stopped program or procedure is still finished, as the streams
+ * evaluated one instruction of a procedure at a time.
+ * <p>
+ * When only the outcome of a conversion is needed, the program can be {@link #fastForward fast-forwarded}. The
+ * interpreter then only keeps a {@link ConversionSummary} instead of the moves and summarizes the effect of every
+ * procedure call. A further call of the same procedure from the same start state on the same board applies the
+ * summary instead of executing the procedure again.
+ *
+ * @author Timo Peters
+ */
+public class CompiledProgram {
+
+    /**
+     * Opcode of the walk instruction
+     */
+    private static final int WALK = 0;
+
+    /**
+     * Opcode of the turn left instruction
+     */
+    private static final int TURN_LEFT = 1;
+
+    /**
+     * Opcode of the turn right instruction
+     */
+    private static final int TURN_RIGHT = 2;
+
+    /**
+     * Opcode of the jump instruction
+     */
+    private static final int JUMP = 3;
+
+    /**
+     * Opcode of the exit instruction
+     */
+    private static final int EXIT = 4;
+
+    /**
+     * Opcode of a procedure call, followed by the address of the procedure and the ordinal of its instruction container
+     */
+    private static final int CALL = 5;
+
+    /**
+     * Opcode of a call of an empty procedure
+     */
+    private static final int EMPTY_PROCEDURE = 6;
+
+    /**
+     * Opcode at the end of the program and of every procedure
+     */
+    private static final int RETURN = 7;
+
+    /**
+     * Cached instruction containers, so that looking up a container does not need to copy the values array
+     */
+    private static final InstructionContainer[] CONTAINERS = InstructionContainer.values();
+
+    /**
+     * Compiled program followed by the compiled procedures
+     */
+    private final int[] code;
+
+    /**
+     * Maximum amount of nested procedure calls
+     */
+    private final int maxCallDepth;
+
+    /**
+     * Constructor to create a compiled program from its opcodes.
+     *
+     * @param code         opcodes of the program and all procedures
+     * @param maxCallDepth maximum amount of nested procedure calls
+     */
+    private CompiledProgram(int[] code, int maxCallDepth) {
+        this.code = code;
+        this.maxCallDepth = maxCallDepth;
+    }
+
+    /**
+     * Compiles a list of program instructions and every procedure called by them.
+     *
+     * @param programInstructions instructions of the program
+     * @return compiled program
+     * @throws IllegalArgumentException if a procedure calls itself or two procedures call each other
+     */
+    public static CompiledProgram compile(List<Instruction> programInstructions) {
+        Compiler compiler = new Compiler();
+        compiler.compileSection(programInstructions, 0);
+        return new CompiledProgram(compiler.toArray(), compiler.maxCallDepth);
+    }
+
+    /**
+     * Converts the compiled instructions to moves by executing them on a level.
+     *
+     * @param level                level to execute the instructions on, the level is changed by the execution
+     * @param instructionContainer stack of instruction containers the program is called in
+     * @return trace of the moves created by the instructions, up to the second lost move
+     */
+    public ExecutionTrace run(Level level, ContainerStack instructionContainer) {
+        Interpreter interpreter = new Interpreter(level, instructionContainer, maxCallDepth + 1, false);
+        interpreter.run(code);
+        return interpreter.trace;
+    }
+
+    /**
+     * Executes the compiled instructions on a level without creating any moves. Repeated procedure calls from the same
+     * start state are applied with a memoized {@link ProcedureSummary} of their effect. The level ends in the same
+     * state as with {@link #run}, which has to be used to expand the moves, e.g. for an animation.
+     *
+     * @param level level to execute the instructions on, the level is changed by the execution
+     * @return summary of the moves that would have been created
+     */
+    public ConversionSummary fastForward(Level level) {
+        Interpreter interpreter = new Interpreter(level, ContainerStack.PROGRAM, maxCallDepth + 1, true);
+        interpreter.run(code);
+        return interpreter.summary;
+    }
+
+    /**
+     * Returns the opcodes of the compiled program.
+     * <p>
+     * This method is package-private for test-purposes.
+     *
+     * @return copy of the opcodes
+     */
+    int[] getCode() {
+        return Arrays.copyOf(code, code.length);
+    }
+
+    /**
+     * State of one execution of a compiled program. There is one frame for the program and every nested procedure
+     * call.
+     */
+    private static class Interpreter {
+
+        /**
+         * Level the instructions are executed on
+         */
+        private final Level level;
+
+        /**
+         * Trace of the created moves, null when fast-forwarding
+         */
+        private final ExecutionTrace trace;
+
+        /**
+         * Tally of the created moves, null when creating a trace
+         */
+        private final ConversionSummary summary;
+
+        /**
+         * Summaries of the procedure calls by procedure address and start state, null when creating a trace
+         */
+        private final Map<Long, ProcedureSummary> summaries;
+
+        /**
+         * Address to continue at after the procedure of every frame returns
+         */
+        private final int[] returnAddresses;
+
+        /**
+         * Amount of lost moves every frame has seen
+         */
+        private final int[] lostCounts;
+
+        /**
+         * Stopped state of every frame
+         */
+        private final boolean[] stopped;
+
+        /**
+         * Instruction container stack of every frame
+         */
+        private final ContainerStack[] stacks;
+
+        /**
+         * Index of the current frame
+         */
+        private int depth;
+
+        /**
+         * Amount of lost and exit moves so far, a procedure call is only summarized if it did not add any
+         */
+        private int failures;
+
+        /**
+         * Amount of other moves so far, whether they were added to the tally or not
+         */
+        private int movesCreated;
+
+        /**
+         * Action of the last move counted by {@link #movesCreated}
+         */
+        private Action lastCreatedAction;
+
+        /**
+         * Amount of walks and jumps so far
+         */
+        private int movements;
+
+        /**
+         * True if the last walk or jump collected a coin
+         */
+        private boolean lastMovementCollectedCoin;
+
+        /**
+         * Packed cells ({@code row << 16 | col}) of all coins collected so far
+         */
+        private int[] coinLog;
+
+        /**
+         * Amount of coins in the coin log
+         */
+        private int coinLogSize;
+
+        /**
+         * Summary key, failures, moves, movements, coin log size and coins in the level at the start of the procedure
+         * call of every frame
+         */
+        private final long[] callKeys;
+        private final int[] callFailures;
+        private final int[] callMoves;
+        private final int[] callMovements;
+        private final int[] callCoinLogSizes;
+        private final int[] callCoinAmounts;
+
+        private Interpreter(Level level, ContainerStack instructionContainer, int frames, boolean fastForward) {
+            this.level = level;
+            this.returnAddresses = new int[frames];
+            this.lostCounts = new int[frames];
+            this.stopped = new boolean[frames];
+            this.stacks = new ContainerStack[frames];
+            stacks[0] = instructionContainer;
+
+            this.trace = fastForward ? null : new ExecutionTrace();
+            this.summary = fastForward ? new ConversionSummary() : null;
+            this.summaries = fastForward ? new HashMap<>() : null;
+            int recordedFrames = fastForward ? frames : 0;
+            this.coinLog = new int[fastForward ? 8 : 0];
+            this.callKeys = new long[recordedFrames];
+            this.callFailures = new int[recordedFrames];
+            this.callMoves = new int[recordedFrames];
+            this.callMovements = new int[recordedFrames];
+            this.callCoinLogSizes = new int[recordedFrames];
+            this.callCoinAmounts = new int[recordedFrames];
+        }
+
+        /**
+         * Executes the opcodes until the program returns.
+         *
+         * @param code opcodes to execute
+         */
+        private void run(int[] code) {
+            int pc = 0;
+            while (true) {
+                // a stopped frame does not execute any further instruction and the frame called in it finishes its
+                // current instruction before it stops as well
+                int opcode = stopped[depth] || (depth > 0 && stopped[depth - 1]) ? RETURN : code[pc++];
+
+                switch (opcode) {
+                    case WALK:
+                        walk();
+                        break;
+                    case TURN_LEFT: {
+                        BotRotation preMoveBotRotation = level.getBotRotation();
+                        level.rotateBotLeft();
+                        emit(level.getCurrentBotPosition(), preMoveBotRotation, Action.TURN_LEFT, stacks[depth]);
+                        break;
+                    }
+                    case TURN_RIGHT: {
+                        BotRotation preMoveBotRotation = level.getBotRotation();
+                        level.rotateBotRight();
+                        emit(level.getCurrentBotPosition(), preMoveBotRotation, Action.TURN_RIGHT, stacks[depth]);
+                        break;
+                    }
+                    case JUMP:
+                        jump();
+                        break;
+                    case EXIT:
+                        exit();
+                        break;
+                    case CALL:
+                        if (summaries != null && applySummary(code[pc])) {
+                            pc += 2;
+                            break;
+                        }
+                        depth++;
+                        returnAddresses[depth] = pc + 2;
+                        lostCounts[depth] = 0;
+                        stopped[depth] = false;
+                        stacks[depth] = stacks[depth - 1].push(CONTAINERS[code[pc + 1]]);
+                        if (summaries != null) {
+                            startSummary(code[pc]);
+                        }
+                        pc = code[pc];
+                        break;
+                    case EMPTY_PROCEDURE:
+                        // an empty procedure still creates a move, so that the position of the animation frame in the
+                        // GUI is incremented correctly
+                        emit(level.getCurrentBotPosition(), level.getBotRotation(), Action.EMPTY_PROCEDURE, stacks[depth]);
+                        break;
+                    case RETURN:
+                    default:
+                        if (depth == 0) {
+                            return;
+                        }
+                        if (summaries != null) {
+                            finishSummary();
+                        }
+                        pc = returnAddresses[depth];
+                        depth--;
+                        break;
+                }
+            }
+        }
+
+        /**
+         * Adds a move to the trace or the tally, if neither the current frame nor any calling frame has stopped.
+         * Every lost move is counted by every frame it passes and a frame stops at its second lost move, which is not
+         * passed to the calling frame anymore.
+         */
+        private void emit(Coord position, BotRotation rotation, Action action, ContainerStack stack) {
+            boolean lost = stack == ContainerStack.RESULT;
+            if (lost || action == Action.EXIT) {
+                failures++;
+            } else {
+                movesCreated++;
+                lastCreatedAction = action;
+            }
+            for (int frame = depth; frame >= 0; frame--) {
+                if (stopped[frame]) {
+                    return;
+                }
+                if (lost && ++lostCounts[frame] >= 2) {
+                    stopped[frame] = true;
+                    return;
+                }
+            }
+            if (trace != null) {
+                trace.add(position, rotation, action, stack);
+            } else {
+                summary.add(action, stack);
+            }
+        }
+
+        /**
+         * Creates the key of a procedure call from the current start state.
+         *
+         * @param address address of the called procedure
+         * @return key of the procedure summary, -1 if the level has no bot position
+         */
+        private long summaryKey(int address) {
+            Coord position = level.getCurrentBotPosition();
+            if (position == null) {
+                return -1;
+            }
+            return (long) address << 34 | (long) position.getRow() << 18 | (long) position.getCol() << 2 | level.getBotRotation().ordinal();
+        }
+
+        /**
+         * Applies the summary of a procedure call from the current start state instead of executing the call.
+         *
+         * @param address address of the called procedure
+         * @return true if there was an applicable summary
+         */
+        private boolean applySummary(int address) {
+            long key = summaryKey(address);
+            ProcedureSummary procedureSummary = key >= 0 ? summaries.get(key) : null;
+            if (procedureSummary == null || !procedureSummary.isApplicable(level)) {
+                return false;
+            }
+            procedureSummary.apply(level);
+
+            // the calling frames keep track of the call as if it was executed
+            movesCreated += procedureSummary.getSteps();
+            lastCreatedAction = procedureSummary.getLastAction();
+            for (int coin : procedureSummary.getCollectedCoins()) {
+                logCoin(coin);
+            }
+            if (procedureSummary.isMoved()) {
+                movements++;
+                lastMovementCollectedCoin = procedureSummary.endsOnCollectedCoin();
+            }
+
+            // the moves of the call are only added if no calling frame has stopped, like in emit()
+            for (int frame = depth; frame >= 0; frame--) {
+                if (stopped[frame]) {
+                    return true;
+                }
+            }
+            summary.add(procedureSummary);
+            return true;
+        }
+
+        /**
+         * Remembers the start state of the procedure call of the current frame.
+         *
+         * @param address address of the called procedure
+         */
+        private void startSummary(int address) {
+            callKeys[depth] = summaryKey(address);
+            callFailures[depth] = failures;
+            callMoves[depth] = movesCreated;
+            callMovements[depth] = movements;
+            callCoinLogSizes[depth] = coinLogSize;
+            callCoinAmounts[depth] = level.getCoinAmount();
+        }
+
+        /**
+         * Summarizes the procedure call of the current frame when it returns.
+         */
+        private void finishSummary() {
+            if (callKeys[depth] < 0) {
+                return;
+            }
+            boolean moved = movements != callMovements[depth];
+            summaries.put(callKeys[depth], new ProcedureSummary(
+                    callCoinAmounts[depth],
+                    failures != callFailures[depth],
+                    level.getCurrentBotPosition(),
+                    level.getBotRotation(),
+                    moved,
+                    moved && lastMovementCollectedCoin,
+                    Arrays.copyOfRange(coinLog, callCoinLogSizes[depth], coinLogSize),
+                    movesCreated - callMoves[depth],
+                    lastCreatedAction));
+        }
+
+        /**
+         * Counts a walk or jump while fast-forwarding.
+         *
+         * @param collectedCoin true if the bot collected a coin on the new cell
+         */
+        private void countMovement(boolean collectedCoin) {
+            if (summaries != null) {
+                movements++;
+                lastMovementCollectedCoin = collectedCoin;
+                if (collectedCoin) {
+                    Coord position = level.getCurrentBotPosition();
+                    logCoin(position.getRow() << 16 | position.getCol());
+                }
+            }
+        }
+
+        private void logCoin(int coin) {
+            if (coinLogSize == coinLog.length) {
+                coinLog = Arrays.copyOf(coinLog, coinLogSize * 2);
+            }
+            coinLog[coinLogSize++] = coin;
+        }
+
+        /**
+         * Executes the walk instruction, following the rules of {@link Walk#convertInstruction}.
+         */
+        private void walk() {
+            Coord preMoveBotPosition = level.getCurrentBotPosition();
+            BotRotation preMoveBotRotation = level.getBotRotation();
+            FieldType nextCell = level.getNextCell();
+
+            if (nextCell == FieldType.NORMAL) {
+                level.moveToNextCell();
+                countMovement(false);
+                emit(preMoveBotPosition, preMoveBotRotation, Action.WALK, stacks[depth]);
+            } else if (nextCell == FieldType.COIN) {
+                level.moveToNextCell();
+                level.collectCoin();
+                countMovement(true);
+                emit(preMoveBotPosition, preMoveBotRotation, Action.WALK, stacks[depth]);
+                emit(level.getCurrentBotPosition(), level.getBotRotation(), Action.COLLECT_COIN, stacks[depth]);
+            } else {
+                emit(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_NEXT_FIELD_BLOCKED, ContainerStack.RESULT);
+            }
+        }
+
+        /**
+         * Executes the jump instruction, following the rules of {@link Jump#convertInstruction}.
+         */
+        private void jump() {
+            Coord preMoveBotPosition = level.getCurrentBotPosition();
+            BotRotation preMoveBotRotation = level.getBotRotation();
+
+            if (level.getNextCell() != FieldType.GAP) {
+                emit(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_CAN_NOT_JUMP, ContainerStack.RESULT);
+                return;
+            }
+
+            FieldType landingCell = level.getJumpLandingCell();
+            if (landingCell == FieldType.NORMAL || landingCell == FieldType.START) {
+                level.jump();
+                countMovement(false);
+                emit(preMoveBotPosition, preMoveBotRotation, Action.JUMP_OVER, stacks[depth]);
+            } else if (landingCell == FieldType.COIN) {
+                level.jump();
+                level.collectCoin();
+                countMovement(true);
+                emit(preMoveBotPosition, preMoveBotRotation, Action.JUMP_OVER, stacks[depth]);
+                emit(level.getCurrentBotPosition(), level.getBotRotation(), Action.COLLECT_COIN, stacks[depth]);
+            } else {
+                emit(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_CAN_NOT_LAND, ContainerStack.RESULT);
+            }
+        }
+
+        /**
+         * Executes the exit instruction, following the rules of {@link Exit#convertInstruction}.
+         */
+        private void exit() {
+            Action action;
+            if (level.getNextCell() != FieldType.DOOR) {
+                action = Action.LOOSE_DOOR_OUT_OF_REACH;
+            } else if (level.getCoinAmount() != 0) {
+                action = Action.LOOSE_UNCOLLECTED_COINS;
+            } else {
+                action = Action.EXIT;
+            }
+            emit(level.getCurrentBotPosition(), level.getBotRotation(), action, action == Action.EXIT ? stacks[depth] : ContainerStack.RESULT);
+        }
+    }
+
+    /**
+     * Compiles the program and the procedures into a growing opcode array.
+     */
+    private static class Compiler {
+
+        /**
+         * Opcodes compiled so far
+         */
+        private int[] code = new int[16];
+
+        /**
+         * Amount of opcodes compiled so far
+         */
+        private int size;
+
+        /**
+         * Maximum amount of nested procedure calls
+         */
+        private int maxCallDepth;
+
+        /**
+         * Address of every compiled procedure section, by procedure instance
+         */
+        private final Map<Procedure, Integer> addresses = new IdentityHashMap<>();
+
+        /**
+         * Procedures that are currently compiled, used to find recursive calls
+         */
+        private final Map<Procedure, Boolean> compiling = new IdentityHashMap<>();
+
+        /**
+         * Compiles a list of instructions into a new section that ends with a RETURN opcode.
+         *
+         * @param instructions instructions to compile
+         * @param callDepth    amount of procedure calls around the section
+         */
+        private void compileSection(List<Instruction> instructions, int callDepth) {
+            maxCallDepth = Math.max(maxCallDepth, callDepth);
+
+            // the addresses of the called procedures are filled in after the section
+            List<Integer> callOperands = new ArrayList<>();
+            List<Procedure> calledProcedures = new ArrayList<>();
+
+            for (Instruction instruction : instructions) {
+                if (instruction instanceof Procedure) {
+                    Procedure procedure = (Procedure) instruction;
+                    if (procedure.getAmountOfInstructions() == 0) {
+                        add(EMPTY_PROCEDURE);
+                    } else {
+                        add(CALL);
+                        callOperands.add(size);
+                        calledProcedures.add(procedure);
+                        add(-1);
+                        add(procedure.getInstructionContainer().ordinal());
+                    }
+                } else {
+                    add(opcodeOf(instruction));
+                }
+            }
+            add(RETURN);
+
+            for (int i = 0; i < calledProcedures.size(); i++) {
+                // compiling the procedure can grow the code array, so the address has to be known before writing it
+                int address = compileProcedure(calledProcedures.get(i), callDepth + 1);
+                code[callOperands.get(i)] = address;
+            }
+        }
+
+        /**
+         * Compiles a procedure, unless it is already compiled.
+         *
+         * @param procedure procedure to compile
+         * @param callDepth amount of procedure calls around the procedure, including its own call
+         * @return address of the procedure section
+         */
+        private int compileProcedure(Procedure procedure, int callDepth) {
+            if (compiling.containsKey(procedure)) {
+                throw new IllegalArgumentException("Procedures must not call themselves or each other");
+            }
+
+            compiling.put(procedure, Boolean.TRUE);
+            Integer address = addresses.get(procedure);
+            if (address == null) {
+                address = size;
+                addresses.put(procedure, address);
+                compileSection(procedure.getInstructions(), callDepth);
+            } else {
+                // the section already exists, but the calls inside it may be nested deeper this time
+                checkNestedCalls(procedure, callDepth);
+            }
+            compiling.remove(procedure);
+            return address;
+        }
+
+        /**
+         * Checks the procedures called by an already compiled procedure for recursion and updates the maximum amount
+         * of nested calls.
+         *
+         * @param procedure already compiled procedure
+         * @param callDepth amount of procedure calls around the procedure, including its own call
+         */
+        private void checkNestedCalls(Procedure procedure, int callDepth) {
+            maxCallDepth = Math.max(maxCallDepth, callDepth);
+            for (Instruction instruction : procedure.getInstructions()) {
+                if (instruction instanceof Procedure && ((Procedure) instruction).getAmountOfInstructions() > 0) {
+                    compileProcedure((Procedure) instruction, callDepth + 1);
+                }
+            }
+        }
+
+        private static int opcodeOf(Instruction instruction) {
+            if (instruction instanceof Walk) {
+                return WALK;
+            } else if (instruction instanceof TurnLeft) {
+                return TURN_LEFT;
+            } else if (instruction instanceof TurnRight) {
+                return TURN_RIGHT;
+            } else if (instruction instanceof Jump) {
+                return JUMP;
+            } else if (instruction instanceof Exit) {
+                return EXIT;
+            }
+            throw new IllegalArgumentException("Unknown instruction " + instruction);
+        }
+
+        private void add(int opcode) {
+            if (size == code.length) {
+                code = Arrays.copyOf(code, size * 2);
+            }
+            code[size++] = opcode;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(code, size);
+        }
+    }
+}
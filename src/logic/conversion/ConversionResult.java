@@ -1,21 +1,19 @@
 package logic.conversion;
 
-import logic.instructions.InstructionContainer;
-
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Result of the conversion from Instructions to Actions.
- * The conversion result contains a list of moves.
+ * The conversion result contains the moves of the conversion, stored in a compact {@link ExecutionTrace}.
  *
  * @author Timo Peters
  */
 public class ConversionResult {
     /**
-     * List of moves
+     * Trace of all moves
      */
-    private final List<Move> moves;
+    private final ExecutionTrace trace;
 
     /**
      * Constructor to create a conversion result from a set of moves
@@ -23,22 +21,26 @@ public class ConversionResult {
      * @param moves moves
      */
     public ConversionResult(List<Move> moves) {
-        this.moves = moves;
+        this(new ExecutionTrace(moves));
+    }
+
+    /**
+     * Constructor to create a conversion result from a trace of moves. The trace must not be changed afterwards.
+     *
+     * @param trace trace of the moves
+     */
+    public ConversionResult(ExecutionTrace trace) {
+        this.trace = trace;
     }
 
     /**
      * Returns a copy of all moves in the ConversionResult.
+     * Use {@link #cursor()} to read the moves without creating any copies.
      *
      * @return copy of all ConversionResult moves
      */
     public List<Move> getMoves() {
-        List<Move> movesCopy = new ArrayList<>();
-        for (Move move : moves) {
-            List<InstructionContainer> instructionContainersCopy = new ArrayList<>(move.getInstructionContainer());
-            Move moveCopy = new Move(move.getCurrentBotPosition(), move.getCurrentBotRotation(), move.getAction(), instructionContainersCopy);
-            movesCopy.add(moveCopy);
-        }
-        return movesCopy;
+        return trace.getMoves();
     }
 
     /**
@@ -47,10 +49,9 @@ public class ConversionResult {
      * @return copy of the last ConversionResult move
      */
     public Move getLastMove() {
-        Move lastMove = moves.get(moves.size() - 1);
-        List<InstructionContainer> instructionContainersCopy = new ArrayList<>(lastMove.getInstructionContainer());
-
-        return new Move(lastMove.getCurrentBotPosition(), lastMove.getCurrentBotRotation(), lastMove.getAction(), instructionContainersCopy);
+        ExecutionTrace.Cursor cursor = trace.cursor();
+        cursor.moveTo(trace.size() - 1);
+        return cursor.toMove();
     }
 
     /**
@@ -59,17 +60,35 @@ public class ConversionResult {
      * @return list of actions from all moves.
      */
     public List<Action> getActions() {
-        List<Action> actions = new ArrayList<>();
-        moves.forEach(move -> {
-            actions.add(move.getAction());
-        });
+        List<Action> actions = new ArrayList<>(trace.size());
+        for (int i = 0; i < trace.size(); i++) {
+            actions.add(trace.getAction(i));
+        }
         return actions;
     }
 
+    /**
+     * Creates a read-only cursor over the moves, which starts before the first move.
+     *
+     * @return new cursor
+     */
+    public ExecutionTrace.Cursor cursor() {
+        return trace.cursor();
+    }
+
+    /**
+     * Returns the amount of moves in the ConversionResult.
+     *
+     * @return amount of moves
+     */
+    public int size() {
+        return trace.size();
+    }
+
     @Override
     public String toString() {
         return "ConversionResult{" +
-                "moves=" + moves +
+                "moves=" + trace.getMoves() +
                 '}';
     }
 }
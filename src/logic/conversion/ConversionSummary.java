@@ -0,0 +1,164 @@
+package logic.conversion;
+
+import logic.instructions.ContainerStack;
+
+/**
+ * Tally of a conversion that was fast-forwarded without creating any moves, see
+ * {@link CompiledProgram#fastForward(logic.level.Level)}.
+ * <p>
+ * The summary keeps just enough of the moves to determine the final win or loose action in the same way as
+ * {@link logic.GameLogic#convertInstructionsToActions(logic.level.Level, java.util.List,
+ * logic.instructions.Procedure, logic.instructions.Procedure)} does. The moves themselves can be expanded on demand by
+ * converting the instructions again with {@link CompiledProgram#run}.
+ *
+ * @author Timo Peters
+ */
+public class ConversionSummary {
+
+    /**
+     * Amount of moves of the conversion, without the final win or loose move
+     */
+    private int steps;
+
+    /**
+     * Action of the last move
+     */
+    private Action lastAction;
+
+    /**
+     * True if the last move is a loose state
+     */
+    private boolean lastIsResult;
+
+    /**
+     * Index of the first exit move, -1 if there is none
+     */
+    private int firstExitIndex = -1;
+
+    /**
+     * Amount of coins collected before the first exit move
+     */
+    private int coinsBeforeFirstExit;
+
+    /**
+     * Amount of coins collected by all moves
+     */
+    private int coinsCollected;
+
+    /**
+     * True if at least one move was lost
+     */
+    private boolean lostMoves;
+
+    /**
+     * Amount of procedure calls that were applied from a summary instead of being executed
+     */
+    private int summarizedCalls;
+
+    /**
+     * Creates the summary of a conversion that consists of a single win or loose move, e.g. a recursion error.
+     *
+     * @param resultAction action of the move
+     * @return summary with the single move
+     */
+    public static ConversionSummary ofResult(Action resultAction) {
+        ConversionSummary summary = new ConversionSummary();
+        summary.add(resultAction, ContainerStack.RESULT);
+        return summary;
+    }
+
+    /**
+     * Adds a move to the tally.
+     *
+     * @param action action of the move
+     * @param stack  instruction container stack of the move
+     */
+    void add(Action action, ContainerStack stack) {
+        if (action == Action.EXIT && firstExitIndex < 0) {
+            firstExitIndex = steps;
+            coinsBeforeFirstExit = coinsCollected;
+        } else if (action == Action.COLLECT_COIN) {
+            coinsCollected++;
+        }
+        lastAction = action;
+        lastIsResult = stack == ContainerStack.RESULT;
+        lostMoves |= lastIsResult;
+        steps++;
+    }
+
+    /**
+     * Adds the moves of a procedure call without any lost or exit move to the tally.
+     *
+     * @param summary summary of the procedure call
+     */
+    void add(ProcedureSummary summary) {
+        steps += summary.getSteps();
+        coinsCollected += summary.getCoinsCollected();
+        lastAction = summary.getLastAction();
+        lastIsResult = false;
+        summarizedCalls++;
+    }
+
+    /**
+     * Returns the final win or loose action of the conversion.
+     *
+     * @return final action
+     */
+    public Action getFinalAction() {
+        if (steps == 0) {
+            return Action.LOOSE_NO_ACTIONS;
+        } else if (firstExitIndex >= 0) {
+            return firstExitIndex == steps - 1 ? Action.WIN : Action.LOOSE_INSTRUCTIONS_AFTER_EXIT;
+        } else if (!lastIsResult) {
+            return Action.LOOSE_NOT_ENDING_WITH_EXIT;
+        }
+        return lastAction;
+    }
+
+    /**
+     * Returns the amount of moves of the conversion, including the final win or loose move. Moves after the first exit
+     * are not counted, as they are replaced by the loose move.
+     *
+     * @return amount of moves of the conversion result
+     */
+    public int getSteps() {
+        if (steps == 0) {
+            return 1;
+        } else if (firstExitIndex >= 0) {
+            // the exit itself is replaced by the loose move if there are instructions after it
+            return firstExitIndex == steps - 1 ? steps + 1 : firstExitIndex + 1;
+        }
+        return lastIsResult ? steps : steps + 1;
+    }
+
+    /**
+     * Returns the amount of coins collected by the moves of the conversion result.
+     *
+     * @return amount of collected coins
+     */
+    public int getCoinsCollected() {
+        return firstExitIndex >= 0 && firstExitIndex != steps - 1 ? coinsBeforeFirstExit : coinsCollected;
+    }
+
+    /**
+     * Checks if any move of the conversion was lost, even if the conversion continued afterwards.
+     *
+     * @return true if there is a lost move
+     */
+    public boolean hasLostMoves() {
+        return lostMoves;
+    }
+
+    public int getSummarizedCalls() {
+        return summarizedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionSummary{" +
+                "finalAction=" + getFinalAction() +
+                ", steps=" + getSteps() +
+                ", coinsCollected=" + getCoinsCollected() +
+                '}';
+    }
+}
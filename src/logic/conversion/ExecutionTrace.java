@@ -0,0 +1,282 @@
+package logic.conversion;
+
+import logic.instructions.ContainerStack;
+import logic.instructions.InstructionContainer;
+import logic.level.BotRotation;
+import logic.level.Coord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact trace of the moves created by a conversion, stored as one primitive array per move attribute.
+ * <p>
+ * Every step of the trace stores the packed bot position ({@code row << 16 | col}), the ordinal of the bot rotation,
+ * the ordinal of the action and the id of its interned {@link ContainerStack}. A step takes 8 bytes instead of a
+ * {@link Move} with its own coordinate.
+ * <p>
+ * The steps are read with a {@link Cursor}, which does not copy anything.
+ *
+ * @author Timo Peters
+ */
+public class ExecutionTrace {
+
+    /**
+     * Packed position of a step without a bot position
+     */
+    private static final int NO_POSITION = -1;
+
+    /**
+     * Cached bot rotations, so that looking up a rotation does not need to copy the values array
+     */
+    private static final BotRotation[] ROTATIONS = BotRotation.values();
+
+    /**
+     * Cached actions, so that looking up an action does not need to copy the values array
+     */
+    private static final Action[] ACTIONS = Action.values();
+
+    /**
+     * Packed bot position ({@code row << 16 | col}) before every step
+     */
+    private int[] positions;
+
+    /**
+     * Ordinal of the bot rotation before every step
+     */
+    private byte[] rotations;
+
+    /**
+     * Ordinal of the action of every step
+     */
+    private byte[] actions;
+
+    /**
+     * Id of the interned instruction container stack of every step
+     */
+    private short[] stackIds;
+
+    /**
+     * Amount of steps in the trace
+     */
+    private int size;
+
+    /**
+     * Read-only view of the steps of a trace. The cursor starts before the first step.
+     */
+    public class Cursor {
+
+        /**
+         * Index of the current step
+         */
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves the cursor to the next step.
+         *
+         * @return true if there is a next step
+         */
+        public boolean next() {
+            if (index < size) {
+                index++;
+            }
+            return index < size;
+        }
+
+        /**
+         * Moves the cursor to a step.
+         *
+         * @param index index of the step
+         */
+        public void moveTo(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Step " + index + " is not in the trace of size " + size);
+            }
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the row of the bot position before the current step.
+         *
+         * @return row of the bot position
+         */
+        public int getRow() {
+            return positions[index] >> 16;
+        }
+
+        /**
+         * Returns the column of the bot position before the current step.
+         *
+         * @return column of the bot position
+         */
+        public int getCol() {
+            return positions[index] & 0xFFFF;
+        }
+
+        /**
+         * Returns the bot position before the current step.
+         *
+         * @return bot position or null if the step has no bot position
+         */
+        public Coord getCurrentBotPosition() {
+            return positions[index] != NO_POSITION ? Coord.of(getRow(), getCol()) : null;
+        }
+
+        public BotRotation getCurrentBotRotation() {
+            return ROTATIONS[rotations[index]];
+        }
+
+        public Action getAction() {
+            return ACTIONS[actions[index]];
+        }
+
+        /**
+         * Returns the instruction container stack of the current step as a list. The list is shared by every step
+         * with the same stack and can not be modified.
+         *
+         * @return instruction container stack as unmodifiable list
+         */
+        public List<InstructionContainer> getInstructionContainer() {
+            return getContainerStack().toList();
+        }
+
+        public ContainerStack getContainerStack() {
+            return ContainerStack.byId(stackIds[index]);
+        }
+
+        /**
+         * Checks if the current step is a win or loose state.
+         *
+         * @return true if the instruction container stack of the step is the result container
+         */
+        public boolean isResult() {
+            return getContainerStack() == ContainerStack.RESULT;
+        }
+
+        /**
+         * Creates a move from the current step.
+         *
+         * @return new move of the current step
+         */
+        public Move toMove() {
+            return new Move(getCurrentBotPosition(), getCurrentBotRotation(), getAction(), getContainerStack());
+        }
+    }
+
+    /**
+     * Constructor to create an empty trace.
+     */
+    public ExecutionTrace() {
+        this.positions = new int[16];
+        this.rotations = new byte[16];
+        this.actions = new byte[16];
+        this.stackIds = new short[16];
+    }
+
+    /**
+     * Constructor to create a trace from a list of moves.
+     *
+     * @param moves moves to add to the trace
+     */
+    public ExecutionTrace(List<Move> moves) {
+        this();
+        for (Move move : moves) {
+            add(move);
+        }
+    }
+
+    /**
+     * Adds a step at the end of the trace.
+     *
+     * @param currentBotPosition   bot position before the step, may be null
+     * @param currentBotRotation   bot rotation before the step
+     * @param action               action of the step
+     * @param instructionContainer stack of instruction containers in which the step is called
+     */
+    public void add(Coord currentBotPosition, BotRotation currentBotRotation, Action action, ContainerStack instructionContainer) {
+        if (instructionContainer.getId() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("A trace can only hold the first " + (Short.MAX_VALUE + 1) + " instruction container stacks");
+        }
+        if (size == positions.length) {
+            int capacity = size * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            rotations = Arrays.copyOf(rotations, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+            stackIds = Arrays.copyOf(stackIds, capacity);
+        }
+        positions[size] = currentBotPosition != null ? currentBotPosition.getRow() << 16 | currentBotPosition.getCol() : NO_POSITION;
+        rotations[size] = (byte) currentBotRotation.ordinal();
+        actions[size] = (byte) action.ordinal();
+        stackIds[size] = (short) instructionContainer.getId();
+        size++;
+    }
+
+    /**
+     * Adds a move at the end of the trace.
+     *
+     * @param move move to add
+     */
+    public void add(Move move) {
+        add(move.getCurrentBotPosition(), move.getCurrentBotRotation(), move.getAction(), move.getContainerStack());
+    }
+
+    /**
+     * Removes every step from the given index to the end of the trace.
+     *
+     * @param newSize amount of steps to keep
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("The trace of size " + size + " can not be truncated to " + newSize);
+        }
+        this.size = newSize;
+    }
+
+    /**
+     * Creates a cursor that starts before the first step of the trace.
+     *
+     * @return new cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns the action of a step without creating a cursor.
+     *
+     * @param index index of the step
+     * @return action of the step
+     */
+    public Action getAction(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Step " + index + " is not in the trace of size " + size);
+        }
+        return ACTIONS[actions[index]];
+    }
+
+    /**
+     * Creates a new move for every step of the trace.
+     *
+     * @return moves of the trace
+     */
+    public List<Move> getMoves() {
+        List<Move> moves = new ArrayList<>(size);
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            moves.add(cursor.toMove());
+        }
+        return moves;
+    }
+
+    public int size() {
+        return size;
+    }
+}
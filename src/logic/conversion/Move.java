@@ -1,10 +1,10 @@
 package logic.conversion;
 
+import logic.instructions.ContainerStack;
 import logic.instructions.InstructionContainer;
 import logic.level.BotRotation;
 import logic.level.Coord;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -32,10 +32,10 @@ public class Move {
 
     /**
      * InstructionContainer stack of the move. It contains the InstructionContainers where the current move is called.
-     * E.g. when the move is directly called in the program, the instruction stack will be List.of(PROGRAM).
-     * E.g. when the move is called in P1, which is called in the program, then the instruction stack will be List.of(PROGRAM, PROCEDURE_ONE)
+     * E.g. when the move is directly called in the program, the instruction stack will be PROGRAM.
+     * E.g. when the move is called in P1, which is called in the program, then the instruction stack will be PROGRAM > PROCEDURE_ONE
      */
-    private final List<InstructionContainer> instructionContainer;
+    private final ContainerStack instructionContainer;
 
     /**
      * Constructor to create a move from the currentBotPosition, the currentBotRotation, the action the move represents
@@ -46,7 +46,7 @@ public class Move {
      * @param action               action the current move represents
      * @param instructionContainer stack of instruction containers in which the move is called
      */
-    public Move(Coord currentBotPosition, BotRotation currentBotRotation, Action action, List<InstructionContainer> instructionContainer) {
+    public Move(Coord currentBotPosition, BotRotation currentBotRotation, Action action, ContainerStack instructionContainer) {
         this.currentBotPosition = currentBotPosition;
         this.currentBotRotation = currentBotRotation;
         this.action = action;
@@ -54,12 +54,20 @@ public class Move {
     }
 
     /**
-     * Returns a copy of the current bot position
+     * Constructor to create a move from the currentBotPosition, the currentBotRotation, the action the move represents
+     * and the instructionContainer stack the move is called in, given as a list.
      *
-     * @return copy of the current bot position
+     * @param currentBotPosition   current bot position
+     * @param currentBotRotation   current bot direction
+     * @param action               action the current move represents
+     * @param instructionContainer containers from the bottom to the top of the stack in which the move is called
      */
+    public Move(Coord currentBotPosition, BotRotation currentBotRotation, Action action, List<InstructionContainer> instructionContainer) {
+        this(currentBotPosition, currentBotRotation, action, ContainerStack.of(instructionContainer));
+    }
+
     public Coord getCurrentBotPosition() {
-        return new Coord(currentBotPosition.getRow(), currentBotPosition.getCol());
+        return currentBotPosition;
     }
 
     public BotRotation getCurrentBotRotation() {
@@ -76,7 +84,11 @@ public class Move {
      * @return instructionContainer stack as unmodifiable list
      */
     public List<InstructionContainer> getInstructionContainer() {
-        return Collections.unmodifiableList(instructionContainer);
+        return instructionContainer.toList();
+    }
+
+    public ContainerStack getContainerStack() {
+        return instructionContainer;
     }
 
     @Override
@@ -94,7 +106,7 @@ public class Move {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Move move = (Move) o;
-        return Objects.equals(currentBotPosition, move.currentBotPosition) && currentBotRotation == move.currentBotRotation && action == move.action && Objects.equals(instructionContainer, move.instructionContainer);
+        return Objects.equals(currentBotPosition, move.currentBotPosition) && currentBotRotation == move.currentBotRotation && action == move.action && instructionContainer == move.instructionContainer;
     }
 
     @Override
@@ -0,0 +1,144 @@
+package logic.conversion;
+
+import logic.level.BotRotation;
+import logic.level.Coord;
+import logic.level.Level;
+
+/**
+ * Effect of a procedure call from a start position and rotation on the current board, so that further calls from the
+ * same start state can be applied without executing the procedure again.
+ * <p>
+ * A call only changes the bot position and rotation and collects coins, so the cells touched by the call are the
+ * collected coins, the start cell and the end cell. A summary of a failed call (any lost move or an exit) is only kept
+ * to mark the start state, such calls have to be executed move by move.
+ *
+ * @author Timo Peters
+ */
+class ProcedureSummary {
+
+    /**
+     * Amount of coins in the level when the call started, identifying the board the summary is valid for
+     */
+    private final int coinAmount;
+
+    /**
+     * True if the call created a lost move or an exit move
+     */
+    private final boolean failed;
+
+    /**
+     * Bot position after the call
+     */
+    private final Coord endPosition;
+
+    /**
+     * Bot rotation after the call
+     */
+    private final BotRotation endRotation;
+
+    /**
+     * True if the bot walked or jumped during the call
+     */
+    private final boolean moved;
+
+    /**
+     * True if the last walk or jump of the call collected a coin, so the end cell is not a start cell
+     */
+    private final boolean endsOnCollectedCoin;
+
+    /**
+     * Packed cells ({@code row << 16 | col}) of the collected coins, in the order they were collected
+     */
+    private final int[] collectedCoins;
+
+    /**
+     * Amount of moves created by the call
+     */
+    private final int steps;
+
+    /**
+     * Action of the last move created by the call
+     */
+    private final Action lastAction;
+
+    ProcedureSummary(int coinAmount, boolean failed, Coord endPosition, BotRotation endRotation, boolean moved,
+                     boolean endsOnCollectedCoin, int[] collectedCoins, int steps, Action lastAction) {
+        this.coinAmount = coinAmount;
+        this.failed = failed;
+        this.endPosition = endPosition;
+        this.endRotation = endRotation;
+        this.moved = moved;
+        this.endsOnCollectedCoin = endsOnCollectedCoin;
+        this.collectedCoins = collectedCoins;
+        this.steps = steps;
+        this.lastAction = lastAction;
+    }
+
+    /**
+     * Checks if the summary can be applied instead of executing the call. Coins are never placed again during a
+     * conversion, so the board is the same as long as the amount of coins is the same.
+     *
+     * @param level level in the start state of the call
+     * @return true if the call did not fail and the board did not change since the summary was created
+     */
+    boolean isApplicable(Level level) {
+        return !failed && level.getCoinAmount() == coinAmount;
+    }
+
+    /**
+     * Changes the level in the same way as executing the call would.
+     *
+     * @param level level in the start state of the call
+     */
+    void apply(Level level) {
+        for (int coin : collectedCoins) {
+            level.moveToCell(Coord.of(coin >> 16, coin & 0xFFFF));
+            level.collectCoin();
+        }
+        if (moved && !endsOnCollectedCoin) {
+            level.moveToCell(endPosition);
+        }
+        level.setBotRotation(endRotation);
+    }
+
+    public boolean isMoved() {
+        return moved;
+    }
+
+    public boolean endsOnCollectedCoin() {
+        return endsOnCollectedCoin;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public Coord getEndPosition() {
+        return endPosition;
+    }
+
+    public BotRotation getEndRotation() {
+        return endRotation;
+    }
+
+    /**
+     * Returns the packed cells ({@code row << 16 | col}) of the coins collected by the call.
+     *
+     * @return collected coins in the order they were collected, the array must not be changed
+     */
+    public int[] getCollectedCoins() {
+        return collectedCoins;
+    }
+
+    public int getCoinsCollected() {
+        return collectedCoins.length;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public Action getLastAction() {
+        return lastAction;
+    }
+}
@@ -1,16 +1,22 @@
 package logic.exceptions;
 
+import logic.level.SavedState;
+
 /**
  * Custom exception which will be thrown if the field size is invalid.
- * A field is only valid if it has a size of 8x8.
+ * A field is only valid if it is rectangular, has at least one cell and at most
+ * {@link SavedState#MAX_FIELD_SIZE} rows and columns.
  *
  * @author Timo Peters
  */
 public class InvalidFieldSizeException extends Exception {
-    public InvalidFieldSizeException(int[][] field, int col) {
-        super("InvalidFieldSizeException: Expected 8x8 but was " +
+    public InvalidFieldSizeException(int[][] field, int row) {
+        super("InvalidFieldSizeException: Expected a rectangular field with 1 to " + SavedState.MAX_FIELD_SIZE +
+                " rows and columns but row " + row + " of the " +
                 field.length + "x" +
-                (field[0] != null ? field[col].length : 0)
+                (field.length > 0 && field[0] != null ? field[0].length : 0) +
+                " field has " +
+                (field.length > row && field[row] != null ? field[row].length : 0) + " cells"
         );
     }
 }
@@ -0,0 +1,12 @@
+package logic.exceptions;
+
+/**
+ * Custom exception which will be thrown if a valid level has a size the gui is not able to show.
+ *
+ * @author Timo Peters
+ */
+public class UnsupportedFieldSizeException extends Exception {
+    public UnsupportedFieldSizeException(int rows, int cols) {
+        super("UnsupportedFieldSizeException: The " + rows + "x" + cols + " field can not be shown");
+    }
+}
@@ -0,0 +1,296 @@
+package logic.grading;
+
+import logic.GameLogic;
+import logic.conversion.ConversionSummary;
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import logic.exceptions.NoBotRotationException;
+import logic.exceptions.NoFieldException;
+import logic.level.Level;
+import logic.level.SavedState;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Headless grader which converts many submitted programs without a game or GUI and reduces each conversion to a
+ * compact {@link Verdict}.
+ * <p>
+ * The submissions are graded on the given executor. The grader owns a bounded pool of workers, every worker keeps the
+ * level of the last graded {@link SavedState} and a scratch level, which is reset with {@link Level#copyFrom(Level)}
+ * before every conversion. Every grading borrows a worker from the pool and gives it back afterwards, so submissions
+ * for the same saved state neither parse the saved state again nor allocate a new level, no matter which thread
+ * grades them. The programs are fast-forwarded, so no moves are created and repeated procedure calls are applied from
+ * their summaries. Any executor can be used, e.g. a virtual-thread-per-task executor on newer JDKs, where every
+ * submission runs on a new thread. The workers are not bound to the threads, so they are garbage collected together
+ * with the grader.
+ *
+ * @author Timo Peters
+ */
+public class BatchGrader {
+
+    /**
+     * Default amount of submissions graded at the same time, per available processor
+     */
+    private static final int SUBMISSIONS_PER_PROCESSOR = 4;
+
+    /**
+     * Executor the submissions are graded on
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Maximum amount of submissions of a stream that are graded at the same time
+     */
+    private final int windowSize;
+
+    /**
+     * Idle workers, the most recently used worker is borrowed first. At most the window size of workers is kept.
+     */
+    private final BlockingDeque<Worker> idleWorkers;
+
+    /**
+     * Amount of workers created by the grader
+     */
+    private final LongAdder createdWorkers = new LongAdder();
+
+    /**
+     * Amount of graded submissions since the last reset
+     */
+    private final LongAdder gradedCount = new LongAdder();
+
+    /**
+     * Time of the last reset in nanoseconds
+     */
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Reusable levels of a worker, used by one grading at a time.
+     */
+    private static class Worker {
+
+        /**
+         * Last graded saved state, compared by identity
+         */
+        private SavedState savedState;
+
+        /**
+         * Level of the last graded saved state, null if it was invalid
+         */
+        private Level level;
+
+        /**
+         * Scratch level the conversions are executed on
+         */
+        private Level scratch;
+
+        /**
+         * Returns a fresh scratch level of the given saved state.
+         *
+         * @param savedState saved state of the level
+         * @return scratch level with the state of the saved state or null if the saved state is invalid
+         */
+        private Level scratchLevelOf(SavedState savedState) {
+            if (savedState != this.savedState) {
+                this.savedState = savedState;
+                try {
+                    this.level = savedState.getLevel();
+                } catch (InvalidBotRotationException | InvalidFieldTypeException | InvalidFieldSizeException
+                        | NoFieldException | NoBotRotationException e) {
+                    this.level = null;
+                    return null;
+                }
+                if (scratch == null || !sameSize(scratch, level)) {
+                    scratch = level.getLevelCopy();
+                    return scratch;
+                }
+            } else if (level == null) {
+                return null;
+            }
+            scratch.copyFrom(level);
+            return scratch;
+        }
+
+        /**
+         * Checks if two levels have the same size.
+         *
+         * @param first  first level
+         * @param second second level
+         * @return true if both levels have the same amount of rows and columns
+         */
+        private static boolean sameSize(Level first, Level second) {
+            return first.getRows() == second.getRows() && first.getCols() == second.getCols();
+        }
+    }
+
+    /**
+     * Ordered iterator over the verdicts of a stream of submissions, which grades a bounded amount of submissions
+     * ahead.
+     */
+    private class VerdictIterator implements Iterator<Verdict> {
+
+        /**
+         * Submissions to grade
+         */
+        private final Iterator<Submission> submissions;
+
+        /**
+         * Submissions that are currently graded, in the order of the stream
+         */
+        private final Deque<CompletableFuture<Verdict>> inFlight = new ArrayDeque<>();
+
+        private VerdictIterator(Iterator<Submission> submissions) {
+            this.submissions = submissions;
+        }
+
+        /**
+         * Starts grading the next submissions until the window is full.
+         */
+        private void fillWindow() {
+            while (inFlight.size() < windowSize && submissions.hasNext()) {
+                Submission submission = submissions.next();
+                inFlight.add(CompletableFuture.supplyAsync(() -> grade(submission), executor));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fillWindow();
+            return !inFlight.isEmpty();
+        }
+
+        @Override
+        public Verdict next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return inFlight.poll().join();
+        }
+    }
+
+    /**
+     * Constructor to create a grader on the common fork join pool.
+     */
+    public BatchGrader() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * SUBMISSIONS_PER_PROCESSOR);
+    }
+
+    /**
+     * Constructor to create a grader on a given executor.
+     *
+     * @param executor   executor the submissions are graded on, it is not shut down by the grader
+     * @param windowSize maximum amount of submissions of a stream that are graded at the same time
+     */
+    public BatchGrader(ExecutorService executor, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size has to be positive");
+        }
+        this.executor = executor;
+        this.windowSize = windowSize;
+        this.idleWorkers = new LinkedBlockingDeque<>(windowSize);
+    }
+
+    /**
+     * Grades a single submission on the calling thread.
+     *
+     * @param submission submission to grade
+     * @return verdict of the submission
+     */
+    public Verdict grade(Submission submission) {
+        Worker worker = borrowWorker();
+        Verdict verdict;
+        try {
+            Level level = worker.scratchLevelOf(submission.getSavedState());
+            if (level == null) {
+                verdict = Verdict.invalidLevel(submission.getId());
+            } else {
+                ConversionSummary summary = GameLogic.summarizeInstructions(level,
+                        submission.getProgramInstructions(), submission.getProcedureOne(), submission.getProcedureTwo());
+                verdict = new Verdict(submission.getId(), summary.getFinalAction(), summary.getSteps(), summary.getCoinsCollected());
+            }
+        } finally {
+            // a full pool means more gradings ran at the same time than the window size, the extra worker is dropped
+            idleWorkers.offerFirst(worker);
+        }
+        gradedCount.increment();
+        return verdict;
+    }
+
+    /**
+     * Takes an idle worker from the pool, or creates a new one if every worker is busy.
+     *
+     * @return worker that is not used by any other grading
+     */
+    private Worker borrowWorker() {
+        Worker worker = idleWorkers.pollFirst();
+        if (worker == null) {
+            worker = new Worker();
+            createdWorkers.increment();
+        }
+        return worker;
+    }
+
+    /**
+     * Returns the amount of workers the grader created so far.
+     * <p>
+     * This method is package-private for test-purposes
+     *
+     * @return amount of created workers
+     */
+    long getCreatedWorkers() {
+        return createdWorkers.sum();
+    }
+
+    /**
+     * Grades a stream of submissions on the executor of the grader. The verdicts are returned lazily and in the order
+     * of the submissions, while at most the window size of submissions is graded ahead.
+     *
+     * @param submissions submissions to grade
+     * @return verdicts of the submissions in the same order
+     */
+    public Stream<Verdict> grade(Stream<Submission> submissions) {
+        Iterator<Verdict> verdicts = new VerdictIterator(submissions.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(verdicts, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(submissions::close);
+    }
+
+    /**
+     * Returns the amount of submissions graded since the grader was created or reset.
+     *
+     * @return amount of graded submissions
+     */
+    public long getGradedCount() {
+        return gradedCount.sum();
+    }
+
+    /**
+     * Returns the amount of submissions graded per second since the grader was created or reset.
+     *
+     * @return graded submissions per second
+     */
+    public double getThroughput() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        return gradedCount.sum() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Resets the throughput counter.
+     */
+    public void resetThroughput() {
+        gradedCount.reset();
+        startNanos = System.nanoTime();
+    }
+}
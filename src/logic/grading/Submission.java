@@ -0,0 +1,117 @@
+package logic.grading;
+
+import logic.instructions.Instruction;
+import logic.instructions.Procedure;
+import logic.instructions.ProcedureOne;
+import logic.instructions.ProcedureTwo;
+import logic.level.SavedState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A program submitted for a level, graded by the {@link BatchGrader}.
+ * <p>
+ * A submission is immutable, so that it can be graded on any thread. Every procedure reference in the program and
+ * procedure instructions points to the procedures of the submission itself.
+ *
+ * @author Timo Peters
+ */
+public class Submission {
+
+    /**
+     * Id of the submission, returned with its verdict
+     */
+    private final String id;
+
+    /**
+     * Level the program is graded on
+     */
+    private final SavedState savedState;
+
+    /**
+     * Instructions of the program container
+     */
+    private final List<Instruction> programInstructions;
+
+    /**
+     * Procedure one of the submission
+     */
+    private final ProcedureOne procedureOne;
+
+    /**
+     * Procedure two of the submission
+     */
+    private final ProcedureTwo procedureTwo;
+
+    /**
+     * Constructor to create a submission from a level and the instructions of the three instruction containers.
+     *
+     * @param id                  id of the submission
+     * @param savedState          level the program is graded on
+     * @param programInstructions instructions of the program container
+     * @param p1Instructions      instructions of the procedure one container
+     * @param p2Instructions      instructions of the procedure two container
+     */
+    public Submission(String id, SavedState savedState, List<Instruction> programInstructions,
+                      List<Instruction> p1Instructions, List<Instruction> p2Instructions) {
+        // the procedures are created with unmodifiable views first, so that procedure references inside the procedures
+        // themselves can already point to the new procedures
+        List<Instruction> p1List = new ArrayList<>();
+        List<Instruction> p2List = new ArrayList<>();
+        this.procedureOne = new ProcedureOne(Collections.unmodifiableList(p1List));
+        this.procedureTwo = new ProcedureTwo(Collections.unmodifiableList(p2List));
+        p1List.addAll(useOwnProcedures(p1Instructions));
+        p2List.addAll(useOwnProcedures(p2Instructions));
+
+        this.id = id;
+        this.savedState = savedState;
+        this.programInstructions = Collections.unmodifiableList(useOwnProcedures(programInstructions));
+    }
+
+    /**
+     * Replaces every procedure reference with the procedure of this submission.
+     *
+     * @param instructions instructions to replace the procedure references in
+     * @return new list of instructions
+     */
+    private List<Instruction> useOwnProcedures(List<Instruction> instructions) {
+        List<Instruction> ownInstructions = new ArrayList<>(instructions.size());
+        for (Instruction instruction : instructions) {
+            if (instruction instanceof ProcedureOne) {
+                ownInstructions.add(procedureOne);
+            } else if (instruction instanceof ProcedureTwo) {
+                ownInstructions.add(procedureTwo);
+            } else {
+                ownInstructions.add(instruction);
+            }
+        }
+        return ownInstructions;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SavedState getSavedState() {
+        return savedState;
+    }
+
+    /**
+     * Returns the program instructions. The list can not be modified.
+     *
+     * @return program instructions
+     */
+    public List<Instruction> getProgramInstructions() {
+        return programInstructions;
+    }
+
+    public Procedure getProcedureOne() {
+        return procedureOne;
+    }
+
+    public Procedure getProcedureTwo() {
+        return procedureTwo;
+    }
+}
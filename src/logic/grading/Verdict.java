@@ -0,0 +1,116 @@
+package logic.grading;
+
+import logic.conversion.Action;
+
+import java.util.Objects;
+
+/**
+ * Compact result of grading a {@link Submission}. Only the final action, the amount of steps and the amount of
+ * collected coins are kept, the moves themselves are dropped right after grading.
+ *
+ * @author Timo Peters
+ */
+public class Verdict {
+
+    /**
+     * Id of the graded submission
+     */
+    private final String id;
+
+    /**
+     * Last action of the conversion (win or loose state), null if the level of the submission was invalid
+     */
+    private final Action finalAction;
+
+    /**
+     * Amount of moves of the conversion, including the final win or loose move
+     */
+    private final int steps;
+
+    /**
+     * Amount of coins collected by the program
+     */
+    private final int coinsCollected;
+
+    /**
+     * Constructor to create a verdict.
+     *
+     * @param id             id of the graded submission
+     * @param finalAction    last action of the conversion, null if the level was invalid
+     * @param steps          amount of moves of the conversion
+     * @param coinsCollected amount of coins collected by the program
+     */
+    public Verdict(String id, Action finalAction, int steps, int coinsCollected) {
+        this.id = id;
+        this.finalAction = finalAction;
+        this.steps = steps;
+        this.coinsCollected = coinsCollected;
+    }
+
+    /**
+     * Creates the verdict of a submission with an invalid level.
+     *
+     * @param id id of the graded submission
+     * @return verdict without a final action
+     */
+    static Verdict invalidLevel(String id) {
+        return new Verdict(id, null, 0, 0);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Action getFinalAction() {
+        return finalAction;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public int getCoinsCollected() {
+        return coinsCollected;
+    }
+
+    /**
+     * Checks if the program of the submission solved the level.
+     *
+     * @return true if the final action is a win
+     */
+    public boolean isWin() {
+        return finalAction == Action.WIN;
+    }
+
+    /**
+     * Checks if the level of the submission could be loaded.
+     *
+     * @return true if the submission was graded on a valid level
+     */
+    public boolean isValidLevel() {
+        return finalAction != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Verdict{" +
+                "id='" + id + '\'' +
+                ", finalAction=" + finalAction +
+                ", steps=" + steps +
+                ", coinsCollected=" + coinsCollected +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Verdict verdict = (Verdict) o;
+        return steps == verdict.steps && coinsCollected == verdict.coinsCollected && Objects.equals(id, verdict.id) && finalAction == verdict.finalAction;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, finalAction, steps, coinsCollected);
+    }
+}
@@ -0,0 +1,196 @@
+package logic.instructions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Interned stack of instruction containers, showing where an instruction is currently called in.
+ * <p>
+ * Every distinct stack exists only once, so stacks are compared by identity. A stack knows its parent (the stack
+ * without its top container) and caches its children, so pushing and popping a container are O(1) and do not create
+ * any objects once a stack was used. There are only a handful of stacks in the game, e.g. PROGRAM,
+ * PROGRAM &gt; PROCEDURE_ONE and PROGRAM &gt; PROCEDURE_ONE &gt; PROCEDURE_TWO.
+ * <p>
+ * Every stack has a small id, which can be stored instead of the stack and resolved with {@link #byId(int)}.
+ *
+ * @author Timo Peters
+ */
+public class ContainerStack {
+
+    /**
+     * Cached instruction containers, so that looking up a container does not need to copy the values array
+     */
+    private static final InstructionContainer[] CONTAINERS = InstructionContainer.values();
+
+    /**
+     * Lock for creating new stacks
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * Every stack created so far, indexed by its id. The array is replaced when a stack is created, so that it can be
+     * read without locking.
+     */
+    private static volatile ContainerStack[] registry = new ContainerStack[0];
+
+    /**
+     * Stack without any container
+     */
+    public static final ContainerStack EMPTY = new ContainerStack(null, null);
+
+    /**
+     * Stack of an instruction called directly in the program
+     */
+    public static final ContainerStack PROGRAM = EMPTY.push(InstructionContainer.PROGRAM);
+
+    /**
+     * Stack of a win or loose state (last action of the level)
+     */
+    public static final ContainerStack RESULT = EMPTY.push(InstructionContainer.RESULT);
+
+    /**
+     * Stack without the top container, null for the empty stack
+     */
+    private final ContainerStack parent;
+
+    /**
+     * Top container, null for the empty stack
+     */
+    private final InstructionContainer top;
+
+    /**
+     * Amount of containers on the stack
+     */
+    private final int size;
+
+    /**
+     * Unique id of the stack
+     */
+    private final int id;
+
+    /**
+     * Containers from the bottom to the top of the stack
+     */
+    private final List<InstructionContainer> containers;
+
+    /**
+     * Cached children of the stack, indexed by the ordinal of the pushed container
+     */
+    private final ContainerStack[] children = new ContainerStack[CONTAINERS.length];
+
+    /**
+     * Constructor to create a stack and register it. Must only be called while holding the {@link #LOCK}, or while
+     * initializing the class.
+     *
+     * @param parent stack without the top container
+     * @param top    top container
+     */
+    private ContainerStack(ContainerStack parent, InstructionContainer top) {
+        this.parent = parent;
+        this.top = top;
+        this.size = parent != null ? parent.size + 1 : 0;
+
+        List<InstructionContainer> list = new ArrayList<>(size);
+        if (parent != null) {
+            list.addAll(parent.containers);
+            list.add(top);
+        }
+        this.containers = Collections.unmodifiableList(list);
+
+        ContainerStack[] newRegistry = Arrays.copyOf(registry, registry.length + 1);
+        this.id = registry.length;
+        newRegistry[id] = this;
+        registry = newRegistry;
+    }
+
+    /**
+     * Returns the interned stack of a list of containers.
+     *
+     * @param containers containers from the bottom to the top of the stack
+     * @return interned stack
+     */
+    public static ContainerStack of(List<InstructionContainer> containers) {
+        ContainerStack stack = EMPTY;
+        for (InstructionContainer container : containers) {
+            stack = stack.push(container);
+        }
+        return stack;
+    }
+
+    /**
+     * Returns the stack with the given id.
+     *
+     * @param id id of the stack
+     * @return stack with the id
+     * @throws IndexOutOfBoundsException if there is no stack with the id
+     */
+    public static ContainerStack byId(int id) {
+        return registry[id];
+    }
+
+    /**
+     * Returns the stack with an additional container on top.
+     *
+     * @param container container to push
+     * @return interned stack with the container on top
+     */
+    public ContainerStack push(InstructionContainer container) {
+        ContainerStack child = children[container.ordinal()];
+        if (child == null) {
+            synchronized (LOCK) {
+                child = children[container.ordinal()];
+                if (child == null) {
+                    child = new ContainerStack(this, container);
+                    children[container.ordinal()] = child;
+                }
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Returns the stack without its top container.
+     *
+     * @return interned parent stack
+     * @throws IllegalStateException if the stack is empty
+     */
+    public ContainerStack pop() {
+        if (parent == null) {
+            throw new IllegalStateException("The empty container stack can not be popped");
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the top container of the stack.
+     *
+     * @return top container or null if the stack is empty
+     */
+    public InstructionContainer peek() {
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the containers of the stack as a list. The list is shared and can not be modified.
+     *
+     * @return containers from the bottom to the top of the stack
+     */
+    public List<InstructionContainer> toList() {
+        return containers;
+    }
+
+    @Override
+    public String toString() {
+        return containers.toString();
+    }
+}
@@ -3,9 +3,9 @@ package logic.instructions;
 import logic.conversion.Move;
 import logic.conversion.Action;
 import logic.level.FieldType;
+import logic.level.BitBoard;
 import logic.level.Level;
 
-import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -28,7 +28,7 @@ public class Exit implements Instruction {
     }
 
     @Override
-    public Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer) {
+    public Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer) {
         // the bot can only exit if he is standing in front of the door
         if (level.getNextCell() == FieldType.DOOR) {
             // the bot can only exit if there are no more coins on the field
@@ -38,11 +38,19 @@ public class Exit implements Instruction {
                 );
             }
             return Stream.of(
-                    new Move(level.getCurrentBotPosition(), level.getBotRotation(), Action.LOOSE_UNCOLLECTED_COINS, List.of(InstructionContainer.RESULT))
+                    new Move(level.getCurrentBotPosition(), level.getBotRotation(), Action.LOOSE_UNCOLLECTED_COINS, ContainerStack.RESULT)
             );
         }
         return Stream.of(
-                new Move(level.getCurrentBotPosition(), level.getBotRotation(), Action.LOOSE_DOOR_OUT_OF_REACH, List.of(InstructionContainer.RESULT)));
+                new Move(level.getCurrentBotPosition(), level.getBotRotation(), Action.LOOSE_DOOR_OUT_OF_REACH, ContainerStack.RESULT));
+    }
+
+    @Override
+    public Action execute(BitBoard board) {
+        if (board.getNextCell() == FieldType.DOOR) {
+            return board.getCoinAmount() == 0 ? Action.EXIT : Action.LOOSE_UNCOLLECTED_COINS;
+        }
+        return Action.LOOSE_DOOR_OUT_OF_REACH;
     }
 
     @Override
@@ -1,9 +1,10 @@
 package logic.instructions;
 
+import logic.conversion.Action;
 import logic.conversion.Move;
+import logic.level.BitBoard;
 import logic.level.Level;
 
-import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -19,5 +20,14 @@ public interface Instruction {
      * @param instructionContainer stack of instructionContainers, the current instruction is called in
      * @return stream of actions created from the instruction
      */
-    Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer);
+    Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer);
+
+    /**
+     * Executes an instruction on a bitboard, following the same rules as {@link #convertInstruction}, but without
+     * creating any moves.
+     *
+     * @param board board to execute the instruction on, the board is changed by the instruction
+     * @return last action of the instruction or the LOOSE action if the player lost by executing the instruction
+     */
+    Action execute(BitBoard board);
 }
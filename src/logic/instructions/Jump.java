@@ -5,9 +5,9 @@ import logic.conversion.Action;
 import logic.level.BotRotation;
 import logic.level.FieldType;
 import logic.level.Coord;
+import logic.level.BitBoard;
 import logic.level.Level;
 
-import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -30,7 +30,7 @@ public class Jump implements Instruction {
     }
 
     @Override
-    public Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer) {
+    public Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer) {
         Coord preMoveBotPosition = level.getCurrentBotPosition();
         BotRotation preMoveBotRotation = level.getBotRotation();
         FieldType nextCell = level.getNextCell();
@@ -55,17 +55,35 @@ public class Jump implements Instruction {
                 );
             } else {
                 converted = Stream.of(
-                        new Move(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_CAN_NOT_LAND, List.of(InstructionContainer.RESULT))
+                        new Move(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_CAN_NOT_LAND, ContainerStack.RESULT)
                 );
             }
         } else {
             converted = Stream.of(
-                    new Move(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_CAN_NOT_JUMP, List.of(InstructionContainer.RESULT))
+                    new Move(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_CAN_NOT_JUMP, ContainerStack.RESULT)
             );
         }
         return converted;
     }
 
+    @Override
+    public Action execute(BitBoard board) {
+        if (board.getNextCell() != FieldType.GAP) {
+            return Action.LOOSE_CAN_NOT_JUMP;
+        }
+
+        FieldType landingCell = board.getJumpLandingCell();
+        if (landingCell == FieldType.NORMAL || landingCell == FieldType.START) {
+            board.jump();
+            return Action.JUMP_OVER;
+        } else if (landingCell == FieldType.COIN) {
+            board.jump();
+            board.collectCoin();
+            return Action.COLLECT_COIN;
+        }
+        return Action.LOOSE_CAN_NOT_LAND;
+    }
+
     @Override
     public String toString() {
         return "AJump";
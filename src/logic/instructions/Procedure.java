@@ -1,11 +1,12 @@
 package logic.instructions;
 
 import logic.conversion.Action;
+import logic.conversion.CompiledProgram;
 import logic.conversion.Move;
+import logic.level.BitBoard;
 import logic.level.Level;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -44,28 +45,33 @@ public abstract class Procedure implements Instruction {
         this.procedure = instructions;
     }
 
+    /**
+     * Converts the procedure with the {@link CompiledProgram} interpreter. The whole procedure is executed on the level
+     * before the moves are returned.
+     */
+    @Override
+    public Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer) {
+        return CompiledProgram.compile(List.of(this)).run(level, instructionContainer).getMoves().stream();
+    }
+
+    /**
+     * Executes every instruction of the procedure on the board. The procedure stops at the first instruction that
+     * makes the player lose. As in the game, any instruction after an exit makes the player lose as well.
+     * The procedures must not call themselves or each other.
+     */
     @Override
-    public Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer) {
-        List<InstructionContainer> instructionStack = new ArrayList<>(instructionContainer);
-        instructionStack.add(this.getInstructionContainer());
-
-        // check if the procedure is filled with any instructions
-        if (!this.procedure.isEmpty()) {
-            int[] lostCount = new int[]{0};
-
-            return this.procedure.stream().flatMap(i -> i.convertInstruction(level, Collections.unmodifiableList(instructionStack)))
-                    .takeWhile(move -> {
-                                // inclusive takeWhile using a lostCount
-                                // this will also take the first value where the predicate does not match
-                                if (move.getInstructionContainer().equals(List.of(InstructionContainer.RESULT))) lostCount[0]++;
-                                return lostCount[0] < 2;
-                            }
-                    );
-        } else {
-            // if there was no instruction inside the procedure, then an Empty_Procedure action should be returned to ensure
-            // that the position of the blue animation frame in the logic is being incremented correctly
-            return Stream.of(new Move(level.getCurrentBotPosition(), level.getBotRotation(), Action.EMPTY_PROCEDURE, instructionContainer));
+    public Action execute(BitBoard board) {
+        Action action = Action.EMPTY_PROCEDURE;
+        for (int i = 0; i < procedure.size(); i++) {
+            if (action == Action.EXIT) {
+                return Action.LOOSE_INSTRUCTIONS_AFTER_EXIT;
+            }
+            action = procedure.get(i).execute(board);
+            if (action.isLost()) {
+                return action;
+            }
         }
+        return action;
     }
 
     /**
@@ -73,7 +79,7 @@ public abstract class Procedure implements Instruction {
      *
      * @return instruction container of the specific procedure
      */
-    protected abstract InstructionContainer getInstructionContainer();
+    public abstract InstructionContainer getInstructionContainer();
 
     /**
      * Checks if the given instruction is in the procedure.
@@ -26,7 +26,7 @@ public class ProcedureOne extends Procedure {
     }
 
     @Override
-    protected InstructionContainer getInstructionContainer() {
+    public InstructionContainer getInstructionContainer() {
         return InstructionContainer.PROCEDURE_ONE;
     }
 
@@ -26,7 +26,7 @@ public class ProcedureTwo extends Procedure {
     }
 
     @Override
-    protected InstructionContainer getInstructionContainer() {
+    public InstructionContainer getInstructionContainer() {
         return InstructionContainer.PROCEDURE_TWO;
     }
 
@@ -3,9 +3,9 @@ package logic.instructions;
 import logic.conversion.Move;
 import logic.conversion.Action;
 import logic.level.BotRotation;
+import logic.level.BitBoard;
 import logic.level.Level;
 
-import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -28,7 +28,7 @@ public class TurnLeft implements Instruction {
     }
 
     @Override
-    public Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer) {
+    public Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer) {
         // the turn instruction is always possible (as long as it is executed before an exit instruction
         BotRotation preMoveBotRotation = level.getBotRotation();
         level.rotateBotLeft();
@@ -36,6 +36,12 @@ public class TurnLeft implements Instruction {
                 new Move(level.getCurrentBotPosition(), preMoveBotRotation, Action.TURN_LEFT, instructionContainer));
     }
 
+    @Override
+    public Action execute(BitBoard board) {
+        board.rotateBotLeft();
+        return Action.TURN_LEFT;
+    }
+
     @Override
     public String toString() {
         return "ALeft";
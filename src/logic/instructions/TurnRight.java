@@ -3,9 +3,9 @@ package logic.instructions;
 import logic.conversion.Move;
 import logic.conversion.Action;
 import logic.level.BotRotation;
+import logic.level.BitBoard;
 import logic.level.Level;
 
-import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -27,7 +27,7 @@ public class TurnRight implements Instruction {
     }
 
     @Override
-    public Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer) {
+    public Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer) {
         // the turn instruction is always possible (as long as it is executed before an exit instruction
         BotRotation preMoveBotRotation = level.getBotRotation();
         level.rotateBotRight();
@@ -36,6 +36,12 @@ public class TurnRight implements Instruction {
         );
     }
 
+    @Override
+    public Action execute(BitBoard board) {
+        board.rotateBotRight();
+        return Action.TURN_RIGHT;
+    }
+
     @Override
     public String toString() {
         return "ARight";
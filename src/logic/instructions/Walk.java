@@ -5,9 +5,9 @@ import logic.conversion.Action;
 import logic.level.BotRotation;
 import logic.level.FieldType;
 import logic.level.Coord;
+import logic.level.BitBoard;
 import logic.level.Level;
 
-import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -29,7 +29,7 @@ public class Walk implements Instruction {
     }
 
     @Override
-    public Stream<Move> convertInstruction(Level level, List<InstructionContainer> instructionContainer) {
+    public Stream<Move> convertInstruction(Level level, ContainerStack instructionContainer) {
         Coord preMoveBotPosition = level.getCurrentBotPosition();
         BotRotation preMoveBotRotation = level.getBotRotation();
 
@@ -53,10 +53,25 @@ public class Walk implements Instruction {
             }
         }
         return Stream.of(
-                new Move(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_NEXT_FIELD_BLOCKED, List.of(InstructionContainer.RESULT))
+                new Move(preMoveBotPosition, preMoveBotRotation, Action.LOOSE_NEXT_FIELD_BLOCKED, ContainerStack.RESULT)
         );
     }
 
+    @Override
+    public Action execute(BitBoard board) {
+        FieldType nextCell = board.getNextCell();
+
+        if (nextCell == FieldType.NORMAL) {
+            board.moveToNextCell();
+            return Action.WALK;
+        } else if (nextCell == FieldType.COIN) {
+            board.moveToNextCell();
+            board.collectCoin();
+            return Action.COLLECT_COIN;
+        }
+        return Action.LOOSE_NEXT_FIELD_BLOCKED;
+    }
+
     @Override
     public String toString() {
         return "AWalk";
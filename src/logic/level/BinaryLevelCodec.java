@@ -0,0 +1,231 @@
+package logic.level;
+
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import logic.exceptions.NoBotRotationException;
+import logic.exceptions.NoFieldException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary codec of levels. Every cell is packed into 3 bits, which hold the ordinal of its field type, so the
+ * encoding is a small fraction of the JSON of a {@link SavedState}.
+ * <p>
+ * An encoded level starts with a format byte and the ordinal of the bot rotation. The common 8x8 levels use the
+ * {@link #FORMAT_8X8} format, which is followed by the 24 bytes of packed cells, so such a level takes 26 bytes. Every
+ * other size uses the {@link #FORMAT_GENERIC} format, which is followed by the amount of rows and columns as two-byte
+ * values and then the packed cells. The cells are packed row by row, cell {@code i} occupies the bits
+ * {@code [3 * i, 3 * i + 3)} counted from the lowest bit of the first byte.
+ * <p>
+ * The methods read and write at absolute indices without changing the position of the buffers, so a read-only buffer
+ * can be decoded by many threads at the same time. Decoding creates a {@link SavedState}, so a decoded level is
+ * validated exactly like a level loaded from JSON and {@link Level#createSavedState()} round-trips.
+ *
+ * @author Timo Peters
+ */
+public class BinaryLevelCodec {
+
+    /**
+     * Format of an 8x8 level without a size header
+     */
+    static final byte FORMAT_8X8 = 0;
+
+    /**
+     * Format of a level of any size with a size header
+     */
+    static final byte FORMAT_GENERIC = 1;
+
+    /**
+     * Amount of bits of every cell
+     */
+    private static final int BITS_PER_CELL = 3;
+
+    /**
+     * Mask of the bits of a cell
+     */
+    private static final int CELL_MASK = (1 << BITS_PER_CELL) - 1;
+
+    /**
+     * Size of the rows and columns of the compact format
+     */
+    private static final int COMPACT_SIZE = 8;
+
+    /**
+     * Size of the header of the compact format: format and bot rotation
+     */
+    private static final int COMPACT_HEADER_SIZE = 2;
+
+    /**
+     * Size of the header of the generic format: format, bot rotation, rows and columns
+     */
+    private static final int GENERIC_HEADER_SIZE = 6;
+
+    private BinaryLevelCodec() {
+    }
+
+    /**
+     * Returns the amount of bytes of an encoded level of the given size.
+     *
+     * @param rows amount of rows
+     * @param cols amount of columns
+     * @return size of the encoded level in bytes
+     */
+    public static int getEncodedSize(int rows, int cols) {
+        int cellBytes = (int) (((long) rows * cols * BITS_PER_CELL + 7) / 8);
+        return (isCompact(rows, cols) ? COMPACT_HEADER_SIZE : GENERIC_HEADER_SIZE) + cellBytes;
+    }
+
+    private static boolean isCompact(int rows, int cols) {
+        return rows == COMPACT_SIZE && cols == COMPACT_SIZE;
+    }
+
+    /**
+     * Encodes a level into a new byte array.
+     *
+     * @param level level to encode
+     * @return encoded level
+     */
+    public static byte[] encode(Level level) {
+        byte[] bytes = new byte[getEncodedSize(level.getRows(), level.getCols())];
+        encode(level, ByteBuffer.wrap(bytes), 0);
+        return bytes;
+    }
+
+    /**
+     * Encodes a level into a buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param level  level to encode
+     * @param buffer buffer to write to, it needs {@link #getEncodedSize(int, int)} bytes from the index on
+     * @param index  index of the first byte of the encoded level
+     * @return amount of written bytes
+     */
+    public static int encode(Level level, ByteBuffer buffer, int index) {
+        int rows = level.getRows();
+        int cols = level.getCols();
+        int cellsStart = index + COMPACT_HEADER_SIZE;
+        if (isCompact(rows, cols)) {
+            buffer.put(index, FORMAT_8X8);
+        } else {
+            buffer.put(index, FORMAT_GENERIC);
+            buffer.putShort(index + 2, (short) rows);
+            buffer.putShort(index + 4, (short) cols);
+            cellsStart = index + GENERIC_HEADER_SIZE;
+        }
+        buffer.put(index + 1, (byte) level.getBotRotation().ordinal());
+
+        // the cells are collected in an int and flushed byte by byte, so every byte is written once
+        int size = getEncodedSize(rows, cols);
+        int bits = 0;
+        int bitCount = 0;
+        int next = cellsStart;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                bits |= level.getGameFieldCell(row, col).ordinal() << bitCount;
+                bitCount += BITS_PER_CELL;
+                if (bitCount >= 8) {
+                    buffer.put(next++, (byte) bits);
+                    bits >>>= 8;
+                    bitCount -= 8;
+                }
+            }
+        }
+        if (bitCount > 0) {
+            buffer.put(next, (byte) bits);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the amount of bytes of the encoded level at the given index of a buffer.
+     *
+     * @param buffer buffer holding the encoded level
+     * @param index  index of the first byte of the encoded level
+     * @return size of the encoded level in bytes
+     */
+    public static int getEncodedSize(ByteBuffer buffer, int index) {
+        if (buffer.get(index) == FORMAT_8X8) {
+            return getEncodedSize(COMPACT_SIZE, COMPACT_SIZE);
+        }
+        return getEncodedSize(buffer.getShort(index + 2), buffer.getShort(index + 4));
+    }
+
+    /**
+     * Decodes the saved state of an encoded level. The saved state is not validated yet.
+     *
+     * @param buffer buffer holding the encoded level, its position is not changed
+     * @param index  index of the first byte of the encoded level
+     * @return saved state of the encoded level
+     * @throws IllegalArgumentException when the format of the encoded level is unknown
+     */
+    public static SavedState decodeSavedState(ByteBuffer buffer, int index) {
+        byte format = buffer.get(index);
+        int rows;
+        int cols;
+        int cellsStart;
+        switch (format) {
+            case FORMAT_8X8:
+                rows = COMPACT_SIZE;
+                cols = COMPACT_SIZE;
+                cellsStart = index + COMPACT_HEADER_SIZE;
+                break;
+            case FORMAT_GENERIC:
+                rows = buffer.getShort(index + 2);
+                cols = buffer.getShort(index + 4);
+                cellsStart = index + GENERIC_HEADER_SIZE;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown level format " + format);
+        }
+
+        int[][] field = new int[Math.max(rows, 0)][Math.max(cols, 0)];
+        int bits = 0;
+        int bitCount = 0;
+        int next = cellsStart;
+        for (int row = 0; row < field.length; row++) {
+            for (int col = 0; col < field[row].length; col++) {
+                if (bitCount < BITS_PER_CELL) {
+                    bits |= (buffer.get(next++) & 0xFF) << bitCount;
+                    bitCount += 8;
+                }
+                field[row][col] = bits & CELL_MASK;
+                bits >>>= BITS_PER_CELL;
+                bitCount -= BITS_PER_CELL;
+            }
+        }
+        return new SavedState(field, (int) buffer.get(index + 1));
+    }
+
+    /**
+     * Decodes a level encoded in a byte array.
+     *
+     * @param bytes encoded level
+     * @return decoded level
+     * @throws InvalidBotRotationException when the bot rotation is not within the bounds of 0 to 3
+     * @throws InvalidFieldTypeException   when at least one field is not within the bounds of 0 to 5
+     * @throws InvalidFieldSizeException   when the game field is empty
+     * @throws NoFieldException            never, the encoding always contains a game field
+     * @throws NoBotRotationException      never, the encoding always contains a bot rotation
+     */
+    public static Level decode(byte[] bytes) throws InvalidBotRotationException, InvalidFieldTypeException,
+            InvalidFieldSizeException, NoFieldException, NoBotRotationException {
+        return decode(ByteBuffer.wrap(bytes), 0);
+    }
+
+    /**
+     * Decodes the encoded level at the given index of a buffer.
+     *
+     * @param buffer buffer holding the encoded level, its position is not changed
+     * @param index  index of the first byte of the encoded level
+     * @return decoded level
+     * @throws InvalidBotRotationException when the bot rotation is not within the bounds of 0 to 3
+     * @throws InvalidFieldTypeException   when at least one field is not within the bounds of 0 to 5
+     * @throws InvalidFieldSizeException   when the game field is empty
+     * @throws NoFieldException            never, the encoding always contains a game field
+     * @throws NoBotRotationException      never, the encoding always contains a bot rotation
+     */
+    public static Level decode(ByteBuffer buffer, int index) throws InvalidBotRotationException,
+            InvalidFieldTypeException, InvalidFieldSizeException, NoFieldException, NoBotRotationException {
+        return decodeSavedState(buffer, index).getLevel();
+    }
+}
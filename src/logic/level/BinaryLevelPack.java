@@ -0,0 +1,241 @@
+package logic.level;
+
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import logic.exceptions.NoBotRotationException;
+import logic.exceptions.NoFieldException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Level pack file of levels encoded by the {@link BinaryLevelCodec}, opened as a memory-mapped read-only buffer.
+ * <p>
+ * The file starts with a header of four ints: the {@link #MAGIC} number, the {@link #VERSION}, the amount of levels
+ * and the position of the index. The encoded levels follow the header, and the index follows the levels. The index
+ * has a fixed stride of one int per level holding the position of the level, and a last int holding the end of the
+ * levels. Any level is therefore found by its number with two reads and decoded straight from the mapped file,
+ * without parsing anything before it.
+ * <p>
+ * The mapping is read with absolute indices only, so a pack can be read by many threads at the same time. The file
+ * channel is closed right after mapping the file, the mapping stays valid until the pack is garbage collected. As a
+ * single mapping is used, a pack file can not exceed 2 GB, which are millions of 8x8 levels.
+ *
+ * @author Timo Peters
+ */
+public class BinaryLevelPack {
+
+    /**
+     * Magic number at the start of every pack file ("EBLP")
+     */
+    static final int MAGIC = 0x45424C50;
+
+    /**
+     * Version of the pack format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * Size of the buffer the levels are written through
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Mapped content of the pack file
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Amount of levels in the pack
+     */
+    private final int size;
+
+    /**
+     * Position of the index within the file
+     */
+    private final int indexStart;
+
+    private BinaryLevelPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("The file is no binary level pack");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported binary level pack version " + buffer.getInt(4));
+        }
+        this.size = buffer.getInt(8);
+        this.indexStart = buffer.getInt(12);
+        if (size < 0 || indexStart < HEADER_SIZE || (long) indexStart + 4L * (size + 1) > buffer.capacity()) {
+            throw new IOException("The index of the binary level pack is corrupt");
+        }
+    }
+
+    /**
+     * Opens a pack file by mapping it into memory. The levels are not read until they are requested.
+     *
+     * @param file pack file
+     * @return opened pack
+     * @throws IOException when the file can not be mapped or is no binary level pack
+     */
+    public static BinaryLevelPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The binary level pack is too big");
+            }
+            return new BinaryLevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes levels into a new pack file. The levels are encoded as they are iterated, so they can come from a lazily
+     * parsed source like the {@link LevelPackReader}. Only the positions of the levels are kept until the index is
+     * written.
+     *
+     * @param file   file to write to, an existing file is replaced
+     * @param levels levels to write
+     * @return amount of written levels
+     * @throws IOException when the file can not be written to or the pack would exceed 2 GB
+     */
+    public static int write(Path file, Iterator<Level> levels) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            int[] positions = new int[16];
+            int count = 0;
+            long position = HEADER_SIZE;
+            channel.position(HEADER_SIZE);
+
+            while (levels.hasNext()) {
+                Level level = levels.next();
+                int levelSize = BinaryLevelCodec.getEncodedSize(level.getRows(), level.getCols());
+                if (position + levelSize > Integer.MAX_VALUE) {
+                    throw new IOException("The binary level pack would be too big");
+                }
+                if (count == positions.length) {
+                    positions = Arrays.copyOf(positions, count * 2);
+                }
+                positions[count++] = (int) position;
+
+                out = ensureRemaining(channel, out, levelSize);
+                BinaryLevelCodec.encode(level, out, out.position());
+                out.position(out.position() + levelSize);
+                position += levelSize;
+            }
+
+            // the index holds the end of the levels as the last entry, so the size of every level is known
+            if (position + 4L * (count + 1) > Integer.MAX_VALUE) {
+                throw new IOException("The binary level pack would be too big");
+            }
+            for (int i = 0; i <= count; i++) {
+                out = ensureRemaining(channel, out, 4);
+                out.putInt(i < count ? positions[i] : (int) position);
+            }
+            flush(channel, out);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt((int) position).flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Makes sure the write buffer has the given amount of bytes left, by flushing it or by replacing it with a bigger
+     * buffer for huge levels.
+     *
+     * @param channel channel to flush to
+     * @param out     write buffer
+     * @param bytes   amount of bytes that are written next
+     * @return write buffer to use
+     * @throws IOException when the channel can not be written to
+     */
+    private static ByteBuffer ensureRemaining(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            flush(channel, out);
+            if (out.capacity() < bytes) {
+                return ByteBuffer.allocate(bytes);
+            }
+        }
+        return out;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Returns the position of a level within the file.
+     *
+     * @param index number of the level
+     * @return position of the first byte of the encoded level
+     * @throws IndexOutOfBoundsException when there is no level with the number
+     */
+    private int positionOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Level " + index + " is not within the pack of " + size + " levels");
+        }
+        return buffer.getInt(indexStart + 4 * index);
+    }
+
+    /**
+     * Returns the saved state of a level, decoded straight from the mapped file. The saved state is not validated yet.
+     *
+     * @param index number of the level
+     * @return saved state of the level
+     * @throws IndexOutOfBoundsException when there is no level with the number
+     */
+    public SavedState getSavedState(int index) {
+        return BinaryLevelCodec.decodeSavedState(buffer, positionOf(index));
+    }
+
+    /**
+     * Returns a level, decoded straight from the mapped file.
+     *
+     * @param index number of the level
+     * @return level with the number
+     * @throws IndexOutOfBoundsException   when there is no level with the number
+     * @throws InvalidBotRotationException when the bot rotation is not within the bounds of 0 to 3
+     * @throws InvalidFieldTypeException   when at least one field is not within the bounds of 0 to 5
+     * @throws InvalidFieldSizeException   when the game field is empty
+     * @throws NoFieldException            never, the encoding always contains a game field
+     * @throws NoBotRotationException      never, the encoding always contains a bot rotation
+     */
+    public Level getLevel(int index) throws InvalidBotRotationException, InvalidFieldTypeException,
+            InvalidFieldSizeException, NoFieldException, NoBotRotationException {
+        return BinaryLevelCodec.decode(buffer, positionOf(index));
+    }
+
+    /**
+     * Returns the size of an encoded level, read from the index.
+     *
+     * @param index number of the level
+     * @return size of the encoded level in bytes
+     * @throws IndexOutOfBoundsException when there is no level with the number
+     */
+    public int getEncodedSize(int index) {
+        int position = positionOf(index);
+        return buffer.getInt(indexStart + 4 * (index + 1)) - position;
+    }
+
+    public int size() {
+        return size;
+    }
+}
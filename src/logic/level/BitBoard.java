@@ -0,0 +1,304 @@
+package logic.level;
+
+/**
+ * Compact representation of a level with at most {@value MAX_CELLS} cells, used to simulate instructions without
+ * creating any objects.
+ * <p>
+ * Every field type has its own bitboard, a long where bit {@code row * cols + col} is set if the cell has that field
+ * type. The bot position is stored as the index of its cell and the bot rotation as its ordinal. Moving the bot,
+ * collecting a coin and copying the board are only a few bit operations.
+ * <p>
+ * The board follows the same rules as {@link Level}, so simulating instructions on a board has the same result as
+ * simulating them on the level it was created from.
+ *
+ * @author Timo Peters
+ */
+public class BitBoard {
+
+    /**
+     * Maximum amount of cells a board can hold
+     */
+    public static final int MAX_CELLS = Long.SIZE;
+
+    /**
+     * Cached field types, so that looking up a field type does not need to copy the values array
+     */
+    private static final FieldType[] FIELD_TYPES = FieldType.values();
+
+    /**
+     * Cached bot rotations, so that turning the bot does not need to copy the values array
+     */
+    private static final BotRotation[] ROTATIONS = BotRotation.values();
+
+    /**
+     * One bitboard for every field type, indexed by the field type ordinal
+     */
+    private final long[] boards;
+
+    /**
+     * Amount of rows of the game field
+     */
+    private final int rows;
+
+    /**
+     * Amount of columns of the game field
+     */
+    private final int cols;
+
+    /**
+     * Cell index of the current bot position, or -1 if the level has no start
+     */
+    private byte botPosition;
+
+    /**
+     * Ordinal of the current bot rotation
+     */
+    private byte botRotation;
+
+    /**
+     * Constructor to create a board from a given level.
+     *
+     * @param level level to create the board from
+     * @throws IllegalArgumentException if the level has more than {@value MAX_CELLS} cells
+     */
+    public BitBoard(Level level) {
+        if (!fits(level)) {
+            throw new IllegalArgumentException("A bitboard can only hold levels with up to " + MAX_CELLS + " cells");
+        }
+
+        this.rows = level.getRows();
+        this.cols = level.getCols();
+        this.boards = new long[FIELD_TYPES.length];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                // a cell without a field type is in none of the bitboards, so it is read as null like in the level
+                FieldType fieldType = level.getGameFieldCell(row, col);
+                if (fieldType != null) {
+                    boards[fieldType.ordinal()] |= 1L << (row * cols + col);
+                }
+            }
+        }
+
+        Coord position = level.getCurrentBotPosition();
+        this.botPosition = (byte) (position != null ? position.getRow() * cols + position.getCol() : -1);
+        this.botRotation = (byte) level.getBotRotation().ordinal();
+    }
+
+    /**
+     * Constructor to create a copy of another board.
+     *
+     * @param other board to copy
+     */
+    public BitBoard(BitBoard other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.boards = new long[FIELD_TYPES.length];
+        copyFrom(other);
+    }
+
+    /**
+     * Checks if a level fits into a board.
+     *
+     * @param level level to check
+     * @return true if the level has at least one and at most {@value MAX_CELLS} cells
+     */
+    public static boolean fits(Level level) {
+        return level.getRows() > 0 && level.getCols() > 0 && level.getRows() * level.getCols() <= MAX_CELLS;
+    }
+
+    /**
+     * Overwrites this board with the state of another board of the same size, without creating any objects.
+     *
+     * @param other board to copy the state from
+     */
+    public void copyFrom(BitBoard other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("Only boards of the same size can be copied into each other");
+        }
+        System.arraycopy(other.boards, 0, boards, 0, boards.length);
+        this.botPosition = other.botPosition;
+        this.botRotation = other.botRotation;
+    }
+
+    /**
+     * Creates a level from the current state of the board.
+     *
+     * @return new level with the game field and bot rotation of the board
+     */
+    public Level toLevel() {
+        FieldType[][] field = new FieldType[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                field[row][col] = getGameFieldCell(row, col);
+            }
+        }
+        return new Level(field, getBotRotation());
+    }
+
+    /**
+     * Returns the field type of a cell.
+     *
+     * @param row row of the cell
+     * @param col column of the cell
+     * @return field type of the cell or null if the cell is outside the game field
+     */
+    public FieldType getGameFieldCell(int row, int col) {
+        if (row >= 0 && row < rows && col >= 0 && col < cols) {
+            return getCell(row * cols + col);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the field type of the next cell in the current bot direction.
+     *
+     * @return next field type or null if the next cell is outside the game field
+     */
+    public FieldType getNextCell() {
+        int next = step(botPosition, 1);
+        return next != -1 ? getCell(next) : null;
+    }
+
+    /**
+     * Returns the field type of the cell behind the next cell in the current bot direction.
+     *
+     * @return landing field type or null if the landing cell is outside the game field
+     */
+    public FieldType getJumpLandingCell() {
+        int landing = step(botPosition, 2);
+        return landing != -1 ? getCell(landing) : null;
+    }
+
+    /**
+     * Moves the bot to the next cell in the current bot direction.
+     */
+    public void moveToNextCell() {
+        moveToCell(step(botPosition, 1));
+    }
+
+    /**
+     * Moves the bot over the next cell onto the landing cell in the current bot direction.
+     */
+    public void jump() {
+        moveToCell(step(botPosition, 2));
+    }
+
+    /**
+     * Collects the coin at the current bot position.
+     */
+    public void collectCoin() {
+        if (botPosition >= 0) {
+            setCell(botPosition, FieldType.NORMAL);
+        }
+    }
+
+    public void rotateBotLeft() {
+        this.botRotation = (byte) ((botRotation + ROTATIONS.length - 1) % ROTATIONS.length);
+    }
+
+    public void rotateBotRight() {
+        this.botRotation = (byte) ((botRotation + 1) % ROTATIONS.length);
+    }
+
+    /**
+     * Returns the amount of coins that are still on the game field.
+     *
+     * @return amount of coins
+     */
+    public int getCoinAmount() {
+        return Long.bitCount(boards[FieldType.COIN.ordinal()]);
+    }
+
+    /**
+     * Returns the bitboard of a field type.
+     *
+     * @param fieldType field type to get the bitboard for
+     * @return long with bit {@code row * cols + col} set for every cell with the given field type
+     */
+    public long getBoard(FieldType fieldType) {
+        return boards[fieldType.ordinal()];
+    }
+
+    /**
+     * Returns the cell index of the current bot position.
+     *
+     * @return {@code row * cols + col} of the bot position or -1 if there is no bot
+     */
+    public int getBotPosition() {
+        return botPosition;
+    }
+
+    public BotRotation getBotRotation() {
+        return ROTATIONS[botRotation];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Moves the player to a cell, setting the old cell to a normal field and the new cell to the start field.
+     *
+     * @param cell index of the cell to move to
+     */
+    private void moveToCell(int cell) {
+        if (botPosition >= 0) {
+            setCell(botPosition, FieldType.NORMAL);
+        }
+        this.botPosition = (byte) cell;
+        setCell(botPosition, FieldType.START);
+    }
+
+    /**
+     * Calculates the index of the cell in the current bot direction.
+     *
+     * @param cell     index of the cell to start from
+     * @param distance amount of cells to go
+     * @return index of the reached cell or -1 if it is outside the game field
+     */
+    private int step(int cell, int distance) {
+        if (cell < 0) {
+            return -1;
+        }
+        int row = cell / cols;
+        int col = cell % cols;
+        switch (ROTATIONS[botRotation]) {
+            case NORTH:
+                row -= distance;
+                break;
+            case EAST:
+                col += distance;
+                break;
+            case SOUTH:
+                row += distance;
+                break;
+            case WEST:
+            default:
+                col -= distance;
+                break;
+        }
+        return row >= 0 && row < rows && col >= 0 && col < cols ? row * cols + col : -1;
+    }
+
+    private FieldType getCell(int cell) {
+        long bit = 1L << cell;
+        for (int i = 0; i < boards.length; i++) {
+            if ((boards[i] & bit) != 0) {
+                return FIELD_TYPES[i];
+            }
+        }
+        return null;
+    }
+
+    private void setCell(int cell, FieldType fieldType) {
+        long bit = 1L << cell;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] &= ~bit;
+        }
+        boards[fieldType.ordinal()] |= bit;
+    }
+}
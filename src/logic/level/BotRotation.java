@@ -42,7 +42,7 @@ public enum BotRotation {
      */
     BotRotation(int rotation, int row, int col) {
         this.rotation = rotation;
-        this.directionVector = new Coord(row, col);
+        this.directionVector = Coord.of(row, col);
     }
 
     /**
@@ -67,10 +67,10 @@ public enum BotRotation {
         int newDirRow = rowDiff > 1 ? 1 : Math.max(rowDiff, -1);
         int newDirCol = colDiff > 1 ? 1 : Math.max(colDiff, -1);
 
-        Coord newDirectionVector = new Coord(newDirRow, newDirCol);
+        Coord newDirectionVector = Coord.of(newDirRow, newDirCol);
         BotRotation newRotation = null;
         for (BotRotation rotation : BotRotation.values()) {
-            if (rotation.getDirectionVector().equals(newDirectionVector)) {
+            if (rotation.directionVector.equals(newDirectionVector)) {
                 newRotation = rotation;
             }
         }
@@ -111,12 +111,7 @@ public enum BotRotation {
         return rotation;
     }
 
-    /**
-     * Returns a copy of the current direction vector.
-     *
-     * @return current direction vector
-     */
     public Coord getDirectionVector() {
-        return new Coord(directionVector.getRow(), directionVector.getCol());
+        return directionVector;
     }
 }
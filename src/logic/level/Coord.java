@@ -1,33 +1,72 @@
 package logic.level;
 
-
-import java.util.Objects;
-
 /**
- * POJO representing a 2-dimensional coordinate (x,y).
+ * Immutable value representing a 2-dimensional coordinate (x,y).
+ * <p>
+ * The row and column are packed into a single int ({@code row << 16 | col}), so both have to be within the range of a
+ * short. As a coordinate can not be changed, it can be shared without defensive copies. {@link #of(int, int)} returns
+ * the coordinates of the cells of a game field up to {@value #CACHE_SIZE}x{@value #CACHE_SIZE} (and of the cells
+ * right next to it) from a pre-built flyweight table instead of creating new ones.
  *
  * @author Timo Peters
  */
 public class Coord {
     /**
-     * Row
+     * Smallest row and column in the flyweight table, so that the cells next to the game field are cached as well
      */
-    private int row;
+    private static final int CACHE_MIN = -2;
 
     /**
-     * Column
+     * Amount of rows and columns in the flyweight table, starting at {@link #CACHE_MIN}
      */
-    private int col;
+    private static final int CACHE_SIZE = 68;
+
+    /**
+     * Flyweight table of the coordinates, indexed by {@code (row - CACHE_MIN) * CACHE_SIZE + col - CACHE_MIN}
+     */
+    private static final Coord[] CACHE = new Coord[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new Coord(i / CACHE_SIZE + CACHE_MIN, i % CACHE_SIZE + CACHE_MIN);
+        }
+    }
+
+    /**
+     * Row in the upper 16 bits and column in the lower 16 bits
+     */
+    private final int packed;
 
     /**
      * Constructor to create a coordinate described by row and column.
+     * Prefer {@link #of(int, int)}, which does not create a new coordinate for the cells of usual game fields.
      *
      * @param row row index
      * @param col column index
+     * @throws IllegalArgumentException if the row or the column does not fit into a short
      */
     public Coord(int row, int col) {
-        this.row = row;
-        this.col = col;
+        if ((short) row != row || (short) col != col) {
+            throw new IllegalArgumentException("The coordinate (" + row + ", " + col + ") is out of range");
+        }
+        this.packed = row << 16 | (col & 0xFFFF);
+    }
+
+    /**
+     * Returns the coordinate described by row and column, taken from the flyweight table if possible.
+     *
+     * @param row row index
+     * @param col column index
+     * @return coordinate of the row and column
+     * @throws IllegalArgumentException if the row or the column does not fit into a short
+     */
+    public static Coord of(int row, int col) {
+        int cacheRow = row - CACHE_MIN;
+        int cacheCol = col - CACHE_MIN;
+        if (cacheRow >= 0 && cacheRow < CACHE_SIZE && cacheCol >= 0 && cacheCol < CACHE_SIZE) {
+            return CACHE[cacheRow * CACHE_SIZE + cacheCol];
+        }
+        return new Coord(row, col);
     }
 
     /**
@@ -39,7 +78,7 @@ public class Coord {
      * @return converted coordinate
      */
     public static Coord convertIndexToCoord(int idx, int cols) {
-        return new Coord(idx / cols, idx % cols);
+        return Coord.of(idx / cols, idx % cols);
     }
 
     /**
@@ -62,10 +101,8 @@ public class Coord {
      * @return new coordinate
      */
     public static Coord getNextCoord(Coord currentPos, BotRotation rotation) {
-        return new Coord(
-                currentPos.getRow() + rotation.getDirectionVector().getRow(),
-                currentPos.getCol() + rotation.getDirectionVector().getCol()
-        );
+        Coord directionVector = rotation.getDirectionVector();
+        return Coord.of(currentPos.getRow() + directionVector.getRow(), currentPos.getCol() + directionVector.getCol());
     }
 
     /**
@@ -81,26 +118,18 @@ public class Coord {
     }
 
     public int getRow() {
-        return row;
+        return packed >> 16;
     }
 
     public int getCol() {
-        return col;
-    }
-
-    public void setRow(int row) {
-        this.row = row;
-    }
-
-    public void setCol(int col) {
-        this.col = col;
+        return (short) packed;
     }
 
     @Override
     public String toString() {
         return "Coord{" +
-                "row=" + row +
-                ", col=" + col +
+                "row=" + getRow() +
+                ", col=" + getCol() +
                 '}';
     }
 
@@ -109,11 +138,11 @@ public class Coord {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Coord coord = (Coord) o;
-        return row == coord.row && col == coord.col;
+        return packed == coord.packed;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return packed;
     }
 }
@@ -2,20 +2,105 @@ package logic.level;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Level POJO used to combine the game field with the bot rotation.
  * This class is also used by the GSON parser to parse from and into JSON.
+ * <p>
+ * The cells are stored row-major in a single byte array of field type ordinals, so a cell is found with index
+ * arithmetic ({@code row * columns + col}) instead of following a reference per row and cell. The two-dimensional
+ * game field ({@link #getGameField()}) is only created when it is requested, e.g. by the GUI.
+ * <p>
+ * Copies of small levels copy the cells with {@link System#arraycopy}. Copies of big levels are copy-on-write
+ * snapshots: the copy shares the cells with the original level and both record their own changes in a small overlay
+ * of changed cells, e.g. the collected coins and the moved start cell. A level only copies the shared cells once the
+ * overlay gets too big.
  *
  * @author Timo Peters
  */
 public class Level {
     /**
-     * Game field of the level
+     * Amount of field types, used to calculate a zobrist key for every (cell, field type)
      */
-    private FieldType[][] field;
+    private static final int FIELD_TYPES = FieldType.values().length;
+
+    /**
+     * Field types indexed by their ordinal, with null at index {@link #FIELD_TYPES} for cells without a field type
+     */
+    private static final FieldType[] FIELD_TYPE_VALUES = Arrays.copyOf(FieldType.values(), FIELD_TYPES + 1);
+
+    /**
+     * Stored value of a cell without a field type
+     */
+    private static final byte NO_FIELD_TYPE = (byte) FIELD_TYPES;
+
+    /**
+     * Maximum amount of cells a level copy copies right away. Copying up to 4 KB is cheaper than looking up every
+     * cell of the copy in the overlay, bigger levels are shared copy-on-write.
+     */
+    private static final int MAX_COPIED_CELLS = 4096;
+
+    /**
+     * Initial capacity of the overlay of changed cells
+     */
+    private static final int INITIAL_OVERLAY_CAPACITY = 8;
+
+    /**
+     * Amount of rows of the game field
+     */
+    private int rows;
+
+    /**
+     * Amount of columns of the game field
+     */
+    private int cols;
+
+    /**
+     * Field type ordinals of every cell ({@code row * columns + col}), the base of the overlay while they are shared
+     */
+    private byte[] cells;
+
+    /**
+     * True if the cells are shared with a copy of the level, so changes must be recorded in the overlay
+     */
+    private boolean cellsShared;
+
+    /**
+     * Open addressing table of the cells changed since the game field was shared, storing {@code cell index + 1} and 0
+     * for an empty slot
+     */
+    private int[] overlayCells = new int[INITIAL_OVERLAY_CAPACITY];
+
+    /**
+     * Field type ordinals of the changed cells, in the slots of {@link #overlayCells}
+     */
+    private byte[] overlayTypes = new byte[INITIAL_OVERLAY_CAPACITY];
+
+    /**
+     * Amount of changed cells in the overlay
+     */
+    private int overlaySize;
+
+    /**
+     * Two-dimensional view of the cells, created on the first request and updated with every change of a cell
+     */
+    private FieldType[][] gameField;
+
+    /**
+     * Amount of cells of every field type, indexed by the ordinal of the field type and by {@link #FIELD_TYPES} for
+     * cells without a field type
+     */
+    private int[] fieldTypeCounts;
+
+    /**
+     * Cells ({@code row * columns + col}) of every field type, indexed like {@link #fieldTypeCounts}. The index is
+     * created on the first lookup and updated with every change of a cell afterwards, so snapshots that are only
+     * simulated never create it.
+     */
+    private BitSet[] occurrences;
 
     /**
      * current bot rotation
@@ -32,6 +117,11 @@ public class Level {
      */
     private int coins;
 
+    /**
+     * 64-bit zobrist hash over the field types and the bot rotation, updated with every change of the level
+     */
+    private long zobristHash;
+
     /**
      * Constructor to create a level from a given field and bot rotation.
      *
@@ -39,25 +129,63 @@ public class Level {
      * @param botRotation initial bot rotation
      */
     public Level(FieldType[][] field, BotRotation botRotation) {
-        this.field = field;
+        readGameField(field);
         this.botRotation = botRotation;
+        this.fieldTypeCounts = countFieldTypes();
         this.currentBotPosition = firstOccurrenceOfField(FieldType.START);
         countCoins();
+        this.zobristHash = calculateZobristHash();
+    }
+
+    /**
+     * Constructor to create a copy of a level. Small levels are copied right away, big levels are copy-on-write
+     * snapshots which share the cells with the level.
+     *
+     * @param level level to create the copy of
+     */
+    private Level(Level level) {
+        this.rows = level.rows;
+        this.cols = level.cols;
+        if (level.cells.length <= MAX_COPIED_CELLS) {
+            this.cells = new byte[level.cells.length];
+            level.copyCellsInto(cells);
+        } else {
+            level.cellsShared = true;
+            this.cells = level.cells;
+            this.cellsShared = true;
+            this.overlayCells = level.overlayCells.clone();
+            this.overlayTypes = level.overlayTypes.clone();
+            this.overlaySize = level.overlaySize;
+        }
+        this.fieldTypeCounts = level.fieldTypeCounts.clone();
+        this.occurrences = null;
+        this.botRotation = level.botRotation;
+        this.zobristHash = level.zobristHash;
+
+        // like a new level, the copy starts on the first start cell and with the coins of the game field
+        this.coins = fieldTypeCounts[FieldType.COIN.ordinal()];
+        if (fieldTypeCounts[FieldType.START.ordinal()] == 0) {
+            this.currentBotPosition = null;
+        } else if (fieldTypeCounts[FieldType.START.ordinal()] == 1 && level.currentBotPosition != null
+                && getGameFieldCell(level.currentBotPosition.getRow(), level.currentBotPosition.getCol()) == FieldType.START) {
+            this.currentBotPosition = level.currentBotPosition;
+        } else {
+            this.currentBotPosition = firstOccurrenceOfField(FieldType.START);
+        }
     }
 
     /**
      * Counts the amount of coins that exist in the current level
      */
     public void countCoins() {
-        List<Coord> coinOccs = allOccurrencesOfField(FieldType.COIN);
-        this.coins = coinOccs != null ? coinOccs.size() : 0;
+        this.coins = fieldTypeCounts[FieldType.COIN.ordinal()];
     }
 
     /**
      * Collect a coin.
      */
     public void collectCoin() {
-        this.field[currentBotPosition.getRow()][currentBotPosition.getCol()] = FieldType.NORMAL;
+        changeCell(currentBotPosition.getRow(), currentBotPosition.getCol(), FieldType.NORMAL);
         --this.coins;
     }
 
@@ -68,14 +196,7 @@ public class Level {
      * @return true if the field type exists in the game field
      */
     public boolean gameFieldContainsFieldType(FieldType fieldType) {
-        boolean contains = false;
-        int i = 0;
-        while (!contains && i < field.length) {
-            List<FieldType> row = Arrays.asList(Arrays.asList(field).get(i));
-            contains = row.contains(fieldType);
-            i++;
-        }
-        return contains;
+        return fieldTypeCounts[indexOf(fieldType)] > 0;
     }
 
     /**
@@ -85,51 +206,84 @@ public class Level {
      * @return coordinate of the first field type occurrence
      */
     public Coord firstOccurrenceOfField(FieldType fieldType) {
-        Coord fieldCoord = null;
-        int i = 0;
-        while (fieldCoord == null && i < field.length) {
-            List<FieldType> row = Arrays.asList(Arrays.asList(field).get(i));
-            int idx = row.indexOf(fieldType);
-            if (idx != -1) {
-                fieldCoord = new Coord(i, idx);
-            }
-            i++;
+        if (fieldTypeCounts[indexOf(fieldType)] == 0) {
+            return null;
         }
-        return fieldCoord;
+        int cell = getOccurrences(fieldType).nextSetBit(0);
+        return Coord.of(cell / cols, cell % cols);
     }
 
     /**
      * finds every occurrence of a field type in the game field.
      *
      * @param fieldType field type to find all occurrences for
-     * @return list of coordinates representing the field types locations
+     * @return list of coordinates representing the field types locations, ordered by row and column. The list is
+     * empty if the field type does not occur.
      */
     public List<Coord> allOccurrencesOfField(FieldType fieldType) {
-        List<Coord> coords = new ArrayList<>();
+        List<Coord> coords = new ArrayList<>(fieldTypeCounts[indexOf(fieldType)]);
+        if (fieldTypeCounts[indexOf(fieldType)] == 0) {
+            return coords;
+        }
 
-        for (int i = 0; i < field.length; i++) {
-            for (int j = 0; j < field[i].length; j++) {
-                if (field[i][j] == fieldType) {
-                    coords.add(new Coord(i, j));
-                }
+        BitSet occurrencesOfField = getOccurrences(fieldType);
+        for (int cell = occurrencesOfField.nextSetBit(0); cell >= 0; cell = occurrencesOfField.nextSetBit(cell + 1)) {
+            coords.add(Coord.of(cell / cols, cell % cols));
+        }
+        return coords;
+    }
+
+    /**
+     * Returns the amount of cells of a field type.
+     *
+     * @param fieldType field type to count
+     * @return amount of cells with the field type
+     */
+    public int countOccurrencesOfField(FieldType fieldType) {
+        return fieldTypeCounts[indexOf(fieldType)];
+    }
+
+    /**
+     * Returns the cells of a field type, creating the occurrence index on the first call.
+     *
+     * @param fieldType field type to look up
+     * @return cells ({@code row * columns + col}) with the field type, must not be changed
+     */
+    private BitSet getOccurrences(FieldType fieldType) {
+        if (occurrences == null) {
+            occurrences = new BitSet[FIELD_TYPES + 1];
+            for (int i = 0; i < occurrences.length; i++) {
+                occurrences[i] = new BitSet();
+            }
+            for (int cell = 0; cell < cells.length; cell++) {
+                occurrences[cellAt(cell)].set(cell);
             }
         }
+        return occurrences[indexOf(fieldType)];
+    }
 
-        return coords.size() > 0 ? coords : null;
+    /**
+     * Returns the index of a field type in {@link #fieldTypeCounts} and {@link #occurrences}.
+     *
+     * @param fieldType field type, may be null
+     * @return ordinal of the field type or {@link #FIELD_TYPES} for null
+     */
+    private static int indexOf(FieldType fieldType) {
+        return fieldType != null ? fieldType.ordinal() : FIELD_TYPES;
     }
 
     /**
      * rotates the bot to the right
      */
     public void rotateBotRight() {
-        this.botRotation = this.botRotation.rotateRight();
+        setBotRotation(this.botRotation.rotateRight());
     }
 
     /**
      * rotates the bot to the left
      */
     public void rotateBotLeft() {
-        this.botRotation = this.botRotation.rotateLeft();
+        setBotRotation(this.botRotation.rotateLeft());
     }
 
     /**
@@ -138,10 +292,7 @@ public class Level {
      * @return true if the level is valid
      */
     public boolean validateLevel() {
-        List<Coord> startFields = allOccurrencesOfField(FieldType.START);
-        List<Coord> doors = allOccurrencesOfField(FieldType.DOOR);
-        return (startFields != null && startFields.size() == 1) &&
-                (doors != null && doors.size() == 1);
+        return fieldTypeCounts[FieldType.START.ordinal()] == 1 && fieldTypeCounts[FieldType.DOOR.ordinal()] == 1;
     }
 
     /**
@@ -150,14 +301,13 @@ public class Level {
      * @return next field type
      */
     public FieldType getNextCell() {
-        Coord nextCell = Coord.getNextCoord(currentBotPosition, botRotation);
-        return getGameFieldCell(nextCell.getRow(), nextCell.getCol());
+        Coord direction = botRotation.getDirectionVector();
+        return getGameFieldCell(currentBotPosition.getRow() + direction.getRow(), currentBotPosition.getCol() + direction.getCol());
     }
 
     public FieldType getJumpLandingCell() {
-        Coord nextCell = Coord.getNextCoord(currentBotPosition, botRotation);
-        Coord landingPosition = Coord.getNextCoord(nextCell, botRotation);
-        return getGameFieldCell(landingPosition.getRow(), landingPosition.getCol());
+        Coord direction = botRotation.getDirectionVector();
+        return getGameFieldCell(currentBotPosition.getRow() + 2 * direction.getRow(), currentBotPosition.getCol() + 2 * direction.getCol());
     }
 
     /**
@@ -180,9 +330,211 @@ public class Level {
      * @param coord coordinate to move the player to.
      */
     public void moveToCell(Coord coord) {
-        this.field[currentBotPosition.getRow()][currentBotPosition.getCol()] = FieldType.NORMAL;
-        this.currentBotPosition = new Coord(coord.getRow(), coord.getCol());
-        this.field[currentBotPosition.getRow()][currentBotPosition.getCol()] = FieldType.START;
+        changeCell(currentBotPosition.getRow(), currentBotPosition.getCol(), FieldType.NORMAL);
+        this.currentBotPosition = coord;
+        changeCell(currentBotPosition.getRow(), currentBotPosition.getCol(), FieldType.START);
+    }
+
+    /**
+     * Changes the field type of a cell and updates the zobrist hash by removing the key of the old field type and
+     * adding the key of the new one.
+     *
+     * @param row          row of the cell
+     * @param col          column of the cell
+     * @param newFieldType new field type of the cell
+     * @throws IndexOutOfBoundsException if the cell is not within the game field
+     */
+    private void changeCell(int row, int col, FieldType newFieldType) {
+        // the cells are stored in one array, so a column out of bounds would change a cell of another row
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Cell (" + row + "," + col + ") is not within the " + rows + "x" + cols + " game field");
+        }
+        int cell = row * cols + col;
+        byte oldType = cellAt(cell);
+        byte newType = (byte) indexOf(newFieldType);
+        this.zobristHash ^= zobristKey(row, col, FIELD_TYPE_VALUES[oldType]) ^ zobristKey(row, col, newFieldType);
+        fieldTypeCounts[oldType]--;
+        fieldTypeCounts[newType]++;
+        if (occurrences != null) {
+            occurrences[oldType].clear(cell);
+            occurrences[newType].set(cell);
+        }
+        if (gameField != null) {
+            gameField[row][col] = newFieldType;
+        }
+
+        if (!cellsShared) {
+            this.cells[cell] = newType;
+        } else {
+            putOverlayCell(cell, newType);
+            // once a big part of the cells changed, an own copy is faster to read than the overlay
+            if (overlaySize * 8 > cells.length) {
+                copySharedCells();
+            }
+        }
+    }
+
+    /**
+     * Returns the field type ordinal of a cell, including the changes of the overlay.
+     *
+     * @param cell index of the cell ({@code row * columns + col}), must be inside the game field
+     * @return ordinal of the field type, or {@link #NO_FIELD_TYPE} for a cell without a field type
+     */
+    private byte cellAt(int cell) {
+        if (overlaySize > 0) {
+            int slot = overlaySlot(cell);
+            if (overlayCells[slot] != 0) {
+                return overlayTypes[slot];
+            }
+        }
+        return cells[cell];
+    }
+
+    /**
+     * Looks up a cell in the overlay of changed cells.
+     *
+     * @param cell index of the cell ({@code row * columns + col})
+     * @return slot of the cell, or the empty slot to put the cell into
+     */
+    private int overlaySlot(int cell) {
+        int mask = overlayCells.length - 1;
+        int hash = cell * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (overlayCells[slot] != 0 && overlayCells[slot] != cell + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Records the new field type of a cell in the overlay.
+     *
+     * @param cell    index of the cell ({@code row * columns + col})
+     * @param newType new field type ordinal of the cell
+     */
+    private void putOverlayCell(int cell, byte newType) {
+        if ((overlaySize + 1) * 2 > overlayCells.length) {
+            int[] oldCells = overlayCells;
+            byte[] oldTypes = overlayTypes;
+            overlayCells = new int[oldCells.length * 2];
+            overlayTypes = new byte[oldCells.length * 2];
+            for (int i = 0; i < oldCells.length; i++) {
+                if (oldCells[i] != 0) {
+                    int slot = overlaySlot(oldCells[i] - 1);
+                    overlayCells[slot] = oldCells[i];
+                    overlayTypes[slot] = oldTypes[i];
+                }
+            }
+        }
+        int slot = overlaySlot(cell);
+        if (overlayCells[slot] == 0) {
+            overlayCells[slot] = cell + 1;
+            overlaySize++;
+        }
+        overlayTypes[slot] = newType;
+    }
+
+    /**
+     * Replaces the shared cells with an own copy that contains the changes of the overlay, and clears the overlay.
+     */
+    private void copySharedCells() {
+        byte[] copy = new byte[cells.length];
+        copyCellsInto(copy);
+        this.cells = copy;
+        this.cellsShared = false;
+        clearOverlay();
+    }
+
+    /**
+     * Copies the cells, including the changes of the overlay, into an array of the same size.
+     *
+     * @param target array to copy the cells into
+     */
+    private void copyCellsInto(byte[] target) {
+        System.arraycopy(cells, 0, target, 0, cells.length);
+        for (int slot = 0; overlaySize > 0 && slot < overlayCells.length; slot++) {
+            if (overlayCells[slot] != 0) {
+                target[overlayCells[slot] - 1] = overlayTypes[slot];
+            }
+        }
+    }
+
+    private void clearOverlay() {
+        if (overlaySize > 0) {
+            Arrays.fill(overlayCells, 0);
+            overlaySize = 0;
+        }
+    }
+
+    /**
+     * Reads the cells from a two-dimensional game field. Missing cells of shorter rows have no field type.
+     *
+     * @param field game field to read
+     */
+    private void readGameField(FieldType[][] field) {
+        this.rows = field.length;
+        this.cols = rows > 0 ? field[0].length : 0;
+        this.cells = new byte[rows * cols];
+        this.cellsShared = false;
+        this.gameField = null;
+        Arrays.fill(cells, NO_FIELD_TYPE);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < Math.min(cols, field[row].length); col++) {
+                cells[row * cols + col] = (byte) indexOf(field[row][col]);
+            }
+        }
+    }
+
+    /**
+     * Counts the cells of every field type of the game field.
+     *
+     * @return amount of cells of every field type, indexed by the ordinal of the field type
+     */
+    private int[] countFieldTypes() {
+        int[] counts = new int[FIELD_TYPES + 1];
+        for (int cell = 0; cell < cells.length; cell++) {
+            counts[cellAt(cell)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Calculates the zobrist hash of the whole level from scratch.
+     *
+     * @return zobrist hash over the game field size, every field type and the bot rotation
+     */
+    private long calculateZobristHash() {
+        long hash = mix(((long) rows << 32 | cols) << 2 | 2);
+        for (int cell = 0; cell < cells.length; cell++) {
+            hash ^= zobristKey(cell / cols, cell % cols, FIELD_TYPE_VALUES[cellAt(cell)]);
+        }
+        return botRotation != null ? hash ^ zobristKey(botRotation) : hash;
+    }
+
+    /**
+     * Returns the zobrist key of a field type on a cell. The keys are not stored in a table, but calculated from the
+     * cell and the field type, so that they are the same for every level and game field size.
+     */
+    private static long zobristKey(int row, int col, FieldType fieldType) {
+        long ordinal = fieldType != null ? fieldType.ordinal() : FIELD_TYPES;
+        return mix((((long) row << 24 | col) * (FIELD_TYPES + 1) + ordinal) << 2);
+    }
+
+    private static long zobristKey(BotRotation botRotation) {
+        return mix((long) botRotation.ordinal() << 2 | 1);
+    }
+
+    /**
+     * Mixes the bits of a value into a pseudo random 64-bit key (finalizer of the SplitMix64 generator).
+     *
+     * @param value value to mix
+     * @return pseudo random key
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     /**
@@ -192,12 +544,12 @@ public class Level {
      * @return SavedState representing the current level.
      */
     public SavedState createSavedState() {
-        int[][] fields = new int[this.field.length][this.field[0].length];
+        int[][] fields = new int[rows][cols];
         int rotation = this.botRotation.ordinal();
 
-        for (int i = 0; i < field.length; i++) {
-            for (int j = 0; j < field[i].length; j++) {
-                fields[i][j] = this.field[i][j].ordinal();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                fields[i][j] = cellAt(i * cols + j);
             }
         }
 
@@ -210,31 +562,101 @@ public class Level {
      * @return current level copy
      */
     public Level getLevelCopy() {
-        return new Level(
-                Arrays.stream(field).map(FieldType[]::clone).toArray(FieldType[][]::new)
-                , botRotation);
+        return new Level(this);
+    }
+
+    /**
+     * Overwrites this level with the state of another level of the same size. This is used to reset a reusable
+     * scratch level, e.g. while grading many programs on the same level. The cells of small levels are copied into the
+     * existing cells of this level, big levels share the cells with the other level afterwards, like a snapshot.
+     *
+     * @param other level to copy the state from
+     * @throws IllegalArgumentException if the other level has a different size
+     */
+    public void copyFrom(Level other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("A level can only be copied from a level of the same size");
+        }
+        if (other.cells.length <= MAX_COPIED_CELLS) {
+            if (cellsShared) {
+                this.cells = new byte[other.cells.length];
+                this.cellsShared = false;
+            }
+            other.copyCellsInto(cells);
+            clearOverlay();
+        } else {
+            other.cellsShared = true;
+            this.cells = other.cells;
+            this.cellsShared = true;
+            if (overlayCells.length != other.overlayCells.length) {
+                this.overlayCells = other.overlayCells.clone();
+                this.overlayTypes = other.overlayTypes.clone();
+            } else {
+                System.arraycopy(other.overlayCells, 0, overlayCells, 0, overlayCells.length);
+                System.arraycopy(other.overlayTypes, 0, overlayTypes, 0, overlayTypes.length);
+            }
+            this.overlaySize = other.overlaySize;
+        }
+        System.arraycopy(other.fieldTypeCounts, 0, fieldTypeCounts, 0, fieldTypeCounts.length);
+        this.gameField = null;
+        this.occurrences = null;
+        this.botRotation = other.botRotation;
+        this.currentBotPosition = other.currentBotPosition;
+        this.coins = other.coins;
+        this.zobristHash = other.zobristHash;
     }
 
     /**
-     * Returns a copy of the current bot position
+     * Returns the current bot position
      *
-     * @return bot position copy
+     * @return bot position or null if the level has no start
      */
     public Coord getCurrentBotPosition() {
-        return new Coord(currentBotPosition.getRow(), currentBotPosition.getCol());
+        return currentBotPosition;
     }
 
+    /**
+     * Returns the game field of the level as a two-dimensional array. The array is only created on the first request
+     * and kept up to date with every change of the level afterwards, so it is meant for readers like the GUI and must
+     * not be changed.
+     *
+     * @return game field of the level
+     */
     public FieldType[][] getGameField() {
-        return field;
+        if (gameField == null) {
+            gameField = new FieldType[rows][cols];
+            for (int cell = 0; cell < cells.length; cell++) {
+                gameField[cell / cols][cell % cols] = FIELD_TYPE_VALUES[cellAt(cell)];
+            }
+        }
+        return gameField;
     }
 
     public FieldType getGameFieldCell(int row, int col) {
-        if (row >= 0 && row < this.field.length && col >= 0 && col < this.field[0].length) {
-            return field[row][col];
+        if (row >= 0 && row < rows && col >= 0 && col < cols) {
+            return FIELD_TYPE_VALUES[cellAt(row * cols + col)];
         }
         return null;
     }
 
+    /**
+     * Returns the amount of rows of the game field.
+     *
+     * @return amount of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the amount of columns of the game field.
+     *
+     * @return amount of columns, 0 if the game field has no rows
+     */
+    public int getCols() {
+        return cols;
+    }
+
 
     public BotRotation getBotRotation() {
         return botRotation;
@@ -244,25 +666,52 @@ public class Level {
         return this.coins;
     }
 
+    /**
+     * Returns the 64-bit zobrist hash of the level. Two levels with the same game field and bot rotation have the
+     * same hash.
+     *
+     * @return zobrist hash of the level
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
     public void setGameField(FieldType[][] gameField) {
-        this.field = gameField;
+        readGameField(gameField);
+        clearOverlay();
+        this.fieldTypeCounts = countFieldTypes();
+        this.occurrences = null;
+        this.zobristHash = calculateZobristHash();
     }
 
+    /**
+     * Changes the field type of a cell.
+     *
+     * @param newFieldType new field type of the cell
+     * @param coord        coordinate of the cell
+     * @throws IndexOutOfBoundsException if the cell is not within the game field
+     */
     public void setGameFieldCell(FieldType newFieldType, Coord coord) {
-        this.field[coord.getRow()][coord.getCol()] = newFieldType;
+        changeCell(coord.getRow(), coord.getCol(), newFieldType);
         if (newFieldType == FieldType.START) {
             this.currentBotPosition = coord;
         }
     }
 
     public void setBotRotation(BotRotation botRotation) {
+        if (this.botRotation != null) {
+            this.zobristHash ^= zobristKey(this.botRotation);
+        }
+        if (botRotation != null) {
+            this.zobristHash ^= zobristKey(botRotation);
+        }
         this.botRotation = botRotation;
     }
 
     @Override
     public String toString() {
         return "Level{" +
-                "field=" + Arrays.toString(field) +
+                "field=" + Arrays.deepToString(getGameField()) +
                 ", botRotation=" + botRotation +
                 ", currentBotPosition=" + currentBotPosition +
                 ", coins=" + coins +
@@ -274,13 +723,42 @@ public class Level {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Level level = (Level) o;
-        return coins == level.coins && Arrays.deepEquals(field, level.field) && botRotation == level.botRotation && Objects.equals(currentBotPosition, level.currentBotPosition);
+        return coins == level.coins && sameGameField(level) && botRotation == level.botRotation && Objects.equals(currentBotPosition, level.currentBotPosition);
+    }
+
+    /**
+     * Compares the game fields of two levels, including the changes of their overlays.
+     *
+     * @param level level to compare the game field with
+     * @return true if both game fields have the same size and field types
+     */
+    private boolean sameGameField(Level level) {
+        if (cells == level.cells && overlaySize == 0 && level.overlaySize == 0) {
+            return true;
+        }
+        if (rows != level.rows || cols != level.cols) {
+            return false;
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cellAt(cell) != level.cellAt(cell)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
         int result = Objects.hash(botRotation, currentBotPosition, coins);
-        result = 31 * result + Arrays.deepHashCode(field);
+        int fieldHash = 1;
+        for (int row = 0; row < rows; row++) {
+            int rowHash = 1;
+            for (int col = 0; col < cols; col++) {
+                rowHash = 31 * rowHash + Objects.hashCode(FIELD_TYPE_VALUES[cellAt(row * cols + col)]);
+            }
+            fieldHash = 31 * fieldHash + rowHash;
+        }
+        result = 31 * result + fieldHash;
         return result;
     }
 }
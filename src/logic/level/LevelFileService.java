@@ -0,0 +1,136 @@
+package logic.level;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import logic.exceptions.EmptyFileException;
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import logic.exceptions.NoBotRotationException;
+import logic.exceptions.NoFieldException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service to load and save levels as JSON files.
+ * <p>
+ * Every level is read and written with the same pre-configured {@link Gson} instance, which uses the
+ * {@link SavedStateTypeAdapter} instead of reflection. Gson instances are thread-safe, so the instance is shared by
+ * every caller. Files are read and written by a dedicated I/O thread, the asynchronous methods return futures that
+ * complete once the file operation finished.
+ *
+ * @author Timo Peters
+ */
+public class LevelFileService {
+
+    /**
+     * Shared Gson instance, pretty printing the saved states
+     */
+    public static final Gson GSON = new GsonBuilder()
+            .setPrettyPrinting()
+            .registerTypeAdapter(SavedState.class, new SavedStateTypeAdapter())
+            .create();
+
+    /**
+     * Executor running the file operations. It uses a single daemon thread, so that file operations are done in the
+     * order they were started and a running file operation does not keep the application alive.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "level-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Reads a level from a given reader.
+     *
+     * @param reader reader to read the JSON of a saved state from
+     * @return level of the saved state
+     * @throws EmptyFileException          when the reader does not contain a saved state
+     * @throws InvalidBotRotationException when the bot rotation is not within the bounds of 0 to 3
+     * @throws InvalidFieldTypeException   when at least one field is not within the bounds of 0 to 5
+     * @throws InvalidFieldSizeException   when the game field is empty, not rectangular or too big
+     * @throws NoFieldException            when there is no "field" property, or it is null
+     * @throws NoBotRotationException      when there is no "botRotation" property, or it is null
+     */
+    public static Level readLevel(Reader reader) throws EmptyFileException, InvalidBotRotationException,
+            InvalidFieldTypeException, InvalidFieldSizeException, NoFieldException, NoBotRotationException {
+        SavedState savedState;
+        try {
+            savedState = GSON.fromJson(reader, SavedState.class);
+        } catch (SavedStateTypeAdapter.ValidationException e) {
+            // the validation exceptions found while streaming are thrown as the checked exceptions they wrap
+            if (e.getCause() instanceof InvalidFieldTypeException) {
+                throw (InvalidFieldTypeException) e.getCause();
+            } else if (e.getCause() instanceof InvalidFieldSizeException) {
+                throw (InvalidFieldSizeException) e.getCause();
+            }
+            throw e;
+        }
+
+        if (savedState == null) {
+            throw new EmptyFileException();
+        }
+        return savedState.getLevel();
+    }
+
+    /**
+     * Writes the saved state of a level to a given writer.
+     *
+     * @param savedState saved state to write
+     * @param writer     writer to write the JSON to
+     * @throws IOException when the writer can not be written to
+     */
+    public static void writeLevel(SavedState savedState, Writer writer) throws IOException {
+        JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+        GSON.getAdapter(SavedState.class).write(jsonWriter, savedState);
+        jsonWriter.flush();
+    }
+
+    /**
+     * Reads a level from a JSON file on the I/O thread.
+     *
+     * @param file file to read
+     * @return future completing with the level, or completing exceptionally with a {@link CompletionException}
+     * wrapping the exception of {@link #readLevel(Reader)} or the {@link IOException} of the file
+     */
+    public CompletableFuture<Level> readLevelAsync(Path file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return readLevel(reader);
+            } catch (IOException | EmptyFileException | InvalidBotRotationException | InvalidFieldTypeException
+                    | InvalidFieldSizeException | NoFieldException | NoBotRotationException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Writes a saved state to a JSON file on the I/O thread. The saved state is not changed by the game, so it can be
+     * written while the game goes on.
+     *
+     * @param savedState saved state to write
+     * @param file       file to write to, an existing file is replaced
+     * @return future completing once the file was written, or completing exceptionally with a
+     * {@link CompletionException} wrapping the {@link IOException} of the file
+     */
+    public CompletableFuture<Void> writeLevelAsync(SavedState savedState, Path file) {
+        return CompletableFuture.runAsync(() -> {
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writeLevel(savedState, writer);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,303 @@
+package logic.level;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import logic.exceptions.NoBotRotationException;
+import logic.exceptions.NoFieldException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy reader of a level pack, a JSON object holding the metadata of the pack and an array of saved states:
+ * <pre>
+ * {
+ *   "name": "...",
+ *   "author": "...",
+ *   "description": "...",
+ *   "levels": [ { "field": [...], "botRotation": 0 }, ... ]
+ * }
+ * </pre>
+ * The pack is read with Gson's streaming {@link JsonReader}. Only the metadata is read when the reader is created,
+ * every level is parsed when it is requested by {@link #next()}, so the first level can be solved or graded right away
+ * and only one level is held in memory regardless of the size of the pack. The metadata therefore has to precede the
+ * levels, properties after the levels are not read. Unknown properties are skipped.
+ * <p>
+ * A level that is invalid is reported by an {@link InvalidLevelException} telling the index of the level, as an
+ * iterator can not throw the checked exceptions of {@link SavedState#getLevel()}. The rest of an invalid level is
+ * skipped, so the following levels can still be read, unless the JSON of the level itself was malformed.
+ *
+ * @author Timo Peters
+ */
+public class LevelPackReader implements Iterator<Level>, Closeable {
+
+    /**
+     * Name of the pack name property
+     */
+    static final String NAME = "name";
+
+    /**
+     * Name of the pack author property
+     */
+    static final String AUTHOR = "author";
+
+    /**
+     * Name of the pack description property
+     */
+    static final String DESCRIPTION = "description";
+
+    /**
+     * Name of the levels property
+     */
+    static final String LEVELS = "levels";
+
+    /**
+     * Adapter reading the saved states, reading an invalid level to its end so that the next level can be read
+     */
+    private static final TypeAdapter<SavedState> SAVED_STATE_ADAPTER = new SavedStateTypeAdapter(true);
+
+    /**
+     * Streaming reader of the pack, positioned in front of the next level
+     */
+    private final JsonReader in;
+
+    /**
+     * Name of the pack, or null if the pack has none
+     */
+    private String name;
+
+    /**
+     * Author of the pack, or null if the pack has none
+     */
+    private String author;
+
+    /**
+     * Description of the pack, or null if the pack has none
+     */
+    private String description;
+
+    /**
+     * Flag whether the reader is inside the levels array
+     */
+    private boolean inLevels;
+
+    /**
+     * Index of the next level
+     */
+    private int nextIndex;
+
+    /**
+     * Unchecked exception thrown when a level of the pack can not be read or is invalid. The cause is the checked
+     * validation exception of the level or the parse exception of the JSON.
+     */
+    public static class InvalidLevelException extends JsonParseException {
+
+        /**
+         * Index of the invalid level within the pack
+         */
+        private final int index;
+
+        InvalidLevelException(int index, Exception cause) {
+            super("Invalid level " + index + " of the level pack: " + cause.getMessage(), cause);
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    /**
+     * Constructor to create a reader of a level pack. The metadata is read right away, the levels are read lazily.
+     *
+     * @param reader reader of the JSON of the pack, it is closed by {@link #close()}
+     * @throws IOException        when the reader can not be read
+     * @throws JsonParseException when the pack is no JSON object or the levels are no array
+     */
+    public LevelPackReader(Reader reader) throws IOException {
+        this.in = LevelFileService.GSON.newJsonReader(reader);
+        try {
+            readMetadata();
+        } catch (IllegalStateException e) {
+            // JsonReader reports unexpected tokens as illegal state
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens a level pack file.
+     *
+     * @param file file of the level pack
+     * @return reader of the level pack, it has to be closed by the caller
+     * @throws IOException        when the file can not be read
+     * @throws JsonParseException when the pack is no JSON object or the levels are no array
+     */
+    public static LevelPackReader open(Path file) throws IOException {
+        Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try {
+            return new LevelPackReader(reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the properties in front of the levels array and enters the array.
+     *
+     * @throws IOException when the reader can not be read
+     */
+    private void readMetadata() throws IOException {
+        in.beginObject();
+        while (!inLevels && in.hasNext()) {
+            switch (in.nextName()) {
+                case NAME:
+                    name = readNullableString();
+                    break;
+                case AUTHOR:
+                    author = readNullableString();
+                    break;
+                case DESCRIPTION:
+                    description = readNullableString();
+                    break;
+                case LEVELS:
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        in.beginArray();
+                        inLevels = true;
+                    }
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+    }
+
+    private String readNullableString() throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!inLevels) {
+            return false;
+        }
+        try {
+            if (!in.hasNext()) {
+                // the rest of the pack is not needed, so it is not read
+                inLevels = false;
+            }
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        return inLevels;
+    }
+
+    /**
+     * Parses the next level of the pack.
+     *
+     * @return next level
+     * @throws InvalidLevelException  when the level can not be read or is invalid
+     * @throws JsonIOException        when the reader can not be read
+     * @throws NoSuchElementException when there are no more levels
+     */
+    @Override
+    public Level next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        int index = nextIndex++;
+        SavedState savedState;
+        try {
+            savedState = SAVED_STATE_ADAPTER.read(in);
+        } catch (SavedStateTypeAdapter.ValidationException e) {
+            // the adapter read the invalid level to its end, so the following levels can still be read
+            throw new InvalidLevelException(index, (Exception) e.getCause());
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new InvalidLevelException(index, e);
+        } catch (IOException e) {
+            // the position of the reader within the pack is unknown after malformed JSON, so it is not read on
+            inLevels = false;
+            throw new JsonIOException(e);
+        }
+
+        if (savedState == null) {
+            throw new InvalidLevelException(index, new NoFieldException());
+        }
+        try {
+            return savedState.getLevel();
+        } catch (NoFieldException | NoBotRotationException | InvalidBotRotationException | InvalidFieldTypeException
+                | InvalidFieldSizeException e) {
+            // the level was read completely, so the following levels can still be read
+            throw new InvalidLevelException(index, e);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the remaining levels, parsing every level when it is consumed. Closing the
+     * stream closes this reader.
+     *
+     * @return stream of the remaining levels
+     */
+    public Stream<Level> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Returns the amount of levels parsed so far, which is the index of the next level.
+     *
+     * @return amount of parsed levels
+     */
+    public int getLevelsRead() {
+        return nextIndex;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inLevels = false;
+        in.close();
+    }
+}
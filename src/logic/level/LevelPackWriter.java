@@ -0,0 +1,111 @@
+package logic.level;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming writer of a level pack in the format read by the {@link LevelPackReader}. The metadata is written when
+ * the writer is created and every saved state is written as soon as it is added, so a pack of any size can be written
+ * without holding its levels in memory. The pack is completed by {@link #close()}.
+ *
+ * @author Timo Peters
+ */
+public class LevelPackWriter implements Closeable {
+
+    /**
+     * Adapter writing the saved states, shared with {@link LevelFileService#GSON}
+     */
+    private static final TypeAdapter<SavedState> SAVED_STATE_ADAPTER = LevelFileService.GSON.getAdapter(SavedState.class);
+
+    /**
+     * Streaming writer of the pack, positioned behind the last written level
+     */
+    private final JsonWriter out;
+
+    /**
+     * Amount of levels written so far
+     */
+    private int levelsWritten;
+
+    /**
+     * Constructor to create a writer of a level pack, writing the metadata right away.
+     *
+     * @param writer      writer to write the JSON of the pack to, it is closed by {@link #close()}
+     * @param name        name of the pack, or null to leave it out
+     * @param author      author of the pack, or null to leave it out
+     * @param description description of the pack, or null to leave it out
+     * @throws IOException when the writer can not be written to
+     */
+    public LevelPackWriter(Writer writer, String name, String author, String description) throws IOException {
+        this.out = LevelFileService.GSON.newJsonWriter(writer);
+        out.beginObject();
+        writeNonNull(LevelPackReader.NAME, name);
+        writeNonNull(LevelPackReader.AUTHOR, author);
+        writeNonNull(LevelPackReader.DESCRIPTION, description);
+        out.name(LevelPackReader.LEVELS);
+        out.beginArray();
+    }
+
+    /**
+     * Creates a level pack file.
+     *
+     * @param file        file to write to, an existing file is replaced
+     * @param name        name of the pack, or null to leave it out
+     * @param author      author of the pack, or null to leave it out
+     * @param description description of the pack, or null to leave it out
+     * @return writer of the level pack, it has to be closed by the caller
+     * @throws IOException when the file can not be written to
+     */
+    public static LevelPackWriter create(Path file, String name, String author, String description) throws IOException {
+        Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        try {
+            return new LevelPackWriter(writer, name, author, description);
+        } catch (IOException | RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+    }
+
+    private void writeNonNull(String property, String value) throws IOException {
+        if (value != null) {
+            out.name(property).value(value);
+        }
+    }
+
+    /**
+     * Appends a saved state to the pack.
+     *
+     * @param savedState saved state to write
+     * @throws IOException when the writer can not be written to
+     */
+    public void write(SavedState savedState) throws IOException {
+        SAVED_STATE_ADAPTER.write(out, savedState);
+        levelsWritten++;
+    }
+
+    public int getLevelsWritten() {
+        return levelsWritten;
+    }
+
+    /**
+     * Completes the pack and closes the writer.
+     *
+     * @throws IOException when the writer can not be written to
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.endArray();
+            out.endObject();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -14,6 +14,11 @@ import java.util.Arrays;
  * @author Timo Peters
  */
 public class SavedState {
+    /**
+     * Maximum amount of rows and columns of a game field, so that every cell can be addressed by a {@link Coord}
+     */
+    public static final int MAX_FIELD_SIZE = Short.MAX_VALUE;
+
     /**
      * game fields represented as integer values
      */
@@ -41,7 +46,7 @@ public class SavedState {
      * @return Level representing this saved state
      * @throws InvalidBotRotationException when it is not within the bounds of 0 to 3
      * @throws InvalidFieldTypeException   when at least one field is not within the bounds of 0 to 5
-     * @throws InvalidFieldSizeException   when the game field is not 8x8
+     * @throws InvalidFieldSizeException   when the game field is empty, not rectangular or too big
      * @throws NoFieldException            when there is no "field" property, or it is null
      * @throws NoBotRotationException      when there is no "botRotation" property, or it is null
      */
@@ -66,7 +71,7 @@ public class SavedState {
      *
      * @throws InvalidBotRotationException when it is not within the bounds of 0 to 3
      * @throws InvalidFieldTypeException   when at least one field is not within the bounds of 0 to 5
-     * @throws InvalidFieldSizeException   when the game field is not 8x8
+     * @throws InvalidFieldSizeException   when the game field is empty, not rectangular or too big
      * @throws NoFieldException            when there is no "field" property, or it is null
      * @throws NoBotRotationException      when there is no "botRotation" property, or it is null
      */
@@ -83,15 +88,15 @@ public class SavedState {
             throw new NoFieldException();
         }
 
-        if (field.length != 8 || field[0] == null) {
+        if (field.length == 0 || field.length > MAX_FIELD_SIZE || field[0] == null || field[0].length == 0 || field[0].length > MAX_FIELD_SIZE) {
             throw new InvalidFieldSizeException(field, 0);
         }
 
-        // check every row if it has the correct length
+        // check every row if it has the same length as the first row
         int i = 0;
         boolean invalidCols = false;
         while (!invalidCols && i < field.length) {
-            invalidCols = field[i].length != 8;
+            invalidCols = field[i] == null || field[i].length != field[0].length;
             i++;
         }
 
@@ -107,7 +112,7 @@ public class SavedState {
             for (int col = 0; col < field[row].length && invalidFieldType == null; col++) {
                 int fieldType = field[row][col];
                 if (fieldType < 0 || fieldType > 5) {
-                    invalidFieldType = new Coord(row, col);
+                    invalidFieldType = Coord.of(row, col);
                 }
             }
         }
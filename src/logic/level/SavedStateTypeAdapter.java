@@ -0,0 +1,259 @@
+package logic.level;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hand-written Gson type adapter of the {@link SavedState}, reading and writing the JSON tokens directly instead of
+ * using reflection.
+ * <p>
+ * The cells are validated while they are streamed: the first field type out of bounds or a game field exceeding
+ * {@link SavedState#MAX_FIELD_SIZE} stops reading right away, without reading the rest of a possibly huge file. A
+ * missing or null field or bot rotation is still read, so that {@link SavedState#getLevel()} reports it just like
+ * before.
+ * <p>
+ * An adapter reading the levels of a pack finishes reading an invalid level object before the exception is thrown
+ * instead, so that the reader is positioned behind the invalid level and the following levels can still be read.
+ * Only JSON that is not well-formed can not be skipped.
+ *
+ * @author Timo Peters
+ */
+class SavedStateTypeAdapter extends TypeAdapter<SavedState> {
+
+    /**
+     * Name of the game field property
+     */
+    private static final String FIELD = "field";
+
+    /**
+     * Name of the bot rotation property
+     */
+    private static final String BOT_ROTATION = "botRotation";
+
+    /**
+     * Amount of field types, every cell has to be smaller
+     */
+    private static final int FIELD_TYPES = FieldType.values().length;
+
+    /**
+     * Flag whether the rest of an invalid saved state object is read before the exception is thrown
+     */
+    private final boolean finishInvalidObjects;
+
+    /**
+     * Unchecked wrapper of the validation exceptions found while streaming, so that they can pass through Gson.
+     * {@link LevelFileService} unwraps them again.
+     */
+    static class ValidationException extends JsonParseException {
+        ValidationException(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Constructor to create an adapter that stops reading at the first invalid value.
+     */
+    SavedStateTypeAdapter() {
+        this(false);
+    }
+
+    /**
+     * Constructor to create an adapter.
+     *
+     * @param finishInvalidObjects true to read the rest of an invalid saved state object before the exception is
+     *                             thrown, e.g. to read on with the next level of a pack
+     */
+    SavedStateTypeAdapter(boolean finishInvalidObjects) {
+        this.finishInvalidObjects = finishInvalidObjects;
+    }
+
+    @Override
+    public void write(JsonWriter out, SavedState savedState) throws IOException {
+        if (savedState == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name(FIELD);
+        out.beginArray();
+        for (int[] row : savedState.getGameField()) {
+            out.beginArray();
+            for (int cell : row) {
+                out.value(cell);
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.name(BOT_ROTATION).value(savedState.getBotRotation());
+        out.endObject();
+    }
+
+    @Override
+    public SavedState read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        if (finishInvalidObjects && in.peek() != JsonToken.BEGIN_OBJECT) {
+            JsonToken token = in.peek();
+            in.skipValue();
+            throw new JsonSyntaxException("Expected a saved state object but was " + token);
+        }
+
+        int[][] field = null;
+        Integer botRotation = null;
+        in.beginObject();
+        try {
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case FIELD:
+                        field = readField(in);
+                        break;
+                    case BOT_ROTATION:
+                        botRotation = readNullableInt(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            finishContainer(in);
+            throw e;
+        }
+        in.endObject();
+
+        return new SavedState(field, botRotation);
+    }
+
+    /**
+     * Reads the rows of the game field.
+     *
+     * @param in reader positioned at the field value
+     * @return game field, or null if the field is null
+     * @throws IOException when the JSON can not be read
+     */
+    private int[][] readField(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<int[]> rows = new ArrayList<>();
+        in.beginArray();
+        try {
+            while (in.hasNext()) {
+                rows.add(readRow(in, rows));
+                if (rows.size() > SavedState.MAX_FIELD_SIZE) {
+                    throw new ValidationException(new InvalidFieldSizeException(rows.toArray(new int[0][]), 0));
+                }
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            finishContainer(in);
+            throw e;
+        }
+        in.endArray();
+        return rows.toArray(new int[0][]);
+    }
+
+    /**
+     * Reads a row of the game field, validating every cell.
+     *
+     * @param in   reader positioned at the row value
+     * @param rows rows read so far
+     * @return cells of the row, or null if the row is null
+     * @throws IOException when the JSON can not be read
+     */
+    private int[] readRow(JsonReader in, List<int[]> rows) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        // the rows usually have the same length, so the first row tells the size of the others
+        int[] cells = new int[rows.isEmpty() || rows.get(0) == null ? 8 : Math.max(rows.get(0).length, 1)];
+        int col = 0;
+        in.beginArray();
+        try {
+            while (in.hasNext()) {
+                if (col == cells.length) {
+                    cells = Arrays.copyOf(cells, cells.length * 2);
+                }
+                cells[col] = readInt(in);
+                if (cells[col] < 0 || cells[col] >= FIELD_TYPES) {
+                    throw new ValidationException(new InvalidFieldTypeException(Coord.of(rows.size(), col)));
+                }
+                if (++col > SavedState.MAX_FIELD_SIZE) {
+                    rows.add(Arrays.copyOf(cells, col));
+                    throw new ValidationException(new InvalidFieldSizeException(rows.toArray(new int[0][]), rows.size() - 1));
+                }
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            finishContainer(in);
+            throw e;
+        }
+        in.endArray();
+        return Arrays.copyOf(cells, col);
+    }
+
+    /**
+     * Reads the rest of the array or object the reader is in, including its end, if invalid objects are finished.
+     * A value that was not read because of an exception is skipped as well.
+     *
+     * @param in reader positioned within an array or object
+     * @throws IOException when the JSON can not be read
+     */
+    private void finishContainer(JsonReader in) throws IOException {
+        if (!finishInvalidObjects) {
+            return;
+        }
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NAME) {
+                in.nextName();
+            }
+            in.skipValue();
+        }
+        if (in.peek() == JsonToken.END_OBJECT) {
+            in.endObject();
+        } else {
+            in.endArray();
+        }
+    }
+
+    private static Integer readNullableInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return readInt(in);
+    }
+
+    /**
+     * Reads an int value. Gson only turns its own exceptions into parse exceptions, so a value that is no int is
+     * turned into one here.
+     *
+     * @param in reader positioned at the int value
+     * @return int value
+     * @throws IOException when the JSON can not be read
+     */
+    private static int readInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
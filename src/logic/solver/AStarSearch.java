@@ -0,0 +1,485 @@
+package logic.solver;
+
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.Jump;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.Coord;
+import logic.level.FieldType;
+import logic.level.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A* search over the states (cell, bot rotation, collected coins) of a level, finding the minimal amount of
+ * instructions like the {@link StateSpaceSearch} while expanding far fewer states on bigger levels.
+ * <p>
+ * The states are packed into longs ({@code (coinMask << 32) | (cell << 2) | rotation}), so the search is not limited
+ * to the state count of a {@link MoveTable}. Only the reached states are stored, in an open addressing table of
+ * packed states and in a primitive binary heap ({@link StateHeap}) ordered by the estimated total amount of
+ * instructions, preferring the states with more instructions so far on ties.
+ * <p>
+ * The heuristic is the longest way over one of the remaining coins to the door: for every coin that was not collected
+ * yet, the walk and jump steps from the bot to the coin plus the steps from the coin to a neighbour of the door, plus
+ * one exit instruction. Every step and the exit are instructions of their own and turns are ignored, so the estimate
+ * never overestimates the instructions that are left. The step distances are measured once per coin on the
+ * {@link MovementGraph}. The estimate changes by at most one with every instruction, so every state is expanded at
+ * most once and the first state that can exit belongs to a minimal instruction list.
+ *
+ * @author Timo Peters
+ */
+class AStarSearch {
+
+    /**
+     * Maximum amount of coins, so that the coin mask fits into the upper half of a packed state
+     */
+    static final int MAX_COINS = 30;
+
+    /**
+     * Maximum amount of step distances the heuristic is allowed to store ((coins + 1) * cells)
+     */
+    static final long MAX_DISTANCES = 1 << 22;
+
+    /**
+     * Maximum amount of states the search expands, before it gives up
+     */
+    static final int MAX_EXPANSIONS = 1 << 20;
+
+    /**
+     * Distance of cells that can not be reached, small enough to add two of them without an overflow
+     */
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+
+    /**
+     * Amount of bot rotations, used to pack the rotation into the two lowest state bits
+     */
+    private static final int ROTATIONS = 4;
+
+    /**
+     * Move type of the walk instruction
+     */
+    private static final byte WALK = 0;
+
+    /**
+     * Move type of the jump instruction
+     */
+    private static final byte JUMP = 1;
+
+    /**
+     * Move type of the turn left instruction
+     */
+    private static final byte TURN_LEFT = 2;
+
+    /**
+     * Move type of the turn right instruction
+     */
+    private static final byte TURN_RIGHT = 3;
+
+    /**
+     * Movement graph of the level
+     */
+    private final MovementGraph graph;
+
+    /**
+     * True if the level has few enough coins and cells for the heuristic
+     */
+    private final boolean fitsIntoLimits;
+
+    /**
+     * Coin bit of every cell, or -1 if there is no coin on that cell
+     */
+    private int[] coinBits;
+
+    /**
+     * Coin mask with every coin collected
+     */
+    private int allCoins;
+
+    /**
+     * Step distance from every coin to every cell
+     */
+    private int[][] coinDistances;
+
+    /**
+     * Steps from every cell to a neighbour of the door, plus one for the exit instruction
+     */
+    private int[] exitDistances;
+
+    /**
+     * Steps from every coin to a neighbour of the door, plus one for the exit instruction
+     */
+    private int[] coinExitDistances;
+
+    /**
+     * Packed starting state
+     */
+    private long startState;
+
+    /**
+     * Packed state of every node
+     */
+    private long[] nodeStates;
+
+    /**
+     * Parent node of every node, -1 for the start node
+     */
+    private int[] nodeParents;
+
+    /**
+     * Amount of instructions needed to reach every node
+     */
+    private int[] nodeCosts;
+
+    /**
+     * Move type that led to every node
+     */
+    private byte[] nodeMoves;
+
+    /**
+     * Amount of nodes created so far
+     */
+    private int nodeCount;
+
+    /**
+     * Open addressing table of the reached states, storing the packed state of every slot
+     */
+    private long[] tableStates;
+
+    /**
+     * Node with the fewest instructions of the state in the same slot of {@link #tableStates}, or -1 for empty slots
+     */
+    private int[] tableNodes;
+
+    /**
+     * Amount of states in the table
+     */
+    private int tableSize;
+
+    /**
+     * Amount of states expanded by the latest search
+     */
+    private int expandedNodes;
+
+    /**
+     * Constructor to create an A* search for a given level. The step distances of the heuristic are measured right
+     * away, unless the level has too many coins or cells for them.
+     *
+     * @param level level to search a solution for. The level has to be valid ({@link Level#validateLevel()})
+     * @param graph movement graph of the level
+     */
+    AStarSearch(Level level, MovementGraph graph) {
+        this.graph = graph;
+        List<Coord> coins = level.allOccurrencesOfField(FieldType.COIN);
+        int cells = graph.getNodeCount();
+        this.fitsIntoLimits = coins.size() <= MAX_COINS && (long) (coins.size() + 1) * cells <= MAX_DISTANCES;
+        if (!fitsIntoLimits) {
+            return;
+        }
+
+        int cols = level.getCols();
+        int[] coinCells = new int[coins.size()];
+        this.coinBits = new int[cells];
+        this.coinDistances = new int[coins.size()][];
+        Arrays.fill(coinBits, -1);
+        int[] queue = new int[cells];
+        for (int coin = 0; coin < coins.size(); coin++) {
+            coinCells[coin] = Coord.convertCoordToIndex(coins.get(coin), cols);
+            coinBits[coinCells[coin]] = coin;
+            coinDistances[coin] = measureDistances(new int[]{coinCells[coin]}, queue);
+        }
+        this.allCoins = (1 << coins.size()) - 1;
+
+        // the bot exits from a neighbour of the door, which needs one more instruction
+        int door = Coord.convertCoordToIndex(level.firstOccurrenceOfField(FieldType.DOOR), cols);
+        int[] approaches = new int[ROTATIONS];
+        int approachCount = 0;
+        for (int direction = 0; direction < ROTATIONS; direction++) {
+            int neighbour = graph.getNeighbour(door, direction);
+            if (neighbour != -1 && graph.isStandable(neighbour)) {
+                approaches[approachCount++] = neighbour;
+            }
+        }
+        this.exitDistances = measureDistances(Arrays.copyOf(approaches, approachCount), queue);
+        for (int cell = 0; cell < cells; cell++) {
+            exitDistances[cell] += exitDistances[cell] != UNREACHABLE ? 1 : 0;
+        }
+        this.coinExitDistances = new int[coins.size()];
+        for (int coin = 0; coin < coins.size(); coin++) {
+            coinExitDistances[coin] = exitDistances[coinCells[coin]];
+        }
+
+        this.startState = pack(0, Coord.convertCoordToIndex(level.getCurrentBotPosition(), cols), level.getBotRotation().ordinal());
+    }
+
+    /**
+     * Checks if the level has few enough coins and cells for the heuristic of the search.
+     *
+     * @return true if the level can be searched
+     */
+    boolean fitsIntoLimits() {
+        return fitsIntoLimits;
+    }
+
+    /**
+     * Searches the instruction list with the minimal amount of instructions to collect every coin and exit through
+     * the door. {@link #fitsIntoLimits()} has to be true.
+     *
+     * @return minimal list of instructions ending with the exit instruction, or null if there is no solution or the
+     * search expanded more than {@value MAX_EXPANSIONS} states
+     */
+    List<Instruction> findInstructions() {
+        return findInstructions(SolverBudget.unlimited());
+    }
+
+    /**
+     * Searches the instruction list with the minimal amount of instructions within the budget of a solve.
+     * {@link #fitsIntoLimits()} has to be true.
+     *
+     * @param budget budget of the solve, counting the expanded states
+     * @return minimal list of instructions ending with the exit instruction, or null if there is no solution, the
+     * search expanded more than {@value MAX_EXPANSIONS} states or the budget ran out
+     */
+    List<Instruction> findInstructions(SolverBudget budget) {
+        nodeStates = new long[1024];
+        nodeParents = new int[1024];
+        nodeCosts = new int[1024];
+        nodeMoves = new byte[1024];
+        nodeCount = 0;
+        tableStates = new long[2048];
+        tableNodes = new int[2048];
+        Arrays.fill(tableNodes, -1);
+        tableSize = 0;
+        expandedNodes = 0;
+        StateHeap heap = new StateHeap(1024);
+
+        visit(heap, startState, -1, (byte) -1, 0);
+        while (!heap.isEmpty()) {
+            int node = heap.pop();
+            long state = nodeStates[node];
+            if (tableNodes[findSlot(state)] != node) {
+                // the state was reached with fewer instructions after this node was pushed
+                continue;
+            }
+
+            int cell = cellOf(state);
+            int rotation = (int) state & (ROTATIONS - 1);
+            int coinMask = (int) (state >>> 32);
+            if (coinMask == allCoins && facesDoor(cell, rotation)) {
+                return buildInstructions(node);
+            } else if (expandedNodes++ == MAX_EXPANSIONS || !budget.tryExpand()) {
+                return null;
+            }
+
+            // every instruction is an edge with the cost of one
+            int cost = nodeCosts[node] + 1;
+            for (int edge = graph.getEdgeStart(cell); edge < graph.getEdgeEnd(cell); edge++) {
+                int target = graph.getEdgeTarget(edge);
+                if (graph.getEdgeDirection(edge) == rotation && graph.isStandable(target)) {
+                    int targetMask = coinBits[target] != -1 ? coinMask | 1 << coinBits[target] : coinMask;
+                    byte move = graph.getEdgeType(edge) == MovementGraph.JUMP ? JUMP : WALK;
+                    visit(heap, pack(targetMask, target, rotation), node, move, cost);
+                }
+            }
+            visit(heap, pack(coinMask, cell, (rotation + ROTATIONS - 1) & (ROTATIONS - 1)), node, TURN_LEFT, cost);
+            visit(heap, pack(coinMask, cell, (rotation + 1) & (ROTATIONS - 1)), node, TURN_RIGHT, cost);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the amount of states the latest search expanded, which can be compared to the states of other searches.
+     *
+     * @return amount of expanded states
+     */
+    int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Adds a reached state to the heap, unless it can not be solved anymore or it was already reached with at most the
+     * same amount of instructions.
+     *
+     * @param heap   heap of the search
+     * @param state  packed state that was reached
+     * @param parent node the state was reached from, -1 for the start node
+     * @param move   move type that led to the state
+     * @param cost   amount of instructions needed to reach the state
+     */
+    private void visit(StateHeap heap, long state, int parent, byte move, int cost) {
+        int estimate = estimate(cellOf(state), (int) (state >>> 32));
+        if (estimate >= UNREACHABLE) {
+            return;
+        }
+
+        int slot = findSlot(state);
+        if (tableNodes[slot] != -1 && nodeCosts[tableNodes[slot]] <= cost) {
+            return;
+        }
+        if (tableNodes[slot] == -1) {
+            tableStates[slot] = state;
+            tableSize++;
+        }
+        int node = addNode(state, parent, move, cost);
+        tableNodes[slot] = node;
+        if (tableSize * 2 > tableStates.length) {
+            growTable();
+        }
+
+        // fewer estimated instructions first, then more instructions so far
+        heap.push((long) (cost + estimate) << 32 | (Integer.MAX_VALUE - cost), node);
+    }
+
+    /**
+     * Estimates the amount of instructions that are at least needed to collect the remaining coins and exit.
+     *
+     * @param cell     cell of the bot
+     * @param coinMask coins collected so far
+     * @return lower bound of the remaining instructions, at least {@value UNREACHABLE} if the level can not be solved
+     * from the cell anymore
+     */
+    private int estimate(int cell, int coinMask) {
+        int estimate = exitDistances[cell];
+        for (int coin = 0; coin < coinDistances.length; coin++) {
+            if ((coinMask & (1 << coin)) == 0) {
+                estimate = Math.max(estimate, coinDistances[coin][cell] + coinExitDistances[coin]);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Checks if the bot faces the door, so that the exit instruction leaves the level.
+     *
+     * @param cell     cell of the bot
+     * @param rotation ordinal of the bot rotation
+     * @return true if the neighbour cell in the direction of the rotation is the door
+     */
+    private boolean facesDoor(int cell, int rotation) {
+        boolean facesDoor = false;
+        for (int edge = graph.getEdgeStart(cell); edge < graph.getEdgeEnd(cell); edge++) {
+            facesDoor |= graph.getEdgeDirection(edge) == rotation && graph.getEdgeType(edge) == MovementGraph.WALK
+                    && !graph.isStandable(graph.getEdgeTarget(edge));
+        }
+        return facesDoor;
+    }
+
+    /**
+     * Measures the step distance of every cell to the nearest of the given source cells with a breadth-first search
+     * over the movement graph. Walking and jumping between two cells the bot can stand on is possible in both
+     * directions, so the distance from a source to a cell is the same as the distance back.
+     *
+     * @param sources cells with a distance of 0
+     * @param queue   queue with the size of the game field
+     * @return step distance of every cell, {@value UNREACHABLE} for cells that can not be reached
+     */
+    private int[] measureDistances(int[] sources, int[] queue) {
+        int[] distances = new int[graph.getNodeCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        for (int source : sources) {
+            distances[source] = 0;
+            queue[tail++] = source;
+        }
+
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int edge = graph.getEdgeStart(cell); edge < graph.getEdgeEnd(cell); edge++) {
+                int target = graph.getEdgeTarget(edge);
+                if (graph.isStandable(target) && distances[target] == UNREACHABLE) {
+                    distances[target] = distances[cell] + 1;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Rebuilds the instructions by following the parent nodes from the goal back to the start.
+     *
+     * @param goal goal node
+     * @return list of instructions from the start to the goal, ending with the exit instruction
+     */
+    private List<Instruction> buildInstructions(int goal) {
+        List<Instruction> instructions = new ArrayList<>();
+        instructions.add(Exit.getSingleton());
+
+        for (int node = goal; nodeParents[node] != -1; node = nodeParents[node]) {
+            switch (nodeMoves[node]) {
+                case WALK:
+                    instructions.add(Walk.getSingleton());
+                    break;
+                case JUMP:
+                    instructions.add(Jump.getSingleton());
+                    break;
+                case TURN_LEFT:
+                    instructions.add(TurnLeft.getSingleton());
+                    break;
+                case TURN_RIGHT:
+                    instructions.add(TurnRight.getSingleton());
+                    break;
+            }
+        }
+
+        Collections.reverse(instructions);
+        return instructions;
+    }
+
+    private int addNode(long state, int parent, byte move, int cost) {
+        if (nodeCount == nodeStates.length) {
+            nodeStates = Arrays.copyOf(nodeStates, nodeCount * 2);
+            nodeParents = Arrays.copyOf(nodeParents, nodeCount * 2);
+            nodeCosts = Arrays.copyOf(nodeCosts, nodeCount * 2);
+            nodeMoves = Arrays.copyOf(nodeMoves, nodeCount * 2);
+        }
+        nodeStates[nodeCount] = state;
+        nodeParents[nodeCount] = parent;
+        nodeCosts[nodeCount] = cost;
+        nodeMoves[nodeCount] = move;
+        return nodeCount++;
+    }
+
+    /**
+     * Looks up a state in the table of reached states.
+     *
+     * @param state packed state
+     * @return slot of the state, or the empty slot to put the state into
+     */
+    private int findSlot(long state) {
+        int mask = tableStates.length - 1;
+        int slot = (int) ((state * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (tableNodes[slot] != -1 && tableStates[slot] != state) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growTable() {
+        long[] oldStates = tableStates;
+        int[] oldNodes = tableNodes;
+        tableStates = new long[oldStates.length * 2];
+        tableNodes = new int[oldNodes.length * 2];
+        Arrays.fill(tableNodes, -1);
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldNodes[i] != -1) {
+                int slot = findSlot(oldStates[i]);
+                tableStates[slot] = oldStates[i];
+                tableNodes[slot] = oldNodes[i];
+            }
+        }
+    }
+
+    private static long pack(int coinMask, int cell, int rotation) {
+        return (long) coinMask << 32 | (long) cell << 2 | rotation;
+    }
+
+    private static int cellOf(long state) {
+        return (int) (state >>> 2) & 0x3FFFFFFF;
+    }
+}
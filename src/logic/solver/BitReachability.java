@@ -0,0 +1,197 @@
+package logic.solver;
+
+import logic.level.BitBoard;
+import logic.level.FieldType;
+
+import java.util.Arrays;
+
+/**
+ * Bit-parallel breadth-first search over the cells of a {@link BitBoard}.
+ * <p>
+ * Instead of expanding one cell at a time, the whole frontier is a 64-bit mask of cells and is expanded at once:
+ * walking to a neighbour is a shift of the frontier by one column or one row, masked with the passable cells. Jumping
+ * over a gap is a double shift, where the first shift is masked with the gaps and the second one with the passable
+ * cells. Column masks prevent shifts from wrapping into the neighbouring row.
+ * <p>
+ * Turning the bot is free in this search, so the layers contain the amount of walks and jumps needed to reach a cell.
+ *
+ * @author Timo Peters
+ */
+class BitReachability {
+
+    /**
+     * Cells the bot can stand on (normal, coin and start)
+     */
+    private final long passable;
+
+    /**
+     * Cells the bot can jump over
+     */
+    private final long gaps;
+
+    /**
+     * Cells with a coin
+     */
+    private final long coins;
+
+    /**
+     * Cell of the door
+     */
+    private final long door;
+
+    /**
+     * Every cell of the game field
+     */
+    private final long allCells;
+
+    /**
+     * Every cell except the ones in the first column, masks shifts to the east
+     */
+    private final long notFirstCol;
+
+    /**
+     * Every cell except the ones in the last column, masks shifts to the west
+     */
+    private final long notLastCol;
+
+    /**
+     * Amount of rows of the game field
+     */
+    private final int rows;
+
+    /**
+     * Amount of columns of the game field, which is the shift of one row
+     */
+    private final int cols;
+
+    /**
+     * Cells reached with 0, 1, 2, ... walks or jumps
+     */
+    private final long[] layers;
+
+    /**
+     * Every cell the bot can reach
+     */
+    private final long reachable;
+
+    /**
+     * Constructor to search every cell the bot can reach on a board.
+     *
+     * @param board board to search
+     */
+    BitReachability(BitBoard board) {
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        int cells = rows * cols;
+        this.allCells = cells == Long.SIZE ? -1L : (1L << cells) - 1;
+
+        long firstCol = 0;
+        for (int row = 0; row < rows; row++) {
+            firstCol |= 1L << (row * cols);
+        }
+        this.notFirstCol = allCells & ~firstCol;
+        this.notLastCol = allCells & ~(firstCol << (cols - 1));
+
+        this.passable = board.getBoard(FieldType.NORMAL) | board.getBoard(FieldType.COIN) | board.getBoard(FieldType.START);
+        this.gaps = board.getBoard(FieldType.GAP);
+        this.coins = board.getBoard(FieldType.COIN);
+        this.door = board.getBoard(FieldType.DOOR);
+
+        long[] buffer = new long[cells + 1];
+        int count = 0;
+        long reached = board.getBotPosition() >= 0 ? 1L << board.getBotPosition() : 0;
+        long frontier = reached;
+        while (frontier != 0) {
+            buffer[count++] = frontier;
+            frontier = expand(frontier) & ~reached;
+            reached |= frontier;
+        }
+        this.layers = Arrays.copyOf(buffer, count);
+        this.reachable = reached;
+    }
+
+    /**
+     * Checks if the bot can reach every coin.
+     *
+     * @return true if every coin is reachable
+     */
+    boolean allCoinsReachable() {
+        return (coins & ~reachable) == 0;
+    }
+
+    /**
+     * Checks if the bot can reach a cell next to the door, from where it can exit.
+     *
+     * @return true if the door is reachable
+     */
+    boolean doorReachable() {
+        return (neighbours(reachable) & door) != 0;
+    }
+
+    /**
+     * Returns the amount of walks and jumps needed to reach a cell.
+     *
+     * @param cell index of the cell ({@code row * cols + col})
+     * @return distance to the cell or -1 if the cell is not reachable
+     */
+    int getDistance(int cell) {
+        long bit = 1L << cell;
+        for (int i = 0; i < layers.length; i++) {
+            if ((layers[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the breadth-first search layers. Layer i contains every cell first reached with i walks or jumps.
+     *
+     * @return copy of the layers
+     */
+    long[] getLayers() {
+        return layers.clone();
+    }
+
+    /**
+     * Returns every cell the bot can reach.
+     *
+     * @return long with bit {@code row * cols + col} set for every reachable cell
+     */
+    long getReachable() {
+        return reachable;
+    }
+
+    /**
+     * Expands a set of cells by every walk and jump.
+     *
+     * @param cells cells to expand
+     * @return every passable cell that can be reached with one walk or jump
+     */
+    private long expand(long cells) {
+        long walks = neighbours(cells) & passable;
+        long jumps = east(east(cells) & gaps) | west(west(cells) & gaps) | south(south(cells) & gaps) | north(north(cells) & gaps);
+        return walks | (jumps & passable);
+    }
+
+    private long neighbours(long cells) {
+        return east(cells) | west(cells) | south(cells) | north(cells);
+    }
+
+    private long east(long cells) {
+        return (cells << 1) & notFirstCol;
+    }
+
+    private long west(long cells) {
+        return (cells >>> 1) & notLastCol;
+    }
+
+    private long south(long cells) {
+        // with a single row, a shift by the amount of columns (up to 64) would not move the bits at all
+        return rows > 1 ? (cells << cols) & allCells : 0;
+    }
+
+    private long north(long cells) {
+        return rows > 1 ? cells >>> cols : 0;
+    }
+}
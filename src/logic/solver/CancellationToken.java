@@ -0,0 +1,33 @@
+package logic.solver;
+
+/**
+ * Token to cancel a running solve from another thread. The solver checks the token regularly while searching and
+ * returns the best result found so far once it was cancelled.
+ * <p>
+ * A token can only be cancelled once, so a new token is needed for every solve.
+ *
+ * @author Timo Peters
+ */
+public class CancellationToken {
+
+    /**
+     * True once the token was cancelled, volatile because the token is cancelled by another thread than the solver's
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Cancels the solve the token was given to.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks if the token was cancelled.
+     *
+     * @return true if the solve has to stop
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,488 @@
+package logic.solver;
+
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.Jump;
+import logic.instructions.Walk;
+import logic.level.BotRotation;
+import logic.level.Coord;
+import logic.level.FieldType;
+import logic.level.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plans the shortest tour from the bots starting position, over every coin, to the door.
+ * <p>
+ * Instead of searching the nearest coin again after every collected coin, one breadth-first search is started from the
+ * start field and from every coin. The resulting distances form a distance table between start, coins and door which
+ * is used by a Held-Karp style bitmask DP to find the coin visiting order with the shortest total path.
+ * Levels with more than {@value MAX_EXACT_COINS} coins fall back to a nearest-neighbour order, where every search
+ * stops at the nearest coin that was not collected yet.
+ * <p>
+ * All searches run over the {@link MovementGraph} of the level, so a search only follows the precompiled walk and jump
+ * edges of a cell and never checks bounds, walls or gaps. The searches share one set of flat arrays with the size of
+ * the game field. A search marks the cells it reaches with its own visit id, so the arrays never have to be reset and a
+ * search stopping early only touches the cells it reached.
+ * Paths are rebuilt by searching again from the start of every path segment, so no predecessor table per waypoint is
+ * kept and big levels with many coins only need a few arrays of the size of the game field.
+ *
+ * @author Timo Peters
+ */
+class CoinTourPlanner {
+
+    /**
+     * Maximum amount of coins for which the exact visiting order is calculated
+     */
+    private static final int MAX_EXACT_COINS = 16;
+
+    /**
+     * Distance used for unreachable cells and unreachable tours
+     */
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Cached bot rotations, so that looking up a rotation does not need to copy the values array
+     */
+    private static final BotRotation[] ROTATIONS = BotRotation.values();
+
+    /**
+     * Level to plan the tour for
+     */
+    private final Level level;
+
+    /**
+     * Movement graph of the level
+     */
+    private final MovementGraph graph;
+
+    /**
+     * Amount of columns of the game field
+     */
+    private final int cols;
+
+    /**
+     * Cell indices of the waypoints. The first waypoint is the start field, every other waypoint is a coin.
+     */
+    private final int[] waypoints;
+
+    /**
+     * Cell index of the door
+     */
+    private final int door;
+
+    /**
+     * Step distance between the waypoints, or {@value UNREACHABLE} if a waypoint can not be reached. Levels with more
+     * than {@value MAX_EXACT_COINS} coins only have the distances from the start field.
+     */
+    private final int[][] waypointDistances;
+
+    /**
+     * Nearest door neighbour cell of every waypoint in {@link #waypointDistances}, or -1 if it can not be reached
+     */
+    private final int[] doorApproaches;
+
+    /**
+     * Step distance from every waypoint in {@link #waypointDistances} to its nearest door neighbour
+     */
+    private final int[] doorApproachDistances;
+
+    /**
+     * Step distance of every cell in the latest search, only valid if the cell was reached by the latest search
+     */
+    private final int[] distances;
+
+    /**
+     * Graph edge every cell was reached with on its shortest path in the latest search
+     */
+    private final int[] arrivals;
+
+    /**
+     * Id of the search that reached every cell last
+     */
+    private final int[] visits;
+
+    /**
+     * Cells that still have to be expanded by the latest search
+     */
+    private final int[] queue;
+
+    /**
+     * Id of the latest search
+     */
+    private int visit;
+
+    /**
+     * Constructor to create a tour planner for a given level. The searches for the distance table are done right away,
+     * so that the distance table is available for every further request.
+     *
+     * @param level level to plan the tour for. The level has to be valid ({@link Level#validateLevel()})
+     */
+    CoinTourPlanner(Level level) {
+        this(level, new MovementGraph(level));
+    }
+
+    /**
+     * Constructor to create a tour planner for a given level, searching on an already compiled movement graph.
+     *
+     * @param level level to plan the tour for. The level has to be valid ({@link Level#validateLevel()})
+     * @param graph movement graph of the level
+     */
+    CoinTourPlanner(Level level, MovementGraph graph) {
+        this.level = level;
+        this.graph = graph;
+        this.cols = level.getCols();
+
+        int cells = graph.getNodeCount();
+        this.distances = new int[cells];
+        this.arrivals = new int[cells];
+        this.visits = new int[cells];
+        this.queue = new int[cells];
+
+        this.door = toIndex(level.firstOccurrenceOfField(FieldType.DOOR));
+
+        List<Coord> coins = level.allOccurrencesOfField(FieldType.COIN);
+        int coinAmount = coins.size();
+        this.waypoints = new int[coinAmount + 1];
+        this.waypoints[0] = toIndex(level.getCurrentBotPosition());
+        for (int i = 0; i < coinAmount; i++) {
+            this.waypoints[i + 1] = toIndex(coins.get(i));
+        }
+
+        // the nearest-neighbour order does not need the distances between the coins
+        int searchedWaypoints = coinAmount <= MAX_EXACT_COINS ? waypoints.length : 1;
+        this.waypointDistances = new int[searchedWaypoints][waypoints.length];
+        this.doorApproaches = new int[searchedWaypoints];
+        this.doorApproachDistances = new int[searchedWaypoints];
+        for (int i = 0; i < searchedWaypoints; i++) {
+            breadthFirstSearch(waypoints[i], -1);
+            for (int j = 0; j < waypoints.length; j++) {
+                waypointDistances[i][j] = distanceTo(waypoints[j]);
+            }
+            doorApproaches[i] = findDoorApproach();
+            doorApproachDistances[i] = doorApproaches[i] != -1 ? distanceTo(doorApproaches[i]) : UNREACHABLE;
+        }
+    }
+
+    /**
+     * Checks if every coin can be reached from the start field.
+     *
+     * @return true if every coin is reachable
+     */
+    boolean allCoinsReachable() {
+        boolean reachable = true;
+        for (int i = 1; reachable && i < waypoints.length; i++) {
+            reachable = waypointDistances[0][i] != UNREACHABLE;
+        }
+        return reachable;
+    }
+
+    /**
+     * Checks if the door can be reached from the start field. The door counts as reachable if the bot is able to stand
+     * on one of its neighbour cells.
+     *
+     * @return true if the door is reachable
+     */
+    boolean doorReachable() {
+        return doorApproaches[0] != -1;
+    }
+
+    /**
+     * Creates the instructions of the shortest tour from the start field, over every coin, to the door.
+     * Both {@link #allCoinsReachable()} and {@link #doorReachable()} have to be true.
+     *
+     * @return list of instructions ending with the exit instruction
+     */
+    List<Instruction> createInstructions() {
+        List<Instruction> instructions = new ArrayList<>();
+        BotRotation rotation = level.getBotRotation();
+
+        int from = waypoints[0];
+        for (int coin : findCoinOrder()) {
+            rotation = appendPathInstructions(instructions, from, waypoints[coin], rotation);
+            from = waypoints[coin];
+        }
+
+        // walk next to the door, turn towards it and exit
+        breadthFirstSearch(from, -1);
+        int approach = findDoorApproach();
+        rotation = appendPathInstructions(instructions, from, approach, rotation);
+        LevelSolver.addTurnInstructions(instructions, rotation, ROTATIONS[directionOf(approach, door)]);
+        instructions.add(Exit.getSingleton());
+
+        return instructions;
+    }
+
+    /**
+     * Finds the coin visiting order with the shortest total distance, including the distance from the last coin to the door.
+     * <p>
+     * This method is package-private for test-purposes
+     *
+     * @return waypoint indices of the coins in the order they should be collected
+     */
+    int[] findCoinOrder() {
+        int coins = waypoints.length - 1;
+        if (coins == 0) {
+            return new int[0];
+        } else if (coins > MAX_EXACT_COINS) {
+            return findNearestNeighbourOrder();
+        }
+
+        // tourLength[mask][last] = length of the shortest tour from the start over every coin in mask, ending at last
+        int subsets = 1 << coins;
+        int[][] tourLength = new int[subsets][coins];
+        int[][] previousCoin = new int[subsets][coins];
+        for (int[] lengths : tourLength) {
+            Arrays.fill(lengths, UNREACHABLE);
+        }
+        for (int coin = 0; coin < coins; coin++) {
+            tourLength[1 << coin][coin] = distance(0, coin + 1);
+            previousCoin[1 << coin][coin] = -1;
+        }
+
+        for (int mask = 1; mask < subsets; mask++) {
+            for (int last = 0; last < coins; last++) {
+                int length = tourLength[mask][last];
+                if (length == UNREACHABLE) continue;
+
+                for (int next = 0; next < coins; next++) {
+                    int step = distance(last + 1, next + 1);
+                    if ((mask & (1 << next)) == 0 && step != UNREACHABLE) {
+                        int nextMask = mask | (1 << next);
+                        if (length + step < tourLength[nextMask][next]) {
+                            tourLength[nextMask][next] = length + step;
+                            previousCoin[nextMask][next] = last;
+                        }
+                    }
+                }
+            }
+        }
+
+        // close the tour at the door
+        int fullMask = subsets - 1;
+        int bestLast = -1;
+        long bestLength = Long.MAX_VALUE;
+        for (int last = 0; last < coins; last++) {
+            if (tourLength[fullMask][last] != UNREACHABLE && doorApproaches[last + 1] != -1) {
+                long length = (long) tourLength[fullMask][last] + doorApproachDistances[last + 1];
+                if (length < bestLength) {
+                    bestLength = length;
+                    bestLast = last;
+                }
+            }
+        }
+
+        // walk the DP table backwards to rebuild the order
+        int[] order = new int[coins];
+        int mask = fullMask;
+        int current = bestLast;
+        for (int i = coins - 1; i >= 0; i--) {
+            order[i] = current + 1;
+            int previous = previousCoin[mask][current];
+            mask &= ~(1 << current);
+            current = previous;
+        }
+        return order;
+    }
+
+    /**
+     * Creates a coin visiting order by always going to the nearest coin that was not collected yet.
+     * Used for levels with too many coins for the exact DP. Every search stops as soon as the nearest coin is known,
+     * if several coins have the same distance, the coin with the lowest waypoint index is taken.
+     *
+     * @return waypoint indices of the coins in the order they should be collected
+     */
+    private int[] findNearestNeighbourOrder() {
+        int coins = waypoints.length - 1;
+        int[] order = new int[coins];
+        boolean[] visited = new boolean[waypoints.length];
+        int[] waypointOfCell = new int[graph.getNodeCount()];
+        Arrays.fill(waypointOfCell, -1);
+        for (int i = 1; i < waypoints.length; i++) {
+            waypointOfCell[waypoints[i]] = i;
+        }
+
+        int current = 0;
+        for (int i = 0; i < coins; i++) {
+            int nearest = findNearestCoin(waypoints[current], waypointOfCell, visited);
+            for (int candidate = 1; nearest == -1 && candidate < waypoints.length; candidate++) {
+                // no coin is reachable anymore, so the remaining coins are added in their waypoint order
+                nearest = visited[candidate] ? -1 : candidate;
+            }
+            visited[nearest] = true;
+            order[i] = nearest;
+            current = nearest;
+        }
+        return order;
+    }
+
+    /**
+     * Searches the nearest coin that was not collected yet, starting at a given cell.
+     *
+     * @param source         cell index to start the search at
+     * @param waypointOfCell waypoint index of every cell, or -1 if the cell is not a coin
+     * @param visited        flags of the waypoints that were already collected
+     * @return waypoint index of the nearest coin, or -1 if no coin that was not collected yet can be reached
+     */
+    private int findNearestCoin(int source, int[] waypointOfCell, boolean[] visited) {
+        int head = 0;
+        int tail = startSearch(source);
+        int nearest = -1;
+        int nearestDistance = UNREACHABLE;
+
+        // every cell with the distance of the nearest coin is reached once all cells before it were expanded
+        while (head < tail && distances[queue[head]] + 1 <= nearestDistance) {
+            int newTail = expand(queue[head++], tail);
+            for (int i = tail; i < newTail; i++) {
+                int candidate = waypointOfCell[queue[i]];
+                if (candidate != -1 && !visited[candidate]
+                        && (distances[queue[i]] < nearestDistance || candidate < nearest)) {
+                    nearest = candidate;
+                    nearestDistance = distances[queue[i]];
+                }
+            }
+            tail = newTail;
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the neighbour cell of the door that is the closest to the source of the latest search. The bot has to
+     * stand on that cell to exit through the door.
+     *
+     * @return cell index of the nearest door neighbour, or -1 if no neighbour of the door is reachable
+     */
+    private int findDoorApproach() {
+        int approach = -1;
+        for (int direction = 0; direction < ROTATIONS.length; direction++) {
+            int cell = graph.getNeighbour(door, direction);
+            if (cell != -1 && distanceTo(cell) != UNREACHABLE && (approach == -1 || distanceTo(cell) < distanceTo(approach))) {
+                approach = cell;
+            }
+        }
+        return approach;
+    }
+
+    /**
+     * Appends the walk, jump and turn instructions of the shortest path from a source cell to a target cell.
+     *
+     * @param instructions list to append the instructions to
+     * @param source       cell index the path starts at
+     * @param target       cell index of the path destination, which has to be reachable
+     * @param rotation     bot rotation at the start of the path
+     * @return bot rotation at the end of the path
+     */
+    private BotRotation appendPathInstructions(List<Instruction> instructions, int source, int target, BotRotation rotation) {
+        breadthFirstSearch(source, target);
+
+        // rebuild the path backwards from the target to the source
+        int[] path = new int[distances[target]];
+        int cell = target;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = arrivals[cell];
+            cell = graph.getEdgeSource(path[i]);
+        }
+
+        for (int edge : path) {
+            rotation = LevelSolver.addTurnInstructions(instructions, rotation, ROTATIONS[graph.getEdgeDirection(edge)]);
+            instructions.add(graph.getEdgeType(edge) == MovementGraph.JUMP ? Jump.getSingleton() : Walk.getSingleton());
+        }
+        return rotation;
+    }
+
+    /**
+     * Calculates the step distance of every cell from a given source cell. A step is either walking onto the next cell
+     * or jumping over a gap, so every step matches exactly one walk or jump instruction.
+     * <p>
+     * The search stops as soon as the target was reached, the cells after it keep the distances of an older search.
+     *
+     * @param source cell index to start the search at
+     * @param target cell index to stop the search at, or -1 to reach every reachable cell
+     */
+    private void breadthFirstSearch(int source, int target) {
+        int head = 0;
+        int tail = startSearch(source);
+        while (head < tail && (target == -1 || visits[target] != visit)) {
+            tail = expand(queue[head++], tail);
+        }
+    }
+
+    /**
+     * Starts a new search at the given source cell. Every cell reached by an older search counts as unreached again.
+     *
+     * @param source cell index to start the search at
+     * @return end of the queue, which only contains the source cell
+     */
+    private int startSearch(int source) {
+        visit++;
+        visits[source] = visit;
+        distances[source] = 0;
+        arrivals[source] = -1;
+        queue[0] = source;
+        return 1;
+    }
+
+    /**
+     * Adds every cell the bot can reach with one step from the given cell to the queue, unless it was already reached.
+     *
+     * @param cell cell index to expand
+     * @param tail current end of the queue
+     * @return new end of the queue
+     */
+    private int expand(int cell, int tail) {
+        for (int edge = graph.getEdgeStart(cell); edge < graph.getEdgeEnd(cell); edge++) {
+            int target = graph.getEdgeTarget(edge);
+
+            // the door is the only target the bot can not stand on, it is exited from its neighbour cells instead
+            if (graph.isStandable(target) && visits[target] != visit) {
+                visits[target] = visit;
+                distances[target] = distances[cell] + 1;
+                arrivals[target] = edge;
+                queue[tail++] = target;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Step distance of a cell in the latest search.
+     *
+     * @param cell cell index
+     * @return step distance or {@value UNREACHABLE} if the latest search did not reach the cell
+     */
+    private int distanceTo(int cell) {
+        return visits[cell] == visit ? distances[cell] : UNREACHABLE;
+    }
+
+    /**
+     * Finds the direction from a cell to one of its neighbour cells.
+     *
+     * @param cell      cell index
+     * @param neighbour cell index of the neighbour
+     * @return ordinal of the bot rotation facing from the cell to the neighbour
+     */
+    private int directionOf(int cell, int neighbour) {
+        int direction = 0;
+        while (graph.getNeighbour(cell, direction) != neighbour) {
+            direction++;
+        }
+        return direction;
+    }
+
+    /**
+     * Distance between two waypoints.
+     *
+     * @param from index of the first waypoint
+     * @param to   index of the second waypoint
+     * @return step distance or {@value UNREACHABLE}
+     */
+    private int distance(int from, int to) {
+        return waypointDistances[from][to];
+    }
+
+    private int toIndex(Coord coord) {
+        return Coord.convertCoordToIndex(coord, cols);
+    }
+}
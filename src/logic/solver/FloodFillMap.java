@@ -0,0 +1,238 @@
+package logic.solver;
+
+import logic.level.Coord;
+
+/**
+ * Step representation of a FloodFill over the {@link MovementGraph} of a level, stored as flat row-major arrays.
+ * <p>
+ * Every cell stores the amount of steps needed to reach it from the start of the fill. Instead of resetting the whole
+ * array before every fill, each fill gets a new visit id and a cell only counts as reached if it was marked with the
+ * id of the current fill. So a map can be reused for every coin of a level, and a fill only touches the cells it
+ * actually reaches, no matter how big the level is.
+ * <p>
+ * Every reached cell also remembers the graph edge it was reached with, so the path from the start of the fill to
+ * any reached cell can be followed back without searching the neighbours again.
+ *
+ * @author Timo Peters
+ */
+class FloodFillMap {
+
+    /**
+     * Step value of a cell that was not reached by the current fill
+     */
+    static final int UNREACHED = -1;
+
+    /**
+     * Movement graph of the level
+     */
+    private final MovementGraph graph;
+
+    /**
+     * Amount of rows of the game field
+     */
+    private final int rows;
+
+    /**
+     * Amount of columns of the game field
+     */
+    private final int cols;
+
+    /**
+     * Amount of steps needed to reach every cell, only valid if the cell was visited by the current fill
+     */
+    private final int[] steps;
+
+    /**
+     * Graph edge every cell was reached with, or -1 for the start cell and for gaps
+     */
+    private final int[] arrivals;
+
+    /**
+     * Id of the fill that reached every cell last
+     */
+    private final int[] visits;
+
+    /**
+     * Cells that still have to be checked by the current fill
+     */
+    private final int[] queue;
+
+    /**
+     * Id of the current fill, 0 before the first fill
+     */
+    private int visit;
+
+    /**
+     * Cell index of the start of the current fill, or -1 if there was no fill yet
+     */
+    private int start = -1;
+
+    /**
+     * Cell index of the cell the current fill stopped at, or -1 if the field type to stop at was not found
+     */
+    private int end = -1;
+
+    /**
+     * Constructor to create an empty map for the cells of a movement graph.
+     *
+     * @param graph movement graph of the level to fill
+     */
+    FloodFillMap(MovementGraph graph) {
+        this.graph = graph;
+        this.rows = graph.getRows();
+        this.cols = graph.getCols();
+        this.steps = new int[rows * cols];
+        this.arrivals = new int[rows * cols];
+        this.visits = new int[rows * cols];
+        this.queue = new int[rows * cols];
+    }
+
+    /**
+     * Applies the FloodFill-algorithm from a start cell until one of the given stop cells is found. The bot can walk
+     * onto normal, coin, start and stop cells and jump over gaps if it is able to land behind them. A jumped gap is
+     * marked with the steps of its landing cell. The previous fill is discarded.
+     *
+     * @param start     cell index to start the fill at
+     * @param stopCells flags of the cells to stop at
+     * @return true if a stop cell was found
+     */
+    boolean fill(int start, boolean[] stopCells) {
+        visit++;
+        this.start = start;
+        this.end = -1;
+        mark(start, 0, -1);
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+
+        // go through the queue of cells until a stop cell was found or there is no new cell to check
+        while (end == -1 && head < tail) {
+            int cell = queue[head++];
+
+            if (stopCells[cell]) {
+                // stop when finding the cell we want to stop at
+                end = cell;
+            } else {
+                // check every edge for more passable cells, marking them with the amount of steps to reach them
+                for (int edge = graph.getEdgeStart(cell); edge < graph.getEdgeEnd(cell); edge++) {
+                    tail = visitEdge(edge, stopCells, steps[cell] + 1, tail);
+                }
+            }
+        }
+
+        return end != -1;
+    }
+
+    /**
+     * Adds the target of an edge to the queue if the bot is able to stand on it and it was not reached yet. The gap of
+     * a jump edge must not be reached yet either.
+     *
+     * @param edge      edge index in the movement graph
+     * @param stopCells flags of the cells to stop at
+     * @param nextSteps amount of steps to reach the target
+     * @param tail      current end of the queue
+     * @return new end of the queue
+     */
+    private int visitEdge(int edge, boolean[] stopCells, int nextSteps, int tail) {
+        int target = graph.getEdgeTarget(edge);
+        if (isVisited(target) || !(graph.isStandable(target) || stopCells[target])) {
+            return tail;
+        }
+
+        if (graph.getEdgeType(edge) == MovementGraph.JUMP) {
+            // the gap lies exactly between the cell the jump starts at and its landing cell
+            int gap = (graph.getEdgeSource(edge) + target) / 2;
+            if (isVisited(gap)) {
+                return tail;
+            }
+            mark(gap, nextSteps, -1);
+        }
+        mark(target, nextSteps, edge);
+        queue[tail++] = target;
+        return tail;
+    }
+
+    /**
+     * Returns the edges of the path from the start of the current fill to the cell it stopped at.
+     *
+     * @return edge indices in the movement graph, ordered from the start to the end, or null if no stop cell was found
+     */
+    int[] findPathEdges() {
+        if (end == -1) {
+            return null;
+        }
+
+        int[] path = new int[steps[end]];
+        int cell = end;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = arrivals[cell];
+            cell = graph.getEdgeSource(path[i]);
+        }
+        return path;
+    }
+
+    MovementGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of steps needed to reach a cell in the current fill.
+     *
+     * @param row row of the cell
+     * @param col column of the cell
+     * @return amount of steps, or {@value UNREACHED} if the cell is out of bounds or was not reached
+     */
+    int getSteps(int row, int col) {
+        return isInBounds(row, col) && isVisited(row * cols + col) ? steps[row * cols + col] : UNREACHED;
+    }
+
+    /**
+     * Returns the start of the current fill, which is the only cell with 0 steps.
+     *
+     * @return start coordinate or null if there was no fill yet
+     */
+    Coord getStart() {
+        return start != -1 ? Coord.convertIndexToCoord(start, cols) : null;
+    }
+
+    /**
+     * Returns the cell the current fill stopped at.
+     *
+     * @return coordinate of the found field type or null if it was not found
+     */
+    Coord getEnd() {
+        return end != -1 ? Coord.convertIndexToCoord(end, cols) : null;
+    }
+
+    /**
+     * Creates the step representation of the current fill as a two-dimensional array.
+     * <p>
+     * This method is package-private for test-purposes
+     *
+     * @return amount of steps of every cell, {@value UNREACHED} for cells that were not reached
+     */
+    int[][] toArray() {
+        int[][] array = new int[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                array[row][col] = getSteps(row, col);
+            }
+        }
+        return array;
+    }
+
+    private void mark(int cell, int cellSteps, int arrival) {
+        steps[cell] = cellSteps;
+        arrivals[cell] = arrival;
+        visits[cell] = visit;
+    }
+
+    private boolean isVisited(int cell) {
+        return visit != 0 && visits[cell] == visit;
+    }
+
+    private boolean isInBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+}
@@ -1,11 +1,15 @@
 package logic.solver;
 
+import logic.conversion.Action;
+import logic.conversion.CompiledProgram;
+import logic.conversion.ConversionSummary;
 import logic.instructions.Exit;
 import logic.instructions.Jump;
 import logic.instructions.Procedure;
 import logic.instructions.TurnLeft;
 import logic.instructions.TurnRight;
 import logic.instructions.Walk;
+import logic.level.BitBoard;
 import logic.level.BotRotation;
 import logic.level.FieldType;
 import logic.instructions.Instruction;
@@ -14,21 +18,19 @@ import logic.instructions.ProcedureTwo;
 import logic.level.Coord;
 import logic.level.Level;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Queue;
 
 /**
- * Level Solver using a variant of flood-fill.
+ * Level Solver using a variant of flood-fill, a shortest coin tour, a state space search, an A* search or a direct
+ * program synthesis (see {@link SolverMode}).
  * The algorithm will try to find a solution for a given level and generate a set of instructions to solve the level.
  *
  * @author Timo Peters
@@ -46,64 +48,482 @@ public class LevelSolver {
     private static final int MAX_PROCEDURE_INSTRUCTIONS = 8;
 
     /**
-     * Finds a solution for the given level. The algorithm uses FloodFill to find a path from the start field, over every
-     * coin on the field, to the door. When finding a path the path will be translated into instructions which are then
-     * reduced into program and procedure instructions.
+     * Maximum amount of instructions the program and procedures can stand for. Procedure one only contains plain
+     * instructions, procedure two may call procedure one and the program may call both procedures.
+     */
+    private static final int MAX_EXPANDED_INSTRUCTIONS = MAX_PROGRAM_INSTRUCTIONS * MAX_PROCEDURE_INSTRUCTIONS * MAX_PROCEDURE_INSTRUCTIONS;
+
+    /**
+     * Cache of the latest solver results, so that solving the same level again does not start a new search
+     */
+    private static final SolverCache CACHE = new SolverCache(SolverCache.DEFAULT_CAPACITY);
+
+    /**
+     * Persistent store of solver results shared by rotated and mirrored levels, or null if results are not persisted.
+     * The store is owned by the solver, it is opened by {@link #openSolutionStore(Path)} and closed by
+     * {@link #closeSolutionStore()}.
+     */
+    private static volatile SolutionStore solutionStore;
+
+    /**
+     * Finds a solution for the given level using the {@link SolverMode#FLOOD_FILL} mode.
+     *
+     * @param level level to solve
+     * @return SolverResult containing the program and procedure instructions with a SOLVED status or null for the instructions and a UNSOLVABLE status if the level is not solvable.
+     * @see #solve(Level, SolverMode)
+     */
+    public static SolverResult solve(Level level) {
+        return solve(level, SolverMode.FLOOD_FILL);
+    }
+
+    /**
+     * Finds a solution for the given level. Depending on the solver mode, the algorithm either uses FloodFill to find
+     * a path from the start field to the nearest coin again and again, or it plans the shortest tour over every coin
+     * to the door. When finding a path the path will be translated into instructions which are then reduced into
+     * program and procedure instructions.
      * <p>
      * If there is no path to the door with all coins collected or the generated instructions are not within the bounds
      * of the maximum possible program and procedure instructions, the SolverStatus of the SolverResult will be one of
      * the available UNSOLVABLE status.
+     * <p>
+     * Results are cached by the zobrist hash of the level ({@link #getCache()}), so solving an unchanged level again
+     * returns the cached result. If a solution store is open ({@link #openSolutionStore(Path)}), solvable
+     * results are persisted, also for the rotated and mirrored copies of the level.
      *
      * @param level level to solve
+     * @param mode  search strategy used to find the instructions
      * @return SolverResult containing the program and procedure instructions with a SOLVED status or null for the instructions and a UNSOLVABLE status if the level is not solvable.
      */
-    public static SolverResult solve(Level level) {
+    public static SolverResult solve(Level level, SolverMode mode) {
+        return solve(level, mode, SolverBudget.unlimited());
+    }
+
+    /**
+     * Finds a solution for the given level within a time budget, returning the best solution found so far once the
+     * budget runs out or the solve is cancelled.
+     * <p>
+     * The searching solver modes start with the coin tour as their best solution and search for a shorter one. If the
+     * search was complete, the quality of the result is {@link SolveQuality#OPTIMAL}, otherwise the best solution found
+     * is returned as {@link SolveQuality#BEST_EFFORT}. A stopped {@link SolverMode#PROGRAM_SYNTHESIS} that did not find
+     * any program yet returns {@link SolveStatus#UNDECIDED_SEARCH_STOPPED} instead of an unsolvable status. Results of
+     * stopped searches are not cached, so that solving the level again with a bigger budget searches again.
+     *
+     * @param level            level to solve
+     * @param mode             search strategy used to find the instructions
+     * @param timeBudgetMillis time the solve is allowed to take in milliseconds, 0 or less for no limit
+     * @param token            token to cancel the solve from another thread, or null
+     * @param listener         listener informed about the expanded states and the best solution length, or null
+     * @return SolverResult containing the program and procedure instructions with a SOLVED status or null for the instructions and a UNSOLVABLE status if the level is not solvable.
+     */
+    public static SolverResult solve(Level level, SolverMode mode, long timeBudgetMillis, CancellationToken token, SolverProgressListener listener) {
+        return solve(level, mode, new SolverBudget(timeBudgetMillis, token, listener));
+    }
+
+    /**
+     * Finds a solution for the given level within the given budget, using the cache for complete results.
+     *
+     * @param level  level to solve
+     * @param mode   search strategy used to find the instructions
+     * @param budget budget of the solve
+     * @return SolverResult of the level
+     */
+    private static SolverResult solve(Level level, SolverMode mode, SolverBudget budget) {
+        SolverResult result = CACHE.get(level, mode);
+        if (result == null) {
+            SolutionStore store = solutionStore;
+            result = store != null ? loadResult(store, level, mode) : null;
+            if (result == null) {
+                result = solveUncached(level, mode, budget);
+                if (store != null && !budget.isExhausted()) {
+                    storeResult(store, level, mode, result);
+                }
+            }
+            if (!budget.isExhausted()) {
+                CACHE.put(level, mode, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a result from the solution store. A result that can not be read is solved again, so the solve itself does
+     * not fail.
+     *
+     * @param store solution store to read from
+     * @param level level to solve
+     * @param mode  search strategy used to find the instructions
+     * @return stored result, or null if there is none or it can not be read
+     */
+    private static SolverResult loadResult(SolutionStore store, Level level, SolverMode mode) {
+        try {
+            return store.get(level, mode);
+        } catch (RuntimeException e) {
+            // the store was closed or its file was changed by someone else, the level is solved again instead
+            return null;
+        }
+    }
+
+    /**
+     * Writes a result into the solution store. A result that can not be written is only missing after a restart, so
+     * the solve itself does not fail.
+     *
+     * @param store  solution store to write to
+     * @param level  solved level
+     * @param mode   mode the level was solved with
+     * @param result result of the solver
+     */
+    private static void storeResult(SolutionStore store, Level level, SolverMode mode, SolverResult result) {
+        try {
+            store.put(level, mode, result);
+        } catch (IOException | IllegalStateException e) {
+            // the store was closed or can not grow, the result is still cached in memory
+        }
+    }
+
+    /**
+     * Opens the persistent solution store, which is consulted before searching and written to after a successful
+     * complete solve. A store opened before is closed first. The solver owns the store until
+     * {@link #closeSolutionStore()} closes it, so callers must not close it themselves.
+     *
+     * @param file store file, it is created if it does not exist yet
+     * @throws IOException when the store can not be opened, the solver then solves without a store
+     */
+    public static synchronized void openSolutionStore(Path file) throws IOException {
+        closeSolutionStore();
+        solutionStore = SolutionStore.open(file);
+    }
+
+    /**
+     * Closes the persistent solution store, so that the following solves neither read nor write results. Solves that
+     * are still running when the store is closed search the level instead of reading a result and do not store their
+     * result.
+     *
+     * @throws IOException when the store file can not be closed
+     */
+    public static synchronized void closeSolutionStore() throws IOException {
+        SolutionStore store = solutionStore;
+        solutionStore = null;
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * Returns the persistent solution store, e.g. to read its hit and miss counters. The store stays owned by the
+     * solver, so it is closed by {@link #closeSolutionStore()} only.
+     *
+     * @return solution store, or null if no store is open
+     */
+    public static SolutionStore getSolutionStore() {
+        return solutionStore;
+    }
+
+    /**
+     * Returns the cache of the solver results, e.g. to read its hit and miss counters.
+     *
+     * @return solver result cache
+     */
+    public static SolverCache getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Finds a solution for the given level without looking into the cache.
+     *
+     * @param level  level to solve
+     * @param mode   search strategy used to find the instructions
+     * @param budget budget of the solve
+     * @return SolverResult of the level
+     */
+    private static SolverResult solveUncached(Level level, SolverMode mode, SolverBudget budget) {
         if (!level.validateLevel()) {
             return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_INVALID_LEVEL);
         }
 
+        // cheap bit-parallel check, so that unreachable coins or doors are found before any instruction is generated
+        if (BitBoard.fits(level)) {
+            BitReachability reachability = new BitReachability(new BitBoard(level));
+            if (!reachability.allCoinsReachable()) {
+                return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS);
+            }
+            if (!reachability.doorReachable()) {
+                return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+            }
+        }
+
         // using a copy of the level, because the algorithm changes the level.currentBotPosition and the amount of coins
         Level levelCopy = level.getLevelCopy();
 
+        switch (mode) {
+            case COIN_TOUR:
+                return solveCoinTour(levelCopy, budget);
+            case STATE_SPACE_SEARCH:
+                return solveStateSpace(levelCopy, budget);
+            case A_STAR:
+                return solveAStar(levelCopy, budget);
+            case PROGRAM_SYNTHESIS:
+                return solveProgramSynthesis(levelCopy, budget);
+            case FLOOD_FILL:
+            default:
+                return solveFloodFill(levelCopy, budget);
+        }
+    }
+
+    /**
+     * Solves the level by collecting the nearest coin again and again, before going to the door.
+     *
+     * @param levelCopy copy of the level to solve, which is changed by the algorithm
+     * @param budget    budget of the solve, which is told about the solution
+     * @return SolverResult of the level
+     */
+    private static SolverResult solveFloodFill(Level levelCopy, SolverBudget budget) {
+        FloodFillMap floodFillMap = new FloodFillMap(new MovementGraph(levelCopy));
+
         // create instructions to all coins
-        List<Instruction> instructions = createInstructionsToReachAllCoins(levelCopy);
+        List<Instruction> instructions = createInstructionsToReachAllCoins(levelCopy, floodFillMap);
 
         if (instructions == null) {
             return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS);
         }
 
         // create instructions to the door
-        int[][] pathToDoorRep = floodFill(levelCopy, FieldType.DOOR);
-        List<Instruction> instructionsToDoor = createInstructions(levelCopy, pathToDoorRep, false);
+        floodFill(levelCopy, findCells(levelCopy, FieldType.DOOR), floodFillMap);
+        List<Instruction> instructionsToDoor = createInstructions(levelCopy, floodFillMap, false);
 
         if (instructionsToDoor == null) {
             return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
         }
 
         instructions.addAll(instructionsToDoor);
+        budget.offerSolution(instructions.size());
 
         return splitInstructionsToProgramAndProcedures(instructions);
     }
 
     /**
-     * Uses the {@link #floodFill(Level, FieldType)} and the {@link #createInstructions(Level, int[][], boolean)} methods to
-     * create a list of instructions from the bots starting position to the last coin, while collecting all other coins
-     * on the way.
+     * Solves the level by walking the shortest tour over every coin to the door ({@link CoinTourPlanner}).
+     *
+     * @param levelCopy copy of the level to solve
+     * @param budget    budget of the solve, which is told about the solution
+     * @return SolverResult of the level
+     */
+    private static SolverResult solveCoinTour(Level levelCopy, SolverBudget budget) {
+        CoinTourPlanner planner = new CoinTourPlanner(levelCopy, new MovementGraph(levelCopy));
+
+        if (!planner.allCoinsReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS);
+        }
+
+        if (!planner.doorReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+        }
+
+        List<Instruction> instructions = planner.createInstructions();
+        budget.offerSolution(instructions.size());
+
+        return splitInstructionsToProgramAndProcedures(instructions);
+    }
+
+    /**
+     * Solves the level with the minimal amount of instructions ({@link StateSpaceSearch}). Levels with too many states
+     * for the search (too many coins) are solved using the shortest coin tour instead, just like searches that run out
+     * of budget.
+     *
+     * @param levelCopy copy of the level to solve
+     * @param budget    budget of the solve
+     * @return SolverResult of the level
+     */
+    private static SolverResult solveStateSpace(Level levelCopy, SolverBudget budget) {
+        // the tour planner is used as a cheap reachability check, because the search can not tell why it found no solution
+        MovementGraph graph = new MovementGraph(levelCopy);
+        CoinTourPlanner planner = new CoinTourPlanner(levelCopy, graph);
+
+        if (!planner.allCoinsReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS);
+        }
+
+        if (!planner.doorReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+        }
+
+        List<Instruction> tour = planner.createInstructions();
+        budget.offerSolution(tour.size());
+
+        StateSpaceSearch search = new StateSpaceSearch(levelCopy, graph);
+        List<Instruction> instructions = search.fitsIntoStateLimit() ? search.findInstructions(budget) : null;
+
+        return splitSearchResult(instructions, tour, search.getExpandedNodes(), budget);
+    }
+
+    /**
+     * Solves the level with the minimal amount of instructions using the A* search ({@link AStarSearch}). Levels with
+     * too many coins or cells for the heuristic, or with too many states to expand, are solved using the shortest coin
+     * tour instead.
+     *
+     * @param levelCopy copy of the level to solve
+     * @param budget    budget of the solve
+     * @return SolverResult of the level, including the amount of states the search expanded
+     */
+    private static SolverResult solveAStar(Level levelCopy, SolverBudget budget) {
+        MovementGraph graph = new MovementGraph(levelCopy);
+        CoinTourPlanner planner = new CoinTourPlanner(levelCopy, graph);
+
+        if (!planner.allCoinsReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS);
+        }
+
+        if (!planner.doorReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+        }
+
+        List<Instruction> tour = planner.createInstructions();
+        budget.offerSolution(tour.size());
+
+        AStarSearch search = new AStarSearch(levelCopy, graph);
+        List<Instruction> instructions = search.fitsIntoLimits() ? search.findInstructions(budget) : null;
+
+        return splitSearchResult(instructions, tour, search.getExpandedNodes(), budget);
+    }
+
+    /**
+     * Converts the result of a search into program and procedure instructions. The instructions of a complete search
+     * are minimal, if the search had no result the coin tour is used as the best solution found.
+     *
+     * @param instructions  minimal instructions found by the search, or null if the search had no result
+     * @param tour          instructions of the coin tour
+     * @param expandedNodes amount of states the search expanded
+     * @param budget        budget of the solve, which is told about the minimal instructions
+     * @return SolverResult of the level
+     */
+    private static SolverResult splitSearchResult(List<Instruction> instructions, List<Instruction> tour, int expandedNodes, SolverBudget budget) {
+        if (instructions == null) {
+            return splitInstructionsToProgramAndProcedures(tour, expandedNodes, SolveQuality.BEST_EFFORT);
+        }
+
+        budget.offerSolution(instructions.size());
+        return splitInstructionsToProgramAndProcedures(instructions, expandedNodes, SolveQuality.OPTIMAL);
+    }
+
+    /**
+     * Solves the level by searching program and procedure instructions directly ({@link ProgramSynthesizer}). The
+     * instructions of the state space search and the coin tour are reduced first, the synthesis is only started if
+     * none of them fits into the program and procedures.
+     *
+     * @param levelCopy copy of the level to solve
+     * @param budget    budget of the solve
+     * @return SolverResult of the level
+     */
+    private static SolverResult solveProgramSynthesis(Level levelCopy, SolverBudget budget) {
+        MovementGraph graph = new MovementGraph(levelCopy);
+        CoinTourPlanner planner = new CoinTourPlanner(levelCopy, graph);
+
+        if (!planner.allCoinsReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS);
+        }
+
+        if (!planner.doorReachable()) {
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+        }
+
+        List<List<Instruction>> references = new ArrayList<>();
+        StateSpaceSearch search = new StateSpaceSearch(levelCopy, graph);
+        if (search.fitsIntoStateLimit()) {
+            List<Instruction> shortestInstructions = search.findInstructions(budget);
+            if (shortestInstructions != null) {
+                references.add(shortestInstructions);
+                budget.offerSolution(shortestInstructions.size());
+            }
+        }
+        references.add(planner.createInstructions());
+        budget.offerSolution(references.get(references.size() - 1).size());
+
+        for (List<Instruction> reference : references) {
+            SolverResult result = splitInstructionsToProgramAndProcedures(reference);
+            if (result.getSolveStatus() == SolveStatus.SOLVABLE) {
+                return result;
+            }
+        }
+
+        ProgramSynthesizer synthesizer = new ProgramSynthesizer(levelCopy, graph, references);
+        SolverResult result = synthesizer.fitsIntoStateLimit() ? synthesizer.synthesize(budget) : null;
+
+        // the synthesizer simulates the program on its own move tables, so the program is checked with the real
+        // instructions before it is returned
+        if (result != null && isSolution(levelCopy, result.getProgramInstructions())) {
+            return result;
+        }
+        if (budget.isExhausted() || (synthesizer.fitsIntoStateLimit() && synthesizer.wasStopped())) {
+            // the synthesis did not try every candidate, so the level is not known to be unsolvable
+            return new SolverResult(null, null, null, SolveStatus.UNDECIDED_SEARCH_STOPPED, 0, SolveQuality.BEST_EFFORT);
+        }
+        return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES);
+    }
+
+    /**
+     * Checks if the given program instructions solve the level. Levels that fit into a {@link BitBoard} are simulated
+     * on the board without creating any moves, bigger levels are fast-forwarded on a copy of the level.
+     * <p>
+     * This method is package-private for test-purposes
+     *
+     * @param level               level to solve
+     * @param programInstructions program instructions, the procedures must not call themselves or each other
+     * @return true if the program collects every coin and ends with a successful exit
+     */
+    static boolean isSolution(Level level, List<Instruction> programInstructions) {
+        if (BitBoard.fits(level)) {
+            BitBoard board = new BitBoard(level);
+            Action action = Action.LOOSE_NO_ACTIONS;
+            for (Instruction instruction : programInstructions) {
+                if (action == Action.EXIT) {
+                    // there are instructions after the exit
+                    return false;
+                }
+                action = instruction.execute(board);
+                if (action.isLost()) {
+                    return false;
+                }
+            }
+            return action == Action.EXIT;
+        }
+
+        ConversionSummary summary = CompiledProgram.compile(programInstructions).fastForward(level.getLevelCopy());
+        return summary.getFinalAction() == Action.WIN && !summary.hasLostMoves();
+    }
+
+    /**
+     * Uses the {@link #floodFill(Level, boolean[], FloodFillMap)} and the {@link #createInstructions(Level, FloodFillMap, boolean)}
+     * methods to create a list of instructions from the bots starting position to the last coin, while collecting all
+     * other coins on the way.
+     * <p>
+     * This method is package-private for test-purposes
      *
      * @param level level in which the coins should be collected
      * @return list of instructions that are needed to reach every coin from the bots starting position, or null if
      * there was at least one unreachable coin
      */
     static List<Instruction> createInstructionsToReachAllCoins(Level level) {
+        return createInstructionsToReachAllCoins(level, new FloodFillMap(new MovementGraph(level)));
+    }
+
+    /**
+     * Creates the instructions to reach every coin, reusing one flood fill map for every coin.
+     *
+     * @param level        level in which the coins should be collected
+     * @param floodFillMap map over the movement graph of the level
+     * @return list of instructions that are needed to reach every coin from the bots starting position, or null if
+     * there was at least one unreachable coin
+     */
+    private static List<Instruction> createInstructionsToReachAllCoins(Level level, FloodFillMap floodFillMap) {
         int coinsInLevel = level.getCoinAmount();
         List<Instruction> instructions = new ArrayList<>();
+        boolean[] coins = findCells(level, FieldType.COIN);
         boolean coinsReachable = true;
 
         // try to create the instructions needed to reach all coins
         // after every iteration the starting position will be set to the last found coin
         while (coinsReachable && coinsInLevel > 0) {
-            int[][] pathToCoin = floodFill(level, FieldType.COIN);
-            List<Instruction> instructionsToCoin = createInstructions(level, pathToCoin, true);
+            floodFill(level, coins, floodFillMap);
+            List<Instruction> instructionsToCoin = createInstructions(level, floodFillMap, true);
 
             if (instructionsToCoin == null) {
                 coinsReachable = false;
@@ -118,232 +538,129 @@ public class LevelSolver {
     }
 
     /**
-     * Applies the FloodFill-algorithm to the given level. The result will be an array of steps from the start, over every
+     * Applies the FloodFill-algorithm to the given level. The result will be a map of steps from the start, over every
      * coin, to the door.
      * <p>
      * This method is package-private for test-purposes
      *
-     * @param level level to apply FloodFill on
-     * @return array of steps from the start, over every coin, to the door
+     * @param level  level to apply FloodFill on
+     * @param stopAt field type to stop at
+     * @return map of steps from the start, over every coin, to the door
      */
-    static int[][] floodFill(Level level, FieldType stopAt) {
-        // initialize level
-        int gameWidth = level.getGameField().length;
-        int[][] levelRep = new int[gameWidth][gameWidth];
-        for (int[] ints : levelRep) {
-            Arrays.fill(ints, -1);
-        }
-        levelRep[level.getCurrentBotPosition().getRow()][level.getCurrentBotPosition().getCol()] = 0;
-
-        // initialize the flood fill stack with the starting field
-        // the stack represents the cell positions we still have to check
-        Queue<Coord> cells = new LinkedList<>();
-        cells.add(level.getCurrentBotPosition());
-
-        boolean endFound = false;
-        Coord lastCellPos = null;
-
-        // go through the stack of cell coordinates until stopAt was found or there is no new field to check
-        while (!endFound && !cells.isEmpty()) {
-            Coord lastCell = cells.remove();
-            lastCellPos = lastCell;
-            int row = lastCell.getRow();
-            int col = lastCell.getCol();
-
-            // check what FieldType is at the coordinate
-            FieldType cellValue = level.getGameFieldCell(row, col);
+    static FloodFillMap floodFill(Level level, FieldType stopAt) {
+        FloodFillMap floodFillMap = new FloodFillMap(new MovementGraph(level));
+        floodFill(level, findCells(level, stopAt), floodFillMap);
+        return floodFillMap;
+    }
 
-            if (cellValue == stopAt) {
-                // stop when finding the field type we want to stop at
-                endFound = true;
-            } else {
-                // if we have not been on that field before, mark it with the amount of steps to reach it
-                // and continue by adding that fields neighbours to the stack
-                List<Coord> adjacentCells = List.of(
-                        new Coord(row + 1, col),
-                        new Coord(row - 1, col),
-                        new Coord(row, col - 1),
-                        new Coord(row, col + 1)
-                );
-
-                // check every neighbor for more passable fields
-                for (Coord cell : adjacentCells) {
-                    // check the cells coordinate bounds
-                    if (cell.getRow() >= 0 && cell.getRow() < levelRep.length && cell.getCol() >= 0 && cell.getCol() < levelRep[cell.getRow()].length && levelRep[cell.getRow()][cell.getCol()] == -1) {
-                        FieldType currentCellType = level.getGameFieldCell(cell.getRow(), cell.getCol());
-                        if (currentCellType == FieldType.NORMAL || currentCellType == FieldType.START || (currentCellType == stopAt)) {
-                            // the field is a valid field to walk onto
-                            cells.add(cell);
-                            levelRep[cell.getRow()][cell.getCol()] = levelRep[row][col] + 1;
-                        } else if (currentCellType == FieldType.GAP) {
-                            // get the cell behind the gap (in the direction we are currently facing)
-                            Coord cellAfterGap = new Coord(
-                                    cell.getRow() + (cell.getRow() - row),
-                                    cell.getCol() + (cell.getCol() - col)
-                            );
-                            // check if the bot is able to land on the field after the gap
-                            if (cellAfterGap.getRow() >= 0 && cellAfterGap.getRow() < levelRep.length && cellAfterGap.getCol() >= 0 && cellAfterGap.getCol() < levelRep[cellAfterGap.getRow()].length && levelRep[cellAfterGap.getRow()][cellAfterGap.getCol()] == -1) {
-                                FieldType cellAfterGapValue = level.getGameFieldCell(cellAfterGap.getRow(), cellAfterGap.getCol());
-                                if (cellAfterGapValue == FieldType.NORMAL || cellAfterGapValue == FieldType.START || (cellAfterGapValue == stopAt)) {
-                                    // the bot can land on that field
-                                    levelRep[cell.getRow()][cell.getCol()] = levelRep[row][col] + 1;
-                                    cells.add(cellAfterGap);
-                                    levelRep[cellAfterGap.getRow()][cellAfterGap.getCol()] = levelRep[row][col] + 1;
-                                }
-                            }
-                        }
-                    }
-                }
+    /**
+     * Applies the FloodFill-algorithm to the given level, reusing the given map ({@link FloodFillMap#fill(int, boolean[])}).
+     * If the end was found, the bot is moved onto it and a coin at the end is collected. The end is removed from the
+     * stop cells, so that the search for a possible next coin does not find this coin again.
+     *
+     * @param level        level to apply FloodFill on
+     * @param stopCells    flags of the cells to stop at
+     * @param floodFillMap map to fill, the previous fill is discarded
+     */
+    private static void floodFill(Level level, boolean[] stopCells, FloodFillMap floodFillMap) {
+        if (floodFillMap.fill(Coord.convertCoordToIndex(level.getCurrentBotPosition(), level.getCols()), stopCells)) {
+            Coord end = floodFillMap.getEnd();
+            level.moveToCell(end);
+            if (level.getGameFieldCell(end.getRow(), end.getCol()) == FieldType.COIN) {
+                level.collectCoin();
             }
+            stopCells[Coord.convertCoordToIndex(end, level.getCols())] = false;
         }
+    }
 
-        // if we found the end, and it was a coin, we can move there to set that field to our new starting position
-        // we also have to collect the coin so that the search for a possible next coin does not find this coin again
-        if (endFound) {
-            level.moveToCell(lastCellPos);
-            if (level.getGameFieldCell(lastCellPos.getRow(), lastCellPos.getCol()) == FieldType.COIN) {
-                level.collectCoin();
-            }
+    /**
+     * Marks every cell of a field type.
+     *
+     * @param level     level to search the cells in
+     * @param fieldType field type to search
+     * @return flag of every cell ({@code row * columns + col}), true for the cells of the field type
+     */
+    private static boolean[] findCells(Level level, FieldType fieldType) {
+        boolean[] cells = new boolean[level.getRows() * level.getCols()];
+        for (Coord coord : level.allOccurrencesOfField(fieldType)) {
+            cells[Coord.convertCoordToIndex(coord, level.getCols())] = true;
         }
-        return levelRep;
+        return cells;
     }
 
     /**
      * Creates instructions from a given FloodFill step representation of the player, which can be used to solve the level.
+     * The path is followed along the movement graph edges the cells were reached with, every edge is one walk or jump
+     * instruction after turning the bot into its direction.
      * <br><br>
      * This method is package-private for test-purposes
      * <br><br>
      *
-     * @param floodFillRep array of steps from start to end, generated by applying FloodFill onto the current level
-     * @param level        Level instance where the level.currentBotPosition represents the instruction destination
-     * @return list of instructions to solve the level
-     */
-    static List<Instruction> createInstructions(Level level, int[][] floodFillRep, boolean stepOntoLast) {
-        Coord currPos = level.getCurrentBotPosition();
-        Coord endPos = findStartingPosition(floodFillRep);
-        Deque<Coord> wayCoords = new ArrayDeque<>();
-        wayCoords.add(currPos);
-
-        // get the coordinates of all passable cells
-        Coord last = wayCoords.peekLast();
-        while (currPos != null && last != null && !currPos.equals(endPos)) {
-            Coord nextNeighbour = null;
-
-            List<Coord> possibleNeighbors = new ArrayList<>();
-            if (level.getGameFieldCell(currPos.getRow(), currPos.getCol()) == FieldType.GAP) {
-                // only add the neighbor in the current direction -> can not jump around corners
-                Coord dirVec = new Coord(currPos.getRow() - last.getRow(), currPos.getCol() - last.getCol());
-                possibleNeighbors.add(new Coord(currPos.getRow() + dirVec.getRow(), currPos.getCol() + dirVec.getCol()));
-            } else {
-                // check all four neighbors
-                possibleNeighbors.add(new Coord(currPos.getRow() + 1, currPos.getCol()));
-                possibleNeighbors.add(new Coord(currPos.getRow() - 1, currPos.getCol()));
-                possibleNeighbors.add(new Coord(currPos.getRow(), currPos.getCol() - 1));
-                possibleNeighbors.add(new Coord(currPos.getRow(), currPos.getCol() + 1));
-            }
-
-            for (Coord neighbor : possibleNeighbors) {
-                // see if the neighbor coordinate is in bounds
-                int row = neighbor.getRow();
-                int col = neighbor.getCol();
-                if (row >= 0 && row < floodFillRep.length && col >= 0 && col < floodFillRep[row].length) {
-                    // get the next neighbor by finding the next smaller (or equal) number in the flood fill representation
-                    if (floodFillRep[row][col] != -1 && floodFillRep[row][col] <= floodFillRep[currPos.getRow()][currPos.getCol()]
-                            && !neighbor.equals(last)) {
-                        nextNeighbour = neighbor;
-                    }
-                }
-            }
-
-            last = wayCoords.peekLast();
-            if (nextNeighbour == null) {
-                // Happens when the current position is a gap, and we can not jump over the gap (neighbor blocked).
-                // In this case we want to go back to our previous cell and continue with a different path than the path
-                // we just took (do not want to check the same gap again)
-                Coord temp = last;
-                last = currPos;
-                currPos = temp;
-            } else {
-                // if we found a neighbor, and it is not a gap, we want to add it to our queue of passable coordinates
-                if (level.getGameFieldCell(nextNeighbour.getRow(), nextNeighbour.getCol()) != FieldType.GAP) {
-                    wayCoords.add(nextNeighbour);
-                }
-                currPos = nextNeighbour;
-            }
+     * @param floodFillMap map of steps from start to end, generated by applying FloodFill onto the current level
+     * @param level        Level instance whose bot rotation is turned along the path
+     * @param stepOntoLast true to step onto the end of the path, false to exit at the end of the path (the door)
+     * @return list of instructions to solve the level, or null if the fill did not find its end
+     */
+    static List<Instruction> createInstructions(Level level, FloodFillMap floodFillMap, boolean stepOntoLast) {
+        int[] pathEdges = floodFillMap.findPathEdges();
+        if (pathEdges == null || pathEdges.length == 0) {
+            return null;
         }
 
-        currPos = wayCoords.pollLast();
+        MovementGraph graph = floodFillMap.getGraph();
         BotRotation currBotRotation = level.getBotRotation();
         List<Instruction> instructions = new ArrayList<>();
-
-        assert currPos != null;
-        while (!wayCoords.isEmpty()) {
-            Coord nextPos = wayCoords.pollLast();
-
+        for (int i = 0; i < pathEdges.length; i++) {
             // if we are not facing in the direction of the next cell, we need to add rotate instructions until the bot
             // is looking in the right direction
-            if (!Coord.getNextCoord(currPos, currBotRotation).equals(nextPos)) {
-                // get the new rotation to face the next cell
-                BotRotation newRotation = BotRotation.getRotationChange(currPos, nextPos);
-
-                // count how often the bot needed to turn to get the new rotation
-                int turnCount = 0;
-                while (currBotRotation != newRotation) {
-                    currBotRotation = currBotRotation.rotateLeft();
-                    level.setBotRotation(currBotRotation);
-                    turnCount++;
-                }
-
-                if (turnCount > 2) {
-                    // 3 turns to the left can be simplified by turning to the right once
-                    instructions.add(TurnRight.getSingleton());
-                } else {
-                    // add one or two left turns depending on how often the bot needs to turn
-                    for (int i = 0; i < turnCount; i++) {
-                        instructions.add(TurnLeft.getSingleton());
-                    }
-                }
+            BotRotation direction = BotRotation.values()[graph.getEdgeDirection(pathEdges[i])];
+            if (currBotRotation != direction) {
+                currBotRotation = addTurnInstructions(instructions, currBotRotation, direction);
+                level.setBotRotation(currBotRotation);
             }
 
-            int diff = Coord.calculateCoordDifference(currPos, nextPos);
-            if (wayCoords.size() >= 1) {
-                // depending on the cell difference between the two coordinates we decide whether the bot has to walk or jump
-                if (diff == 1) {
-                    instructions.add(Walk.getSingleton());
-                } else if (diff == 2) {
-                    instructions.add(Jump.getSingleton());
-                }
+            boolean jump = graph.getEdgeType(pathEdges[i]) == MovementGraph.JUMP;
+            if (i < pathEdges.length - 1 || stepOntoLast) {
+                // depending on the edge type we decide whether the bot has to walk or jump
+                instructions.add(jump ? Jump.getSingleton() : Walk.getSingleton());
             } else {
-                // if we want to create the instructions to reach a coin, our last instruction would be walking or jump
-                // onto the coin (depends on the next field -> diff > 1 means that the next field is a gap)
                 // if we want to create the instructions to reach the door, our last instruction would be to exit
-                instructions.add(stepOntoLast ? (diff > 1 ? Jump.getSingleton() : Walk.getSingleton()) : Exit.getSingleton());
+                instructions.add(Exit.getSingleton());
             }
-
-            currPos = nextPos;
         }
 
-        return instructions.isEmpty() ? null : instructions;
+        return instructions;
     }
 
     /**
-     * Finds the starting position of a flood fill representation. In the flood fill representation the starting point
-     * is represented as a 0.
+     * Adds the turn instructions needed to rotate the bot from its current rotation to a new rotation.
+     * Three turns to the left are simplified by a single turn to the right.
      * <p>
+     * This method is package-private so that every solver mode creates the same turn instructions
      *
-     * @param floodFillRep representation to find the start of
-     * @return start coordinate or null if there is no start
+     * @param instructions list of instructions to add the turn instructions to
+     * @param current      current bot rotation
+     * @param target       bot rotation after turning
+     * @return the new bot rotation, which is always the target rotation
      */
-    static Coord findStartingPosition(int[][] floodFillRep) {
-        Coord pos = null;
+    static BotRotation addTurnInstructions(List<Instruction> instructions, BotRotation current, BotRotation target) {
+        // count how often the bot needed to turn to get the new rotation
+        int turnCount = 0;
+        while (current != target) {
+            current = current.rotateLeft();
+            turnCount++;
+        }
 
-        for (int i = 0; pos == null && i < floodFillRep.length; i++) {
-            for (int j = 0; pos == null && j < floodFillRep[i].length; j++) {
-                pos = (floodFillRep[i][j] == 0) ? new Coord(i, j) : null;
+        if (turnCount > 2) {
+            // 3 turns to the left can be simplified by turning to the right once
+            instructions.add(TurnRight.getSingleton());
+        } else {
+            // add one or two left turns depending on how often the bot needs to turn
+            for (int i = 0; i < turnCount; i++) {
+                instructions.add(TurnLeft.getSingleton());
             }
         }
-
-        return pos;
+        return current;
     }
 
     /**
@@ -355,11 +672,26 @@ public class LevelSolver {
      * @return SolverResult containing the program and procedure instructions with a SOLVED status or null for the instructions and a UNSOLVABLE status if the level is not solvable.
      */
     static SolverResult splitInstructionsToProgramAndProcedures(List<Instruction> instructions) {
+        return splitInstructionsToProgramAndProcedures(instructions, 0, SolveQuality.BEST_EFFORT);
+    }
+
+    /**
+     * Converts the given instructions of a searching solver mode to program and procedure instructions.
+     *
+     * @param instructions  instructions to reduce into program and procedure instructions
+     * @param expandedNodes amount of states the search expanded to find the instructions
+     * @param quality       quality of the instructions
+     * @return SolverResult containing the program and procedure instructions with a SOLVED status or null for the instructions and a UNSOLVABLE status if the level is not solvable.
+     */
+    private static SolverResult splitInstructionsToProgramAndProcedures(List<Instruction> instructions, int expandedNodes, SolveQuality quality) {
         List<Instruction> programInstructions = new ArrayList<>();
         ProcedureOne procedureOne = new ProcedureOne();
         ProcedureTwo procedureTwo = new ProcedureTwo();
 
-        if (instructions.size() <= MAX_PROGRAM_INSTRUCTIONS) {
+        if (instructions.size() > MAX_EXPANDED_INSTRUCTIONS) {
+            // e.g. the path through a big level, which can never be reduced, so no sub-list has to be searched
+            return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES, expandedNodes, quality);
+        } else if (instructions.size() <= MAX_PROGRAM_INSTRUCTIONS) {
             // no need to split the instructions into procedures
             programInstructions.addAll(instructions);
         } else {
@@ -379,11 +711,11 @@ public class LevelSolver {
 
             // check if there are too many instructions to fit into the program instruction container
             if (programInstructions.size() > MAX_PROGRAM_INSTRUCTIONS) {
-                return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES);
+                return new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES, expandedNodes, quality);
             }
         }
 
-        return new SolverResult(programInstructions, procedureOne, procedureTwo, SolveStatus.SOLVABLE);
+        return new SolverResult(programInstructions, procedureOne, procedureTwo, SolveStatus.SOLVABLE, expandedNodes, quality);
     }
 
     /**
@@ -425,36 +757,42 @@ public class LevelSolver {
      * @return most common sub-list in {@code instructions}
      */
     static List<Instruction> findMostCommonSublist(List<Instruction> instructions) {
-        Map<List<Instruction>, Integer> occurrences = findOccurrencesOfPermutations(instructions);
-
         List<Instruction> mostCommonSublist = new ArrayList<>();
         if (instructions == null || instructions.isEmpty()) {
             // empty lists do not have a sub-list
             return mostCommonSublist;
-        } else if (occurrences.isEmpty()) {
+        } else if (instructions.size() < 2) {
             // if there is only one instruction left, then there will be no other permutations as the instruction itself
             return new ArrayList<>(instructions);
         } else {
-            // create comparators to compare all the permutations and their occurrences
-            Comparator<Map.Entry<List<Instruction>, Integer>> compareByTotalInstructionSize = Comparator.comparing(entry -> entry.getKey().size() * entry.getValue());
-            Comparator<Map.Entry<List<Instruction>, Integer>> compareByPrecedingInstructionSize = Comparator.comparingInt(entry -> entry.getKey().size());
-
-            // get the most common sub-list
-            Optional<Map.Entry<List<Instruction>, Integer>> mostCommonPermutation = occurrences.entrySet().stream()
-                    .max(compareByTotalInstructionSize.thenComparing(compareByPrecedingInstructionSize));
-
-            // compare the largest subset with the most common one to get the most efficient subset
-            if (mostCommonPermutation.isPresent()) {
-                mostCommonSublist = mostCommonPermutation.get().getKey();
+            RepeatFinder finder = new RepeatFinder(instructions);
+
+            // get the sub-list replacing the most instructions, preferring the larger sub-list if two replace the same
+            // amount of instructions and the earlier one if they are also of the same size
+            RepeatFinder.Sequence mostCommon = null;
+            for (RepeatFinder.Sequence sequence : finder.findSequences(2, MAX_PROCEDURE_INSTRUCTIONS)) {
+                if (mostCommon == null || compareBySavings(sequence, mostCommon) > 0) {
+                    mostCommon = sequence;
+                }
             }
 
-            return mostCommonSublist;
+            return finder.getInstructions(mostCommon);
         }
+    }
 
+    /**
+     * Compares two sub-lists by the total amount of instructions in all their occurrences and then by their size.
+     *
+     * @return positive value if the first sub-list replaces more instructions than the second one
+     */
+    private static int compareBySavings(RepeatFinder.Sequence a, RepeatFinder.Sequence b) {
+        int compareByTotalInstructionSize = Integer.compare(a.getSize() * a.getOccurrences(), b.getSize() * b.getOccurrences());
+        return compareByTotalInstructionSize != 0 ? compareByTotalInstructionSize : Integer.compare(a.getSize(), b.getSize());
     }
 
     /**
-     * Takes a list of instructions and counts the occurrences of every permutation found by {@link #getPermutations}.
+     * Takes a list of instructions and counts the non-overlapping occurrences of every permutation found by
+     * {@link #getPermutations}.
      * <p>
      * This method is package-private for test-purposes
      *
@@ -463,20 +801,10 @@ public class LevelSolver {
      */
     static Map<List<Instruction>, Integer> findOccurrencesOfPermutations(List<Instruction> instructions) {
         Map<List<Instruction>, Integer> occurrences = new HashMap<>();
-        List<Instruction> instructionsCopy = new ArrayList<>(instructions);
-        List<List<Instruction>> permutations = getPermutations(instructionsCopy);
-
-        for (List<Instruction> permutation : permutations) {
-            int idxOfSublist = Collections.indexOfSubList(instructionsCopy, permutation);
-            int occs = 0;
-            while (idxOfSublist != -1) {
-                occs++;
-                instructionsCopy.subList(idxOfSublist, idxOfSublist + permutation.size()).clear();
-                idxOfSublist = Collections.indexOfSubList(instructionsCopy, permutation);
-            }
-            occurrences.put(permutation, occs);
-            instructionsCopy = new ArrayList<>(instructions);
+        RepeatFinder finder = new RepeatFinder(instructions);
 
+        for (RepeatFinder.Sequence sequence : finder.findSequences(2, MAX_PROCEDURE_INSTRUCTIONS)) {
+            occurrences.put(finder.getInstructions(sequence), sequence.getOccurrences());
         }
         return occurrences;
     }
@@ -493,48 +821,17 @@ public class LevelSolver {
      * This method is package-private for test-purposes
      *
      * @param instructions instructions to get the permutations from
-     * @return all permutations of the given instruction list within a range of 2 - {@value MAX_PROCEDURE_INSTRUCTIONS}
+     * @return all permutations of the given instruction list within a range of 2 - {@value MAX_PROCEDURE_INSTRUCTIONS},
+     * ordered by their size and then by their first occurrence
      */
     static List<List<Instruction>> getPermutations(List<Instruction> instructions) {
         List<List<Instruction>> permutations = new ArrayList<>();
+        RepeatFinder finder = new RepeatFinder(instructions);
 
-        // finds all permutations of the size 2 to max procedure size
-        for (int i = 2; i <= MAX_PROCEDURE_INSTRUCTIONS; i++) {
-            List<List<Instruction>> windows = buildSlidingWindows(instructions, i);
-            for (List<Instruction> pattern : windows) {
-                if (!permutations.contains(pattern)) {
-                    permutations.add(pattern);
-                }
-            }
+        for (RepeatFinder.Sequence sequence : finder.findSequences(2, MAX_PROCEDURE_INSTRUCTIONS)) {
+            permutations.add(finder.getInstructions(sequence));
         }
-
         return permutations;
     }
 
-    /**
-     * Performs the sliding window algorithm on a given list of instructions, with a given window size.
-     * The sliding window algorithm starts by creating a first sub-list, from the given list, of the specified windowSize.
-     * After that, it slides one element further in the list (hence the name :D) and creates another sub-list.
-     * The algorithm ends, when every element of the given list is in at least one window.
-     * <br><br>
-     * This method is package-private for test-purposes
-     * <br><br>
-     *
-     * @param instructions list of instructions to execute the sliding window algorithm on
-     * @param windowSize   size of each sub-list (window)
-     * @return list of every sub-list in the instruction list, with a size of windowSize
-     */
-    static List<List<Instruction>> buildSlidingWindows(List<Instruction> instructions, int windowSize) {
-        List<List<Instruction>> slidingWindows = new ArrayList<>();
-        for (int i = 0; i < (instructions.size() - windowSize + 1); i++) {
-            int to = i + windowSize;
-            List<Instruction> window = new ArrayList<>();
-            for (int j = i; j < to; j++) {
-                window.add(instructions.get(j));
-            }
-            slidingWindows.add(window);
-        }
-        return slidingWindows;
-    }
-
 }
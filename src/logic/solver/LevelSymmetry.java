@@ -0,0 +1,125 @@
+package logic.solver;
+
+import logic.instructions.Instruction;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.level.BotRotation;
+import logic.level.FieldType;
+import logic.level.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Symmetries of the game field, the 8 transforms of the dihedral group: the 4 quarter turns, each with and without
+ * mirroring the columns first.
+ * <p>
+ * Every instruction moves or turns the bot relative to its own rotation, so a program solving a level also solves
+ * every rotated copy of it when the bot rotation is rotated as well. Mirroring swaps left and right, so a mirrored
+ * copy is solved by the same program with every {@link TurnLeft} and {@link TurnRight} swapped.
+ *
+ * @author Timo Peters
+ */
+class LevelSymmetry {
+
+    /**
+     * Amount of transforms
+     */
+    static final int TRANSFORMS = 8;
+
+    /**
+     * Cached bot rotations, so that looking up a rotation does not need to copy the values array
+     */
+    private static final BotRotation[] ROTATIONS = BotRotation.values();
+
+    private LevelSymmetry() {
+    }
+
+    /**
+     * Creates a transformed copy of a level.
+     *
+     * @param level     level to transform
+     * @param transform transform from 0 to 7, the lower two bits are the quarter turns clockwise, transforms from 4
+     *                  on mirror the columns before turning
+     * @return transformed level
+     */
+    static Level transform(Level level, int transform) {
+        FieldType[][] field = level.getGameField();
+        int rotation = level.getBotRotation().ordinal();
+
+        if (isMirror(transform)) {
+            FieldType[][] mirrored = new FieldType[field.length][];
+            for (int row = 0; row < field.length; row++) {
+                mirrored[row] = new FieldType[field[row].length];
+                for (int col = 0; col < field[row].length; col++) {
+                    mirrored[row][field[row].length - 1 - col] = field[row][col];
+                }
+            }
+            field = mirrored;
+            // east and west swap, north and south stay
+            rotation = (ROTATIONS.length - rotation) % ROTATIONS.length;
+        }
+
+        for (int turn = 0; turn < (transform & 3); turn++) {
+            FieldType[][] turned = new FieldType[field[0].length][field.length];
+            for (int row = 0; row < field.length; row++) {
+                for (int col = 0; col < field[row].length; col++) {
+                    turned[col][field.length - 1 - row] = field[row][col];
+                }
+            }
+            field = turned;
+            rotation = (rotation + 1) % ROTATIONS.length;
+        }
+        return new Level(field, ROTATIONS[rotation]);
+    }
+
+    /**
+     * Checks if a transform mirrors the game field, so that left and right turns of programs have to be swapped.
+     *
+     * @param transform transform from 0 to 7
+     * @return true if the transform mirrors the columns
+     */
+    static boolean isMirror(int transform) {
+        return transform >= 4;
+    }
+
+    /**
+     * Finds the transform leading to the canonical form of a level, which is the transformed level with the smallest
+     * zobrist hash. All rotated and mirrored copies of a level have the same canonical form.
+     *
+     * @param level level to find the canonical transform of
+     * @return first transform with the smallest zobrist hash
+     */
+    static int findCanonicalTransform(Level level) {
+        int canonical = 0;
+        long minHash = level.getZobristHash();
+        for (int transform = 1; transform < TRANSFORMS; transform++) {
+            long hash = transform(level, transform).getZobristHash();
+            if (hash < minHash) {
+                minHash = hash;
+                canonical = transform;
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Swaps the left and right turns of instructions, so that they solve the mirrored level.
+     *
+     * @param instructions instructions to mirror, procedure calls are kept as they are
+     * @return new list of mirrored instructions
+     */
+    static List<Instruction> mirror(List<Instruction> instructions) {
+        List<Instruction> mirrored = new ArrayList<>(instructions.size());
+        for (Instruction instruction : instructions) {
+            if (instruction instanceof TurnLeft) {
+                mirrored.add(TurnRight.getSingleton());
+            } else if (instruction instanceof TurnRight) {
+                mirrored.add(TurnLeft.getSingleton());
+            } else {
+                mirrored.add(instruction);
+            }
+        }
+        return mirrored;
+    }
+}
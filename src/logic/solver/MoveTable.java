@@ -0,0 +1,232 @@
+package logic.solver;
+
+import logic.level.Coord;
+import logic.level.FieldType;
+import logic.level.Level;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precalculated moves of a level, used by the searching solver modes to simulate instructions without accessing the
+ * level again.
+ * <p>
+ * The table is the (cell, rotation) layer of the {@link MovementGraph}: every walk or jump edge of a cell becomes the
+ * move of the rotation facing in its direction, and turning is a change of the rotation bits of a state.
+ * <p>
+ * A simulation state combines the bots cell, its rotation and the coins collected so far. Every state is packed into
+ * an int ({@code ((coinMask * cells + cell) << 2) | rotation}), so the searches can keep their bookkeeping in flat
+ * primitive arrays indexed by the state.
+ *
+ * @author Timo Peters
+ */
+class MoveTable {
+
+    /**
+     * Amount of bot rotations, used to pack the rotation into the two lowest state bits
+     */
+    static final int ROTATIONS = 4;
+
+    /**
+     * Amount of cells in the game field
+     */
+    private final int cells;
+
+    /**
+     * Coin bit of every cell, or -1 if there is no coin on that cell
+     */
+    private final int[] coinBits;
+
+    /**
+     * Coin mask with every coin collected
+     */
+    private final int allCoins;
+
+    /**
+     * Cell the bot walks onto for every (cell, rotation), or -1 if it can not walk
+     */
+    private final int[] walkTargets;
+
+    /**
+     * Cell the bot lands on for every (cell, rotation), or -1 if it can not jump
+     */
+    private final int[] jumpTargets;
+
+    /**
+     * Flags indicating if the bot faces the door for every (cell, rotation)
+     */
+    private final boolean[] facingDoor;
+
+    /**
+     * Packed starting state
+     */
+    private final int startState;
+
+    /**
+     * Total amount of states
+     */
+    private final long stateCount;
+
+    /**
+     * Constructor to calculate the moves of every (cell, rotation) of a given level.
+     *
+     * @param level level to calculate the moves for. The level has to be valid ({@link Level#validateLevel()})
+     */
+    MoveTable(Level level) {
+        this(level, new MovementGraph(level));
+    }
+
+    /**
+     * Constructor to calculate the moves of every (cell, rotation) from the movement graph of a given level.
+     *
+     * @param level level to calculate the moves for. The level has to be valid ({@link Level#validateLevel()})
+     * @param graph movement graph of the level
+     */
+    MoveTable(Level level, MovementGraph graph) {
+        int cols = level.getCols();
+        this.cells = graph.getNodeCount();
+
+        this.coinBits = new int[cells];
+        Arrays.fill(coinBits, -1);
+        List<Coord> coins = level.allOccurrencesOfField(FieldType.COIN);
+        for (int coin = 0; coin < coins.size(); coin++) {
+            coinBits[Coord.convertCoordToIndex(coins.get(coin), cols)] = coin;
+        }
+        this.allCoins = (1 << coins.size()) - 1;
+        this.stateCount = countStates(level);
+
+        this.walkTargets = new int[cells * ROTATIONS];
+        this.jumpTargets = new int[cells * ROTATIONS];
+        this.facingDoor = new boolean[cells * ROTATIONS];
+        Arrays.fill(walkTargets, -1);
+        Arrays.fill(jumpTargets, -1);
+        for (int cell = 0; cell < cells; cell++) {
+            for (int edge = graph.getEdgeStart(cell); edge < graph.getEdgeEnd(cell); edge++) {
+                int idx = cell * ROTATIONS + graph.getEdgeDirection(edge);
+                int target = graph.getEdgeTarget(edge);
+                if (!graph.isStandable(target)) {
+                    // the only cell the bot can move towards without standing on it is the door
+                    facingDoor[idx] = graph.getEdgeType(edge) == MovementGraph.WALK;
+                } else if (graph.getEdgeType(edge) == MovementGraph.WALK) {
+                    walkTargets[idx] = target;
+                } else {
+                    jumpTargets[idx] = target;
+                }
+            }
+        }
+
+        this.startState = pack(0, Coord.convertCoordToIndex(level.getCurrentBotPosition(), cols), level.getBotRotation().ordinal());
+    }
+
+    /**
+     * Calculates the amount of states of a level without building the move table, so that levels which are too big
+     * for a search can be skipped without calculating any move.
+     *
+     * @param level level to count the states of
+     * @return amount of (coin mask, cell, rotation) states, or {@link Long#MAX_VALUE} if it does not fit into a long
+     */
+    static long countStates(Level level) {
+        int coins = level.countOccurrencesOfField(FieldType.COIN);
+        long cells = (long) level.getRows() * level.getCols();
+        return coins < Integer.SIZE - 1 ? (cells * ROTATIONS) << coins : Long.MAX_VALUE;
+    }
+
+    /**
+     * Simulates the walk instruction.
+     *
+     * @param state packed state before walking
+     * @return packed state after walking, or -1 if the bot can not walk
+     */
+    int walk(int state) {
+        return moveTo(state, walkTargets[moveIndex(state)]);
+    }
+
+    /**
+     * Simulates the jump instruction.
+     *
+     * @param state packed state before jumping
+     * @return packed state after jumping, or -1 if the bot can not jump
+     */
+    int jump(int state) {
+        return moveTo(state, jumpTargets[moveIndex(state)]);
+    }
+
+    /**
+     * Simulates the turn left instruction.
+     *
+     * @param state packed state before turning
+     * @return packed state after turning
+     */
+    int turnLeft(int state) {
+        return (state & ~(ROTATIONS - 1)) | ((state + ROTATIONS - 1) & (ROTATIONS - 1));
+    }
+
+    /**
+     * Simulates the turn right instruction.
+     *
+     * @param state packed state before turning
+     * @return packed state after turning
+     */
+    int turnRight(int state) {
+        return (state & ~(ROTATIONS - 1)) | ((state + 1) & (ROTATIONS - 1));
+    }
+
+    /**
+     * Checks if the exit instruction wins the level in the given state, which is the case if the bot faces the door and
+     * every coin was collected.
+     *
+     * @param state packed state
+     * @return true if the bot can exit
+     */
+    boolean canExit(int state) {
+        return coinMaskOf(state) == allCoins && facingDoor[moveIndex(state)];
+    }
+
+    /**
+     * Moves the bot onto a cell, collecting the coin on it if there is one.
+     *
+     * @param state packed state before moving
+     * @param cell  cell to move onto, or -1 if the move is not possible
+     * @return packed state after moving, or -1 if the move is not possible
+     */
+    private int moveTo(int state, int cell) {
+        if (cell == -1) {
+            return -1;
+        }
+        int coinMask = coinMaskOf(state);
+        if (coinBits[cell] != -1) {
+            coinMask |= 1 << coinBits[cell];
+        }
+        return pack(coinMask, cell, state & (ROTATIONS - 1));
+    }
+
+    /**
+     * Calculates the index of the (cell, rotation) of a state in the move arrays.
+     *
+     * @param state packed state
+     * @return index into walkTargets, jumpTargets and facingDoor
+     */
+    private int moveIndex(int state) {
+        return cellOf(state) * ROTATIONS + (state & (ROTATIONS - 1));
+    }
+
+    int pack(int coinMask, int cell, int rotation) {
+        return ((coinMask * cells + cell) << 2) | rotation;
+    }
+
+    int cellOf(int state) {
+        return (state >>> 2) % cells;
+    }
+
+    int coinMaskOf(int state) {
+        return (state >>> 2) / cells;
+    }
+
+    int getStartState() {
+        return startState;
+    }
+
+    long getStateCount() {
+        return stateCount;
+    }
+}
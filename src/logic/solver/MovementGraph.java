@@ -0,0 +1,238 @@
+package logic.solver;
+
+import logic.level.BotRotation;
+import logic.level.FieldType;
+import logic.level.Level;
+
+/**
+ * Movement graph of a level, compiled once so that the solver algorithms do not have to derive the legal moves from
+ * the game field again and again.
+ * <p>
+ * The nodes are the cells of the game field ({@code row * columns + col}). Every walk onto a neighbour cell and every
+ * jump over a gap is a typed edge, stored in compressed sparse row form: the edges of a node are the range
+ * {@code [getEdgeStart(node), getEdgeEnd(node))} of flat arrays holding the target cell, the move type and the
+ * direction of every edge. Edges only start at cells the bot is able to stand on and only end at cells the bot is able
+ * to stand on or at the door, so bounds, walls and the look-ahead over gaps are checked once while compiling.
+ * <p>
+ * The edges of a node are ordered by their direction (south, north, west, east), which is the order the flood fill
+ * always checked the neighbours of a cell in, so equally short paths are still found in the same order. Turning the
+ * bot does not change the cell, so the turns are not stored as edges: the (cell, rotation) layer with its turn edges
+ * is built from the walk and jump edges by the {@link MoveTable}.
+ *
+ * @author Timo Peters
+ */
+class MovementGraph {
+
+    /**
+     * Edge type of walking onto the neighbour cell
+     */
+    static final byte WALK = 0;
+
+    /**
+     * Edge type of jumping over a gap onto the cell behind it
+     */
+    static final byte JUMP = 1;
+
+    /**
+     * Cached bot rotations, so that looking up a rotation does not need to copy the values array
+     */
+    private static final BotRotation[] ROTATIONS = BotRotation.values();
+
+    /**
+     * Directions of the edges of a node, in the order they are stored in
+     */
+    private static final BotRotation[] EDGE_ORDER = {BotRotation.SOUTH, BotRotation.NORTH, BotRotation.WEST, BotRotation.EAST};
+
+    /**
+     * Amount of rows of the game field
+     */
+    private final int rows;
+
+    /**
+     * Amount of columns of the game field
+     */
+    private final int cols;
+
+    /**
+     * Index of the first edge of every node, the last entry is the total amount of edges
+     */
+    private final int[] edgeStarts;
+
+    /**
+     * Target cell of every edge
+     */
+    private final int[] edgeTargets;
+
+    /**
+     * Type of every edge ({@link #WALK} or {@link #JUMP})
+     */
+    private final byte[] edgeTypes;
+
+    /**
+     * Ordinal of the bot rotation facing in the direction of every edge
+     */
+    private final byte[] edgeDirections;
+
+    /**
+     * Flags of every cell the bot is able to stand on (normal, coin and start)
+     */
+    private final boolean[] standable;
+
+    /**
+     * Cell index offset of the neighbour cell in the direction of every bot rotation, indexed by the rotation ordinal
+     */
+    private final int[] neighbourOffsets = new int[ROTATIONS.length];
+
+    /**
+     * Constructor to compile the movement graph of a level.
+     *
+     * @param level level to compile
+     */
+    MovementGraph(Level level) {
+        this.rows = level.getRows();
+        this.cols = level.getCols();
+        int cells = rows * cols;
+        for (BotRotation rotation : ROTATIONS) {
+            neighbourOffsets[rotation.ordinal()] = rotation.getDirectionVector().getRow() * cols + rotation.getDirectionVector().getCol();
+        }
+
+        FieldType[] fieldTypes = new FieldType[cells];
+        this.standable = new boolean[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            fieldTypes[cell] = level.getGameFieldCell(cell / cols, cell % cols);
+            standable[cell] = canStandOn(fieldTypes[cell]);
+        }
+
+        // the first pass counts the edges of every node, the second one fills them in
+        this.edgeStarts = new int[cells + 1];
+        for (int cell = 0; cell < cells; cell++) {
+            int edges = 0;
+            for (int i = 0; standable[cell] && i < EDGE_ORDER.length; i++) {
+                edges += findTarget(fieldTypes, cell, EDGE_ORDER[i].ordinal()) != -1 ? 1 : 0;
+            }
+            edgeStarts[cell + 1] = edgeStarts[cell] + edges;
+        }
+
+        this.edgeTargets = new int[edgeStarts[cells]];
+        this.edgeTypes = new byte[edgeStarts[cells]];
+        this.edgeDirections = new byte[edgeStarts[cells]];
+        for (int cell = 0; cell < cells; cell++) {
+            int edge = edgeStarts[cell];
+            for (int i = 0; standable[cell] && i < EDGE_ORDER.length; i++) {
+                int direction = EDGE_ORDER[i].ordinal();
+                int target = findTarget(fieldTypes, cell, direction);
+                if (target != -1) {
+                    edgeTargets[edge] = target;
+                    edgeTypes[edge] = target == cell + neighbourOffsets[direction] ? WALK : JUMP;
+                    edgeDirections[edge] = (byte) direction;
+                    edge++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the cell the bot reaches with one step in the given direction. The bot walks onto the neighbour cell if it
+     * is able to stand on it or if it is the door, and it jumps over a gap if the cell behind it is such a cell.
+     *
+     * @param fieldTypes field type of every cell
+     * @param cell       cell the step starts at
+     * @param direction  ordinal of the bot rotation facing in the direction of the step
+     * @return target cell of the step, or -1 if the bot can not move in the direction
+     */
+    private int findTarget(FieldType[] fieldTypes, int cell, int direction) {
+        int next = getNeighbour(cell, direction);
+        if (next == -1) {
+            return -1;
+        } else if (isTarget(fieldTypes[next])) {
+            return next;
+        }
+
+        int landing = getNeighbour(next, direction);
+        return fieldTypes[next] == FieldType.GAP && landing != -1 && isTarget(fieldTypes[landing]) ? landing : -1;
+    }
+
+    private static boolean isTarget(FieldType fieldType) {
+        return canStandOn(fieldType) || fieldType == FieldType.DOOR;
+    }
+
+    /**
+     * Checks if the bot is able to stand on a cell of the given field type.
+     *
+     * @param fieldType field type to check
+     * @return true if the bot can walk onto or land on the field type
+     */
+    private static boolean canStandOn(FieldType fieldType) {
+        return fieldType == FieldType.NORMAL || fieldType == FieldType.COIN || fieldType == FieldType.START;
+    }
+
+    /**
+     * Returns the neighbour of a cell in the direction of a bot rotation.
+     *
+     * @param cell      cell index
+     * @param direction ordinal of the bot rotation
+     * @return cell index of the neighbour, or -1 if the neighbour is outside the game field
+     */
+    int getNeighbour(int cell, int direction) {
+        int row = cell / cols + ROTATIONS[direction].getDirectionVector().getRow();
+        int col = cell % cols + ROTATIONS[direction].getDirectionVector().getCol();
+        return row >= 0 && row < rows && col >= 0 && col < cols ? row * cols + col : -1;
+    }
+
+    int getEdgeStart(int node) {
+        return edgeStarts[node];
+    }
+
+    int getEdgeEnd(int node) {
+        return edgeStarts[node + 1];
+    }
+
+    int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    byte getEdgeType(int edge) {
+        return edgeTypes[edge];
+    }
+
+    int getEdgeDirection(int edge) {
+        return edgeDirections[edge];
+    }
+
+    /**
+     * Returns the cell an edge starts at.
+     *
+     * @param edge edge index
+     * @return cell index of the source of the edge
+     */
+    int getEdgeSource(int edge) {
+        int offset = neighbourOffsets[edgeDirections[edge]];
+        return edgeTargets[edge] - (edgeTypes[edge] == JUMP ? 2 * offset : offset);
+    }
+
+    /**
+     * Checks if the bot is able to stand on a cell, so that the edges ending at the cell can be used to move on.
+     *
+     * @param cell cell index
+     * @return true if the cell is a normal, coin or start cell
+     */
+    boolean isStandable(int cell) {
+        return standable[cell];
+    }
+
+    int getNodeCount() {
+        return standable.length;
+    }
+
+    int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCols() {
+        return cols;
+    }
+}
@@ -0,0 +1,519 @@
+package logic.solver;
+
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.Jump;
+import logic.instructions.Procedure;
+import logic.instructions.ProcedureOne;
+import logic.instructions.ProcedureTwo;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.Level;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches the program instructions and the instructions of procedure one and two directly, instead of reducing one
+ * flat list of instructions.
+ * <p>
+ * The candidates for the procedures are every short instruction sequence and every sub-list of the given reference
+ * instruction lists (e.g. the shortest path of the level). For every pair of candidates a breadth-first search over
+ * the program instructions is started, where every instruction, including a call of a procedure, costs one program
+ * instruction. The instructions are simulated on the precalculated {@link MoveTable} of a copy of the level, so every
+ * program prefix that makes the bot lose is pruned instantly and every state that was already reached with fewer
+ * program instructions is not visited again. The effect of a procedure is memoized per state.
+ * <p>
+ * Procedure candidates only consist of walk, jump and turn instructions, procedures calling each other are not searched.
+ *
+ * @author Timo Peters
+ */
+class ProgramSynthesizer {
+
+    /**
+     * Maximum amount of states the synthesizer is allowed to work with. Every state needs about 30 bytes.
+     */
+    static final int MAX_STATES = 1 << 18;
+
+    /**
+     * Maximum amount of states the synthesizer expands over all candidate pairs, before it gives up
+     */
+    static final int MAX_EXPANSIONS = 3_000_000;
+
+    /**
+     * Constant describing the maximum amount of program instructions
+     */
+    private static final int MAX_PROGRAM_INSTRUCTIONS = 12;
+
+    /**
+     * Constant describing the maximum amount of procedure instructions
+     */
+    private static final int MAX_PROCEDURE_INSTRUCTIONS = 8;
+
+    /**
+     * Every instruction sequence up to this length is a procedure candidate
+     */
+    private static final int MAX_ENUMERATED_PROCEDURE_INSTRUCTIONS = 3;
+
+    /**
+     * Amount of rated sub-lists of the reference instruction lists that are tried before the enumerated sequences
+     */
+    private static final int PREFERRED_CANDIDATES = 48;
+
+    /**
+     * Maximum amount of procedure candidates
+     */
+    private static final int MAX_CANDIDATES = 128;
+
+    /**
+     * Token of the walk instruction
+     */
+    private static final byte WALK = 0;
+
+    /**
+     * Token of the jump instruction
+     */
+    private static final byte JUMP = 1;
+
+    /**
+     * Token of the turn left instruction
+     */
+    private static final byte TURN_LEFT = 2;
+
+    /**
+     * Token of the turn right instruction
+     */
+    private static final byte TURN_RIGHT = 3;
+
+    /**
+     * Token of the procedure one instruction
+     */
+    private static final byte PROCEDURE_ONE = 4;
+
+    /**
+     * Token of the procedure two instruction
+     */
+    private static final byte PROCEDURE_TWO = 5;
+
+    /**
+     * Precalculated moves of the level, or null if the level has more than {@value MAX_STATES} states
+     */
+    private final MoveTable moveTable;
+
+    /**
+     * Procedure candidates as token arrays, ordered by the amount of instructions they save in the reference lists
+     */
+    private final List<byte[]> candidates;
+
+    /**
+     * Stamp of the search that visited every state last, so the visited states never have to be cleared
+     */
+    private int[] visited;
+
+    /**
+     * Parent state of every visited state
+     */
+    private int[] parents;
+
+    /**
+     * Token that led to every visited state
+     */
+    private byte[] tokens;
+
+    /**
+     * Amount of program instructions needed to reach every visited state
+     */
+    private byte[] depths;
+
+    /**
+     * Queue of the breadth-first search
+     */
+    private int[] queue;
+
+    /**
+     * Stamp of the procedure one candidate that was last called in every state
+     */
+    private int[] procedureOneStamps;
+
+    /**
+     * Memoized state after calling procedure one in every state
+     */
+    private int[] procedureOneEffects;
+
+    /**
+     * Stamp of the procedure two candidate that was last called in every state
+     */
+    private int[] procedureTwoStamps;
+
+    /**
+     * Memoized state after calling procedure two in every state
+     */
+    private int[] procedureTwoEffects;
+
+    /**
+     * Stamp of the current search
+     */
+    private int stamp;
+
+    /**
+     * Stamp of the current procedure one candidate
+     */
+    private int procedureOneStamp;
+
+    /**
+     * Stamp of the current procedure two candidate
+     */
+    private int procedureTwoStamp;
+
+    /**
+     * Amount of states expanded so far
+     */
+    private int expansions;
+
+    /**
+     * Budget of the running synthesis
+     */
+    private SolverBudget budget;
+
+    /**
+     * Constructor to create a synthesizer for a given level.
+     *
+     * @param level      level to search a program for. The level has to be valid ({@link Level#validateLevel()})
+     * @param references instruction lists that solve the level and are used to find procedure candidates
+     */
+    ProgramSynthesizer(Level level, List<List<Instruction>> references) {
+        this(level, new MovementGraph(level), references);
+    }
+
+    /**
+     * Constructor to create a synthesizer for a given level, taking the moves from an already compiled movement graph.
+     *
+     * @param level      level to search a program for. The level has to be valid ({@link Level#validateLevel()})
+     * @param graph      movement graph of the level
+     * @param references instruction lists that solve the level and are used to find procedure candidates
+     */
+    ProgramSynthesizer(Level level, MovementGraph graph, List<List<Instruction>> references) {
+        this.moveTable = MoveTable.countStates(level) <= MAX_STATES ? new MoveTable(level, graph) : null;
+        this.candidates = moveTable != null ? findCandidates(references) : new ArrayList<>();
+    }
+
+    /**
+     * Checks if the state space of the level is small enough to be searched.
+     *
+     * @return true if the level has at most {@value MAX_STATES} states
+     */
+    boolean fitsIntoStateLimit() {
+        return moveTable != null;
+    }
+
+    /**
+     * Checks if the last synthesis stopped at {@value MAX_EXPANSIONS} expanded states or at its budget, before it
+     * tried every pair of procedure candidates.
+     *
+     * @return true if a synthesis that found no program did not try every pair of candidates
+     */
+    boolean wasStopped() {
+        return expansions >= MAX_EXPANSIONS;
+    }
+
+    /**
+     * Searches program, procedure one and procedure two instructions that solve the level. The pairs of procedure
+     * candidates are tried in order of their savings, the first program found is returned.
+     * {@link #fitsIntoStateLimit()} has to be true.
+     *
+     * @return SolverResult with a SOLVABLE status, or null if no program was found within {@value MAX_EXPANSIONS}
+     * expanded states
+     */
+    SolverResult synthesize() {
+        return synthesize(SolverBudget.unlimited());
+    }
+
+    /**
+     * Searches program, procedure one and procedure two instructions within the budget of a solve.
+     * {@link #fitsIntoStateLimit()} has to be true.
+     *
+     * @param budget budget of the solve, counting the expanded states
+     * @return SolverResult with a SOLVABLE status, or null if no program was found within {@value MAX_EXPANSIONS}
+     * expanded states or within the budget
+     */
+    SolverResult synthesize(SolverBudget budget) {
+        this.budget = budget;
+        int states = (int) moveTable.getStateCount();
+        visited = new int[states];
+        parents = new int[states];
+        tokens = new byte[states];
+        depths = new byte[states];
+        queue = new int[states];
+        procedureOneStamps = new int[states];
+        procedureOneEffects = new int[states];
+        procedureTwoStamps = new int[states];
+        procedureTwoEffects = new int[states];
+
+        // a missing procedure two is represented by a null candidate, procedure one is always used, because a program
+        // without procedures is already covered by the reference lists
+        for (int i = 0; i < candidates.size() && expansions < MAX_EXPANSIONS; i++) {
+            procedureOneStamp = i + 1;
+            for (int j = i; j < candidates.size() && expansions < MAX_EXPANSIONS; j++) {
+                byte[] procedureOne = candidates.get(i);
+                byte[] procedureTwo = j == i ? null : candidates.get(j);
+                procedureTwoStamp++;
+
+                SolverResult result = searchProgram(procedureOne, procedureTwo);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Breadth-first search over the program instructions for one pair of procedures.
+     *
+     * @param procedureOne tokens of procedure one
+     * @param procedureTwo tokens of procedure two, or null if procedure two is not used
+     * @return SolverResult with the shortest program for the procedures, or null if there is none
+     */
+    private SolverResult searchProgram(byte[] procedureOne, byte[] procedureTwo) {
+        stamp++;
+        int startState = moveTable.getStartState();
+        int head = 0;
+        int tail = 0;
+
+        visited[startState] = stamp;
+        depths[startState] = 0;
+        queue[tail++] = startState;
+
+        byte lastToken = procedureTwo != null ? PROCEDURE_TWO : PROCEDURE_ONE;
+        while (head < tail && expansions < MAX_EXPANSIONS) {
+            int state = queue[head++];
+            expansions++;
+            if (!budget.tryExpand()) {
+                // stopping the outer loops as well, because the budget will not come back
+                expansions = MAX_EXPANSIONS;
+                return null;
+            }
+
+            if (moveTable.canExit(state)) {
+                return buildResult(state, procedureOne, procedureTwo);
+            }
+
+            // one program instruction has to be left for the exit instruction
+            if (depths[state] < MAX_PROGRAM_INSTRUCTIONS - 1) {
+                for (byte token = WALK; token <= lastToken; token++) {
+                    int next;
+                    if (token == PROCEDURE_ONE) {
+                        next = callProcedure(state, procedureOne, procedureOneStamps, procedureOneEffects, procedureOneStamp);
+                    } else if (token == PROCEDURE_TWO) {
+                        next = callProcedure(state, procedureTwo, procedureTwoStamps, procedureTwoEffects, procedureTwoStamp);
+                    } else {
+                        next = step(state, token);
+                    }
+
+                    if (next != -1 && visited[next] != stamp) {
+                        visited[next] = stamp;
+                        parents[next] = state;
+                        tokens[next] = token;
+                        depths[next] = (byte) (depths[state] + 1);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Simulates a procedure call, using the memoized effect if the procedure was already called in the state.
+     *
+     * @return packed state after the procedure, or -1 if the bot loses inside the procedure
+     */
+    private int callProcedure(int state, byte[] procedure, int[] stamps, int[] effects, int procedureStamp) {
+        if (stamps[state] != procedureStamp) {
+            int next = state;
+            for (int i = 0; i < procedure.length && next != -1; i++) {
+                next = step(next, procedure[i]);
+            }
+            stamps[state] = procedureStamp;
+            effects[state] = next;
+        }
+        return effects[state];
+    }
+
+    /**
+     * Simulates a single walk, jump or turn instruction.
+     *
+     * @return packed state after the instruction, or -1 if the bot loses
+     */
+    private int step(int state, byte token) {
+        switch (token) {
+            case WALK:
+                return moveTable.walk(state);
+            case JUMP:
+                return moveTable.jump(state);
+            case TURN_LEFT:
+                return moveTable.turnLeft(state);
+            case TURN_RIGHT:
+            default:
+                return moveTable.turnRight(state);
+        }
+    }
+
+    /**
+     * Rebuilds the program by following the parent states from the goal back to the start.
+     *
+     * @param goal         packed goal state
+     * @param procedureOne tokens of procedure one
+     * @param procedureTwo tokens of procedure two, or null if procedure two is not used
+     * @return SolverResult containing the program and procedure instructions with a SOLVABLE status
+     */
+    private SolverResult buildResult(int goal, byte[] procedureOne, byte[] procedureTwo) {
+        ProcedureOne p1 = new ProcedureOne(toInstructions(procedureOne, null, null));
+        ProcedureTwo p2 = new ProcedureTwo(procedureTwo != null ? toInstructions(procedureTwo, null, null) : new ArrayList<>());
+
+        List<Instruction> program = new ArrayList<>();
+        for (int state = goal; state != moveTable.getStartState(); state = parents[state]) {
+            program.add(toInstruction(tokens[state], p1, p2));
+        }
+        Collections.reverse(program);
+        program.add(Exit.getSingleton());
+
+        // empty the procedures the shortest program does not call
+        boolean callsP1 = false;
+        boolean callsP2 = false;
+        for (Instruction instruction : program) {
+            callsP1 |= instruction == p1;
+            callsP2 |= instruction == p2;
+        }
+        if (!callsP1) {
+            p1.clearInstructions();
+        }
+        if (!callsP2) {
+            p2.clearInstructions();
+        }
+
+        return new SolverResult(program, p1, p2, SolveStatus.SOLVABLE);
+    }
+
+    /**
+     * Finds the procedure candidates. Every sub-list of the reference instruction lists with a size of 2 -
+     * {@value MAX_PROCEDURE_INSTRUCTIONS} is rated by the amount of instructions it saves when replacing every
+     * non-overlapping occurrence with a procedure call. The best rated sub-lists come first, followed by the
+     * enumerated short sequences and the remaining rated sub-lists.
+     *
+     * @param references instruction lists that solve the level
+     * @return procedure candidates as token arrays
+     */
+    private static List<byte[]> findCandidates(List<List<Instruction>> references) {
+        Map<List<Byte>, Integer> savings = new LinkedHashMap<>();
+        for (List<Instruction> reference : references) {
+            RepeatFinder finder = new RepeatFinder(reference);
+            for (RepeatFinder.Sequence sequence : finder.findSequences(2, MAX_PROCEDURE_INSTRUCTIONS)) {
+                List<Byte> sublist = toList(toTokens(finder.getInstructions(sequence)));
+                if (!sublist.contains((byte) -1)) {
+                    savings.putIfAbsent(sublist, sequence.getOccurrences() * (sequence.getSize() - 1));
+                }
+            }
+        }
+
+        List<List<Byte>> rated = new ArrayList<>(savings.keySet());
+        rated.sort((a, b) -> Integer.compare(savings.get(b), savings.get(a)));
+
+        List<List<Byte>> ordered = new ArrayList<>(rated.subList(0, Math.min(rated.size(), PREFERRED_CANDIDATES)));
+        for (int size = 2; size <= MAX_ENUMERATED_PROCEDURE_INSTRUCTIONS; size++) {
+            enumerate(new byte[size], 0, ordered);
+        }
+        for (List<Byte> sublist : rated) {
+            if (ordered.size() < MAX_CANDIDATES && !ordered.contains(sublist)) {
+                ordered.add(sublist);
+            }
+        }
+
+        List<byte[]> candidates = new ArrayList<>();
+        for (int i = 0; i < ordered.size() && i < MAX_CANDIDATES; i++) {
+            byte[] candidate = new byte[ordered.get(i).size()];
+            for (int j = 0; j < candidate.length; j++) {
+                candidate[j] = ordered.get(i).get(j);
+            }
+            candidates.add(candidate);
+        }
+        return candidates;
+    }
+
+    /**
+     * Adds every walk, jump and turn sequence of the size of the given buffer to the list, that is not yet contained.
+     */
+    private static void enumerate(byte[] buffer, int idx, List<List<Byte>> sequences) {
+        if (idx == buffer.length) {
+            List<Byte> sequence = toList(buffer);
+            if (!sequences.contains(sequence)) {
+                sequences.add(sequence);
+            }
+        } else {
+            for (byte token = WALK; token <= TURN_RIGHT; token++) {
+                buffer[idx] = token;
+                enumerate(buffer, idx + 1, sequences);
+            }
+        }
+    }
+
+    private static List<Byte> toList(byte[] tokens) {
+        List<Byte> list = new ArrayList<>(tokens.length);
+        for (byte token : tokens) {
+            list.add(token);
+        }
+        return list;
+    }
+
+    /**
+     * Converts instructions to tokens. Every instruction that can not be part of a procedure candidate becomes -1.
+     */
+    private static byte[] toTokens(List<Instruction> instructions) {
+        byte[] tokens = new byte[instructions.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            Instruction instruction = instructions.get(i);
+            if (instruction == Walk.getSingleton()) {
+                tokens[i] = WALK;
+            } else if (instruction == Jump.getSingleton()) {
+                tokens[i] = JUMP;
+            } else if (instruction == TurnLeft.getSingleton()) {
+                tokens[i] = TURN_LEFT;
+            } else if (instruction == TurnRight.getSingleton()) {
+                tokens[i] = TURN_RIGHT;
+            } else {
+                tokens[i] = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static List<Instruction> toInstructions(byte[] tokens, Procedure p1, Procedure p2) {
+        List<Instruction> instructions = new ArrayList<>();
+        for (byte token : tokens) {
+            instructions.add(toInstruction(token, p1, p2));
+        }
+        return instructions;
+    }
+
+    private static Instruction toInstruction(byte token, Procedure p1, Procedure p2) {
+        switch (token) {
+            case WALK:
+                return Walk.getSingleton();
+            case JUMP:
+                return Jump.getSingleton();
+            case TURN_LEFT:
+                return TurnLeft.getSingleton();
+            case TURN_RIGHT:
+                return TurnRight.getSingleton();
+            case PROCEDURE_ONE:
+                return p1;
+            case PROCEDURE_TWO:
+            default:
+                return p2;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package logic.solver;
+
+import logic.instructions.Instruction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds every distinct sub-list of an instruction list and counts its non-overlapping occurrences.
+ * <p>
+ * The instructions are encoded as bytes, one symbol per distinct instruction, and a suffix array with the longest
+ * common prefixes of neighbouring suffixes is built once. All occurrences of a sub-list of a given size are then the
+ * neighbouring suffixes sharing a prefix of at least that size, so every size only needs one pass over the suffix
+ * array instead of searching every window in the instruction list again.
+ *
+ * @author Timo Peters
+ */
+class RepeatFinder {
+
+    /**
+     * Instructions the sub-lists are taken from
+     */
+    private final List<Instruction> instructions;
+
+    /**
+     * Instructions encoded as one symbol per distinct instruction
+     */
+    private final byte[] symbols;
+
+    /**
+     * Start positions of all suffixes in lexicographic order
+     */
+    private final int[] suffixArray;
+
+    /**
+     * Length of the common prefix of every suffix and its predecessor in the suffix array
+     */
+    private final int[] lcp;
+
+    /**
+     * Represents one distinct sub-list of the instructions.
+     */
+    static class Sequence {
+
+        /**
+         * Position of the first occurrence of the sub-list
+         */
+        private final int start;
+
+        /**
+         * Amount of instructions in the sub-list
+         */
+        private final int size;
+
+        /**
+         * Amount of non-overlapping occurrences, counted from left to right
+         */
+        private final int occurrences;
+
+        private Sequence(int start, int size, int occurrences) {
+            this.start = start;
+            this.size = size;
+            this.occurrences = occurrences;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        int getSize() {
+            return size;
+        }
+
+        int getOccurrences() {
+            return occurrences;
+        }
+    }
+
+    /**
+     * Constructor to build the suffix array of the given instructions.
+     *
+     * @param instructions instructions to find the repeated sub-lists in
+     */
+    RepeatFinder(List<Instruction> instructions) {
+        this.instructions = instructions;
+        this.symbols = new byte[instructions.size()];
+
+        Map<Instruction, Byte> alphabet = new HashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            Byte symbol = alphabet.get(instructions.get(i));
+            if (symbol == null) {
+                symbol = (byte) alphabet.size();
+                alphabet.put(instructions.get(i), symbol);
+            }
+            symbols[i] = symbol;
+        }
+
+        this.suffixArray = buildSuffixArray(symbols, alphabet.size());
+        this.lcp = buildLcp(symbols, suffixArray);
+    }
+
+    /**
+     * Finds every distinct sub-list with a size between minSize and maxSize.
+     *
+     * @param minSize minimum amount of instructions in a sub-list
+     * @param maxSize maximum amount of instructions in a sub-list
+     * @return distinct sub-lists, ordered by their size and then by their first occurrence
+     */
+    List<Sequence> findSequences(int minSize, int maxSize) {
+        List<Sequence> sequences = new ArrayList<>();
+        int[] positions = new int[symbols.length];
+
+        for (int size = minSize; size <= maxSize; size++) {
+            List<Sequence> sequencesOfSize = new ArrayList<>();
+
+            int i = 0;
+            while (i < suffixArray.length) {
+                if (symbols.length - suffixArray[i] < size) {
+                    // the suffix is too short to contain a sub-list of the current size
+                    i++;
+                } else {
+                    // all following suffixes with a common prefix of at least size start with the same sub-list
+                    int count = 0;
+                    positions[count++] = suffixArray[i++];
+                    while (i < suffixArray.length && lcp[i] >= size) {
+                        positions[count++] = suffixArray[i++];
+                    }
+                    Arrays.sort(positions, 0, count);
+                    sequencesOfSize.add(new Sequence(positions[0], size, countNonOverlapping(positions, count, size)));
+                }
+            }
+
+            sequencesOfSize.sort((a, b) -> Integer.compare(a.getStart(), b.getStart()));
+            sequences.addAll(sequencesOfSize);
+        }
+        return sequences;
+    }
+
+    /**
+     * Creates a new list containing the instructions of a sub-list.
+     *
+     * @param sequence sub-list found by this finder
+     * @return instructions of the sub-list
+     */
+    List<Instruction> getInstructions(Sequence sequence) {
+        return new ArrayList<>(instructions.subList(sequence.getStart(), sequence.getStart() + sequence.getSize()));
+    }
+
+    /**
+     * Counts the occurrences that do not overlap with a previous occurrence, which are the occurrences that can be
+     * replaced by a procedure.
+     *
+     * @param positions sorted start positions of every occurrence
+     * @param count     amount of positions
+     * @param size      size of the sub-list
+     * @return amount of non-overlapping occurrences
+     */
+    private static int countNonOverlapping(int[] positions, int count, int size) {
+        int occurrences = 0;
+        int end = 0;
+        for (int i = 0; i < count; i++) {
+            if (positions[i] >= end) {
+                occurrences++;
+                end = positions[i] + size;
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Builds the suffix array by prefix doubling. In every round the suffixes are sorted by the ranks of their first k
+     * and their second k symbols with a counting sort, until every suffix has a unique rank.
+     *
+     * @param symbols  encoded instructions
+     * @param alphabet amount of distinct symbols
+     * @return start positions of all suffixes in lexicographic order
+     */
+    private static int[] buildSuffixArray(byte[] symbols, int alphabet) {
+        int n = symbols.length;
+        int[] suffixArray = new int[n];
+        int[] rank = new int[n];
+        int[] newRank = new int[n];
+        int[] bySecondRank = new int[n];
+        int[] count = new int[Math.max(alphabet, n) + 1];
+
+        for (int i = 0; i < n; i++) {
+            rank[i] = symbols[i];
+            count[rank[i] + 1]++;
+        }
+        for (int i = 1; i < count.length; i++) {
+            count[i] += count[i - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            suffixArray[count[rank[i]]++] = i;
+        }
+
+        for (int k = 1; k < n; k <<= 1) {
+            // suffixes without a second half come first, the others are already ordered by the rank of the second half
+            int p = 0;
+            for (int i = n - k; i < n; i++) {
+                bySecondRank[p++] = i;
+            }
+            for (int i = 0; i < n; i++) {
+                if (suffixArray[i] >= k) {
+                    bySecondRank[p++] = suffixArray[i] - k;
+                }
+            }
+
+            // stable counting sort by the rank of the first half
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[rank[i] + 1]++;
+            }
+            for (int i = 1; i < count.length; i++) {
+                count[i] += count[i - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                suffixArray[count[rank[bySecondRank[i]]]++] = bySecondRank[i];
+            }
+
+            newRank[suffixArray[0]] = 0;
+            for (int i = 1; i < n; i++) {
+                int prev = suffixArray[i - 1];
+                int curr = suffixArray[i];
+                boolean sameRank = rank[prev] == rank[curr]
+                        && (prev + k < n ? rank[prev + k] : -1) == (curr + k < n ? rank[curr + k] : -1);
+                newRank[curr] = sameRank ? newRank[prev] : newRank[prev] + 1;
+            }
+
+            int[] swap = rank;
+            rank = newRank;
+            newRank = swap;
+
+            if (rank[suffixArray[n - 1]] == n - 1) {
+                // every suffix has a unique rank
+                break;
+            }
+        }
+        return suffixArray;
+    }
+
+    /**
+     * Builds the longest common prefixes of neighbouring suffixes in linear time (Kasai).
+     *
+     * @param symbols     encoded instructions
+     * @param suffixArray suffix array of the symbols
+     * @return common prefix length of every suffix and its predecessor in the suffix array, 0 for the first suffix
+     */
+    private static int[] buildLcp(byte[] symbols, int[] suffixArray) {
+        int n = symbols.length;
+        int[] lcp = new int[n];
+        int[] positionInSuffixArray = new int[n];
+        for (int i = 0; i < n; i++) {
+            positionInSuffixArray[suffixArray[i]] = i;
+        }
+
+        int common = 0;
+        for (int i = 0; i < n; i++) {
+            int idx = positionInSuffixArray[i];
+            if (idx > 0) {
+                int prev = suffixArray[idx - 1];
+                while (i + common < n && prev + common < n && symbols[i + common] == symbols[prev + common]) {
+                    common++;
+                }
+                lcp[idx] = common;
+                if (common > 0) {
+                    common--;
+                }
+            } else {
+                common = 0;
+            }
+        }
+        return lcp;
+    }
+}
@@ -0,0 +1,594 @@
+package logic.solver;
+
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.Jump;
+import logic.instructions.ProcedureOne;
+import logic.instructions.ProcedureTwo;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.BinaryLevelCodec;
+import logic.level.Level;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent store of solver results, kept in an append-only memory-mapped file so that levels solved once do not have
+ * to be searched again after a restart.
+ * <p>
+ * Results are keyed by the canonical form of a level (see {@link LevelSymmetry}), so a level shares its stored result
+ * with all of its rotated and mirrored copies. A result is stored for the canonical form and transformed back for the
+ * requested level, which swaps the left and right turns if the canonical form is mirrored. The canonical form is kept
+ * with every result in the encoding of the {@link BinaryLevelCodec}, so two levels with the same hash never share a
+ * result.
+ * <p>
+ * The file starts with a header of three ints: the {@link #MAGIC} number, the {@link #VERSION} and the end of the
+ * records. Every record holds its size, the zobrist hash of the canonical form, the solver mode, the quality and the
+ * expanded states of the result, the encoded canonical form and the program and procedure instructions, one byte per
+ * instruction. Records are never changed once they are written. A record counts once the end in the header is moved
+ * behind it, so a record that was not completely written when the application stopped is ignored. Every record is
+ * checked when the store is opened, a record with an unknown mode, quality or instruction is skipped, so a damaged
+ * file can not break a lookup. The mapping grows by doubling, the unused rest of the file is zero.
+ * <p>
+ * Only solvable results are stored. The store is thread-safe. Only one store can write to a file at a time: opening a
+ * store locks its file, and a file that is already locked by another application or another store of this application
+ * is opened read-only. A read-only store finds the results stored before it was opened and ignores new results, so a
+ * second running application still profits from the store without corrupting it.
+ *
+ * @author Timo Peters
+ */
+public class SolutionStore implements Closeable {
+
+    /**
+     * Magic number at the start of every store file ("EBSS")
+     */
+    static final int MAGIC = 0x45425353;
+
+    /**
+     * Version of the store format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * Index of the end of the records within the header
+     */
+    private static final int END_INDEX = 8;
+
+    /**
+     * Size of a new mapping in bytes
+     */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    /**
+     * Size of the fixed part of a record: size, hash, mode, quality and expanded states
+     */
+    private static final int RECORD_HEADER_SIZE = 4 + 8 + 1 + 1 + 4;
+
+    /**
+     * Length of a missing procedure
+     */
+    private static final short NO_PROCEDURE = -1;
+
+    /**
+     * Offset of the zobrist hash of the canonical form within a record
+     */
+    private static final int HASH_OFFSET = 4;
+
+    /**
+     * Offset of the solver mode ordinal within a record
+     */
+    private static final int MODE_OFFSET = 12;
+
+    /**
+     * Offset of the solve quality ordinal within a record
+     */
+    private static final int QUALITY_OFFSET = 13;
+
+    /**
+     * Offset of the amount of expanded states within a record
+     */
+    private static final int EXPANDED_NODES_OFFSET = 14;
+
+    /**
+     * Code of the walk instruction
+     */
+    private static final byte WALK = 0;
+
+    /**
+     * Code of the jump instruction
+     */
+    private static final byte JUMP = 1;
+
+    /**
+     * Code of the turn left instruction
+     */
+    private static final byte TURN_LEFT = 2;
+
+    /**
+     * Code of the turn right instruction
+     */
+    private static final byte TURN_RIGHT = 3;
+
+    /**
+     * Code of the exit instruction
+     */
+    private static final byte EXIT = 4;
+
+    /**
+     * Code of a call of procedure one
+     */
+    private static final byte PROCEDURE_ONE = 5;
+
+    /**
+     * Code of a call of procedure two
+     */
+    private static final byte PROCEDURE_TWO = 6;
+
+    /**
+     * Cached solver modes, so that looking up a mode does not need to copy the values array
+     */
+    private static final SolverMode[] MODES = SolverMode.values();
+
+    /**
+     * Cached solve qualities, so that looking up a quality does not need to copy the values array
+     */
+    private static final SolveQuality[] QUALITIES = SolveQuality.values();
+
+    /**
+     * Channel of the store file, used to grow the mapping
+     */
+    private final FileChannel channel;
+
+    /**
+     * Flag whether the file is locked by someone else, so that results are not written
+     */
+    private final boolean readOnly;
+
+    /**
+     * Mapped content of the store file
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * End of the records, the next record is appended here
+     */
+    private int end;
+
+    /**
+     * Positions of the records by the zobrist hash of their canonical form
+     */
+    private final Map<Long, List<Integer>> recordsByHash = new HashMap<>();
+
+    /**
+     * Amount of records in the store
+     */
+    private int size;
+
+    /**
+     * Amount of lookups that found a stored result
+     */
+    private long hits;
+
+    /**
+     * Amount of lookups that did not find a stored result
+     */
+    private long misses;
+
+    private SolutionStore(FileChannel channel, boolean readOnly) throws IOException {
+        this.channel = channel;
+        this.readOnly = readOnly;
+        boolean isNew = channel.size() == 0;
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("The solution store is too big");
+        } else if (isNew && readOnly) {
+            throw new IOException("The solution store is being created by another application");
+        } else if (!isNew && channel.size() < HEADER_SIZE) {
+            throw new IOException("The file is no solution store");
+        }
+        // an existing file is mapped with its size, so that a file which is no store does not grow
+        this.buffer = readOnly ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                : channel.map(FileChannel.MapMode.READ_WRITE, 0, isNew ? INITIAL_CAPACITY : channel.size());
+
+        if (isNew) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(END_INDEX, HEADER_SIZE);
+        } else if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("The file is no solution store");
+        } else if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported solution store version " + buffer.getInt(4));
+        }
+        this.end = buffer.getInt(END_INDEX);
+        if (end < HEADER_SIZE || end > buffer.capacity()) {
+            throw new IOException("The end of the solution store is corrupt");
+        }
+        indexRecords();
+    }
+
+    /**
+     * Opens a store file, creating it if it does not exist yet. The file is locked until the store is closed. If the
+     * file is already locked, the store is opened read-only ({@link #isReadOnly()}).
+     *
+     * @param file store file
+     * @return opened store, it has to be closed by the caller
+     * @throws IOException when the file can not be mapped, is no solution store or is locked before it was created
+     */
+    public static SolutionStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new SolutionStore(channel, tryLock(channel) == null);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Tries to lock the whole file. The lock is released when the channel is closed.
+     *
+     * @param channel channel of the store file
+     * @return lock, or null if the file is already locked
+     * @throws IOException when the file can not be locked for another reason
+     */
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // the file is locked by another store of this application
+            return null;
+        }
+    }
+
+    /**
+     * Reads the hashes of every record into the in-memory index. Reading stops at the first record that does not fit
+     * before the end, which can only be a torn record, and the end is moved in front of it. A record that fits but
+     * holds invalid values is skipped.
+     */
+    private void indexRecords() {
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= end) {
+            int recordSize = buffer.getInt(position);
+            if (recordSize < RECORD_HEADER_SIZE || recordSize > end - position) {
+                break;
+            }
+            if (isValidRecord(position, position + recordSize)) {
+                recordsByHash.computeIfAbsent(buffer.getLong(position + HASH_OFFSET), hash -> new ArrayList<>(1)).add(position);
+                size++;
+            }
+            position += recordSize;
+        }
+        end = position;
+    }
+
+    /**
+     * Checks that a record can be read by {@link #get(Level, SolverMode)}: the mode and the quality are known, and the
+     * canonical form and the instruction lists with known instruction codes fit into the record.
+     *
+     * @param position  position of the record
+     * @param recordEnd end of the record
+     * @return true if the record is valid
+     */
+    private boolean isValidRecord(int position, int recordEnd) {
+        byte mode = buffer.get(position + MODE_OFFSET);
+        byte quality = buffer.get(position + QUALITY_OFFSET);
+        if (mode < 0 || mode >= MODES.length || quality < 0 || quality >= QUALITIES.length) {
+            return false;
+        }
+
+        int index = position + RECORD_HEADER_SIZE;
+        if (index + 6 > recordEnd) {
+            return false;
+        }
+        int levelSize = BinaryLevelCodec.getEncodedSize(buffer, index);
+        if (levelSize <= 0 || levelSize > recordEnd - index) {
+            return false;
+        }
+        index += levelSize;
+        for (int list = 0; list < 3; list++) {
+            if (index + 2 > recordEnd) {
+                return false;
+            }
+            short length = buffer.getShort(index);
+            // the program can not be missing, only the procedures
+            if (length < (list == 0 ? 0 : NO_PROCEDURE) || index + 2 + Math.max(length, 0) > recordEnd) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                byte code = buffer.get(index + 2 + i);
+                if (code < WALK || code > PROCEDURE_TWO) {
+                    return false;
+                }
+            }
+            index += 2 + Math.max(length, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the stored result of a level, transformed for the rotation and mirroring of the level.
+     *
+     * @param level level to get the result for
+     * @param mode  mode the level was solved with
+     * @return stored result or null if no copy of the level was solved with the mode yet
+     */
+    public synchronized SolverResult get(Level level, SolverMode mode) {
+        ensureOpen();
+        int transform = LevelSymmetry.findCanonicalTransform(level);
+        Level canonical = LevelSymmetry.transform(level, transform);
+
+        int position = findRecord(canonical, mode);
+        if (position == -1) {
+            misses++;
+            return null;
+        }
+        hits++;
+
+        // the fixed part of the record is followed by the canonical form and the instructions
+        int index = position + RECORD_HEADER_SIZE;
+        index += BinaryLevelCodec.getEncodedSize(buffer, index);
+        List<Instruction> program = readInstructions(index);
+        index += 2 + Math.max(buffer.getShort(index), 0);
+        List<Instruction> p1 = readInstructions(index);
+        index += 2 + Math.max(buffer.getShort(index), 0);
+        List<Instruction> p2 = readInstructions(index);
+
+        if (LevelSymmetry.isMirror(transform)) {
+            program = LevelSymmetry.mirror(program);
+            p1 = p1 != null ? LevelSymmetry.mirror(p1) : null;
+            p2 = p2 != null ? LevelSymmetry.mirror(p2) : null;
+        }
+        return new SolverResult(program, p1 != null ? new ProcedureOne(p1) : null, p2 != null ? new ProcedureTwo(p2) : null,
+                SolveStatus.SOLVABLE, buffer.getInt(position + EXPANDED_NODES_OFFSET), QUALITIES[buffer.get(position + QUALITY_OFFSET)]);
+    }
+
+    /**
+     * Stores the result of a level. Results that are not solvable, results of levels already stored with the mode and
+     * every result of a read-only store are ignored.
+     *
+     * @param level  solved level
+     * @param mode   mode the level was solved with
+     * @param result result of the solver
+     * @throws IOException when the mapping of the store can not be grown
+     */
+    public synchronized void put(Level level, SolverMode mode, SolverResult result) throws IOException {
+        ensureOpen();
+        if (readOnly || result.getSolveStatus() != SolveStatus.SOLVABLE) {
+            return;
+        }
+        int transform = LevelSymmetry.findCanonicalTransform(level);
+        Level canonical = LevelSymmetry.transform(level, transform);
+        if (findRecord(canonical, mode) != -1) {
+            return;
+        }
+
+        List<Instruction> program = result.getProgramInstructions();
+        List<Instruction> p1 = result.getP1() != null ? result.getP1().getInstructions() : null;
+        List<Instruction> p2 = result.getP2() != null ? result.getP2().getInstructions() : null;
+        if (LevelSymmetry.isMirror(transform)) {
+            program = LevelSymmetry.mirror(program);
+            p1 = p1 != null ? LevelSymmetry.mirror(p1) : null;
+            p2 = p2 != null ? LevelSymmetry.mirror(p2) : null;
+        }
+
+        byte[] encodedLevel = BinaryLevelCodec.encode(canonical);
+        int recordSize = RECORD_HEADER_SIZE + encodedLevel.length + 6 + program.size()
+                + (p1 != null ? p1.size() : 0) + (p2 != null ? p2.size() : 0);
+        ensureCapacity((long) end + recordSize);
+
+        int position = end;
+        buffer.putInt(position, recordSize);
+        buffer.putLong(position + HASH_OFFSET, canonical.getZobristHash());
+        buffer.put(position + MODE_OFFSET, (byte) mode.ordinal());
+        buffer.put(position + QUALITY_OFFSET, (byte) result.getQuality().ordinal());
+        buffer.putInt(position + EXPANDED_NODES_OFFSET, result.getExpandedNodes());
+        int index = position + RECORD_HEADER_SIZE;
+        for (byte b : encodedLevel) {
+            buffer.put(index++, b);
+        }
+        index = writeInstructions(index, program);
+        index = writeInstructions(index, p1);
+        writeInstructions(index, p2);
+
+        // the record only counts once the end is moved behind it
+        end = position + recordSize;
+        buffer.putInt(END_INDEX, end);
+        buffer.force();
+        recordsByHash.computeIfAbsent(canonical.getZobristHash(), hash -> new ArrayList<>(1)).add(position);
+        size++;
+    }
+
+    /**
+     * Finds the record of a canonical form and a mode.
+     *
+     * @param canonical canonical form of the level
+     * @param mode      solver mode
+     * @return position of the record or -1 if there is no such record
+     */
+    private int findRecord(Level canonical, SolverMode mode) {
+        List<Integer> positions = recordsByHash.get(canonical.getZobristHash());
+        if (positions == null) {
+            return -1;
+        }
+
+        byte[] encodedLevel = null;
+        for (int position : positions) {
+            if (MODES[buffer.get(position + MODE_OFFSET)] == mode) {
+                if (encodedLevel == null) {
+                    encodedLevel = BinaryLevelCodec.encode(canonical);
+                }
+                if (sameBytes(position + RECORD_HEADER_SIZE, encodedLevel)) {
+                    return position;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean sameBytes(int index, byte[] bytes) {
+        if (index + bytes.length > end) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(index + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a list of instructions.
+     *
+     * @param index index of the length of the list
+     * @return instructions, or null if the list is a missing procedure. Procedure calls are placeholders, which the
+     * {@link SolverResult} replaces with its own procedures.
+     */
+    private List<Instruction> readInstructions(int index) {
+        short length = buffer.getShort(index);
+        if (length == NO_PROCEDURE) {
+            return null;
+        }
+        List<Instruction> instructions = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            instructions.add(toInstruction(buffer.get(index + 2 + i)));
+        }
+        return instructions;
+    }
+
+    /**
+     * Writes a list of instructions.
+     *
+     * @param index        index to write the length of the list to
+     * @param instructions instructions to write, or null for a missing procedure
+     * @return index behind the written instructions
+     */
+    private int writeInstructions(int index, List<Instruction> instructions) {
+        if (instructions == null) {
+            buffer.putShort(index, NO_PROCEDURE);
+            return index + 2;
+        }
+        buffer.putShort(index, (short) instructions.size());
+        for (int i = 0; i < instructions.size(); i++) {
+            buffer.put(index + 2 + i, toCode(instructions.get(i)));
+        }
+        return index + 2 + instructions.size();
+    }
+
+    private static byte toCode(Instruction instruction) {
+        if (instruction instanceof Walk) {
+            return WALK;
+        } else if (instruction instanceof Jump) {
+            return JUMP;
+        } else if (instruction instanceof TurnLeft) {
+            return TURN_LEFT;
+        } else if (instruction instanceof TurnRight) {
+            return TURN_RIGHT;
+        } else if (instruction instanceof Exit) {
+            return EXIT;
+        } else if (instruction instanceof ProcedureOne) {
+            return PROCEDURE_ONE;
+        } else if (instruction instanceof ProcedureTwo) {
+            return PROCEDURE_TWO;
+        }
+        throw new IllegalArgumentException("Unknown instruction " + instruction);
+    }
+
+    private static Instruction toInstruction(byte code) {
+        switch (code) {
+            case WALK:
+                return Walk.getSingleton();
+            case JUMP:
+                return Jump.getSingleton();
+            case TURN_LEFT:
+                return TurnLeft.getSingleton();
+            case TURN_RIGHT:
+                return TurnRight.getSingleton();
+            case EXIT:
+                return Exit.getSingleton();
+            case PROCEDURE_ONE:
+                return new ProcedureOne();
+            case PROCEDURE_TWO:
+                return new ProcedureTwo();
+            default:
+                throw new IllegalStateException("Unknown instruction code " + code + " in the solution store");
+        }
+    }
+
+    /**
+     * Grows the mapping by doubling until it holds the given amount of bytes.
+     *
+     * @param capacity amount of bytes the mapping has to hold
+     * @throws IOException when the file can not be mapped or would exceed 2 GB
+     */
+    private void ensureCapacity(long capacity) throws IOException {
+        if (capacity <= buffer.capacity()) {
+            return;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("The solution store would be too big");
+        }
+        long newCapacity = Math.max(buffer.capacity(), INITIAL_CAPACITY);
+        while (newCapacity < capacity) {
+            newCapacity *= 2;
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(newCapacity, Integer.MAX_VALUE));
+    }
+
+    private void ensureOpen() {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException("The solution store is closed");
+        }
+    }
+
+    /**
+     * Checks if the store was opened read-only, because its file is locked by another store or application.
+     *
+     * @return true if results are not written
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Writes the mapping to the file and closes the store.
+     *
+     * @throws IOException when the file can not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
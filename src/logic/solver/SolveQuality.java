@@ -0,0 +1,19 @@
+package logic.solver;
+
+/**
+ * Indicates how good the instructions of a {@link SolverResult} are.
+ *
+ * @author Timo Peters
+ */
+public enum SolveQuality {
+    /**
+     * Quality indicating that a complete search proved the instructions to be the minimal amount of instructions
+     */
+    OPTIMAL,
+    /**
+     * Quality indicating that the instructions are the best ones the solver found, but there might be fewer
+     * instructions. This is the case for the heuristic solver modes and for searches that were stopped by their time
+     * budget or cancelled.
+     */
+    BEST_EFFORT;
+}
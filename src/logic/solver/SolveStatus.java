@@ -27,5 +27,10 @@ public enum SolveStatus {
      * Status indicating that the level can not be solved, because the instructions can not be split into program and
      * procedure instructions. This can happen, for example, when there were too many instructions.
      */
-    UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES;
+    UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES,
+    /**
+     * Status indicating that the search ran out of time, was cancelled or reached its limit of expanded states before
+     * it found program and procedure instructions. The level might still be solvable.
+     */
+    UNDECIDED_SEARCH_STOPPED;
 }
@@ -0,0 +1,138 @@
+package logic.solver;
+
+/**
+ * Time budget, cancellation token and progress listener of a single solve, shared by every search the solve runs.
+ * <p>
+ * The searches count every expanded state with {@link #tryExpand()}. Looking at the clock and the cancellation token
+ * for every state would slow the searches down, so they are only checked every {@value CHECK_INTERVAL} states, which
+ * is still far below a millisecond.
+ *
+ * @author Timo Peters
+ */
+class SolverBudget {
+
+    /**
+     * Amount of expanded states between two checks of the clock and the cancellation token, has to be a power of two
+     */
+    static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * Minimum time between two progress notifications in nanoseconds, so that the listener is not flooded
+     */
+    private static final long PROGRESS_INTERVAL_NANOS = 50_000_000L;
+
+    /**
+     * {@link System#nanoTime()} the solve has to stop at
+     */
+    private final long deadline;
+
+    /**
+     * True if the solve has no deadline
+     */
+    private final boolean unlimited;
+
+    /**
+     * Token to cancel the solve, or null if the solve can not be cancelled
+     */
+    private final CancellationToken token;
+
+    /**
+     * Listener to inform about the progress, or null if nobody listens
+     */
+    private final SolverProgressListener listener;
+
+    /**
+     * Amount of states expanded by every search of the solve
+     */
+    private int expandedNodes;
+
+    /**
+     * Amount of instructions of the best solution found so far, -1 if there is none yet
+     */
+    private int bestLength = -1;
+
+    /**
+     * {@link System#nanoTime()} of the latest progress notification
+     */
+    private long lastProgress;
+
+    /**
+     * True once the solve ran out of time or was cancelled
+     */
+    private boolean exhausted;
+
+    /**
+     * Constructor to create the budget of a solve.
+     *
+     * @param timeBudgetMillis time the solve is allowed to take in milliseconds, 0 or less for no limit
+     * @param token            token to cancel the solve, or null
+     * @param listener         listener to inform about the progress, or null
+     */
+    SolverBudget(long timeBudgetMillis, CancellationToken token, SolverProgressListener listener) {
+        this.lastProgress = System.nanoTime();
+        this.unlimited = timeBudgetMillis <= 0;
+        this.deadline = lastProgress + (unlimited ? 0 : timeBudgetMillis * 1_000_000L);
+        this.token = token;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates a budget without a time limit, cancellation or listener.
+     *
+     * @return new unlimited budget
+     */
+    static SolverBudget unlimited() {
+        return new SolverBudget(0, null, null);
+    }
+
+    /**
+     * Counts an expanded state and checks if the search may go on.
+     *
+     * @return false if the solve ran out of time or was cancelled
+     */
+    boolean tryExpand() {
+        expandedNodes++;
+        if ((expandedNodes & (CHECK_INTERVAL - 1)) == 0 && !exhausted) {
+            long now = System.nanoTime();
+            exhausted = (token != null && token.isCancelled()) || (!unlimited && now - deadline >= 0);
+            if (listener != null && now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                lastProgress = now;
+                listener.progressChanged(expandedNodes, bestLength);
+            }
+        }
+        return !exhausted;
+    }
+
+    /**
+     * Tells the budget about a solution that was found, so that the listener learns about shorter solutions right
+     * away.
+     *
+     * @param length amount of instructions of the solution
+     */
+    void offerSolution(int length) {
+        if (bestLength == -1 || length < bestLength) {
+            bestLength = length;
+            if (listener != null) {
+                lastProgress = System.nanoTime();
+                listener.progressChanged(expandedNodes, bestLength);
+            }
+        }
+    }
+
+    /**
+     * Checks if the solve ran out of time or was cancelled, so its results are not complete.
+     *
+     * @return true if a search stopped early
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    int getBestLength() {
+        return bestLength;
+    }
+}
@@ -0,0 +1,192 @@
+package logic.solver;
+
+import logic.level.Level;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded least-recently-used cache of solver results, keyed by the zobrist hash of a level
+ * ({@link Level#getZobristHash()}) and the solver mode.
+ * <p>
+ * Every result is cached with a copy of its level, which is compared with the requested level when the hash matches,
+ * so two levels with the same hash never share a result.
+ * <p>
+ * The cache is thread-safe. It only stores the immutable {@link SolverResult}s, so a cached result can be returned to
+ * any number of callers.
+ *
+ * @author Timo Peters
+ */
+public class SolverCache {
+
+    /**
+     * Default amount of results kept by a cache
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Cached results in access order, the least recently used result comes first
+     */
+    private final Map<Key, CachedResult> results;
+
+    /**
+     * Amount of lookups that found a cached result
+     */
+    private long hits;
+
+    /**
+     * Amount of lookups that did not find a cached result
+     */
+    private long misses;
+
+    /**
+     * Key of a cached result
+     */
+    private static class Key {
+
+        /**
+         * Zobrist hash of the solved level
+         */
+        private final long levelHash;
+
+        /**
+         * Mode the level was solved with
+         */
+        private final SolverMode mode;
+
+        private Key(long levelHash, SolverMode mode) {
+            this.levelHash = levelHash;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return levelHash == key.levelHash && mode == key.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(levelHash, mode);
+        }
+    }
+
+    /**
+     * Cached result together with the level it belongs to
+     */
+    private static class CachedResult {
+
+        /**
+         * Copy of the solved level, taken when the result was cached
+         */
+        private final Level level;
+
+        /**
+         * Result of the solver
+         */
+        private final SolverResult result;
+
+        private CachedResult(Level level, SolverResult result) {
+            this.level = level;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Constructor to create an empty cache with a maximum amount of results.
+     *
+     * @param capacity maximum amount of results, the least recently used result is removed when it is exceeded
+     */
+    public SolverCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of the solver cache has to be positive");
+        }
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result of a level.
+     *
+     * @param level level to get the result for
+     * @param mode  mode the level was solved with
+     * @return cached result or null if the level was not solved with the mode yet
+     */
+    public SolverResult get(Level level, SolverMode mode) {
+        return get(level.getZobristHash(), level, mode);
+    }
+
+    /**
+     * Returns the cached result of a level with the given hash.
+     * <p>
+     * This method is package-private for test-purposes
+     *
+     * @param levelHash zobrist hash of the level
+     * @param level     level to get the result for
+     * @param mode      mode the level was solved with
+     * @return cached result or null if the level was not solved with the mode yet
+     */
+    synchronized SolverResult get(long levelHash, Level level, SolverMode mode) {
+        CachedResult entry = results.get(new Key(levelHash, mode));
+        // the hash only selects the entry, the level has to be the same as well
+        if (entry != null && entry.level.equals(level)) {
+            hits++;
+            return entry.result;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches the result of a level.
+     *
+     * @param level  solved level
+     * @param mode   mode the level was solved with
+     * @param result result of the solver
+     */
+    public void put(Level level, SolverMode mode, SolverResult result) {
+        put(level.getZobristHash(), level, mode, result);
+    }
+
+    /**
+     * Caches the result of a level with the given hash, replacing the result of another level with the same hash.
+     * <p>
+     * This method is package-private for test-purposes
+     *
+     * @param levelHash zobrist hash of the level
+     * @param level     solved level
+     * @param mode      mode the level was solved with
+     * @param result    result of the solver
+     */
+    synchronized void put(long levelHash, Level level, SolverMode mode, SolverResult result) {
+        results.put(new Key(levelHash, mode), new CachedResult(level.getLevelCopy(), result));
+    }
+
+    /**
+     * Removes every cached result and resets the hit and miss counters.
+     */
+    public synchronized void clear() {
+        results.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,38 @@
+package logic.solver;
+
+/**
+ * Enum representing the available search strategies of the LevelSolver.
+ * Most modes produce a flat list of instructions which is afterwards reduced into program and procedure instructions,
+ * the program synthesis searches program and procedure instructions directly.
+ *
+ * @author Timo Peters
+ */
+public enum SolverMode {
+    /**
+     * Greedy flood-fill, always collecting the nearest coin first
+     */
+    FLOOD_FILL,
+    /**
+     * Shortest coin tour, using one distance table between start, coins and door and a bitmask DP over the coin order
+     */
+    COIN_TOUR,
+    /**
+     * Breadth-first search over (cell, bot rotation, collected coins), finding the minimal amount of instructions
+     */
+    STATE_SPACE_SEARCH,
+    /**
+     * A* search over (cell, bot rotation, collected coins), finding the minimal amount of instructions while expanding
+     * fewer states than the breadth-first search
+     */
+    A_STAR,
+    /**
+     * Search over program, procedure one and procedure two instructions, simulating every candidate program on the level.
+     * It first tries to split the shortest path and the coin tour of the level, like the searching modes do.
+     * <p>
+     * The search is not complete: the procedures are taken from a bounded set of candidates, procedure two never calls
+     * procedure one, and the search stops after a limited amount of expanded states. An unsolvable status only means
+     * that none of the candidates fits, a search stopped by its limit or its time budget returns
+     * {@link SolveStatus#UNDECIDED_SEARCH_STOPPED}.
+     */
+    PROGRAM_SYNTHESIS
+}
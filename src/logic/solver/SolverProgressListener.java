@@ -0,0 +1,18 @@
+package logic.solver;
+
+/**
+ * Listener that is informed about the progress of a running solve, e.g. to show the progress to the user. The listener
+ * is called by the thread running the solver.
+ *
+ * @author Timo Peters
+ */
+public interface SolverProgressListener {
+
+    /**
+     * Called regularly while the solver is searching and every time the solver found a shorter solution.
+     *
+     * @param expandedNodes amount of states the solver expanded so far
+     * @param bestLength    amount of instructions of the best solution found so far, -1 if there is none yet
+     */
+    void progressChanged(int expandedNodes, int bestLength);
+}
@@ -5,11 +5,16 @@ import logic.instructions.ProcedureOne;
 import logic.instructions.ProcedureTwo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * POJO representing the result of the LevelSolver.
  * This includes the resulting program and procedure instructions calculated by the level solving algorithm.
+ * <p>
+ * A solver result is immutable, so that it can be shared by the {@link SolverCache}. The procedures of the result can
+ * not be changed, every procedure reference in the program and procedure instructions points to the procedures of the
+ * result itself.
  *
  * @author Timo Peters
  */
@@ -18,6 +23,8 @@ public class SolverResult {
     private final ProcedureOne p1Instructions;
     private final ProcedureTwo p2Instructions;
     private final SolveStatus solveStatus;
+    private final int expandedNodes;
+    private final SolveQuality quality;
 
     /**
      * Constructor to create a solver result with the resulting program and procedure instructions and a solve status
@@ -29,10 +36,72 @@ public class SolverResult {
      * @param solveStatus         status of the solving result
      */
     public SolverResult(List<Instruction> programInstructions, ProcedureOne p1, ProcedureTwo p2, SolveStatus solveStatus) {
-        this.programInstructions = programInstructions;
-        this.p1Instructions = p1;
-        this.p2Instructions = p2;
+        this(programInstructions, p1, p2, solveStatus, 0);
+    }
+
+    /**
+     * Constructor to create a solver result of a searching solver mode, which also reports the amount of states the
+     * search expanded.
+     *
+     * @param programInstructions instructions for the program container
+     * @param p1                  procedure for the procedure one container
+     * @param p2                  procedure for the procedure two container
+     * @param solveStatus         status of the solving result
+     * @param expandedNodes       amount of states expanded by the search
+     */
+    public SolverResult(List<Instruction> programInstructions, ProcedureOne p1, ProcedureTwo p2, SolveStatus solveStatus, int expandedNodes) {
+        this(programInstructions, p1, p2, solveStatus, expandedNodes, SolveQuality.BEST_EFFORT);
+    }
+
+    /**
+     * Constructor to create a solver result of a searching solver mode, which also tells if the search proved its
+     * instructions to be minimal.
+     *
+     * @param programInstructions instructions for the program container
+     * @param p1                  procedure for the procedure one container
+     * @param p2                  procedure for the procedure two container
+     * @param solveStatus         status of the solving result
+     * @param expandedNodes       amount of states expanded by the search
+     * @param quality             quality of the instructions
+     */
+    public SolverResult(List<Instruction> programInstructions, ProcedureOne p1, ProcedureTwo p2, SolveStatus solveStatus, int expandedNodes, SolveQuality quality) {
+        // the procedures are created with unmodifiable views first, so that procedure references inside the procedures
+        // themselves can already point to the new procedures
+        List<Instruction> p1List = new ArrayList<>();
+        List<Instruction> p2List = new ArrayList<>();
+        this.p1Instructions = p1 != null ? new ProcedureOne(Collections.unmodifiableList(p1List)) : null;
+        this.p2Instructions = p2 != null ? new ProcedureTwo(Collections.unmodifiableList(p2List)) : null;
+
+        if (p1 != null) {
+            p1List.addAll(useOwnProcedures(p1.getInstructions()));
+        }
+        if (p2 != null) {
+            p2List.addAll(useOwnProcedures(p2.getInstructions()));
+        }
+        this.programInstructions = programInstructions != null ? Collections.unmodifiableList(useOwnProcedures(programInstructions)) : null;
         this.solveStatus = solveStatus;
+        this.expandedNodes = expandedNodes;
+        this.quality = quality;
+    }
+
+    /**
+     * Replaces every procedure reference with the procedure of this result.
+     *
+     * @param instructions instructions to replace the procedure references in
+     * @return new list of instructions
+     */
+    private List<Instruction> useOwnProcedures(List<Instruction> instructions) {
+        List<Instruction> ownInstructions = new ArrayList<>(instructions.size());
+        for (Instruction instruction : instructions) {
+            if (instruction instanceof ProcedureOne) {
+                ownInstructions.add(p1Instructions);
+            } else if (instruction instanceof ProcedureTwo) {
+                ownInstructions.add(p2Instructions);
+            } else {
+                ownInstructions.add(instruction);
+            }
+        }
+        return ownInstructions;
     }
 
     /**
@@ -44,10 +113,20 @@ public class SolverResult {
         return programInstructions != null ? new ArrayList<>(programInstructions) : null;
     }
 
+    /**
+     * Returns procedure one of the result, which can not be changed
+     *
+     * @return procedure one or null if the level was not solvable
+     */
     public ProcedureOne getP1() {
         return p1Instructions;
     }
 
+    /**
+     * Returns procedure two of the result, which can not be changed
+     *
+     * @return procedure two or null if the level was not solvable
+     */
     public ProcedureTwo getP2() {
         return p2Instructions;
     }
@@ -55,4 +134,24 @@ public class SolverResult {
     public SolveStatus getSolveStatus() {
         return solveStatus;
     }
+
+    /**
+     * Returns the amount of states the search of the solver mode expanded, so that the effort of the modes can be
+     * compared.
+     *
+     * @return amount of expanded states, 0 if the solver mode does not search states
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Returns the quality of the instructions, telling if a complete search proved them to be minimal or if they are
+     * only the best instructions found within the time budget of the solver.
+     *
+     * @return quality of the instructions
+     */
+    public SolveQuality getQuality() {
+        return quality;
+    }
 }
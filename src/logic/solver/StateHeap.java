@@ -0,0 +1,102 @@
+package logic.solver;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of search nodes, stored in primitive arrays so that pushing and popping does not box or allocate
+ * anything besides growing the arrays.
+ * <p>
+ * Every entry is a node id with a long key. The key is compared as a whole, so a search can pack its priority and
+ * its tie-breaker into one key, e.g. {@code (f << 32) | tieBreaker}.
+ *
+ * @author Timo Peters
+ */
+class StateHeap {
+
+    /**
+     * Keys of the entries in heap order, the smallest key is at index 0
+     */
+    private long[] keys;
+
+    /**
+     * Node ids of the entries, in the same order as the keys
+     */
+    private int[] nodes;
+
+    /**
+     * Amount of entries in the heap
+     */
+    private int size;
+
+    /**
+     * Constructor to create an empty heap.
+     *
+     * @param initialCapacity amount of entries the heap can hold before growing
+     */
+    StateHeap(int initialCapacity) {
+        this.keys = new long[Math.max(initialCapacity, 1)];
+        this.nodes = new int[keys.length];
+    }
+
+    /**
+     * Adds a node to the heap.
+     *
+     * @param key  key of the node, smaller keys are popped first
+     * @param node id of the node
+     */
+    void push(long key, int node) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+
+        // move the new entry up until its parent has a smaller key
+        int index = size++;
+        while (index > 0 && keys[(index - 1) >>> 1] > key) {
+            int parent = (index - 1) >>> 1;
+            keys[index] = keys[parent];
+            nodes[index] = nodes[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        nodes[index] = node;
+    }
+
+    /**
+     * Removes the node with the smallest key from the heap. The heap must not be empty.
+     *
+     * @return id of the removed node
+     */
+    int pop() {
+        int top = nodes[0];
+        long key = keys[--size];
+        int node = nodes[size];
+
+        // move the last entry down from the root until both children have a bigger key
+        int index = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[index] = keys[child];
+            nodes[index] = nodes[child];
+            index = child;
+            child = 2 * index + 1;
+        }
+        keys[index] = key;
+        nodes[index] = node;
+        return top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,205 @@
+package logic.solver;
+
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.Jump;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.Level;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Breadth-first search over the states (cell, bot rotation, collected coins) of a level.
+ * <p>
+ * Different from the flood-fill, turning the bot is part of the search: walking, jumping, turning left and turning
+ * right are all edges with a cost of one instruction. Therefore, the first state found that can exit through the door
+ * with every coin collected belongs to an instruction list with the minimal amount of instructions.
+ * <p>
+ * The states are packed into ints by the {@link MoveTable} and the visited flags are kept in a long bitset, so the
+ * search itself does not allocate any objects.
+ *
+ * @author Timo Peters
+ */
+class StateSpaceSearch {
+
+    /**
+     * Maximum amount of states the search is allowed to work with. Every state needs about 9 bytes.
+     */
+    static final int MAX_STATES = 1 << 20;
+
+    /**
+     * Move type of the walk instruction
+     */
+    private static final byte WALK = 0;
+
+    /**
+     * Move type of the jump instruction
+     */
+    private static final byte JUMP = 1;
+
+    /**
+     * Move type of the turn left instruction
+     */
+    private static final byte TURN_LEFT = 2;
+
+    /**
+     * Move type of the turn right instruction
+     */
+    private static final byte TURN_RIGHT = 3;
+
+    /**
+     * Precalculated moves of the level, or null if the level has more than {@value MAX_STATES} states
+     */
+    private final MoveTable moveTable;
+
+    /**
+     * Amount of states expanded by the latest search
+     */
+    private int expandedNodes;
+
+    /**
+     * Constructor to create a state space search for a given level. The legal moves of every (cell, rotation) are
+     * calculated once, so that the search does not need to access the level again. Levels with too many states do
+     * not get a move table at all.
+     *
+     * @param level level to search a solution for. The level has to be valid ({@link Level#validateLevel()})
+     */
+    StateSpaceSearch(Level level) {
+        this(level, new MovementGraph(level));
+    }
+
+    /**
+     * Constructor to create a state space search for a given level, taking the moves from an already compiled
+     * movement graph.
+     *
+     * @param level level to search a solution for. The level has to be valid ({@link Level#validateLevel()})
+     * @param graph movement graph of the level
+     */
+    StateSpaceSearch(Level level, MovementGraph graph) {
+        this.moveTable = MoveTable.countStates(level) <= MAX_STATES ? new MoveTable(level, graph) : null;
+    }
+
+    /**
+     * Checks if the state space of the level is small enough to be searched.
+     *
+     * @return true if the level has at most {@value MAX_STATES} states
+     */
+    boolean fitsIntoStateLimit() {
+        return moveTable != null;
+    }
+
+    /**
+     * Searches the instruction list with the minimal amount of instructions to collect every coin and exit through
+     * the door. {@link #fitsIntoStateLimit()} has to be true.
+     *
+     * @return minimal list of instructions ending with the exit instruction, or null if there is no solution
+     */
+    List<Instruction> findInstructions() {
+        return findInstructions(SolverBudget.unlimited());
+    }
+
+    /**
+     * Searches the instruction list with the minimal amount of instructions within the budget of a solve.
+     * {@link #fitsIntoStateLimit()} has to be true.
+     *
+     * @param budget budget of the solve, counting the expanded states
+     * @return minimal list of instructions ending with the exit instruction, or null if there is no solution or the
+     * budget ran out before the search was complete
+     */
+    List<Instruction> findInstructions(SolverBudget budget) {
+        int states = (int) moveTable.getStateCount();
+        int startState = moveTable.getStartState();
+        long[] visited = new long[(states + 63) >>> 6];
+        int[] parents = new int[states];
+        byte[] moves = new byte[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        expandedNodes = 0;
+
+        visited[startState >>> 6] |= 1L << startState;
+        queue[tail++] = startState;
+
+        int goal = -1;
+        while (goal == -1 && head < tail) {
+            int state = queue[head++];
+
+            if (moveTable.canExit(state)) {
+                goal = state;
+            } else if (!budget.tryExpand()) {
+                return null;
+            } else {
+                expandedNodes++;
+                // every instruction is an edge with the cost of one
+                tail = visit(moveTable.walk(state), state, WALK, visited, parents, moves, queue, tail);
+                tail = visit(moveTable.jump(state), state, JUMP, visited, parents, moves, queue, tail);
+                tail = visit(moveTable.turnLeft(state), state, TURN_LEFT, visited, parents, moves, queue, tail);
+                tail = visit(moveTable.turnRight(state), state, TURN_RIGHT, visited, parents, moves, queue, tail);
+            }
+        }
+
+        return goal != -1 ? buildInstructions(goal, parents, moves) : null;
+    }
+
+    /**
+     * Returns the amount of states the latest search expanded, which can be compared to the states of other searches.
+     *
+     * @return amount of expanded states
+     */
+    int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Adds the state, reached by a move, to the queue if it was not visited before.
+     *
+     * @return new tail of the queue
+     */
+    private int visit(int state, int parent, byte move,
+                      long[] visited, int[] parents, byte[] moves, int[] queue, int tail) {
+        if (state != -1 && (visited[state >>> 6] & (1L << state)) == 0) {
+            visited[state >>> 6] |= 1L << state;
+            parents[state] = parent;
+            moves[state] = move;
+            queue[tail++] = state;
+        }
+        return tail;
+    }
+
+    /**
+     * Rebuilds the instructions by following the parent states from the goal back to the start.
+     *
+     * @param goal    packed goal state
+     * @param parents parent state of every visited state
+     * @param moves   move type that led to every visited state
+     * @return list of instructions from the start to the goal, ending with the exit instruction
+     */
+    private List<Instruction> buildInstructions(int goal, int[] parents, byte[] moves) {
+        List<Instruction> instructions = new ArrayList<>();
+        instructions.add(Exit.getSingleton());
+
+        for (int state = goal; state != moveTable.getStartState(); state = parents[state]) {
+            switch (moves[state]) {
+                case WALK:
+                    instructions.add(Walk.getSingleton());
+                    break;
+                case JUMP:
+                    instructions.add(Jump.getSingleton());
+                    break;
+                case TURN_LEFT:
+                    instructions.add(TurnLeft.getSingleton());
+                    break;
+                case TURN_RIGHT:
+                    instructions.add(TurnRight.getSingleton());
+                    break;
+            }
+        }
+
+        Collections.reverse(instructions);
+        return instructions;
+    }
+}
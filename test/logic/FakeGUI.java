@@ -52,11 +52,26 @@ public class FakeGUI implements GUIConnector {
 
     }
 
+    @Override
+    public boolean canShowGameField(int rows, int cols) {
+        return true;
+    }
+
+    @Override
+    public void showLevelSavedMessage() {
+
+    }
+
     @Override
     public void showLevelSolverMessage(SolveStatus solvable) {
 
     }
 
+    @Override
+    public void showLevelSolverProgress(int expandedNodes, int bestLength) {
+
+    }
+
     @Override
     public void useProcedureOne(ProcedureOne p1) {
 
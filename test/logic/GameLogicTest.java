@@ -7,11 +7,17 @@ import logic.instructions.Jump;
 import logic.instructions.ProcedureOne;
 import logic.instructions.ProcedureTwo;
 import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
 import logic.instructions.Walk;
 import logic.level.BotRotation;
 import logic.level.Coord;
 import logic.level.FieldType;
+import logic.exceptions.NoFieldException;
+import logic.exceptions.UnsupportedFieldSizeException;
 import logic.level.Level;
+import logic.solver.CancellationToken;
+import logic.solver.SolveStatus;
+import logic.solver.SolverResult;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -20,6 +26,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * General game logic tests that to not include conversion
@@ -31,6 +38,7 @@ public class GameLogicTest {
     private final Walk WALK = Walk.getSingleton();
     private final Jump JUMP = Jump.getSingleton();
     private final TurnLeft TURN_LEFT = TurnLeft.getSingleton();
+    private final TurnRight TURN_RIGHT = TurnRight.getSingleton();
     private final Exit EXIT = Exit.getSingleton();
 
     /**
@@ -574,15 +582,11 @@ public class GameLogicTest {
         }, BotRotation.EAST, new ArrayList<>(), new ProcedureOne(), new ProcedureTwo());
         gameLogic.newLevel();
 
+        // the new level keeps the size of the current level
         FieldType[][] expected = new FieldType[][]{
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,},
-                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL,}
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
         };
 
         Assert.assertArrayEquals(expected, gameLogic.getLevel().getGameField());
@@ -684,6 +688,27 @@ public class GameLogicTest {
         Assert.assertTrue(gameLogic.getProcedureTwoInstructions().isEmpty());
     }
 
+    @Test
+    public void testCreateSolveTask_SolvesACopyOnAnotherThread() throws Exception {
+        GameLogic gameLogic = new GameLogic(new FakeGUI(), new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.WALL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Supplier<SolverResult> solveTask = gameLogic.createSolveTask(0, new CancellationToken());
+        // changing the level after creating the task does not change the level the task solves
+        gameLogic.changeFieldType(new Coord(0, 1), FieldType.WALL);
+
+        SolverResult[] result = new SolverResult[1];
+        Thread solver = new Thread(() -> result[0] = solveTask.get());
+        solver.start();
+        solver.join();
+        gameLogic.applySolverResult(result[0]);
+
+        Assert.assertEquals(SolveStatus.SOLVABLE, result[0].getSolveStatus());
+        Assert.assertEquals(List.of(WALK, WALK, TURN_RIGHT, EXIT), gameLogic.getProgramInstructions());
+    }
+
     /**
      * loadLevelFromFile() tests
      * For those tests to work, the level files must not be inside a folder that contains spaces
@@ -797,18 +822,25 @@ public class GameLogicTest {
     }
 
     @Test
-    public void testLoadLevelFromFile_InvalidFile_InvalidFieldSize_5x5() {
-        GameLogic gameLogic = new GameLogic(new FakeGUI());
-        URL url = this.getClass().getResource("/logic/testfiles/invalidFieldSize.json");
+    public void testLoadLevelFromFile_ValidFile_5x5() {
+        List<Exception> errorMessages = new ArrayList<>();
+        GameLogic gameLogic = new GameLogic(new FakeGUI() {
+            @Override
+            public void showErrorMessage(Exception e) {
+                errorMessages.add(e);
+            }
+        });
+        URL url = this.getClass().getResource("/logic/testfiles/fieldSize_5x5.json");
         File file = new File(Objects.requireNonNull(url).getFile());
 
-        Level levelBeforeLoading = gameLogic.getLevel();
-
-        Assert.assertEquals(levelBeforeLoading, gameLogic.getLevel());
-
         gameLogic.loadLevelFromFile(file);
 
-        Assert.assertEquals(levelBeforeLoading, gameLogic.getLevel());
+        Assert.assertTrue(errorMessages.isEmpty());
+        Assert.assertEquals(5, gameLogic.getLevel().getRows());
+        Assert.assertEquals(5, gameLogic.getLevel().getCols());
+        Assert.assertEquals(FieldType.START, gameLogic.getLevel().getGameFieldCell(1, 0));
+        Assert.assertEquals(2, gameLogic.getLevel().getCoinAmount());
+        Assert.assertTrue(gameLogic.getLevel().validateLevel());
     }
 
     @Test
@@ -886,6 +918,58 @@ public class GameLogicTest {
         Assert.assertEquals(levelBeforeLoading, gameLogic.getLevel());
     }
 
+    @Test
+    public void testLoadLevelFromFileAsync_ValidFile() throws Exception {
+        GameLogic gameLogic = new GameLogic(new FakeGUI());
+        URL url = this.getClass().getResource("/logic/testfiles/fieldSize_5x5.json");
+        File file = new File(Objects.requireNonNull(url).getFile());
+
+        gameLogic.loadLevelFromFileAsync(file.toPath(), Runnable::run).get();
+
+        Assert.assertEquals(5, gameLogic.getLevel().getRows());
+        Assert.assertEquals(FieldType.START, gameLogic.getLevel().getGameFieldCell(1, 0));
+    }
+
+    @Test
+    public void testLoadLevelFromFileAsync_ErrorIsShownByTheGui() throws Exception {
+        List<Exception> errorMessages = new ArrayList<>();
+        GameLogic gameLogic = new GameLogic(new FakeGUI() {
+            @Override
+            public void showErrorMessage(Exception e) {
+                errorMessages.add(e);
+            }
+        });
+        URL url = this.getClass().getResource("/logic/testfiles/noField.json");
+        File file = new File(Objects.requireNonNull(url).getFile());
+        Level levelBeforeLoading = gameLogic.getLevel();
+
+        gameLogic.loadLevelFromFileAsync(file.toPath(), Runnable::run).get();
+
+        Assert.assertEquals(levelBeforeLoading, gameLogic.getLevel());
+        Assert.assertEquals(1, errorMessages.size());
+        Assert.assertTrue(errorMessages.get(0) instanceof NoFieldException);
+    }
+
+    @Test
+    public void testSaveLevelToFileAsync() throws Exception {
+        int[] savedMessages = new int[1];
+        GameLogic gameLogic = new GameLogic(new FakeGUI() {
+            @Override
+            public void showLevelSavedMessage() {
+                savedMessages[0]++;
+            }
+        });
+        File file = File.createTempFile("level", ".json");
+        file.deleteOnExit();
+
+        gameLogic.saveLevelToFileAsync(file.toPath(), Runnable::run).get();
+        GameLogic loaded = new GameLogic(new FakeGUI());
+        loaded.loadLevelFromFile(file);
+
+        Assert.assertEquals(1, savedMessages[0]);
+        Assert.assertEquals(gameLogic.getLevel(), loaded.getLevel());
+    }
+
     /**
      * initializeGameField() tests
      */
@@ -915,4 +999,28 @@ public class GameLogicTest {
         Assert.assertEquals(newLevel, gameLogic.getLevel());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testInitializeGameField_SizeTheGuiCanNotShow() {
+        List<Exception> errorMessages = new ArrayList<>();
+        GameLogic gameLogic = new GameLogic(new FakeGUI() {
+            @Override
+            public boolean canShowGameField(int rows, int cols) {
+                return rows == 8 && cols == 8;
+            }
+
+            @Override
+            public void showErrorMessage(Exception e) {
+                errorMessages.add(e);
+            }
+        });
+        Level initialLevel = gameLogic.getLevel().getLevelCopy();
+
+        gameLogic.initializeGameField(new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST));
+
+        Assert.assertEquals(1, errorMessages.size());
+        Assert.assertTrue(errorMessages.get(0) instanceof UnsupportedFieldSizeException);
+        Assert.assertEquals(initialLevel, gameLogic.getLevel());
+    }
+}
@@ -0,0 +1,227 @@
+package logic.conversion;
+
+import logic.instructions.ContainerStack;
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.InstructionContainer;
+import logic.instructions.ProcedureOne;
+import logic.instructions.ProcedureTwo;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.BotRotation;
+import logic.level.Coord;
+import logic.level.FieldType;
+import logic.level.Level;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for the CompiledProgram class
+ *
+ * @author Timo Peters
+ */
+public class CompiledProgramTest {
+    private final Walk WALK = Walk.getSingleton();
+    private final TurnLeft TURN_LEFT = TurnLeft.getSingleton();
+    private final Exit EXIT = Exit.getSingleton();
+
+    private final List<InstructionContainer> PROGRAM = List.of(InstructionContainer.PROGRAM);
+    private final List<InstructionContainer> PROGRAM_P1 = List.of(InstructionContainer.PROGRAM, InstructionContainer.PROCEDURE_ONE);
+    private final List<InstructionContainer> PROGRAM_P1_P2 = List.of(InstructionContainer.PROGRAM, InstructionContainer.PROCEDURE_ONE, InstructionContainer.PROCEDURE_TWO);
+    private final List<InstructionContainer> RESULT = List.of(InstructionContainer.RESULT);
+
+    /**
+     * compile() tests
+     */
+    @Test
+    public void testCompile_ProcedureSectionsAfterTheProgram() {
+        ProcedureTwo p2 = new ProcedureTwo(new ArrayList<>(List.of(TURN_LEFT)));
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK, p2)));
+
+        int[] code = CompiledProgram.compile(List.of(p1, p1, EXIT)).getCode();
+
+        // program: CALL p1, CALL p1, EXIT, RETURN / p1: WALK, CALL p2, RETURN / p2: TURN_LEFT, RETURN
+        Assert.assertArrayEquals(new int[]{
+                5, 8, 1, 5, 8, 1, 4, 7,
+                0, 5, 13, 2, 7,
+                1, 7
+        }, code);
+    }
+
+    @Test
+    public void testCompile_EmptyProcedureHasNoSection() {
+        int[] code = CompiledProgram.compile(List.of(new ProcedureOne(), WALK)).getCode();
+
+        Assert.assertArrayEquals(new int[]{6, 0, 7}, code);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompile_ProcedureCallsItself() {
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK)));
+        p1.addInstruction(p1);
+
+        CompiledProgram.compile(List.of(p1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompile_ProceduresCallEachOther() {
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK)));
+        ProcedureTwo p2 = new ProcedureTwo(new ArrayList<>(List.of(p1)));
+        p1.addInstruction(p2);
+
+        CompiledProgram.compile(List.of(p2));
+    }
+
+    /**
+     * run() tests
+     */
+    @Test
+    public void testRun_NestedProcedureStacks() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN, FieldType.DOOR}
+        }, BotRotation.EAST);
+        ProcedureTwo p2 = new ProcedureTwo(new ArrayList<>(List.of(WALK)));
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK, p2)));
+
+        List<Move> moves = CompiledProgram.compile(List.of(p1, EXIT)).run(level, ContainerStack.PROGRAM).getMoves();
+
+        Assert.assertEquals(List.of(
+                new Move(new Coord(0, 0), BotRotation.EAST, Action.WALK, PROGRAM_P1),
+                new Move(new Coord(0, 1), BotRotation.EAST, Action.WALK, PROGRAM_P1_P2),
+                new Move(new Coord(0, 2), BotRotation.EAST, Action.COLLECT_COIN, PROGRAM_P1_P2),
+                new Move(new Coord(0, 2), BotRotation.EAST, Action.EXIT, PROGRAM)
+        ), moves);
+        Assert.assertEquals(0, level.getCoinAmount());
+    }
+
+    @Test
+    public void testRun_StopsBeforeTheSecondLostMove() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.WALL}
+        }, BotRotation.EAST);
+
+        List<Move> moves = CompiledProgram.compile(List.of(WALK, TURN_LEFT, WALK, TURN_LEFT)).run(level, ContainerStack.PROGRAM).getMoves();
+
+        Assert.assertEquals(List.of(
+                new Move(new Coord(0, 0), BotRotation.EAST, Action.LOOSE_NEXT_FIELD_BLOCKED, RESULT),
+                new Move(new Coord(0, 0), BotRotation.EAST, Action.TURN_LEFT, PROGRAM)
+        ), moves);
+        Assert.assertEquals(BotRotation.NORTH, level.getBotRotation());
+    }
+
+    @Test
+    public void testRun_SameMovesAsProcedureConversion() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK, WALK, TURN_LEFT, new ProcedureTwo(), WALK)));
+
+        List<Move> compiled = CompiledProgram.compile(List.of(p1)).run(level.getLevelCopy(), ContainerStack.PROGRAM).getMoves();
+        List<Move> converted = p1.convertInstruction(level.getLevelCopy(), ContainerStack.PROGRAM).collect(Collectors.toList());
+
+        Assert.assertEquals(converted, compiled);
+        Assert.assertEquals(Action.LOOSE_NEXT_FIELD_BLOCKED, compiled.get(1).getAction());
+        Assert.assertEquals(Action.EMPTY_PROCEDURE, compiled.get(3).getAction());
+        Assert.assertEquals(PROGRAM_P1, compiled.get(3).getInstructionContainer());
+    }
+
+    @Test
+    public void testRun_EmptyProgram() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR}
+        }, BotRotation.EAST);
+        List<Instruction> program = List.of();
+
+        Assert.assertEquals(0, CompiledProgram.compile(program).run(level, ContainerStack.PROGRAM).size());
+    }
+
+    /**
+     * fastForward() tests
+     */
+    @Test
+    public void testFastForward_RepeatedCallsAreAppliedFromTheSummary() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(TURN_LEFT, TURN_LEFT, TURN_LEFT, TURN_LEFT)));
+        List<Instruction> program = List.of(p1, p1, p1, WALK, EXIT);
+
+        ConversionSummary summary = CompiledProgram.compile(program).fastForward(level);
+
+        Assert.assertEquals(2, summary.getSummarizedCalls());
+        Assert.assertEquals(Action.WIN, summary.getFinalAction());
+        Assert.assertEquals(15, summary.getSteps());
+        Assert.assertEquals(new Coord(0, 1), level.getCurrentBotPosition());
+    }
+
+    @Test
+    public void testFastForward_SummaryIsNotAppliedAfterTheBoardChanged() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK, TURN_LEFT, TURN_LEFT, WALK, TURN_LEFT, TURN_LEFT)));
+        List<Instruction> program = List.of(p1, p1, WALK, WALK, EXIT);
+
+        ConversionSummary summary = CompiledProgram.compile(program).fastForward(level);
+
+        // the second call starts in the same state, but the coin was collected by the first one
+        Assert.assertEquals(0, summary.getSummarizedCalls());
+        Assert.assertEquals(1, summary.getCoinsCollected());
+        Assert.assertEquals(Action.WIN, summary.getFinalAction());
+    }
+
+    @Test
+    public void testFastForward_SameOutcomeAsConversion() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.GAP, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        ProcedureTwo p2 = new ProcedureTwo(new ArrayList<>(List.of(WALK, TurnRight.getSingleton(), WALK)));
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK, WALK, WALK, TURN_LEFT, p2)));
+        List<Instruction> program = List.of(p1, p2, p1, p2, EXIT);
+        Level converted = level.getLevelCopy();
+        Level fastForwarded = level.getLevelCopy();
+
+        List<Move> moves = CompiledProgram.compile(program).run(converted, ContainerStack.PROGRAM).getMoves();
+        ConversionSummary summary = CompiledProgram.compile(program).fastForward(fastForwarded);
+
+        Assert.assertEquals(moves.size() + 1, summary.getSteps());
+        Assert.assertEquals(converted, fastForwarded);
+        Assert.assertEquals(converted.getCurrentBotPosition(), fastForwarded.getCurrentBotPosition());
+        Assert.assertEquals(converted.getZobristHash(), fastForwarded.getZobristHash());
+        Assert.assertEquals(converted.getCoinAmount(), fastForwarded.getCoinAmount());
+    }
+
+    @Test
+    public void testFastForward_InstructionsAfterExit() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        ConversionSummary summary = CompiledProgram.compile(List.of(EXIT, TURN_LEFT, TURN_LEFT)).fastForward(level);
+
+        Assert.assertEquals(Action.LOOSE_INSTRUCTIONS_AFTER_EXIT, summary.getFinalAction());
+        Assert.assertEquals(1, summary.getSteps());
+        Assert.assertFalse(summary.hasLostMoves());
+    }
+
+    @Test
+    public void testFastForward_EmptyProgram() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR}
+        }, BotRotation.EAST);
+        List<Instruction> program = List.of();
+
+        ConversionSummary summary = CompiledProgram.compile(program).fastForward(level);
+
+        Assert.assertEquals(Action.LOOSE_NO_ACTIONS, summary.getFinalAction());
+        Assert.assertEquals(1, summary.getSteps());
+    }
+}
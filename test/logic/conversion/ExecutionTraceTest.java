@@ -0,0 +1,108 @@
+package logic.conversion;
+
+import logic.instructions.ContainerStack;
+import logic.instructions.InstructionContainer;
+import logic.level.BotRotation;
+import logic.level.Coord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the ExecutionTrace class
+ *
+ * @author Timo Peters
+ */
+public class ExecutionTraceTest {
+    private final List<InstructionContainer> PROGRAM = List.of(InstructionContainer.PROGRAM);
+    private final List<InstructionContainer> PROGRAM_P1 = List.of(InstructionContainer.PROGRAM, InstructionContainer.PROCEDURE_ONE);
+    private final List<InstructionContainer> RESULT = List.of(InstructionContainer.RESULT);
+
+    /**
+     * cursor() tests
+     */
+    @Test
+    public void testCursor() {
+        ExecutionTrace trace = new ExecutionTrace();
+        trace.add(new Coord(3, 1000), BotRotation.WEST, Action.WALK, ContainerStack.of(PROGRAM_P1));
+        trace.add(null, BotRotation.NORTH, Action.LOOSE_NO_ACTIONS, ContainerStack.of(RESULT));
+
+        ExecutionTrace.Cursor cursor = trace.cursor();
+
+        Assert.assertTrue(cursor.next());
+        Assert.assertEquals(3, cursor.getRow());
+        Assert.assertEquals(1000, cursor.getCol());
+        Assert.assertEquals(new Coord(3, 1000), cursor.getCurrentBotPosition());
+        Assert.assertEquals(BotRotation.WEST, cursor.getCurrentBotRotation());
+        Assert.assertEquals(Action.WALK, cursor.getAction());
+        Assert.assertEquals(PROGRAM_P1, cursor.getInstructionContainer());
+        Assert.assertFalse(cursor.isResult());
+
+        Assert.assertTrue(cursor.next());
+        Assert.assertNull(cursor.getCurrentBotPosition());
+        Assert.assertTrue(cursor.isResult());
+
+        Assert.assertFalse(cursor.next());
+        Assert.assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testCursor_SharesInternedStacks() {
+        ExecutionTrace trace = new ExecutionTrace();
+        trace.add(new Coord(0, 0), BotRotation.EAST, Action.WALK, ContainerStack.of(PROGRAM_P1));
+        trace.add(new Coord(0, 1), BotRotation.EAST, Action.WALK, ContainerStack.of(PROGRAM));
+        trace.add(new Coord(0, 2), BotRotation.EAST, Action.WALK, ContainerStack.of(PROGRAM_P1));
+
+        ExecutionTrace.Cursor first = trace.cursor();
+        first.moveTo(0);
+        ExecutionTrace.Cursor last = trace.cursor();
+        last.moveTo(2);
+
+        Assert.assertSame(first.getInstructionContainer(), last.getInstructionContainer());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCursor_StacksAreReadOnly() {
+        ExecutionTrace trace = new ExecutionTrace();
+        trace.add(new Coord(0, 0), BotRotation.EAST, Action.WALK, ContainerStack.of(PROGRAM));
+
+        ExecutionTrace.Cursor cursor = trace.cursor();
+        cursor.next();
+        cursor.getInstructionContainer().add(InstructionContainer.PROCEDURE_ONE);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCursor_MoveOutsideTheTrace() {
+        new ExecutionTrace().cursor().moveTo(0);
+    }
+
+    /**
+     * getMoves() and truncate() tests
+     */
+    @Test
+    public void testGetMoves_ManySteps() {
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            moves.add(new Move(new Coord(i, i + 1), BotRotation.values()[i % 4], Action.values()[i % Action.values().length], i % 2 == 0 ? PROGRAM : PROGRAM_P1));
+        }
+
+        Assert.assertEquals(moves, new ExecutionTrace(moves).getMoves());
+    }
+
+    @Test
+    public void testTruncate() {
+        ExecutionTrace trace = new ExecutionTrace();
+        trace.add(new Coord(0, 0), BotRotation.EAST, Action.WALK, ContainerStack.of(PROGRAM));
+        trace.add(new Coord(0, 1), BotRotation.EAST, Action.EXIT, ContainerStack.of(PROGRAM));
+        trace.add(new Coord(0, 1), BotRotation.EAST, Action.TURN_LEFT, ContainerStack.of(PROGRAM));
+
+        trace.truncate(1);
+        trace.add(new Coord(0, 1), BotRotation.EAST, Action.LOOSE_INSTRUCTIONS_AFTER_EXIT, ContainerStack.of(RESULT));
+
+        Assert.assertEquals(2, trace.size());
+        Assert.assertEquals(Action.WALK, trace.getAction(0));
+        Assert.assertEquals(Action.LOOSE_INSTRUCTIONS_AFTER_EXIT, trace.getAction(1));
+    }
+}
@@ -0,0 +1,169 @@
+package logic.grading;
+
+import logic.conversion.Action;
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.ProcedureOne;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import logic.level.SavedState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the BatchGrader class
+ *
+ * @author Timo Peters
+ */
+public class BatchGraderTest {
+    private final Walk WALK = Walk.getSingleton();
+    private final TurnRight TURN_RIGHT = TurnRight.getSingleton();
+    private final Exit EXIT = Exit.getSingleton();
+
+    /**
+     * start in the top left corner facing east, a coin right next to it and the door at the end of the row
+     */
+    private final SavedState LEVEL = new SavedState(new int[][]{
+            {4, 1, 3, 2, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5},
+            {5, 5, 5, 5, 5, 5, 5, 5}
+    }, 1);
+
+    private Submission solution(String id) {
+        List<Instruction> program = List.of(new ProcedureOne(), EXIT);
+        return new Submission(id, LEVEL, program, List.of(WALK, WALK, WALK), List.of());
+    }
+
+    /**
+     * grade(Submission) tests
+     */
+    @Test
+    public void testGrade_Win() {
+        Verdict verdict = new BatchGrader().grade(solution("a"));
+
+        Assert.assertEquals(new Verdict("a", Action.WIN, 6, 1), verdict);
+        Assert.assertTrue(verdict.isWin());
+    }
+
+    @Test
+    public void testGrade_Loose() {
+        Submission submission = new Submission("b", LEVEL, List.of(TURN_RIGHT, WALK), List.of(), List.of());
+
+        Verdict verdict = new BatchGrader().grade(submission);
+
+        Assert.assertEquals(Action.LOOSE_NEXT_FIELD_BLOCKED, verdict.getFinalAction());
+        Assert.assertEquals(0, verdict.getCoinsCollected());
+    }
+
+    @Test
+    public void testGrade_RecursionInSubmittedProcedure() {
+        Submission submission = new Submission("c", LEVEL, List.of(new ProcedureOne()), List.of(WALK, new ProcedureOne()), List.of());
+
+        Verdict verdict = new BatchGrader().grade(submission);
+
+        Assert.assertEquals(Action.LOOSE_RECURSION_PROCEDURE_CALLS_ITSELF, verdict.getFinalAction());
+        Assert.assertEquals(1, verdict.getSteps());
+    }
+
+    @Test
+    public void testGrade_InvalidLevel() {
+        Submission submission = new Submission("d", new SavedState(null, 1), List.of(WALK), List.of(), List.of());
+
+        Verdict verdict = new BatchGrader().grade(submission);
+
+        Assert.assertFalse(verdict.isValidLevel());
+    }
+
+    @Test
+    public void testGrade_SameSavedStateIsNotChangedByPreviousGrading() {
+        BatchGrader grader = new BatchGrader();
+
+        Verdict first = grader.grade(solution("first"));
+        Verdict second = grader.grade(solution("second"));
+
+        Assert.assertEquals(1, first.getCoinsCollected());
+        Assert.assertEquals(1, second.getCoinsCollected());
+        Assert.assertEquals(Action.WIN, second.getFinalAction());
+        Assert.assertEquals(2, grader.getGradedCount());
+    }
+
+    /**
+     * grade(Stream) tests
+     */
+    @Test
+    public void testGradeStream_KeepsTheOrderOfTheSubmissions() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BatchGrader grader = new BatchGrader(executor, 3);
+            List<Submission> submissions = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                submissions.add(i % 2 == 0
+                        ? solution(String.valueOf(i))
+                        : new Submission(String.valueOf(i), LEVEL, List.of(WALK), List.of(), List.of()));
+            }
+
+            List<Verdict> verdicts = grader.grade(submissions.stream()).collect(Collectors.toList());
+
+            Assert.assertEquals(IntStream.range(0, 50).mapToObj(String::valueOf).collect(Collectors.toList()),
+                    verdicts.stream().map(Verdict::getId).collect(Collectors.toList()));
+            for (int i = 0; i < 50; i++) {
+                Assert.assertEquals(i % 2 == 0 ? Action.WIN : Action.LOOSE_NOT_ENDING_WITH_EXIT, verdicts.get(i).getFinalAction());
+            }
+            Assert.assertEquals(50, grader.getGradedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGradeStream_ReusesWorkersOnNewThreads() {
+        // the threads end right after their task, so like on a virtual-thread-per-task executor nearly every
+        // submission is graded on a new thread
+        ExecutorService executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.NANOSECONDS, new SynchronousQueue<>());
+        BatchGrader grader = new BatchGrader(executor, 2);
+        try {
+            List<Verdict> verdicts = grader.grade(IntStream.range(0, 200).mapToObj(i -> solution(String.valueOf(i))))
+                    .collect(Collectors.toList());
+
+            Assert.assertTrue(verdicts.stream().allMatch(Verdict::isWin));
+            Assert.assertTrue(grader.getCreatedWorkers() <= 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGradeStream_EmptyStream() {
+        Assert.assertEquals(0, new BatchGrader().grade(Stream.empty()).count());
+    }
+
+    /**
+     * throughput tests
+     */
+    @Test
+    public void testResetThroughput() {
+        BatchGrader grader = new BatchGrader();
+        grader.grade(solution("a"));
+
+        grader.resetThroughput();
+
+        Assert.assertEquals(0, grader.getGradedCount());
+        Assert.assertEquals(0.0, grader.getThroughput(), 0.0);
+    }
+}
@@ -0,0 +1,57 @@
+package logic.instructions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for the ContainerStack class
+ *
+ * @author Timo Peters
+ */
+public class ContainerStackTest {
+
+    @Test
+    public void testPushIsInterned() {
+        ContainerStack p1 = ContainerStack.PROGRAM.push(InstructionContainer.PROCEDURE_ONE);
+
+        Assert.assertSame(p1, ContainerStack.PROGRAM.push(InstructionContainer.PROCEDURE_ONE));
+        Assert.assertSame(p1, ContainerStack.of(List.of(InstructionContainer.PROGRAM, InstructionContainer.PROCEDURE_ONE)));
+        Assert.assertNotSame(p1, ContainerStack.PROGRAM.push(InstructionContainer.PROCEDURE_TWO));
+    }
+
+    @Test
+    public void testPop() {
+        ContainerStack stack = ContainerStack.PROGRAM
+                .push(InstructionContainer.PROCEDURE_ONE)
+                .push(InstructionContainer.PROCEDURE_TWO);
+
+        Assert.assertEquals(3, stack.size());
+        Assert.assertEquals(InstructionContainer.PROCEDURE_TWO, stack.peek());
+        Assert.assertSame(ContainerStack.PROGRAM, stack.pop().pop());
+        Assert.assertSame(ContainerStack.EMPTY, ContainerStack.RESULT.pop());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPop_Empty() {
+        ContainerStack.EMPTY.pop();
+    }
+
+    @Test
+    public void testToList() {
+        ContainerStack stack = ContainerStack.PROGRAM.push(InstructionContainer.PROCEDURE_TWO);
+
+        Assert.assertEquals(List.of(InstructionContainer.PROGRAM, InstructionContainer.PROCEDURE_TWO), stack.toList());
+        Assert.assertEquals(List.of(), ContainerStack.EMPTY.toList());
+        Assert.assertNull(ContainerStack.EMPTY.peek());
+    }
+
+    @Test
+    public void testById() {
+        ContainerStack stack = ContainerStack.RESULT.push(InstructionContainer.PROGRAM);
+
+        Assert.assertSame(stack, ContainerStack.byId(stack.getId()));
+        Assert.assertSame(ContainerStack.EMPTY, ContainerStack.byId(0));
+    }
+}
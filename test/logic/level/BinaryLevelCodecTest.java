@@ -0,0 +1,215 @@
+package logic.level;
+
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for the BinaryLevelCodec and BinaryLevelPack classes
+ *
+ * @author Timo Peters
+ */
+public class BinaryLevelCodecTest {
+
+    /**
+     * Creates a random level with a start cell in the top left corner.
+     */
+    private static Level createRandomLevel(Random random, int rows, int cols) {
+        FieldType[][] field = new FieldType[rows][cols];
+        for (FieldType[] row : field) {
+            for (int col = 0; col < cols; col++) {
+                row[col] = FieldType.values()[random.nextInt(FieldType.values().length)];
+            }
+        }
+        field[0][0] = FieldType.START;
+        return new Level(field, BotRotation.values()[random.nextInt(4)]);
+    }
+
+    private static void assertSameLevel(Level expected, Level actual) {
+        Assert.assertArrayEquals(expected.getGameField(), actual.getGameField());
+        Assert.assertEquals(expected.getBotRotation(), actual.getBotRotation());
+    }
+
+    /**
+     * encode() and decode() tests
+     */
+    @Test
+    public void testEncode_8x8Takes26Bytes() {
+        Level level = createRandomLevel(new Random(1), 8, 8);
+
+        Assert.assertEquals(26, BinaryLevelCodec.getEncodedSize(8, 8));
+        Assert.assertEquals(26, BinaryLevelCodec.encode(level).length);
+    }
+
+    @Test
+    public void testEncode_GenericSize() {
+        // 6 header bytes and 3 * 5 * 3 = 45 bits of cells
+        Assert.assertEquals(12, BinaryLevelCodec.encode(createRandomLevel(new Random(2), 3, 5)).length);
+        Assert.assertEquals(6 + 600, BinaryLevelCodec.getEncodedSize(40, 40));
+    }
+
+    @Test
+    public void testDecode_RoundTrip() throws Exception {
+        Random random = new Random(3);
+        int[][] sizes = {{8, 8}, {1, 1}, {1, 7}, {3, 5}, {8, 9}, {17, 4}, {100, 100}};
+        for (int[] size : sizes) {
+            for (int i = 0; i < 20; i++) {
+                Level level = createRandomLevel(random, size[0], size[1]);
+                Level decoded = BinaryLevelCodec.decode(BinaryLevelCodec.encode(level));
+
+                assertSameLevel(level, decoded);
+                Assert.assertEquals(level, decoded);
+            }
+        }
+    }
+
+    @Test
+    public void testDecode_SameSavedStateAsLevel() {
+        Level level = createRandomLevel(new Random(4), 8, 8);
+
+        SavedState savedState = BinaryLevelCodec.decodeSavedState(ByteBuffer.wrap(BinaryLevelCodec.encode(level)), 0);
+
+        Assert.assertArrayEquals(level.createSavedState().getGameField(), savedState.getGameField());
+        Assert.assertEquals(level.createSavedState().getBotRotation(), savedState.getBotRotation());
+    }
+
+    @Test
+    public void testDecode_AtIndexWithoutChangingPosition() throws Exception {
+        Level level = createRandomLevel(new Random(5), 2, 3);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        int size = BinaryLevelCodec.encode(level, buffer, 10);
+
+        Assert.assertEquals(size, BinaryLevelCodec.getEncodedSize(buffer, 10));
+        assertSameLevel(level, BinaryLevelCodec.decode(buffer, 10));
+        Assert.assertEquals(0, buffer.position());
+    }
+
+    @Test(expected = InvalidFieldTypeException.class)
+    public void testDecode_InvalidFieldType() throws Exception {
+        byte[] bytes = BinaryLevelCodec.encode(createRandomLevel(new Random(6), 8, 8));
+        // field type 7 in the first cell
+        bytes[2] |= 0b111;
+        BinaryLevelCodec.decode(bytes);
+    }
+
+    @Test(expected = InvalidBotRotationException.class)
+    public void testDecode_InvalidBotRotation() throws Exception {
+        byte[] bytes = BinaryLevelCodec.encode(createRandomLevel(new Random(7), 8, 8));
+        bytes[1] = 4;
+        BinaryLevelCodec.decode(bytes);
+    }
+
+    @Test(expected = InvalidFieldSizeException.class)
+    public void testDecode_EmptyField() throws Exception {
+        BinaryLevelCodec.decode(new byte[]{BinaryLevelCodec.FORMAT_GENERIC, 0, 0, 0, 0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_UnknownFormat() {
+        BinaryLevelCodec.decodeSavedState(ByteBuffer.wrap(new byte[26]).put(0, (byte) 9), 0);
+    }
+
+    /**
+     * BinaryLevelPack tests
+     */
+    @Test
+    public void testPack_LoadsLevelsByNumber() throws Exception {
+        Random random = new Random(8);
+        List<Level> levels = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            levels.add(i % 50 == 0 ? createRandomLevel(random, 1 + random.nextInt(30), 1 + random.nextInt(30))
+                    : createRandomLevel(random, 8, 8));
+        }
+
+        Path file = Files.createTempFile("pack", ".bin");
+        try {
+            Assert.assertEquals(500, BinaryLevelPack.write(file, levels.iterator()));
+            BinaryLevelPack pack = BinaryLevelPack.open(file);
+
+            Assert.assertEquals(500, pack.size());
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                assertSameLevel(levels.get(i), pack.getLevel(i));
+                Assert.assertEquals(BinaryLevelCodec.encode(levels.get(i)).length, pack.getEncodedSize(i));
+            }
+            Assert.assertEquals(26, pack.getEncodedSize(1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testPack_FromLevelPackReader() throws Exception {
+        Random random = new Random(9);
+        StringWriter json = new StringWriter();
+        try (LevelPackWriter writer = new LevelPackWriter(json, "Pack", null, null)) {
+            for (int i = 0; i < 20; i++) {
+                writer.write(createRandomLevel(random, 8, 8).createSavedState());
+            }
+        }
+
+        Path file = Files.createTempFile("pack", ".bin");
+        try {
+            try (LevelPackReader reader = new LevelPackReader(new StringReader(json.toString()))) {
+                Assert.assertEquals(20, BinaryLevelPack.write(file, reader));
+            }
+            // an 8x8 level takes 26 bytes and an index entry, besides the header and the last index entry
+            Assert.assertEquals(BinaryLevelPack.HEADER_SIZE + 20 * (26 + 4) + 4, Files.size(file));
+
+            BinaryLevelPack pack = BinaryLevelPack.open(file);
+            try (LevelPackReader reader = new LevelPackReader(new StringReader(json.toString()))) {
+                for (int i = 0; i < 20; i++) {
+                    assertSameLevel(reader.next(), pack.getLevel(i));
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testPack_Empty() throws Exception {
+        Path file = Files.createTempFile("pack", ".bin");
+        try {
+            Assert.assertEquals(0, BinaryLevelPack.write(file, new ArrayList<Level>().iterator()));
+            Assert.assertEquals(0, BinaryLevelPack.open(file).size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPack_LevelOutOfBounds() throws Exception {
+        Path file = Files.createTempFile("pack", ".bin");
+        try {
+            BinaryLevelPack.write(file, List.of(createRandomLevel(new Random(10), 8, 8)).iterator());
+            BinaryLevelPack.open(file).getSavedState(1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testPack_NoPack() throws Exception {
+        Path file = Files.createTempFile("pack", ".bin");
+        try {
+            Files.write(file, Arrays.copyOf("{\"levels\": []}".getBytes(), 32));
+            BinaryLevelPack.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
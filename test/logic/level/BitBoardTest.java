@@ -0,0 +1,143 @@
+package logic.level;
+
+import logic.conversion.Action;
+import logic.conversion.Move;
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.ContainerStack;
+import logic.instructions.Jump;
+import logic.instructions.ProcedureOne;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.instructions.Walk;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for the BitBoard class and the execution of instructions on it
+ *
+ * @author Timo Peters
+ */
+public class BitBoardTest {
+    private final Walk WALK = Walk.getSingleton();
+    private final TurnLeft TURN_LEFT = TurnLeft.getSingleton();
+    private final TurnRight TURN_RIGHT = TurnRight.getSingleton();
+    private final Jump JUMP = Jump.getSingleton();
+    private final Exit EXIT = Exit.getSingleton();
+
+    private Level createLevel() {
+        return new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.GAP, FieldType.COIN},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.DOOR, FieldType.NORMAL, FieldType.COIN, FieldType.NORMAL}
+        }, BotRotation.EAST);
+    }
+
+    /**
+     * Constructor and toLevel() tests
+     */
+    @Test
+    public void testToLevel_SameAsOriginalLevel() {
+        Level level = createLevel();
+        BitBoard board = new BitBoard(level);
+
+        Assert.assertEquals(level, board.toLevel());
+        Assert.assertEquals(2, board.getCoinAmount());
+        Assert.assertEquals(0, board.getBotPosition());
+        Assert.assertEquals(BotRotation.EAST, board.getBotRotation());
+        Assert.assertEquals((1L << 3) | (1L << 10), board.getBoard(FieldType.COIN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_TooManyCells() {
+        FieldType[][] field = new FieldType[9][8];
+        for (FieldType[] row : field) {
+            Arrays.fill(row, FieldType.NORMAL);
+        }
+        new BitBoard(new Level(field, BotRotation.NORTH));
+    }
+
+    @Test
+    public void testCopyFrom_IndependentCopy() {
+        BitBoard board = new BitBoard(createLevel());
+        BitBoard copy = new BitBoard(board);
+
+        WALK.execute(copy);
+        Assert.assertEquals(0, board.getBotPosition());
+        Assert.assertEquals(1, copy.getBotPosition());
+
+        copy.copyFrom(board);
+        Assert.assertEquals(0, copy.getBotPosition());
+    }
+
+    /**
+     * execute() tests
+     */
+    @Test
+    public void testExecute_SameResultAsConvertInstruction() {
+        List<Instruction> instructions = List.of(WALK, JUMP, TURN_RIGHT, WALK, WALK, TURN_RIGHT, WALK, WALK, EXIT);
+        Level level = createLevel();
+        BitBoard board = new BitBoard(level);
+
+        for (Instruction instruction : instructions) {
+            List<Move> moves = instruction.convertInstruction(level, ContainerStack.PROGRAM).collect(Collectors.toList());
+            Action action = instruction.execute(board);
+
+            Assert.assertEquals(moves.get(moves.size() - 1).getAction(), action);
+            Assert.assertEquals(level.getBotRotation(), board.getBotRotation());
+            Assert.assertEquals(level.getCoinAmount(), board.getCoinAmount());
+            Assert.assertArrayEquals(level.getGameField(), board.toLevel().getGameField());
+        }
+    }
+
+    @Test
+    public void testExecute_LooseActions() {
+        BitBoard board = new BitBoard(createLevel());
+
+        Assert.assertEquals(Action.LOOSE_CAN_NOT_JUMP, JUMP.execute(board));
+        Assert.assertEquals(Action.LOOSE_DOOR_OUT_OF_REACH, EXIT.execute(board));
+        Assert.assertEquals(Action.TURN_LEFT, TURN_LEFT.execute(board));
+        // the bot looks outside the game field
+        Assert.assertEquals(Action.LOOSE_NEXT_FIELD_BLOCKED, WALK.execute(board));
+    }
+
+    @Test
+    public void testExecute_ExitWithUncollectedCoins() {
+        BitBoard board = new BitBoard(new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR, FieldType.COIN}
+        }, BotRotation.EAST));
+
+        Assert.assertEquals(Action.LOOSE_UNCOLLECTED_COINS, EXIT.execute(board));
+    }
+
+    @Test
+    public void testExecute_ProcedureStopsAtFirstLoose() {
+        BitBoard board = new BitBoard(createLevel());
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(WALK, WALK, TURN_RIGHT)));
+
+        Assert.assertEquals(Action.LOOSE_NEXT_FIELD_BLOCKED, p1.execute(board));
+        Assert.assertEquals(BotRotation.EAST, board.getBotRotation());
+    }
+
+    @Test
+    public void testExecute_ProcedureWithInstructionsAfterExit() {
+        BitBoard board = new BitBoard(new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR}
+        }, BotRotation.EAST));
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(EXIT, TURN_LEFT)));
+
+        Assert.assertEquals(Action.LOOSE_INSTRUCTIONS_AFTER_EXIT, p1.execute(board));
+    }
+
+    @Test
+    public void testExecute_EmptyProcedure() {
+        BitBoard board = new BitBoard(createLevel());
+
+        Assert.assertEquals(Action.EMPTY_PROCEDURE, new ProcedureOne().execute(board));
+    }
+}
@@ -105,4 +105,29 @@ public class CoordTest {
 
         Assert.assertEquals(new Coord(1, 0), res);
     }
-}
\ No newline at end of file
+
+    /**
+     * of() tests
+     */
+    @Test
+    public void testOf_CellsOfTheGameFieldAreShared() {
+        Assert.assertSame(Coord.of(3, 7), Coord.of(3, 7));
+        Assert.assertSame(Coord.of(-1, 0), Coord.getNextCoord(Coord.of(0, 0), BotRotation.NORTH));
+        Assert.assertEquals(new Coord(3, 7), Coord.of(3, 7));
+    }
+
+    @Test
+    public void testOf_OutsideOfTheFlyweightTable() {
+        Coord coord = Coord.of(1000, -300);
+
+        Assert.assertEquals(1000, coord.getRow());
+        Assert.assertEquals(-300, coord.getCol());
+        Assert.assertEquals(new Coord(1000, -300), coord);
+        Assert.assertEquals(new Coord(1000, -300).hashCode(), coord.hashCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOf_OutOfRange() {
+        Coord.of(0, 1 << 16);
+    }
+}
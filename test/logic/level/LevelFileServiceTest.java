@@ -0,0 +1,141 @@
+package logic.level;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import logic.exceptions.EmptyFileException;
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldSizeException;
+import logic.exceptions.InvalidFieldTypeException;
+import logic.exceptions.NoBotRotationException;
+import logic.exceptions.NoFieldException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Tests for the LevelFileService class and its SavedStateTypeAdapter
+ *
+ * @author Timo Peters
+ */
+public class LevelFileServiceTest {
+
+    private static Level createLevel() {
+        return new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.WALL, FieldType.GAP, FieldType.DOOR}
+        }, BotRotation.SOUTH);
+    }
+
+    /**
+     * readLevel() and writeLevel() tests
+     */
+    @Test
+    public void testWriteLevel_RoundTrip() throws Exception {
+        Level level = createLevel();
+        StringWriter writer = new StringWriter();
+
+        LevelFileService.writeLevel(level.createSavedState(), writer);
+        Level loaded = LevelFileService.readLevel(new StringReader(writer.toString()));
+
+        Assert.assertArrayEquals(level.getGameField(), loaded.getGameField());
+        Assert.assertEquals(BotRotation.SOUTH, loaded.getBotRotation());
+    }
+
+    @Test
+    public void testWriteLevel_SameJsonAsReflection() throws Exception {
+        StringWriter writer = new StringWriter();
+
+        LevelFileService.writeLevel(createLevel().createSavedState(), writer);
+
+        Assert.assertEquals(new GsonBuilder().setPrettyPrinting().create().toJson(createLevel().createSavedState()),
+                writer.toString());
+    }
+
+    @Test
+    public void testReadLevel_UnknownPropertiesAreSkipped() throws Exception {
+        Level level = LevelFileService.readLevel(new StringReader(
+                "{\"name\": {\"a\": [1, 2]}, \"field\": [[4, 2]], \"botRotation\": 1, \"author\": \"someone\"}"));
+
+        Assert.assertEquals(FieldType.DOOR, level.getGameFieldCell(0, 1));
+        Assert.assertEquals(BotRotation.EAST, level.getBotRotation());
+    }
+
+    @Test(expected = EmptyFileException.class)
+    public void testReadLevel_Empty() throws Exception {
+        LevelFileService.readLevel(new StringReader(""));
+    }
+
+    @Test
+    public void testReadLevel_InvalidFieldTypeStopsReading() throws Exception {
+        try {
+            // the rest of the field is broken JSON, which is never read
+            LevelFileService.readLevel(new StringReader("{\"field\": [[4, 3], [2, 6], [,,,"));
+            Assert.fail();
+        } catch (InvalidFieldTypeException e) {
+            Assert.assertTrue(e.getMessage().contains("(1,1)"));
+        }
+    }
+
+    @Test(expected = InvalidFieldSizeException.class)
+    public void testReadLevel_NotRectangular() throws Exception {
+        LevelFileService.readLevel(new StringReader("{\"field\": [[4, 3], [2]], \"botRotation\": 0}"));
+    }
+
+    @Test(expected = NoFieldException.class)
+    public void testReadLevel_FieldNull() throws Exception {
+        LevelFileService.readLevel(new StringReader("{\"field\": null, \"botRotation\": 0}"));
+    }
+
+    @Test(expected = NoBotRotationException.class)
+    public void testReadLevel_NoBotRotation() throws Exception {
+        LevelFileService.readLevel(new StringReader("{\"field\": [[4, 2]]}"));
+    }
+
+    @Test(expected = InvalidBotRotationException.class)
+    public void testReadLevel_InvalidBotRotation() throws Exception {
+        LevelFileService.readLevel(new StringReader("{\"field\": [[4, 2]], \"botRotation\": 4}"));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testReadLevel_CellIsNoInt() throws Exception {
+        LevelFileService.readLevel(new StringReader("{\"field\": [[4, 2.5]], \"botRotation\": 0}"));
+    }
+
+    /**
+     * readLevelAsync() and writeLevelAsync() tests
+     */
+    @Test
+    public void testWriteLevelAsync_RoundTrip() throws Exception {
+        LevelFileService service = new LevelFileService();
+        Path file = Files.createTempFile("level", ".json");
+        try {
+            service.writeLevelAsync(createLevel().createSavedState(), file).get();
+            Level loaded = service.readLevelAsync(file).get();
+
+            Assert.assertArrayEquals(createLevel().getGameField(), loaded.getGameField());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadLevelAsync_InvalidFile() throws InterruptedException {
+        URL url = this.getClass().getResource("/logic/testfiles/invalidFieldType.json");
+        Path file = new File(Objects.requireNonNull(url).getFile()).toPath();
+
+        try {
+            new LevelFileService().readLevelAsync(file).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof InvalidFieldTypeException);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package logic.level;
+
+import com.google.gson.JsonParseException;
+import logic.exceptions.InvalidBotRotationException;
+import logic.exceptions.InvalidFieldTypeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the LevelPackReader and LevelPackWriter classes
+ *
+ * @author Timo Peters
+ */
+public class LevelPackReaderTest {
+
+    private static Level createLevel(BotRotation rotation) {
+        return new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.WALL, FieldType.GAP, FieldType.DOOR}
+        }, rotation);
+    }
+
+    private static String createPack(int levels) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (LevelPackWriter packWriter = new LevelPackWriter(writer, "Pack", "Timo", null)) {
+            for (int i = 0; i < levels; i++) {
+                packWriter.write(createLevel(BotRotation.values()[i % 4]).createSavedState());
+            }
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Reader which fails once it is read beyond a given amount of characters
+     */
+    private static class LimitedReader extends StringReader {
+        private int remaining;
+
+        LimitedReader(String json, int limit) {
+            super(json);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, Math.min(length, Math.max(remaining, 1)));
+            remaining -= Math.max(read, 0);
+            if (remaining < 0) {
+                throw new IOException("read too far");
+            }
+            return read;
+        }
+    }
+
+    /**
+     * next() and hasNext() tests
+     */
+    @Test
+    public void testNext_RoundTrip() throws Exception {
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(createPack(6)))) {
+            for (int i = 0; i < 6; i++) {
+                Assert.assertTrue(reader.hasNext());
+                Level level = reader.next();
+                Assert.assertArrayEquals(createLevel(BotRotation.NORTH).getGameField(), level.getGameField());
+                Assert.assertEquals(BotRotation.values()[i % 4], level.getBotRotation());
+            }
+            Assert.assertFalse(reader.hasNext());
+            Assert.assertEquals(6, reader.getLevelsRead());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNext_NoMoreLevels() throws Exception {
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(createPack(0)))) {
+            Assert.assertFalse(reader.hasNext());
+            reader.next();
+        }
+    }
+
+    @Test
+    public void testNext_ParsesLazily() throws Exception {
+        String pack = createPack(1000);
+        int firstLevelEnd = pack.indexOf('}') + 1;
+
+        // the first level is read without reading the rest of the pack
+        try (LevelPackReader reader = new LevelPackReader(new LimitedReader(pack, firstLevelEnd + 1024))) {
+            Assert.assertEquals(BotRotation.NORTH, reader.next().getBotRotation());
+        }
+    }
+
+    @Test
+    public void testNext_InvalidLevelTellsIndex() throws Exception {
+        String json = "{\"levels\": [{\"field\": [[4, 1, 2]], \"botRotation\": 0},"
+                + " {\"field\": [[4, 1, 2]], \"botRotation\": 7},"
+                + " {\"field\": [[4, 2, 1]], \"botRotation\": 1}]}";
+
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(json))) {
+            reader.next();
+            try {
+                reader.next();
+                Assert.fail("The invalid level was not reported");
+            } catch (LevelPackReader.InvalidLevelException e) {
+                Assert.assertEquals(1, e.getIndex());
+                Assert.assertTrue(e.getCause() instanceof InvalidBotRotationException);
+            }
+
+            // the invalid level was read completely, so the next one can still be read
+            Assert.assertEquals(BotRotation.EAST, reader.next().getBotRotation());
+        }
+    }
+
+    @Test
+    public void testNext_InvalidFieldTypeSkipsLevel() throws Exception {
+        String json = "{\"levels\": [{\"field\": [[4, 9, 2], [3, 3, 3]], \"botRotation\": 0, \"extra\": {\"a\": [1]}},"
+                + " {\"field\": [[4, 1, 2]], \"botRotation\": 1}]}";
+
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(json))) {
+            try {
+                reader.next();
+                Assert.fail("The invalid level was not reported");
+            } catch (LevelPackReader.InvalidLevelException e) {
+                Assert.assertEquals(0, e.getIndex());
+                Assert.assertTrue(e.getCause() instanceof InvalidFieldTypeException);
+            }
+
+            // the rest of the invalid level was skipped, so the next one can still be read
+            Assert.assertTrue(reader.hasNext());
+            Assert.assertEquals(BotRotation.EAST, reader.next().getBotRotation());
+            Assert.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testNext_WrongValueTypesSkipLevel() throws Exception {
+        String json = "{\"levels\": [{\"field\": [[4, \"x\", 2]], \"botRotation\": 0}, [4, 1, 2],"
+                + " {\"field\": [[4, 1, 2]], \"botRotation\": 2}]}";
+
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(json))) {
+            for (int index = 0; index < 2; index++) {
+                try {
+                    reader.next();
+                    Assert.fail("The invalid level was not reported");
+                } catch (LevelPackReader.InvalidLevelException e) {
+                    Assert.assertEquals(index, e.getIndex());
+                }
+            }
+            Assert.assertEquals(BotRotation.SOUTH, reader.next().getBotRotation());
+        }
+    }
+
+    /**
+     * Metadata tests
+     */
+    @Test
+    public void testMetadata() throws Exception {
+        String json = "{\"name\": \"Pack\", \"version\": {\"major\": 2}, \"author\": \"Timo\","
+                + " \"description\": \"Some levels\", \"levels\": [{\"field\": [[4, 1, 2]], \"botRotation\": 0}]}";
+
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(json))) {
+            Assert.assertEquals("Pack", reader.getName());
+            Assert.assertEquals("Timo", reader.getAuthor());
+            Assert.assertEquals("Some levels", reader.getDescription());
+            Assert.assertEquals(0, reader.getLevelsRead());
+            Assert.assertTrue(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testMetadata_WrittenByWriter() throws Exception {
+        try (LevelPackReader reader = new LevelPackReader(new StringReader(createPack(1)))) {
+            Assert.assertEquals("Pack", reader.getName());
+            Assert.assertEquals("Timo", reader.getAuthor());
+            Assert.assertNull(reader.getDescription());
+        }
+    }
+
+    @Test
+    public void testMetadata_NoLevels() throws Exception {
+        try (LevelPackReader reader = new LevelPackReader(new StringReader("{\"name\": \"Empty\"}"))) {
+            Assert.assertEquals("Empty", reader.getName());
+            Assert.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testMetadata_NoObject() throws Exception {
+        new LevelPackReader(new StringReader("[1, 2]"));
+    }
+
+    /**
+     * stream() tests
+     */
+    @Test
+    public void testStream() throws Exception {
+        LevelPackReader reader = new LevelPackReader(new StringReader(createPack(8)));
+        List<BotRotation> rotations;
+        try (Stream<Level> levels = reader.stream()) {
+            rotations = levels.skip(2).limit(3).map(Level::getBotRotation).collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(List.of(BotRotation.SOUTH, BotRotation.WEST, BotRotation.NORTH), rotations);
+        Assert.assertEquals(5, reader.getLevelsRead());
+        Assert.assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testOpen_File() throws Exception {
+        Path file = Files.createTempFile("pack", ".json");
+        try {
+            try (LevelPackWriter writer = LevelPackWriter.create(file, "File", null, null)) {
+                writer.write(createLevel(BotRotation.WEST).createSavedState());
+                Assert.assertEquals(1, writer.getLevelsWritten());
+            }
+            try (LevelPackReader reader = LevelPackReader.open(file)) {
+                Assert.assertEquals("File", reader.getName());
+                Assert.assertEquals(BotRotation.WEST, reader.next().getBotRotation());
+                Assert.assertFalse(reader.hasNext());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package logic.level;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -231,7 +232,7 @@ public class LevelTest {
         List<Coord> allOccurrences = level.allOccurrencesOfField(FieldType.START);
 
         // Then
-        Assert.assertNull(allOccurrences);
+        Assert.assertTrue(allOccurrences.isEmpty());
     }
 
     @Test
@@ -280,6 +281,56 @@ public class LevelTest {
         Assert.assertEquals(1, allOccurrences.get(3).getCol());
     }
 
+    @Test
+    public void testAllOccurrencesOfField_UpdatedAfterChanges() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        Assert.assertEquals(List.of(new Coord(0, 1), new Coord(1, 0)), level.allOccurrencesOfField(FieldType.COIN));
+
+        level.moveToNextCell();
+        level.collectCoin();
+        level.setGameFieldCell(FieldType.COIN, new Coord(0, 2));
+
+        Assert.assertEquals(List.of(new Coord(0, 2), new Coord(1, 0)), level.allOccurrencesOfField(FieldType.COIN));
+        Assert.assertEquals(List.of(), level.allOccurrencesOfField(FieldType.START));
+        Assert.assertNull(level.firstOccurrenceOfField(FieldType.START));
+        Assert.assertEquals(new Coord(1, 2), level.firstOccurrenceOfField(FieldType.DOOR));
+    }
+
+    /**
+     * countOccurrencesOfField() and validateLevel() tests
+     */
+    @Test
+    public void testCountOccurrencesOfField() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        level.setGameFieldCell(FieldType.WALL, new Coord(1, 1));
+
+        Assert.assertEquals(2, level.countOccurrencesOfField(FieldType.COIN));
+        Assert.assertEquals(1, level.countOccurrencesOfField(FieldType.NORMAL));
+        Assert.assertEquals(1, level.countOccurrencesOfField(FieldType.WALL));
+        Assert.assertEquals(0, level.countOccurrencesOfField(FieldType.GAP));
+    }
+
+    @Test
+    public void testValidateLevel_UpdatedAfterChanges() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        Assert.assertTrue(level.validateLevel());
+
+        level.setGameFieldCell(FieldType.DOOR, new Coord(0, 1));
+        Assert.assertFalse(level.validateLevel());
+
+        level.setGameFieldCell(FieldType.NORMAL, new Coord(0, 2));
+        Assert.assertTrue(level.validateLevel());
+    }
+
     /**
      * getLevelCopy() test -> to test if we only return a copy of the level
      */
@@ -294,6 +345,135 @@ public class LevelTest {
         assertNotSame(level, level.getLevelCopy());
     }
 
+    @Test
+    public void testGetLevelCopy_ChangesOfTheCopyDoNotChangeTheLevel() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Level copy = level.getLevelCopy();
+        copy.moveToNextCell();
+        copy.collectCoin();
+
+        Assert.assertEquals(FieldType.START, level.getGameFieldCell(0, 0));
+        Assert.assertEquals(FieldType.COIN, level.getGameFieldCell(0, 1));
+        Assert.assertEquals(1, level.getCoinAmount());
+        Assert.assertEquals(FieldType.NORMAL, copy.getGameFieldCell(0, 0));
+        Assert.assertEquals(FieldType.NORMAL, copy.getGameFieldCell(0, 1));
+        Assert.assertEquals(0, copy.getCoinAmount());
+    }
+
+    @Test
+    public void testGetLevelCopy_ChangesOfTheLevelDoNotChangeTheCopy() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Level copy = level.getLevelCopy();
+        level.setGameFieldCell(FieldType.WALL, new Coord(1, 1));
+        level.getGameField()[1][0] = FieldType.GAP;
+
+        Assert.assertEquals(FieldType.NORMAL, copy.getGameFieldCell(1, 1));
+        Assert.assertEquals(FieldType.NORMAL, copy.getGameFieldCell(1, 0));
+        Assert.assertNotEquals(level, copy);
+    }
+
+    @Test
+    public void testGetLevelCopy_CopyOfACopyWithManyChanges() {
+        FieldType[][] field = new FieldType[4][4];
+        for (FieldType[] row : field) {
+            Arrays.fill(row, FieldType.COIN);
+        }
+        field[0][0] = FieldType.START;
+        Level level = new Level(field, BotRotation.EAST);
+
+        // collecting most coins moves the copy from the overlay to its own game field
+        Level copy = level.getLevelCopy();
+        for (int i = 1; i < 16; i++) {
+            copy.moveToCell(new Coord(i / 4, i % 4));
+            copy.collectCoin();
+        }
+        Level copyOfCopy = copy.getLevelCopy();
+
+        Assert.assertEquals(15, level.getCoinAmount());
+        Assert.assertEquals(0, copy.getCoinAmount());
+        Assert.assertEquals(0, copyOfCopy.getCoinAmount());
+        Assert.assertNull(copyOfCopy.getCurrentBotPosition());
+        Assert.assertEquals(FieldType.COIN, level.getGameFieldCell(3, 3));
+        Assert.assertEquals(copy.getZobristHash(), copyOfCopy.getZobristHash());
+    }
+
+    @Test
+    public void testGetLevelCopy_BigLevel() {
+        FieldType[][] field = new FieldType[100][100];
+        for (FieldType[] row : field) {
+            Arrays.fill(row, FieldType.COIN);
+        }
+        field[0][0] = FieldType.START;
+        field[99][99] = FieldType.DOOR;
+        Level level = new Level(field, BotRotation.EAST);
+
+        // big levels share their cells with the copy until one of them changes a cell
+        Level copy = level.getLevelCopy();
+        copy.moveToNextCell();
+        copy.collectCoin();
+        level.setGameFieldCell(FieldType.WALL, new Coord(50, 50));
+
+        Assert.assertEquals(FieldType.COIN, level.getGameFieldCell(0, 1));
+        Assert.assertEquals(FieldType.NORMAL, copy.getGameFieldCell(0, 1));
+        Assert.assertEquals(FieldType.COIN, copy.getGameFieldCell(50, 50));
+        Assert.assertEquals(9997, copy.getCoinAmount());
+        Assert.assertEquals(FieldType.WALL, level.getGameFieldCell(50, 50));
+        Assert.assertNotEquals(level, copy);
+    }
+
+    /**
+     * getGameField() tests
+     */
+    @Test
+    public void testGetGameField() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Assert.assertArrayEquals(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.DOOR}
+        }, level.getGameField());
+    }
+
+    @Test
+    public void testGetGameField_UpdatedAfterChanges() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        FieldType[][] gameField = level.getGameField();
+
+        level.moveToNextCell();
+        level.collectCoin();
+
+        Assert.assertSame(gameField, level.getGameField());
+        Assert.assertArrayEquals(new FieldType[]{FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}, gameField[0]);
+    }
+
+    @Test
+    public void testGetGameField_FieldOfTheConstructorIsCopied() {
+        FieldType[][] field = {
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        };
+        Level level = new Level(field, BotRotation.EAST);
+
+        field[0][1] = FieldType.WALL;
+
+        Assert.assertEquals(FieldType.COIN, level.getGameFieldCell(0, 1));
+        Assert.assertEquals(1, level.getCoinAmount());
+    }
+
     /**
      * rotateBotLeft() tests
      */
@@ -640,4 +820,135 @@ public class LevelTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * getZobristHash() tests
+     */
+    @Test
+    public void testGetZobristHash_SameLevelSameHash() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Assert.assertEquals(level.getZobristHash(), level.getLevelCopy().getZobristHash());
+    }
+
+    @Test
+    public void testGetZobristHash_SetGameFieldCell() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        long hash = level.getZobristHash();
+
+        level.setGameFieldCell(FieldType.WALL, new Coord(1, 0));
+        Assert.assertNotEquals(hash, level.getZobristHash());
+
+        level.setGameFieldCell(FieldType.NORMAL, new Coord(1, 0));
+        Assert.assertEquals(hash, level.getZobristHash());
+    }
+
+    @Test
+    public void testSetGameFieldCell_ColumnOutOfBounds() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        try {
+            level.setGameFieldCell(FieldType.WALL, new Coord(0, 2));
+            Assert.fail("The cell outside of the game field was changed");
+        } catch (IndexOutOfBoundsException e) {
+            // the cell at the start of the next row is not changed instead
+            Assert.assertEquals(FieldType.NORMAL, level.getGameFieldCell(1, 0));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSetGameFieldCell_RowOutOfBounds() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        level.setGameFieldCell(FieldType.WALL, new Coord(7, 7));
+    }
+
+    @Test
+    public void testGetZobristHash_SetBotRotation() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        long hash = level.getZobristHash();
+
+        level.setBotRotation(BotRotation.SOUTH);
+        Assert.assertNotEquals(hash, level.getZobristHash());
+        Assert.assertEquals(new Level(level.getLevelCopy().getGameField(), BotRotation.SOUTH).getZobristHash(), level.getZobristHash());
+
+        level.rotateBotLeft();
+        Assert.assertEquals(hash, level.getZobristHash());
+    }
+
+    @Test
+    public void testGetZobristHash_MoveAndCollectCoin() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        level.moveToNextCell();
+        level.collectCoin();
+
+        // the incrementally updated hash has to be the same as the hash calculated from scratch for the copy
+        Assert.assertEquals(level.getLevelCopy().getZobristHash(), level.getZobristHash());
+    }
+
+    @Test
+    public void testGetZobristHash_DifferentFieldSize() {
+        Level level1 = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR}
+        }, BotRotation.EAST);
+        Level level2 = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR},
+                {FieldType.NORMAL, FieldType.NORMAL}
+        }, BotRotation.EAST);
+
+        Assert.assertNotEquals(level1.getZobristHash(), level2.getZobristHash());
+    }
+
+    /**
+     * copyFrom() tests
+     */
+    @Test
+    public void testCopyFrom_ResetsAChangedLevel() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        Level scratch = level.getLevelCopy();
+        scratch.moveToNextCell();
+        scratch.collectCoin();
+        scratch.rotateBotRight();
+
+        scratch.copyFrom(level);
+
+        Assert.assertEquals(level, scratch);
+        Assert.assertEquals(new Coord(0, 0), scratch.getCurrentBotPosition());
+        Assert.assertEquals(1, scratch.getCoinAmount());
+        Assert.assertEquals(level.getZobristHash(), scratch.getZobristHash());
+        Assert.assertNotSame(level.getGameField()[0], scratch.getGameField()[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCopyFrom_DifferentFieldSize() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.DOOR}
+        }, BotRotation.EAST);
+        Level other = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        level.copyFrom(other);
+    }
+}
@@ -55,8 +55,8 @@ public class SavedStateTest {
 
     }
 
-    @Test(expected = InvalidFieldSizeException.class)
-    public void testValidateLoadedState_InvalidFieldSize_5x5() throws NoBotRotationException, InvalidBotRotationException, InvalidFieldSizeException, InvalidFieldTypeException, NoFieldException {
+    @Test
+    public void testValidateLoadedState_FieldSize_5x5() throws NoBotRotationException, InvalidBotRotationException, InvalidFieldSizeException, InvalidFieldTypeException, NoFieldException {
         SavedState savedState = new SavedState(new int[][]{
                 {5, 5, 5, 5, 5},
                 {4, 3, 3, 3, 3},
@@ -64,6 +64,46 @@ public class SavedStateTest {
                 {5, 5, 5, 5, 5},
                 {5, 5, 5, 5, 5}
         }, 2);
+        Level level = savedState.getLevel();
+
+        Assert.assertEquals(5, level.getRows());
+        Assert.assertEquals(5, level.getCols());
+        Assert.assertTrue(level.validateLevel());
+    }
+
+    @Test
+    public void testValidateLoadedState_RectangularField() throws NoBotRotationException, InvalidBotRotationException, InvalidFieldSizeException, InvalidFieldTypeException, NoFieldException {
+        SavedState savedState = new SavedState(new int[][]{
+                {4, 3, 1, 3, 3, 3, 3, 3, 3, 2},
+                {5, 5, 5, 5, 5, 5, 5, 5, 5, 5}
+        }, 1);
+        Level level = savedState.getLevel();
+
+        Assert.assertEquals(2, level.getRows());
+        Assert.assertEquals(10, level.getCols());
+        Assert.assertEquals(new Coord(0, 9), level.firstOccurrenceOfField(FieldType.DOOR));
+        Assert.assertEquals(savedState.getBotRotation(), level.createSavedState().getBotRotation());
+        Assert.assertArrayEquals(savedState.getGameField(), level.createSavedState().getGameField());
+    }
+
+    @Test(expected = InvalidFieldSizeException.class)
+    public void testValidateLoadedState_InvalidFieldSize_Empty() throws NoBotRotationException, InvalidBotRotationException, InvalidFieldSizeException, InvalidFieldTypeException, NoFieldException {
+        SavedState savedState = new SavedState(new int[0][], 2);
+        savedState.getLevel();
+    }
+
+    @Test(expected = InvalidFieldSizeException.class)
+    public void testValidateLoadedState_InvalidFieldSize_EmptyRows() throws NoBotRotationException, InvalidBotRotationException, InvalidFieldSizeException, InvalidFieldTypeException, NoFieldException {
+        SavedState savedState = new SavedState(new int[][]{{}, {}}, 2);
+        savedState.getLevel();
+    }
+
+    @Test(expected = InvalidFieldSizeException.class)
+    public void testValidateLoadedState_InvalidFieldSize_RowIsNull() throws NoBotRotationException, InvalidBotRotationException, InvalidFieldSizeException, InvalidFieldTypeException, NoFieldException {
+        SavedState savedState = new SavedState(new int[][]{
+                {4, 3, 2},
+                null
+        }, 2);
         savedState.getLevel();
     }
 
@@ -1,7 +1,11 @@
 package logic.solver;
 
+import logic.conversion.Action;
+import logic.conversion.Move;
+import logic.instructions.ContainerStack;
 import logic.instructions.ProcedureOne;
 import logic.instructions.ProcedureTwo;
+import logic.level.BitBoard;
 import logic.level.BotRotation;
 import logic.level.FieldType;
 import logic.instructions.Exit;
@@ -15,8 +19,12 @@ import logic.level.Level;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 /**
  * Tests for the LevelSolver class
@@ -24,6 +32,23 @@ import java.util.Map;
  * @author Timo Peters
  */
 public class LevelSolverTest {
+
+    /**
+     * 1000x1000 maze with 300 coins, built once so that the solver tests only measure the solves
+     */
+    private static final Level LARGE_MAZE = createMaze(1000, 1000, 300, 42);
+
+    /**
+     * Upper bound of a single warm solve of the large maze in milliseconds. A solve takes about 0.4 s, the bound leaves
+     * room for slow machines and the JIT and GC work of the other tests.
+     */
+    private static final long MAX_LARGE_MAZE_SOLVE_MILLIS = 2000;
+
+    /**
+     * Flag whether the solvers were warmed up for the measured solves of the large maze
+     */
+    private static boolean solversWarmedUp;
+
     private final Walk WALK = Walk.getSingleton();
     private final TurnLeft TURN_LEFT = TurnLeft.getSingleton();
     private final TurnRight TURN_RIGHT = TurnRight.getSingleton();
@@ -293,6 +318,663 @@ public class LevelSolverTest {
         Assert.assertNull(result.getProgramInstructions());
     }
 
+    /**
+     * solve() tests using the COIN_TOUR mode
+     */
+    @Test
+    public void testSolve_CoinTour_ExampleLevel6() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.GAP, FieldType.GAP, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.COIN},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+        }, BotRotation.EAST);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.COIN_TOUR);
+        Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+        Assert.assertNotNull(result.getP1());
+        Assert.assertNotNull(result.getP2());
+        Assert.assertNotNull(result.getProgramInstructions());
+    }
+
+    @Test
+    public void testSolve_CoinTour_NotAllCoinsReachable() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.WALL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.COIN},
+                {FieldType.DOOR, FieldType.WALL, FieldType.WALL}
+        }, BotRotation.NORTH);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.COIN_TOUR);
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS, result.getSolveStatus());
+        Assert.assertNull(result.getProgramInstructions());
+    }
+
+    @Test
+    public void testSolve_CoinTour_DoorUnreachable() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.WALL},
+                {FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.NORTH);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.COIN_TOUR);
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR, result.getSolveStatus());
+        Assert.assertNull(result.getProgramInstructions());
+    }
+
+    /**
+     * CoinTourPlanner tests
+     */
+    @Test
+    public void testCoinTourPlanner_CollectTheFartherCoinFirst() {
+        // the nearest coin is on the way to the door, so the shortest tour collects the other coin first
+        Level level = new Level(new FieldType[][]{
+                {FieldType.DOOR, FieldType.NORMAL, FieldType.COIN, FieldType.START, FieldType.NORMAL, FieldType.COIN}
+        }, BotRotation.EAST);
+
+        CoinTourPlanner planner = new CoinTourPlanner(level);
+
+        Assert.assertTrue(planner.allCoinsReachable());
+        Assert.assertTrue(planner.doorReachable());
+        Assert.assertArrayEquals(new int[]{2, 1}, planner.findCoinOrder());
+        Assert.assertEquals(
+                List.of(WALK, WALK, TURN_LEFT, TURN_LEFT, WALK, WALK, WALK, WALK, EXIT),
+                planner.createInstructions()
+        );
+    }
+
+    @Test
+    public void testCoinTourPlanner_JumpOverAGapOntoTheCoin() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.GAP, FieldType.COIN},
+                {FieldType.WALL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        CoinTourPlanner planner = new CoinTourPlanner(level);
+
+        Assert.assertEquals(List.of(JUMP, TURN_RIGHT, EXIT), planner.createInstructions());
+    }
+
+    @Test
+    public void testCoinTourPlanner_LargeMazeWithManyCoins() {
+        warmUpSolvers();
+        Level level = LARGE_MAZE.getLevelCopy();
+
+        long start = System.nanoTime();
+        CoinTourPlanner planner = new CoinTourPlanner(level.getLevelCopy());
+        Assert.assertTrue(planner.allCoinsReachable());
+        Assert.assertTrue(planner.doorReachable());
+        List<Instruction> tour = planner.createInstructions();
+        assertSolvedInTime(start);
+
+        Assert.assertTrue(LevelSolver.isSolution(level, tour));
+    }
+
+    @Test(timeout = 10_000)
+    public void testCoinTourPlanner_LargeRectangularMazeWithExactOrder() {
+        Level level = createMaze(201, 1001, 12, 7);
+
+        List<Instruction> tour = new CoinTourPlanner(level.getLevelCopy()).createInstructions();
+
+        Assert.assertTrue(LevelSolver.isSolution(level, tour));
+    }
+
+    @Test
+    public void testSolve_LargeMazeCanNotBeReduced() {
+        warmUpSolvers();
+        Level level = LARGE_MAZE.getLevelCopy();
+
+        // the level is solvable, but its path is far too long for the program and procedures
+        for (SolverMode mode : SolverMode.values()) {
+            long start = System.nanoTime();
+            SolveStatus status = LevelSolver.solve(level, mode).getSolveStatus();
+            assertSolvedInTime(start);
+            Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES, status);
+        }
+    }
+
+    @Test
+    public void testSolve_LargeMazeWithUnreachableCoin() {
+        warmUpSolvers();
+        Level level = LARGE_MAZE.getLevelCopy();
+        level.setGameFieldCell(FieldType.COIN, new Coord(999, 999));
+
+        long start = System.nanoTime();
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS, LevelSolver.solve(level, SolverMode.FLOOD_FILL).getSolveStatus());
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS, LevelSolver.solve(level, SolverMode.COIN_TOUR).getSolveStatus());
+        assertSolvedInTime(start);
+    }
+
+    /**
+     * Checks that a solve of a large maze took less than {@link #MAX_LARGE_MAZE_SOLVE_MILLIS}.
+     *
+     * @param start start of the solve from {@link System#nanoTime()}
+     */
+    private static void assertSolvedInTime(long start) {
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertTrue("The solve took " + millis + " ms", millis < MAX_LARGE_MAZE_SOLVE_MILLIS);
+    }
+
+    /**
+     * Solves a smaller maze with every mode once, so that the measured solves of the large maze are not slowed down by
+     * the compilation of the solvers.
+     */
+    private static synchronized void warmUpSolvers() {
+        if (!solversWarmedUp) {
+            Level maze = createMaze(501, 501, 100, 1);
+            for (SolverMode mode : SolverMode.values()) {
+                LevelSolver.solve(maze, mode);
+                new CoinTourPlanner(maze.getLevelCopy()).createInstructions();
+            }
+            solversWarmedUp = true;
+        }
+    }
+
+    /**
+     * StateSpaceSearch tests
+     */
+    @Test
+    public void testStateSpaceSearch_PreferFewerTurnsOverFewerSteps() {
+        // the door can be reached in three steps through the middle, but going around the wall needs fewer instructions
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        StateSpaceSearch search = new StateSpaceSearch(level);
+
+        Assert.assertTrue(search.fitsIntoStateLimit());
+        Assert.assertEquals(List.of(WALK, WALK, WALK, TURN_RIGHT, WALK, EXIT), search.findInstructions());
+    }
+
+    @Test
+    public void testStateSpaceSearch_CollectCoinsWithMinimalInstructions() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.DOOR, FieldType.NORMAL, FieldType.COIN, FieldType.START, FieldType.NORMAL, FieldType.COIN}
+        }, BotRotation.EAST);
+
+        List<Instruction> instructions = new StateSpaceSearch(level).findInstructions();
+
+        Assert.assertEquals(List.of(WALK, WALK, TURN_LEFT, TURN_LEFT, WALK, WALK, WALK, WALK, EXIT), instructions);
+    }
+
+    @Test
+    public void testStateSpaceSearch_NeverLongerThanCoinTour() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.GAP, FieldType.GAP, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.COIN},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+        }, BotRotation.EAST);
+
+        List<Instruction> minimal = new StateSpaceSearch(level).findInstructions();
+        List<Instruction> tour = new CoinTourPlanner(level).createInstructions();
+
+        Assert.assertNotNull(minimal);
+        Assert.assertEquals(EXIT, minimal.get(minimal.size() - 1));
+        Assert.assertTrue(minimal.size() <= tour.size());
+    }
+
+    @Test
+    public void testSolve_StateSpaceSearch_ExampleLevel2() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL},
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.GAP, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.DOOR, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.GAP, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL}
+        }, BotRotation.EAST);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.STATE_SPACE_SEARCH);
+        Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+        Assert.assertNotNull(result.getProgramInstructions());
+    }
+
+    @Test
+    public void testSolve_StateSpaceSearch_DoorUnreachable() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.WALL},
+                {FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.NORTH);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.STATE_SPACE_SEARCH);
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR, result.getSolveStatus());
+    }
+
+    /**
+     * AStarSearch tests
+     */
+    @Test
+    public void testAStarSearch_PreferFewerTurnsOverFewerSteps() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        AStarSearch search = new AStarSearch(level, new MovementGraph(level));
+
+        Assert.assertTrue(search.fitsIntoLimits());
+        Assert.assertEquals(List.of(WALK, WALK, WALK, TURN_RIGHT, WALK, EXIT), search.findInstructions());
+    }
+
+    @Test
+    public void testAStarSearch_SameLengthAsStateSpaceSearch() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.GAP, FieldType.GAP, FieldType.WALL, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.COIN},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+        }, BotRotation.EAST);
+
+        StateSpaceSearch breadthFirst = new StateSpaceSearch(level);
+        List<Instruction> minimal = breadthFirst.findInstructions();
+        AStarSearch aStar = new AStarSearch(level, new MovementGraph(level));
+        List<Instruction> instructions = aStar.findInstructions();
+
+        Assert.assertEquals(minimal.size(), instructions.size());
+        Assert.assertTrue(LevelSolver.isSolution(level, instructions));
+        Assert.assertTrue(aStar.getExpandedNodes() < breadthFirst.getExpandedNodes());
+    }
+
+    @Test
+    public void testAStarSearch_TooManyCoins() {
+        FieldType[][] field = new FieldType[2][AStarSearch.MAX_COINS + 1];
+        for (int col = 0; col < field[0].length; col++) {
+            field[0][col] = FieldType.COIN;
+            field[1][col] = FieldType.NORMAL;
+        }
+        field[1][0] = FieldType.START;
+        field[1][1] = FieldType.DOOR;
+        Level level = new Level(field, BotRotation.EAST);
+
+        Assert.assertFalse(new AStarSearch(level, new MovementGraph(level)).fitsIntoLimits());
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES, LevelSolver.solve(level, SolverMode.A_STAR).getSolveStatus());
+    }
+
+    @Test
+    public void testSolve_AStar_ReportsExpandedNodes() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.WALL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.A_STAR);
+
+        Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+        Assert.assertEquals(List.of(WALK, WALK, TURN_RIGHT, EXIT), result.getProgramInstructions());
+        Assert.assertTrue(result.getExpandedNodes() > 0);
+    }
+
+    @Test
+    public void testSolve_AStar_DoorUnreachable() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.WALL},
+                {FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.NORTH);
+
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR, LevelSolver.solve(level, SolverMode.A_STAR).getSolveStatus());
+    }
+
+    @Test
+    public void testStateHeap_PopsSmallestKeyFirst() {
+        StateHeap heap = new StateHeap(1);
+        long[] keys = {5, 1L << 40, 3, -2, 7, 0, 3L << 32};
+        for (int i = 0; i < keys.length; i++) {
+            heap.push(keys[i], i);
+        }
+
+        Assert.assertEquals(keys.length, heap.size());
+        int[] expected = {3, 5, 2, 0, 4, 6, 1};
+        for (int node : expected) {
+            Assert.assertEquals(node, heap.pop());
+        }
+        Assert.assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Anytime solve tests
+     */
+    private static Level createLevelWithManyStates() {
+        return new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN},
+                {FieldType.COIN, FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.COIN},
+        }, BotRotation.EAST);
+    }
+
+    @Test
+    public void testSolve_CompleteSearchIsOptimal() {
+        Level level = createLevelWithManyStates();
+        LevelSolver.getCache().clear();
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.STATE_SPACE_SEARCH, 0, new CancellationToken(), null);
+
+        Assert.assertEquals(SolveQuality.OPTIMAL, result.getQuality());
+        Assert.assertEquals(SolveQuality.BEST_EFFORT, LevelSolver.solve(level, SolverMode.FLOOD_FILL).getQuality());
+    }
+
+    @Test
+    public void testSolve_CancelledSearchReturnsBestEffort() {
+        Level level = createLevelWithManyStates();
+        LevelSolver.getCache().clear();
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        SolverResult cancelled = LevelSolver.solve(level, SolverMode.STATE_SPACE_SEARCH, 0, token, null);
+
+        Assert.assertEquals(SolveQuality.BEST_EFFORT, cancelled.getQuality());
+        Assert.assertEquals(SolverBudget.CHECK_INTERVAL - 1, cancelled.getExpandedNodes());
+
+        // the cancelled result is not cached, so solving again completes the search
+        Assert.assertEquals(SolveQuality.OPTIMAL, LevelSolver.solve(level, SolverMode.STATE_SPACE_SEARCH).getQuality());
+    }
+
+    @Test
+    public void testSolve_ProgressListenerReceivesShorterSolutions() {
+        Level level = createLevelWithManyStates();
+        LevelSolver.getCache().clear();
+        List<Integer> bestLengths = new ArrayList<>();
+
+        LevelSolver.solve(level, SolverMode.A_STAR, 0, null, (expandedNodes, bestLength) -> bestLengths.add(bestLength));
+
+        int minimal = new StateSpaceSearch(level).findInstructions().size();
+        Assert.assertEquals(minimal, (int) bestLengths.get(bestLengths.size() - 1));
+        for (int i = 1; i < bestLengths.size(); i++) {
+            Assert.assertTrue(bestLengths.get(i) <= bestLengths.get(i - 1));
+        }
+    }
+
+    @Test
+    public void testSolverBudget_StopsAfterTheDeadline() throws InterruptedException {
+        SolverBudget budget = new SolverBudget(1, null, null);
+        Thread.sleep(5);
+
+        boolean goOn = true;
+        for (int i = 0; i < SolverBudget.CHECK_INTERVAL; i++) {
+            goOn = budget.tryExpand();
+        }
+
+        Assert.assertFalse(goOn);
+        Assert.assertTrue(budget.isExhausted());
+        Assert.assertFalse(SolverBudget.unlimited().isExhausted());
+    }
+
+    /**
+     * BitReachability tests
+     */
+    @Test
+    public void testBitReachability_Layers() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.GAP, FieldType.COIN},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        BitReachability reachability = new BitReachability(new BitBoard(level));
+
+        Assert.assertArrayEquals(new long[]{0b0000_0001, 0b0000_0010, 0b0010_1000}, reachability.getLayers());
+        Assert.assertEquals(0, reachability.getDistance(0));
+        Assert.assertEquals(2, reachability.getDistance(3));
+        Assert.assertEquals(-1, reachability.getDistance(7));
+        Assert.assertTrue(reachability.allCoinsReachable());
+        Assert.assertTrue(reachability.doorReachable());
+    }
+
+    @Test
+    public void testBitReachability_NoWrapAroundRows() {
+        // the coin is the next bit after the start, but it is in the next row on the other side of the wall
+        Level level = new Level(new FieldType[][]{
+                {FieldType.DOOR, FieldType.WALL, FieldType.START},
+                {FieldType.COIN, FieldType.WALL, FieldType.NORMAL}
+        }, BotRotation.SOUTH);
+
+        BitReachability reachability = new BitReachability(new BitBoard(level));
+
+        Assert.assertFalse(reachability.allCoinsReachable());
+        Assert.assertFalse(reachability.doorReachable());
+        Assert.assertEquals(0b10_0100, reachability.getReachable());
+    }
+
+    @Test
+    public void testBitReachability_NoJumpOverWalls() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START},
+                {FieldType.WALL},
+                {FieldType.COIN},
+                {FieldType.DOOR}
+        }, BotRotation.SOUTH);
+
+        Assert.assertFalse(new BitReachability(new BitBoard(level)).allCoinsReachable());
+    }
+
+    @Test
+    public void testBitReachability_SingleRowWithAllCells() {
+        FieldType[][] field = new FieldType[1][BitBoard.MAX_CELLS];
+        Arrays.fill(field[0], FieldType.NORMAL);
+        field[0][0] = FieldType.START;
+        field[0][BitBoard.MAX_CELLS - 2] = FieldType.COIN;
+        field[0][BitBoard.MAX_CELLS - 1] = FieldType.DOOR;
+
+        BitReachability reachability = new BitReachability(new BitBoard(new Level(field, BotRotation.EAST)));
+
+        Assert.assertTrue(reachability.allCoinsReachable());
+        Assert.assertTrue(reachability.doorReachable());
+        Assert.assertEquals(BitBoard.MAX_CELLS - 2, reachability.getDistance(BitBoard.MAX_CELLS - 2));
+    }
+
+    @Test
+    public void testSolve_UnreachableCoinFoundBeforeSearching() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL},
+                {FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL}
+        }, BotRotation.EAST);
+
+        for (SolverMode mode : SolverMode.values()) {
+            SolverResult result = LevelSolver.solve(level, mode);
+            Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS, result.getSolveStatus());
+        }
+    }
+
+    @Test
+    public void testSolve_CellWithoutFieldType() {
+        // a cell without a field type can not be walked on, so the bot has to go around it
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, null, FieldType.DOOR},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
+        }, BotRotation.EAST);
+
+        for (SolverMode mode : SolverMode.values()) {
+            SolverResult result = LevelSolver.solve(level, mode);
+            Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+            Assert.assertTrue(LevelSolver.isSolution(level, result.getProgramInstructions()));
+        }
+    }
+
+    /**
+     * solve() tests using the PROGRAM_SYNTHESIS mode
+     */
+    private static Level createExampleLevel7() {
+        return new Level(new FieldType[][]{
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL},
+                {FieldType.WALL, FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.DOOR, FieldType.WALL, FieldType.COIN, FieldType.WALL},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.COIN, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.WALL, FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL},
+        }, BotRotation.EAST);
+    }
+
+    @Test
+    public void testSolve_ProgramSynthesis_CancelledBeforeAnyProgramIsUndecided() {
+        Level level = createExampleLevel7();
+        LevelSolver.getCache().clear();
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        SolverResult cancelled = LevelSolver.solve(level, SolverMode.PROGRAM_SYNTHESIS, 0, token, null);
+
+        // the cancelled synthesis does not claim the level to be unsolvable
+        Assert.assertEquals(SolveStatus.UNDECIDED_SEARCH_STOPPED, cancelled.getSolveStatus());
+        Assert.assertEquals(SolveQuality.BEST_EFFORT, cancelled.getQuality());
+        Assert.assertNull(cancelled.getProgramInstructions());
+
+        // the stopped result is not cached, so solving again finds the program
+        Assert.assertEquals(SolveStatus.SOLVABLE, LevelSolver.solve(level, SolverMode.PROGRAM_SYNTHESIS).getSolveStatus());
+    }
+
+    @Test
+    public void testSolve_ProgramSynthesis_ExampleLevel7() {
+        // none of the other modes can reduce their instructions for this level into program and procedures
+        Level level = createExampleLevel7();
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.PROGRAM_SYNTHESIS);
+        Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+        Assert.assertTrue(result.getProgramInstructions().size() <= 12);
+        Assert.assertTrue(result.getP1().getAmountOfInstructions() <= 8);
+        Assert.assertTrue(result.getP2().getAmountOfInstructions() <= 8);
+
+        // running the program on the level has to win the game
+        List<Move> moves = result.getProgramInstructions().stream()
+                .flatMap(i -> i.convertInstruction(level, ContainerStack.PROGRAM))
+                .collect(Collectors.toList());
+        Assert.assertEquals(Action.EXIT, moves.get(moves.size() - 1).getAction());
+    }
+
+    @Test
+    public void testSolve_ProgramSynthesis_CanNotConvertToProgramAndInstructions() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.WALL, FieldType.COIN, FieldType.NORMAL, FieldType.WALL, FieldType.COIN, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.WALL, FieldType.COIN, FieldType.NORMAL},
+                {FieldType.COIN, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.GAP, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.START, FieldType.NORMAL, FieldType.GAP, FieldType.WALL, FieldType.NORMAL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.COIN, FieldType.GAP},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.COIN, FieldType.WALL, FieldType.WALL, FieldType.GAP, FieldType.WALL, FieldType.COIN},
+                {FieldType.NORMAL, FieldType.GAP, FieldType.NORMAL, FieldType.WALL, FieldType.COIN, FieldType.NORMAL, FieldType.COIN, FieldType.DOOR}
+        }, BotRotation.NORTH);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.PROGRAM_SYNTHESIS);
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REDUCE_TO_PROGRAM_AND_PROCEDURES, result.getSolveStatus());
+        Assert.assertNull(result.getProgramInstructions());
+    }
+
+    @Test
+    public void testSolve_ProgramSynthesis_NotAllCoinsReachable() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.WALL},
+                {FieldType.NORMAL, FieldType.WALL, FieldType.COIN},
+                {FieldType.DOOR, FieldType.WALL, FieldType.WALL}
+        }, BotRotation.NORTH);
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.PROGRAM_SYNTHESIS);
+        Assert.assertEquals(SolveStatus.UNSOLVABLE_CAN_NOT_REACH_ALL_COINS, result.getSolveStatus());
+    }
+
+    @Test
+    public void testProgramSynthesizer_UseProcedureForLongCorridor() {
+        // 15 walk instructions and the exit do not fit into the program, without any reference instructions the
+        // synthesizer has to find the procedure on its own
+        FieldType[][] corridor = new FieldType[1][17];
+        Arrays.fill(corridor[0], FieldType.NORMAL);
+        corridor[0][0] = FieldType.START;
+        corridor[0][16] = FieldType.DOOR;
+
+        SolverResult result = new ProgramSynthesizer(new Level(corridor, BotRotation.EAST), List.of()).synthesize();
+        Assert.assertNotNull(result);
+        Assert.assertEquals(List.of(WALK, WALK), result.getP1().getInstructions());
+        Assert.assertTrue(result.getP2().getInstructions().isEmpty());
+        // seven calls of procedure one, one walk and the exit
+        Assert.assertEquals(9, result.getProgramInstructions().size());
+        Assert.assertEquals(EXIT, result.getProgramInstructions().get(8));
+    }
+
+    @Test
+    public void testProgramSynthesizer_StoppedSynthesisIsReported() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        ProgramSynthesizer synthesizer = new ProgramSynthesizer(createExampleLevel7(), List.of());
+
+        Assert.assertNull(synthesizer.synthesize(new SolverBudget(0, token, null)));
+        Assert.assertTrue(synthesizer.wasStopped());
+    }
+
+    @Test
+    public void testProgramSynthesizer_UnusedProceduresAreEmpty() {
+        // the corridor is solved by the program alone, so none of the procedure candidates is called
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        SolverResult result = new ProgramSynthesizer(level, List.of(List.of(WALK, WALK, WALK, EXIT))).synthesize();
+        Assert.assertNotNull(result);
+        Assert.assertFalse(result.getProgramInstructions().contains(result.getP1()));
+        Assert.assertTrue(result.getP1().getInstructions().isEmpty());
+        Assert.assertTrue(result.getP2().getInstructions().isEmpty());
+    }
+
+    /**
+     * isSolution() tests
+     */
+    @Test
+    public void testIsSolution_Solved() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.GAP, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Assert.assertTrue(LevelSolver.isSolution(level, List.of(WALK, JUMP, EXIT)));
+        // the level itself is not changed
+        Assert.assertEquals(1, level.getCoinAmount());
+    }
+
+    @Test
+    public void testIsSolution_NotSolved() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.GAP, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        Assert.assertFalse(LevelSolver.isSolution(level, List.of()));
+        Assert.assertFalse(LevelSolver.isSolution(level, List.of(WALK, JUMP)));
+        Assert.assertFalse(LevelSolver.isSolution(level, List.of(JUMP, EXIT)));
+        Assert.assertFalse(LevelSolver.isSolution(level, List.of(WALK, JUMP, EXIT, TURN_LEFT)));
+    }
+
+    @Test
+    public void testIsSolution_LevelTooBigForBitBoard() {
+        FieldType[][] corridor = new FieldType[1][70];
+        Arrays.fill(corridor[0], FieldType.NORMAL);
+        corridor[0][0] = FieldType.START;
+        corridor[0][2] = FieldType.DOOR;
+        Level level = new Level(corridor, BotRotation.EAST);
+
+        Assert.assertTrue(LevelSolver.isSolution(level, List.of(WALK, EXIT)));
+        Assert.assertFalse(LevelSolver.isSolution(level, List.of(WALK, EXIT, WALK)));
+        Assert.assertFalse(LevelSolver.isSolution(level, List.of(EXIT)));
+    }
+
     /**
      * floodFill() tests
      */
@@ -305,14 +987,14 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
         int[][] expected = new int[][]{
                 {0, 1, 2, -1},
                 {-1, 2, -1, -1},
                 {4, 3, 4, -1},
                 {-1, -1, -1, -1}
         };
-        Assert.assertArrayEquals(expected, floodFillRep);
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
     }
 
     @Test
@@ -324,14 +1006,14 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
         int[][] expected = new int[][]{
                 {0, 1, -1, -1},
                 {-1, 2, -1, -1},
                 {4, 3, 4, -1},
                 {-1, -1, -1, -1}
         };
-        Assert.assertArrayEquals(expected, floodFillRep);
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
     }
 
     @Test
@@ -342,13 +1024,13 @@ public class LevelSolverTest {
                 {FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR},
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         int[][] expected = new int[][]{
                 {0, 1, -1},
                 {1, 2, -1},
                 {2, 3, 4}
         };
-        Assert.assertArrayEquals(expected, floodFillRep);
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
     }
 
     @Test
@@ -360,14 +1042,14 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         int[][] expected = new int[][]{
                 {0, 1, 2, -1},
                 {-1, 2, -1, 5},
                 {4, 3, 4, 4},
                 {-1, -1, -1, -1}
         };
-        Assert.assertArrayEquals(expected, floodFillRep);
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
     }
 
     @Test
@@ -379,14 +1061,14 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         int[][] expected = new int[][]{
                 {0, 1, 2, -1},
                 {-1, 2, -1, 7},
                 {-1, 3, -1, 6},
                 {-1, 3, 4, 5}
         };
-        Assert.assertArrayEquals(expected, floodFillRep);
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
     }
 
     @Test
@@ -402,7 +1084,7 @@ public class LevelSolverTest {
                 {FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         int[][] expected = new int[][]{
                 {0, 1, -1, 8, 9, 9, 10, 11},
                 {1, 2, -1, 7, 8, 8, 9, 10},
@@ -413,47 +1095,131 @@ public class LevelSolverTest {
                 {6, 7, -1, 8, 9, 10, 10, 11},
                 {7, 7, -1, 9, 10, 11, 11, 12}
         };
-        Assert.assertArrayEquals(expected, floodFillRep);
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
     }
 
     /**
-     * findStartingPosition() tests
+     * FloodFillMap tests
      */
     @Test
-    public void testFindStartingPosition_TopLeft() {
-        int[][] floodFillRep = new int[][]{
-                {0, 1, 2, -1},
-                {-1, 2, -1, 5},
-                {4, 3, 4, 4},
-                {-1, -1, -1, -1}
-        };
+    public void testFloodFillMap_StartIsTheBotPosition() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.WALL, FieldType.START, FieldType.WALL, FieldType.DOOR},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
+        }, BotRotation.EAST);
+
+        FloodFillMap floodFillMap = LevelSolver.floodFill(level, FieldType.DOOR);
 
-        Assert.assertEquals(new Coord(0, 0), LevelSolver.findStartingPosition(floodFillRep));
+        Assert.assertEquals(new Coord(1, 1), floodFillMap.getStart());
+        Assert.assertEquals(new Coord(1, 3), floodFillMap.getEnd());
+        Assert.assertEquals(0, floodFillMap.getSteps(1, 1));
     }
 
     @Test
-    public void testFindStartingPosition_SomewhereInTheMiddle() {
-        int[][] floodFillRep = new int[][]{
-                {2, 1, 2, -1},
-                {-1, 0, -1, 3},
-                {2, 1, 2, 2},
-                {-1, 2, 3, 3}
-        };
+    public void testFloodFillMap_NoFill() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
+        }, BotRotation.EAST);
+        FloodFillMap floodFillMap = new FloodFillMap(new MovementGraph(level));
 
-        Assert.assertEquals(new Coord(1, 1), LevelSolver.findStartingPosition(floodFillRep));
+        Assert.assertNull(floodFillMap.getStart());
+        Assert.assertNull(floodFillMap.getEnd());
+        Assert.assertNull(floodFillMap.findPathEdges());
+        Assert.assertEquals(FloodFillMap.UNREACHED, floodFillMap.getSteps(0, 0));
     }
 
     @Test
-    public void testFindStartingPosition_NoStart() {
-        // if everything went right then there should never be the case of not finding a starting position
-        int[][] floodFillRep = new int[][]{
-                {2, 1, 2, -1},
-                {-1, 1, -1, 3},
-                {2, 1, 2, 2},
-                {-1, 2, 3, 3}
+    public void testFloodFillMap_ReusedMapForgetsThePreviousFill() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.COIN, FieldType.NORMAL, FieldType.COIN, FieldType.DOOR}
+        }, BotRotation.EAST);
+        FloodFillMap floodFillMap = new FloodFillMap(new MovementGraph(level));
+
+        floodFillMap.fill(0, new boolean[]{false, false, false, false, true});
+        floodFillMap.fill(2, new boolean[]{false, true, false, true, false});
+
+        Assert.assertArrayEquals(new int[][]{{-1, 1, 0, 1, -1}}, floodFillMap.toArray());
+    }
+
+    @Test
+    public void testFloodFillMap_PathEdges() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.GAP, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+        MovementGraph graph = new MovementGraph(level);
+        FloodFillMap floodFillMap = new FloodFillMap(graph);
+
+        floodFillMap.fill(0, new boolean[]{false, false, false, false, false, true});
+        int[] path = floodFillMap.findPathEdges();
+
+        Assert.assertEquals(2, path.length);
+        Assert.assertEquals(MovementGraph.JUMP, graph.getEdgeType(path[0]));
+        Assert.assertEquals(BotRotation.EAST.ordinal(), graph.getEdgeDirection(path[0]));
+        Assert.assertEquals(MovementGraph.WALK, graph.getEdgeType(path[1]));
+        Assert.assertEquals(BotRotation.SOUTH.ordinal(), graph.getEdgeDirection(path[1]));
+        Assert.assertEquals(5, graph.getEdgeTarget(path[1]));
+    }
+
+    @Test
+    public void testFloodFill_RectangularLevel() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.DOOR}
+        }, BotRotation.EAST);
+
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        int[][] expected = new int[][]{
+                {0, 1, 2, 3, 4, 5},
+                {-1, -1, -1, -1, -1, 6}
         };
+        Assert.assertArrayEquals(expected, floodFillRep.toArray());
+    }
+
+    /**
+     * MovementGraph tests
+     */
+    @Test
+    public void testMovementGraph_WalkJumpAndDoorEdges() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.WALL, FieldType.NORMAL, FieldType.WALL},
+                {FieldType.DOOR, FieldType.START, FieldType.GAP},
+                {FieldType.WALL, FieldType.GAP, FieldType.WALL},
+                {FieldType.WALL, FieldType.COIN, FieldType.WALL}
+        }, BotRotation.EAST);
+
+        MovementGraph graph = new MovementGraph(level);
+        int start = 4;
+
+        // south (jump over the gap), north (walk), west (walk onto the door), the gap in the east has no landing cell
+        Assert.assertEquals(3, graph.getEdgeEnd(start) - graph.getEdgeStart(start));
+        int edge = graph.getEdgeStart(start);
+        Assert.assertEquals(MovementGraph.JUMP, graph.getEdgeType(edge));
+        Assert.assertEquals(10, graph.getEdgeTarget(edge));
+        Assert.assertEquals(start, graph.getEdgeSource(edge));
+        Assert.assertEquals(MovementGraph.WALK, graph.getEdgeType(edge + 1));
+        Assert.assertEquals(1, graph.getEdgeTarget(edge + 1));
+        Assert.assertEquals(BotRotation.WEST.ordinal(), graph.getEdgeDirection(edge + 2));
+        Assert.assertEquals(3, graph.getEdgeTarget(edge + 2));
+        Assert.assertFalse(graph.isStandable(3));
+    }
+
+    @Test
+    public void testMovementGraph_NoEdgesFromCellsTheBotCanNotStandOn() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.GAP, FieldType.NORMAL},
+                {FieldType.WALL, FieldType.DOOR, FieldType.NORMAL}
+        }, BotRotation.EAST);
 
-        Assert.assertNull(LevelSolver.findStartingPosition(floodFillRep));
+        MovementGraph graph = new MovementGraph(level);
+
+        Assert.assertEquals(6, graph.getNodeCount());
+        for (int cell : new int[]{1, 3, 4}) {
+            Assert.assertEquals(graph.getEdgeStart(cell), graph.getEdgeEnd(cell));
+        }
+        Assert.assertEquals(graph.getEdgeEnd(5), graph.getEdgeCount());
     }
 
     /**
@@ -468,7 +1234,7 @@ public class LevelSolverTest {
                 {FieldType.DOOR, FieldType.WALL, FieldType.WALL}
         }, BotRotation.SOUTH);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
 
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
@@ -483,7 +1249,7 @@ public class LevelSolverTest {
                 {FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
         }, BotRotation.SOUTH);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
         Assert.assertEquals(List.of(WALK, WALK, TURN_LEFT, WALK, WALK, TURN_LEFT, WALK, EXIT), result);
@@ -498,7 +1264,7 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
 
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
@@ -516,7 +1282,7 @@ public class LevelSolverTest {
                 {FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
         Assert.assertNull(result);
@@ -531,7 +1297,7 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.SOUTH);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
 
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
@@ -550,7 +1316,7 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.WEST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
 
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
@@ -569,7 +1335,7 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.NORTH);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
 
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, false);
 
@@ -587,7 +1353,7 @@ public class LevelSolverTest {
                 {FieldType.COIN, FieldType.WALL, FieldType.WALL}
         }, BotRotation.SOUTH);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, true);
 
         Assert.assertEquals(List.of(JUMP), result);
@@ -601,7 +1367,7 @@ public class LevelSolverTest {
                 {FieldType.NORMAL, FieldType.START, FieldType.DOOR}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, true);
 
         Assert.assertEquals(List.of(TURN_LEFT, JUMP), result);
@@ -615,7 +1381,7 @@ public class LevelSolverTest {
                 {FieldType.WALL, FieldType.WALL, FieldType.WALL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.COIN);
         List<Instruction> result = LevelSolver.createInstructions(level, floodFillRep, true);
 
         Assert.assertNull(result);
@@ -634,7 +1400,7 @@ public class LevelSolverTest {
                 {FieldType.NORMAL, FieldType.NORMAL, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL, FieldType.NORMAL}
         }, BotRotation.EAST);
 
-        int[][] floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
+        FloodFillMap floodFillRep = LevelSolver.floodFill(level, FieldType.DOOR);
         List<Instruction> expected = List.of(
                 TURN_RIGHT, WALK, WALK, WALK, TURN_LEFT, WALK, JUMP, TURN_RIGHT, WALK, TURN_LEFT, WALK, JUMP, EXIT
         );
@@ -845,6 +1611,30 @@ public class LevelSolverTest {
         Assert.assertEquals(Integer.valueOf(1), occurrences.get(List.of(WALK, TURN_RIGHT, WALK)));
     }
 
+    @Test
+    public void testFindOccurrencesOfPermutations_OnlyNonOverlappingOccurrences() {
+        List<Instruction> instructions = List.of(WALK, WALK, WALK, WALK, WALK);
+
+        Map<List<Instruction>, Integer> occurrences = LevelSolver.findOccurrencesOfPermutations(instructions);
+
+        Assert.assertEquals(Integer.valueOf(2), occurrences.get(List.of(WALK, WALK)));
+        Assert.assertEquals(Integer.valueOf(1), occurrences.get(List.of(WALK, WALK, WALK)));
+        Assert.assertEquals(Integer.valueOf(1), occurrences.get(List.of(WALK, WALK, WALK, WALK, WALK)));
+        Assert.assertEquals(4, occurrences.size());
+    }
+
+    @Test
+    public void testFindOccurrencesOfPermutations_NoOccurrenceAcrossAnotherOccurrence() {
+        // JUMP, WALK only occurs once, the second one would only exist after removing the WALK, JUMP in between
+        List<Instruction> instructions = List.of(JUMP, WALK, WALK, JUMP, JUMP, WALK);
+
+        Map<List<Instruction>, Integer> occurrences = LevelSolver.findOccurrencesOfPermutations(instructions);
+
+        Assert.assertEquals(Integer.valueOf(1), occurrences.get(List.of(WALK, JUMP)));
+        Assert.assertEquals(Integer.valueOf(2), occurrences.get(List.of(JUMP, WALK)));
+        Assert.assertEquals(Integer.valueOf(1), occurrences.get(List.of(JUMP, WALK, WALK, JUMP, JUMP, WALK)));
+    }
+
     /**
      * getPermutations() tests
      */
@@ -900,33 +1690,84 @@ public class LevelSolverTest {
         Assert.assertTrue(permutations.contains(List.of(WALK, TURN_RIGHT, JUMP, WALK)));
     }
 
-    /**
-     * buildSlidingWindows() tests
-     */
     @Test
-    public void testBuildSlidingWindows_SizeOne() {
+    public void testGetPermutations_NoDuplicates() {
         List<Instruction> instructions = List.of(
-                WALK, TURN_RIGHT, WALK, JUMP
+                WALK, TURN_RIGHT, WALK, TURN_RIGHT, WALK
         );
-        List<List<Instruction>> slidingWindows = LevelSolver.buildSlidingWindows(instructions, 1);
+        List<List<Instruction>> permutations = LevelSolver.getPermutations(instructions);
 
-        Assert.assertEquals(4, slidingWindows.size());
-        Assert.assertTrue(slidingWindows.contains(List.of(WALK)));
-        Assert.assertTrue(slidingWindows.contains(List.of(TURN_RIGHT)));
-        Assert.assertTrue(slidingWindows.contains(List.of(WALK)));
-        Assert.assertTrue(slidingWindows.contains(List.of(JUMP)));
+        // ordered by size and then by their first occurrence
+        Assert.assertEquals(List.of(
+                List.of(WALK, TURN_RIGHT), List.of(TURN_RIGHT, WALK),
+                List.of(WALK, TURN_RIGHT, WALK), List.of(TURN_RIGHT, WALK, TURN_RIGHT),
+                List.of(WALK, TURN_RIGHT, WALK, TURN_RIGHT), List.of(TURN_RIGHT, WALK, TURN_RIGHT, WALK),
+                List.of(WALK, TURN_RIGHT, WALK, TURN_RIGHT, WALK)
+        ), permutations);
     }
 
-    @Test
-    public void testBuildSlidingWindows_SizeTwo() {
-        List<Instruction> instructions = List.of(
-                WALK, TURN_RIGHT, WALK, JUMP
-        );
-        List<List<Instruction>> slidingWindows = LevelSolver.buildSlidingWindows(instructions, 2);
-
-        Assert.assertEquals(3, slidingWindows.size());
-        Assert.assertTrue(slidingWindows.contains(List.of(WALK, TURN_RIGHT)));
-        Assert.assertTrue(slidingWindows.contains(List.of(TURN_RIGHT, WALK)));
-        Assert.assertTrue(slidingWindows.contains(List.of(WALK, JUMP)));
+    /**
+     * Creates a maze using a randomized depth-first search. Every cell with odd coordinates is a room, the rooms are
+     * connected by normal fields or gaps. The bot starts in the top left room and the door is on the right of the
+     * bottom right room.
+     *
+     * @param rows  amount of rows of the level
+     * @param cols  amount of columns of the level
+     * @param coins amount of coins placed into random rooms
+     * @param seed  seed of the random generator
+     * @return maze level
+     */
+    private static Level createMaze(int rows, int cols, int coins, long seed) {
+        Random random = new Random(seed);
+        FieldType[][] gameField = new FieldType[rows][cols];
+        for (FieldType[] row : gameField) {
+            Arrays.fill(row, FieldType.WALL);
+        }
+
+        int roomRows = (rows - 1) / 2;
+        int roomCols = (cols - 1) / 2;
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        boolean[] visited = new boolean[roomRows * roomCols];
+        int[] stack = new int[roomRows * roomCols];
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        gameField[1][1] = FieldType.NORMAL;
+
+        while (top > 0) {
+            int room = stack[top - 1];
+            int next = -1;
+            int[] direction = null;
+            int first = random.nextInt(directions.length);
+            for (int i = 0; next == -1 && i < directions.length; i++) {
+                direction = directions[(first + i) % directions.length];
+                int row = room / roomCols + direction[0];
+                int col = room % roomCols + direction[1];
+                if (row >= 0 && row < roomRows && col >= 0 && col < roomCols && !visited[row * roomCols + col]) {
+                    next = row * roomCols + col;
+                }
+            }
+
+            if (next == -1) {
+                top--;
+            } else {
+                visited[next] = true;
+                gameField[2 * (room / roomCols) + 1 + direction[0]][2 * (room % roomCols) + 1 + direction[1]] = random.nextInt(10) == 0 ? FieldType.GAP : FieldType.NORMAL;
+                gameField[2 * (next / roomCols) + 1][2 * (next % roomCols) + 1] = FieldType.NORMAL;
+                stack[top++] = next;
+            }
+        }
+
+        gameField[1][1] = FieldType.START;
+        gameField[2 * roomRows - 1][2 * roomCols] = FieldType.DOOR;
+        for (int placed = 0; placed < coins; ) {
+            int row = 2 * random.nextInt(roomRows) + 1;
+            int col = 2 * random.nextInt(roomCols) + 1;
+            if (gameField[row][col] == FieldType.NORMAL) {
+                gameField[row][col] = FieldType.COIN;
+                placed++;
+            }
+        }
+        return new Level(gameField, BotRotation.EAST);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,319 @@
+package logic.solver;
+
+import logic.instructions.Exit;
+import logic.instructions.Instruction;
+import logic.instructions.TurnLeft;
+import logic.instructions.TurnRight;
+import logic.level.BotRotation;
+import logic.level.FieldType;
+import logic.level.Level;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for the SolutionStore and LevelSymmetry classes
+ *
+ * @author Timo Peters
+ */
+public class SolutionStoreTest {
+
+    /**
+     * Creates a level without symmetries, whose solution needs left and right turns.
+     */
+    private static Level createLevel() {
+        return new Level(new FieldType[][]{
+                {FieldType.WALL, FieldType.COIN, FieldType.WALL, FieldType.WALL},
+                {FieldType.START, FieldType.NORMAL, FieldType.NORMAL, FieldType.DOOR},
+                {FieldType.NORMAL, FieldType.NORMAL, FieldType.GAP, FieldType.NORMAL},
+                {FieldType.COIN, FieldType.WALL, FieldType.NORMAL, FieldType.NORMAL}
+        }, BotRotation.EAST);
+    }
+
+    private static Path createStoreFile() throws IOException {
+        Path file = Files.createTempFile("solutions", ".bin");
+        Files.delete(file);
+        return file;
+    }
+
+    private static int countTurns(List<Instruction> instructions, Class<?> turn) {
+        int turns = 0;
+        for (Instruction instruction : instructions) {
+            turns += turn.isInstance(instruction) ? 1 : 0;
+        }
+        return turns;
+    }
+
+    /**
+     * LevelSymmetry tests
+     */
+    @Test
+    public void testTransform_FourTurnsAreIdentity() {
+        Level level = createLevel();
+        Level turned = level;
+        for (int i = 0; i < 4; i++) {
+            turned = LevelSymmetry.transform(turned, 1);
+        }
+
+        Assert.assertEquals(level, turned);
+        Assert.assertEquals(level, LevelSymmetry.transform(LevelSymmetry.transform(level, 4), 4));
+    }
+
+    @Test
+    public void testTransform_TurnsClockwise() {
+        Level level = new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.NORTH);
+
+        Level turned = LevelSymmetry.transform(level, 1);
+
+        Assert.assertEquals(3, turned.getRows());
+        Assert.assertEquals(1, turned.getCols());
+        Assert.assertEquals(FieldType.START, turned.getGameFieldCell(0, 0));
+        Assert.assertEquals(FieldType.DOOR, turned.getGameFieldCell(2, 0));
+        Assert.assertEquals(BotRotation.EAST, turned.getBotRotation());
+        Assert.assertEquals(BotRotation.WEST, LevelSymmetry.transform(turned, 4).getBotRotation());
+    }
+
+    @Test
+    public void testFindCanonicalTransform_SameForAllCopies() {
+        Level level = createLevel();
+        Level canonical = LevelSymmetry.transform(level, LevelSymmetry.findCanonicalTransform(level));
+
+        for (int transform = 0; transform < LevelSymmetry.TRANSFORMS; transform++) {
+            Level copy = LevelSymmetry.transform(level, transform);
+            Assert.assertEquals(canonical, LevelSymmetry.transform(copy, LevelSymmetry.findCanonicalTransform(copy)));
+        }
+    }
+
+    @Test
+    public void testMirror_SwapsTurns() {
+        List<Instruction> mirrored = LevelSymmetry.mirror(List.of(TurnLeft.getSingleton(), TurnLeft.getSingleton(), TurnRight.getSingleton()));
+
+        Assert.assertEquals(1, countTurns(mirrored, TurnLeft.class));
+        Assert.assertEquals(2, countTurns(mirrored, TurnRight.class));
+    }
+
+    /**
+     * get() and put() tests
+     */
+    @Test
+    public void testGet_SolvesEveryCopyAfterReopening() throws Exception {
+        Path file = createStoreFile();
+        try {
+            Level level = createLevel();
+            SolverResult result = LevelSolver.solve(level.getLevelCopy(), SolverMode.A_STAR);
+            Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+            Assert.assertTrue(countTurns(result.getP1().getInstructions(), TurnLeft.class) > 0);
+
+            try (SolutionStore store = SolutionStore.open(file)) {
+                store.put(level, SolverMode.A_STAR, result);
+                Assert.assertEquals(1, store.size());
+            }
+
+            try (SolutionStore store = SolutionStore.open(file)) {
+                Assert.assertEquals(1, store.size());
+                for (int transform = 0; transform < LevelSymmetry.TRANSFORMS; transform++) {
+                    Level copy = LevelSymmetry.transform(level, transform);
+                    SolverResult stored = store.get(copy, SolverMode.A_STAR);
+
+                    Assert.assertNotNull(stored);
+                    Assert.assertEquals(SolveStatus.SOLVABLE, stored.getSolveStatus());
+                    Assert.assertEquals(result.getQuality(), stored.getQuality());
+                    Assert.assertTrue(LevelSolver.isSolution(copy, stored.getProgramInstructions()));
+                }
+                Assert.assertEquals(8, store.getHits());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testGet_OtherModeOrLevel() throws Exception {
+        Path file = createStoreFile();
+        try (SolutionStore store = SolutionStore.open(file)) {
+            Level level = createLevel();
+            store.put(level, SolverMode.A_STAR, LevelSolver.solve(level.getLevelCopy(), SolverMode.A_STAR));
+
+            Level other = createLevel();
+            other.setBotRotation(BotRotation.SOUTH);
+
+            Assert.assertNull(store.get(level, SolverMode.FLOOD_FILL));
+            Assert.assertNull(store.get(other, SolverMode.A_STAR));
+            Assert.assertEquals(2, store.getMisses());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testPut_IgnoresUnsolvableAndDuplicates() throws Exception {
+        Path file = createStoreFile();
+        try (SolutionStore store = SolutionStore.open(file)) {
+            Level level = createLevel();
+            SolverResult result = LevelSolver.solve(level.getLevelCopy(), SolverMode.COIN_TOUR);
+
+            store.put(level, SolverMode.COIN_TOUR, new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR));
+            Assert.assertEquals(0, store.size());
+
+            store.put(level, SolverMode.COIN_TOUR, result);
+            store.put(LevelSymmetry.transform(level, 6), SolverMode.COIN_TOUR, result);
+            Assert.assertEquals(1, store.size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testPut_GrowsTheMapping() throws Exception {
+        Path file = createStoreFile();
+        // the store does not check the instructions, so a single exit is enough to fill it with big levels
+        SolverResult result = new SolverResult(List.of(Exit.getSingleton()), null, null, SolveStatus.SOLVABLE);
+        try {
+            try (SolutionStore store = SolutionStore.open(file)) {
+                // every level gets a coin on another cell of the top left quarter, so that none is a copy of another
+                for (int row = 0; row < 15; row++) {
+                    for (int col = 0; col < 15; col++) {
+                        FieldType[][] field = new FieldType[30][30];
+                        for (FieldType[] fieldRow : field) {
+                            Arrays.fill(fieldRow, FieldType.NORMAL);
+                        }
+                        field[29][0] = FieldType.START;
+                        field[29][29] = FieldType.DOOR;
+                        field[row][col] = FieldType.COIN;
+                        store.put(new Level(field, BotRotation.NORTH), SolverMode.FLOOD_FILL, result);
+                    }
+                }
+                Assert.assertTrue(Files.size(file) > 1 << 16);
+            }
+            try (SolutionStore store = SolutionStore.open(file)) {
+                Assert.assertEquals(225, store.size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_NoStore() throws Exception {
+        Path file = Files.createTempFile("solutions", ".bin");
+        try {
+            Files.write(file, new byte[64]);
+            SolutionStore.open(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOpen_SkipsDamagedRecord() throws Exception {
+        Path file = createStoreFile();
+        SolverResult result = new SolverResult(List.of(Exit.getSingleton()), null, null, SolveStatus.SOLVABLE);
+        Level level = createLevel();
+        Level other = createLevel();
+        other.setBotRotation(BotRotation.SOUTH);
+        try {
+            try (SolutionStore store = SolutionStore.open(file)) {
+                store.put(level, SolverMode.COIN_TOUR, result);
+                store.put(other, SolverMode.COIN_TOUR, result);
+            }
+            // the mode of the first record, which follows the header of 12 bytes, gets an unknown ordinal
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{99}), 12 + 12);
+            }
+
+            try (SolutionStore store = SolutionStore.open(file)) {
+                Assert.assertEquals(1, store.size());
+                Assert.assertNull(store.get(level, SolverMode.COIN_TOUR));
+                Assert.assertNotNull(store.get(other, SolverMode.COIN_TOUR));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOpen_LockedFileIsReadOnly() throws Exception {
+        Path file = createStoreFile();
+        SolverResult result = new SolverResult(List.of(Exit.getSingleton()), null, null, SolveStatus.SOLVABLE);
+        Level level = createLevel();
+        Level other = createLevel();
+        other.setBotRotation(BotRotation.SOUTH);
+        try (SolutionStore store = SolutionStore.open(file)) {
+            store.put(level, SolverMode.COIN_TOUR, result);
+            Assert.assertFalse(store.isReadOnly());
+
+            try (SolutionStore second = SolutionStore.open(file)) {
+                Assert.assertTrue(second.isReadOnly());
+                Assert.assertNotNull(second.get(level, SolverMode.COIN_TOUR));
+
+                second.put(other, SolverMode.COIN_TOUR, result);
+                Assert.assertEquals(1, second.size());
+            }
+
+            // the first store still writes after the read-only store is closed
+            store.put(other, SolverMode.COIN_TOUR, result);
+            Assert.assertEquals(2, store.size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * LevelSolver tests
+     */
+    @Test
+    public void testLevelSolver_UsesStoreForMirroredCopy() throws Exception {
+        Path file = createStoreFile();
+        try {
+            LevelSolver.openSolutionStore(file);
+            SolutionStore store = LevelSolver.getSolutionStore();
+            LevelSolver.getCache().clear();
+
+            Level level = createLevel();
+            LevelSolver.solve(level, SolverMode.STATE_SPACE_SEARCH);
+            Assert.assertEquals(1, store.size());
+
+            Level mirrored = LevelSymmetry.transform(level, 5);
+            SolverResult result = LevelSolver.solve(mirrored, SolverMode.STATE_SPACE_SEARCH);
+
+            Assert.assertEquals(1, store.getHits());
+            Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+            Assert.assertTrue(LevelSolver.isSolution(mirrored, result.getProgramInstructions()));
+        } finally {
+            LevelSolver.closeSolutionStore();
+            LevelSolver.getCache().clear();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLevelSolver_SolvesWithClosedStore() throws Exception {
+        Path file = createStoreFile();
+        try {
+            // the store is closed while the solver still holds it, like for a solve running while the store is closed
+            LevelSolver.openSolutionStore(file);
+            LevelSolver.getSolutionStore().close();
+            LevelSolver.getCache().clear();
+
+            Level level = createLevel();
+            SolverResult result = LevelSolver.solve(level, SolverMode.COIN_TOUR);
+
+            Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+            Assert.assertTrue(LevelSolver.isSolution(level, result.getProgramInstructions()));
+        } finally {
+            LevelSolver.closeSolutionStore();
+            LevelSolver.getCache().clear();
+            Files.deleteIfExists(file);
+        }
+    }
+}
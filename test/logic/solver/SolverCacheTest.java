@@ -0,0 +1,137 @@
+package logic.solver;
+
+import logic.instructions.ProcedureOne;
+import logic.instructions.ProcedureTwo;
+import logic.instructions.Walk;
+import logic.level.BotRotation;
+import logic.level.Coord;
+import logic.level.FieldType;
+import logic.level.Level;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the SolverCache class
+ *
+ * @author Timo Peters
+ */
+public class SolverCacheTest {
+
+    private Level createLevel() {
+        return new Level(new FieldType[][]{
+                {FieldType.START, FieldType.NORMAL, FieldType.COIN, FieldType.NORMAL, FieldType.DOOR}
+        }, BotRotation.EAST);
+    }
+
+    /**
+     * get() and put() tests
+     */
+    @Test
+    public void testGet_CountHitsAndMisses() {
+        SolverCache cache = new SolverCache(4);
+        Level level = createLevel();
+        SolverResult result = new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+
+        Assert.assertNull(cache.get(level, SolverMode.FLOOD_FILL));
+        cache.put(level, SolverMode.FLOOD_FILL, result);
+        Assert.assertSame(result, cache.get(level, SolverMode.FLOOD_FILL));
+        Assert.assertSame(result, cache.get(level.getLevelCopy(), SolverMode.FLOOD_FILL));
+
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testGet_DifferentModeOrChangedLevel() {
+        SolverCache cache = new SolverCache(4);
+        Level level = createLevel();
+        cache.put(level, SolverMode.FLOOD_FILL, new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR));
+
+        Assert.assertNull(cache.get(level, SolverMode.COIN_TOUR));
+
+        level.setGameFieldCell(FieldType.WALL, new Coord(0, 1));
+        Assert.assertNull(cache.get(level, SolverMode.FLOOD_FILL));
+    }
+
+    @Test
+    public void testGet_SameHashOtherLevel() {
+        SolverCache cache = new SolverCache(4);
+        Level level = createLevel();
+        Level other = createLevel();
+        other.setGameFieldCell(FieldType.WALL, new Coord(0, 1));
+        SolverResult result = new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+
+        // both levels are given the same hash, like for a collision of their zobrist hashes
+        cache.put(42L, level, SolverMode.FLOOD_FILL, result);
+        Assert.assertNull(cache.get(42L, other, SolverMode.FLOOD_FILL));
+        Assert.assertSame(result, cache.get(42L, level.getLevelCopy(), SolverMode.FLOOD_FILL));
+
+        // the cached copy is not changed together with the level
+        level.setGameFieldCell(FieldType.WALL, new Coord(0, 1));
+        Assert.assertNull(cache.get(42L, level, SolverMode.FLOOD_FILL));
+    }
+
+    @Test
+    public void testPut_RemoveLeastRecentlyUsed() {
+        SolverCache cache = new SolverCache(2);
+        Level level1 = createLevel();
+        Level level2 = createLevel();
+        level2.setBotRotation(BotRotation.SOUTH);
+        Level level3 = createLevel();
+        level3.setBotRotation(BotRotation.WEST);
+        SolverResult result = new SolverResult(null, null, null, SolveStatus.UNSOLVABLE_CAN_NOT_REACH_DOOR);
+
+        cache.put(level1, SolverMode.FLOOD_FILL, result);
+        cache.put(level2, SolverMode.FLOOD_FILL, result);
+        // using level1 makes level2 the least recently used result
+        cache.get(level1, SolverMode.FLOOD_FILL);
+        cache.put(level3, SolverMode.FLOOD_FILL, result);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.get(level1, SolverMode.FLOOD_FILL));
+        Assert.assertNull(cache.get(level2, SolverMode.FLOOD_FILL));
+        Assert.assertNotNull(cache.get(level3, SolverMode.FLOOD_FILL));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidCapacity() {
+        new SolverCache(0);
+    }
+
+    /**
+     * LevelSolver.solve() tests using the cache
+     */
+    @Test
+    public void testSolve_ReturnCachedResult() {
+        Level level = createLevel();
+        long hits = LevelSolver.getCache().getHits();
+
+        SolverResult result = LevelSolver.solve(level, SolverMode.COIN_TOUR);
+        Assert.assertSame(result, LevelSolver.solve(level.getLevelCopy(), SolverMode.COIN_TOUR));
+        Assert.assertTrue(LevelSolver.getCache().getHits() > hits);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSolve_CachedResultCanNotBeChanged() {
+        SolverResult result = LevelSolver.solve(createLevel(), SolverMode.COIN_TOUR);
+        Assert.assertEquals(SolveStatus.SOLVABLE, result.getSolveStatus());
+
+        result.getP1().addInstruction(Walk.getSingleton());
+    }
+
+    @Test
+    public void testSolverResult_ProcedureReferencesPointToOwnProcedures() {
+        ProcedureOne p1 = new ProcedureOne(new ArrayList<>(List.of(Walk.getSingleton())));
+        ProcedureTwo p2 = new ProcedureTwo(new ArrayList<>(List.of(p1, p1)));
+        SolverResult result = new SolverResult(List.of(p2, p1), p1, p2, SolveStatus.SOLVABLE);
+
+        // changing the given procedures does not change the result
+        p1.addInstruction(Walk.getSingleton());
+        Assert.assertEquals(List.of(Walk.getSingleton()), result.getP1().getInstructions());
+        Assert.assertSame(result.getP2(), result.getProgramInstructions().get(0));
+        Assert.assertSame(result.getP1(), result.getP2().getInstructions().get(0));
+    }
+}